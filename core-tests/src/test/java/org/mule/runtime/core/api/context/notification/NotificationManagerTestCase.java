@@ -167,6 +167,19 @@ public class NotificationManagerTestCase extends AbstractMuleTestCase {
     assertTrue(listener2.isNotified());
   }
 
+  @Test
+  public void testRoutesUpdatedOnConfigurationChange() throws ClassNotFoundException {
+    registerDefaultEvents();
+    manager.addListener(listener2);
+    manager.notifyListeners(new SubSubEvent1("id1"), (listener, nfn) -> listener.onNotification(nfn));
+    assertNoListenersNotified();
+
+    manager.addListenerSubscription(listener1, notification -> "id1".equals(notification.getResourceIdentifier()));
+    manager.notifyListeners(new SubSubEvent1("id1"), (listener, nfn) -> listener.onNotification(nfn));
+    assertTrue(listener1.isNotified());
+    assertFalse(listener2.isNotified());
+  }
+
   protected void assertNoListenersNotified() {
     assertFalse(listener1.isNotified());
     assertFalse(listener2.isNotified());
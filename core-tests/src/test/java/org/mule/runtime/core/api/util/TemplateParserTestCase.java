@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.api.util;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
@@ -282,6 +284,34 @@ public class TemplateParserTestCase extends AbstractMuleTestCase {
     assertTrue(tp.isValid("#[mel:foo:blah = '#[mel:foo]']"));
   }
 
+  @Test
+  public void compiledTemplateIsReused() {
+    TemplateParser tp = TemplateParser.createMuleStyleParser();
+    String template = "Hello #[mel:name], #[mel:greeting]!";
+
+    TemplateParser.CompiledTemplate compiled = tp.compile(template);
+    assertSame(compiled, tp.compile(template));
+    assertEquals(asList("mel:name", "mel:greeting"), compiled.getTokens());
+
+    StringBuilder result = new StringBuilder();
+    compiled.render(result, token -> token.substring("mel:".length()));
+    assertEquals("Hello name, greeting!", result.toString());
+    result.setLength(0);
+    compiled.render(result, token -> token.length());
+    assertEquals("Hello 8, 12!", result.toString());
+  }
+
+  @Test
+  public void antParserShouldNotReplaceTokensInValues() {
+    TemplateParser tp = TemplateParser.createAntStyleParser();
+
+    Map<String, Object> map = buildMap();
+    map.put("prop1", "${prop2} $1");
+
+    String result = tp.parse(map, "${prop1} and ${prop2}");
+    assertEquals("${prop2} $1 and value2", result);
+  }
+
   private Map<String, Object> buildMap() {
     Map<String, Object> props = new HashMap<String, Object>();
     props.put("prop1", "value1");
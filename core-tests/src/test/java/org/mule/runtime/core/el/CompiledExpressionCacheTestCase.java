@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.el.CompiledExpressionCache.MAX_EXPRESSIONS;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class CompiledExpressionCacheTestCase extends AbstractMuleTestCase {
+
+  private final AtomicInteger compilations = new AtomicInteger();
+  private final CompiledExpressionCache<String> cache = new CompiledExpressionCache<>(expression -> {
+    compilations.incrementAndGet();
+    return expression.trim();
+  });
+
+  @Test
+  public void compilesOnce() {
+    assertThat(cache.get(" payload "), is("payload"));
+    assertThat(cache.get(" payload "), is("payload"));
+    assertThat(cache.get(" payload "), is("payload"));
+
+    assertThat(compilations.get(), is(1));
+    assertThat(cache.getMisses(), is(1L));
+    assertThat(cache.getHits(), is(2L));
+    assertThat(cache.getHitRate(), is(2.0 / 3));
+  }
+
+  @Test
+  public void bounded() {
+    for (int i = 0; i < MAX_EXPRESSIONS * 2; ++i) {
+      cache.get("vars.var" + i);
+    }
+
+    assertThat(cache.size(), lessThanOrEqualTo(MAX_EXPRESSIONS));
+    assertThat(cache.get("vars.var" + (MAX_EXPRESSIONS * 2 - 1)), is("vars.var" + (MAX_EXPRESSIONS * 2 - 1)));
+    assertThat(compilations.get(), is(MAX_EXPRESSIONS * 2));
+  }
+}
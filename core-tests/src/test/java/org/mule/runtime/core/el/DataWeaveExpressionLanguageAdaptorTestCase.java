@@ -400,6 +400,32 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     verify(expressionLanguage, never()).evaluate(eq("payload"), any(BindingContext.class));
   }
 
+  @Test
+  public void variableExpressionShouldNotBeEvaluated() throws MuleException {
+    BindingContext bindingContext = BindingContext.builder().build();
+    MuleContext muleContext = mock(MuleContext.class);
+    DefaultExpressionLanguageFactoryService languageFactory = mock(DefaultExpressionLanguageFactoryService.class);
+    ExpressionLanguage expressionLanguage = spy(ExpressionLanguage.class);
+    when(languageFactory.create()).thenReturn(expressionLanguage);
+    InternalEvent event = InternalEvent.builder(testEvent()).addVariable("myVar", "value").build();
+    TypedValue result =
+        new DataWeaveExpressionLanguageAdaptor(muleContext, languageFactory).evaluate("#[vars.myVar]", event, bindingContext);
+    assertThat(result.getValue(), is("value"));
+    verify(expressionLanguage, never()).evaluate(eq("vars.myVar"), any(BindingContext.class));
+  }
+
+  @Test
+  public void expressionCompiledOnce() throws Exception {
+    CompiledExpressionCache<?> compiledExpressions = expressionLanguage.getCompiledExpressions();
+    long misses = compiledExpressions.getMisses();
+    long hits = compiledExpressions.getHits();
+    for (int i = 0; i < 3; ++i) {
+      expressionLanguage.evaluate("#[\"hey\" ++ \"you\"]", testEvent(), BindingContext.builder().build());
+    }
+    assertThat(compiledExpressions.getMisses(), is(misses + 1));
+    assertThat(compiledExpressions.getHits(), is(hits + 2));
+  }
+
   private InternalEvent getEventWithError(Optional<Error> error) {
     InternalEvent event = mock(InternalEvent.class, RETURNS_DEEP_STUBS);
     doReturn(error).when(event).getError();
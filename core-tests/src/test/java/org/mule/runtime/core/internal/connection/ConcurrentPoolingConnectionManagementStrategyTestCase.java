@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_CONNECTION_POOL_CONCURRENT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ConcurrentPoolingConnectionManagementStrategyTestCase extends PoolingConnectionManagementStrategyTestCase {
+
+  @Rule
+  public SystemProperty concurrentPool = new SystemProperty(MULE_CONNECTION_POOL_CONCURRENT, "true");
+
+  @Test
+  public void waitAccounted() throws Exception {
+    PoolingConnectionManagementStrategy<Object> strategy =
+        new PoolingConnectionManagementStrategy<>(connectionProvider,
+                                                  new PoolingProfile(1, 1, 10, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE),
+                                                  poolingListener, muleContext);
+    try {
+      strategy.getConnectionHandler();
+      try {
+        strategy.getConnectionHandler();
+        fail("Was expecting the pool to be exhausted");
+      } catch (ConnectionException e) {
+        assertThat(strategy.getStatistics().getWaits(), is(1L));
+        assertThat(strategy.getStatistics().getTimeouts(), is(1L));
+      }
+    } finally {
+      strategy.close();
+    }
+  }
+
+  @Test
+  public void evictionSchedulerStoppedOnClose() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(1, 1, 10, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(1);
+    poolingProfile.setEvictionCheckIntervalMillis(10);
+    final int schedulers = muleContext.getSchedulerService().getSchedulers().size();
+    PoolingConnectionManagementStrategy<Object> strategy =
+        new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext);
+    try {
+      assertThat(muleContext.getSchedulerService().getSchedulers().size(), is(schedulers + 1));
+
+      ConnectionHandler<Object> handler = strategy.getConnectionHandler();
+      Object connection = handler.getConnection();
+      handler.release();
+      new PollingProber(RECEIVE_TIMEOUT, 10).check(new JUnitLambdaProbe(() -> {
+        verify(connectionProvider).disconnect(connection);
+        return true;
+      }));
+    } finally {
+      strategy.close();
+    }
+
+    assertThat(muleContext.getSchedulerService().getSchedulers().size(), is(schedulers));
+  }
+}
@@ -48,12 +48,12 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
 
   private static final int MAX_ACTIVE = 2;
 
-  private ConnectionProvider<Object> connectionProvider;
+  protected ConnectionProvider<Object> connectionProvider;
 
   private PoolingProfile poolingProfile =
       new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
   private PoolingConnectionManagementStrategy<Object> strategy;
-  private PoolingListener<Object> poolingListener;
+  protected PoolingListener<Object> poolingListener;
   private Injector injector;
 
   private ConnectionHandler<Object> connection1;
@@ -132,6 +132,35 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     verify(connectionProvider, times(2)).disconnect(any(Object.class));
   }
 
+  @Test
+  public void statistics() throws Exception {
+    ConnectionPoolStatistics statistics = strategy.getStatistics();
+    assertThat(statistics.getBorrows(), is(2L));
+    assertThat(statistics.getCreations(), is(2L));
+    assertThat(statistics.getValidations(), is(2L));
+    assertThat(statistics.getActive(), is(2));
+    assertThat(statistics.getIdle(), is(0));
+    assertThat(Arrays.stream(statistics.getBorrowLatencyHistogram()).sum(), is(2L));
+
+    connection1.release();
+    assertThat(statistics.getActive(), is(1));
+    assertThat(statistics.getIdle(), is(1));
+  }
+
+  @Test
+  public void timeoutAccounted() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    initStrategy();
+
+    strategy.getConnectionHandler();
+    try {
+      strategy.getConnectionHandler();
+      fail("Was expecting the pool to be exhausted");
+    } catch (ConnectionException e) {
+      assertThat(strategy.getStatistics().getTimeouts(), is(1L));
+    }
+  }
+
   @Test(expected = ConnectionException.class)
   public void failDueToInvalidConnection() throws ConnectionException {
     when(connectionProvider.validate(anyVararg())).thenReturn(ConnectionValidationResult
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ObjectStreamClass;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class DefaultProcessorsTraceTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void serializedFormKeepsListField() {
+    assertThat(ObjectStreamClass.lookup(DefaultProcessorsTrace.class).getField("executedProcessors").getType(),
+               equalTo(List.class));
+  }
+
+  @Test
+  public void serialize() {
+    DefaultProcessorsTrace trace = new DefaultProcessorsTrace();
+    trace.addExecutedProcessors("flow/processors/0");
+    trace.addExecutedProcessors("flow/processors/1");
+
+    DefaultProcessorsTrace deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(trace));
+    deserialized.addExecutedProcessors("flow/processors/2");
+
+    assertThat(deserialized.getExecutedProcessors(), contains("flow/processors/0", "flow/processors/1", "flow/processors/2"));
+  }
+}
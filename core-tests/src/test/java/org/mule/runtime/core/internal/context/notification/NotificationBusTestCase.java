@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.DROP_OLDEST;
+import static org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy.SAMPLE;
+import org.mule.runtime.core.api.context.notification.Notification;
+import org.mule.runtime.core.api.context.notification.NotificationListener;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class NotificationBusTestCase extends AbstractMuleTestCase {
+
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final List<Notification> received = new ArrayList<>();
+  private final NotificationListener<Notification> listener = received::add;
+  private ExecutorService executor;
+
+  @After
+  public void after() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void ringBufferIsBounded() {
+    NotificationRingBuffer<Integer> ring = new NotificationRingBuffer<>(3);
+    assertThat(ring.capacity(), is(4));
+    for (int i = 0; i < 4; ++i) {
+      assertThat(ring.offer(i), is(true));
+    }
+    assertThat(ring.offer(4), is(false));
+    assertThat(ring.size(), is(4));
+
+    assertThat(ring.poll(), is(0));
+    assertThat(ring.offer(4), is(true));
+    for (int i = 1; i < 5; ++i) {
+      assertThat(ring.poll(), is(i));
+    }
+    assertThat(ring.poll(), is((Integer) null));
+  }
+
+  @Test
+  public void oneTaskPerBurst() {
+    NotificationBus bus = new NotificationBus(tasks::add, 16, DROP_OLDEST);
+    Notification first = mock(Notification.class);
+    Notification second = mock(Notification.class);
+
+    bus.publish(listener, first);
+    bus.publish(listener, second);
+    assertThat(tasks.size(), is(1));
+
+    tasks.get(0).run();
+    assertThat(received, contains(first, second));
+
+    NotificationListenerStatistics statistics = bus.getStatistics().get(listener);
+    assertThat(statistics.getPublished(), is(2L));
+    assertThat(statistics.getDelivered(), is(2L));
+    assertThat(statistics.getLag(), is(0L));
+    assertThat(statistics.getMaxLag(), is(1L));
+  }
+
+  @Test
+  public void dropOldest() {
+    NotificationBus bus = new NotificationBus(tasks::add, 2, DROP_OLDEST);
+    Notification[] notifications = new Notification[3];
+    for (int i = 0; i < notifications.length; ++i) {
+      notifications[i] = mock(Notification.class);
+      bus.publish(listener, notifications[i]);
+    }
+
+    tasks.get(0).run();
+    assertThat(received, contains(notifications[1], notifications[2]));
+    assertThat(bus.getStatistics().get(listener).getDropped(), is(1L));
+  }
+
+  @Test
+  public void sample() {
+    NotificationBus bus = new NotificationBus(tasks::add, 16, SAMPLE);
+    for (int i = 0; i < 8 + NotificationBus.SAMPLE_RATE; ++i) {
+      bus.publish(listener, mock(Notification.class));
+    }
+
+    tasks.get(0).run();
+    assertThat(received.size(), is(9));
+    assertThat(bus.getStatistics().get(listener).getDropped(), is(NotificationBus.SAMPLE_RATE - 1L));
+  }
+
+  @Test
+  public void concurrentPublishers() throws Exception {
+    executor = Executors.newFixedThreadPool(4);
+    final int publishers = 4;
+    final int notificationsPerPublisher = 10000;
+    CountDownLatch delivered = new CountDownLatch(publishers * notificationsPerPublisher);
+    NotificationListener<Notification> countingListener = notification -> delivered.countDown();
+    NotificationBus bus = new NotificationBus(executor, 64, NotificationOverflowPolicy.BLOCK);
+    Notification notification = mock(Notification.class);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < publishers; ++i) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < notificationsPerPublisher; ++j) {
+          bus.publish(countingListener, notification);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertTrue(delivered.await(10, SECONDS));
+    assertThat(bus.getStatistics().get(countingListener).getDropped(), is(0L));
+  }
+}
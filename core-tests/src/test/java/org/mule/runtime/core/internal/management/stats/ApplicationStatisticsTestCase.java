@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.mule.runtime.core.api.management.stats.AllStatistics;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram.Snapshot;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ApplicationStatisticsTestCase extends AbstractMuleTestCase {
+
+  private final AllStatistics allStatistics = new AllStatistics();
+  private final DefaultFlowConstructStatistics flowStatistics = new DefaultFlowConstructStatistics("Flow", "flow");
+
+  @Before
+  public void before() {
+    flowStatistics.setEnabled(true);
+    allStatistics.add(flowStatistics);
+  }
+
+  @Test
+  public void processingTimeHistogram() {
+    process(2L);
+    process(3L);
+
+    Snapshot histogram = allStatistics.getApplicationStatistics().getProcessingTimeHistogram();
+    assertThat(histogram.getCount(), equalTo(2L));
+    assertThat(histogram.getMax(), equalTo(3L));
+  }
+
+  @Test
+  public void intervalProcessingTimeHistogram() {
+    FlowConstructStatistics applicationStatistics = allStatistics.getApplicationStatistics();
+    process(2L);
+    assertThat(applicationStatistics.getIntervalProcessingTimeHistogram().getCount(), equalTo(1L));
+
+    process(3L);
+    Snapshot interval = applicationStatistics.getIntervalProcessingTimeHistogram();
+    assertThat(interval.getCount(), equalTo(1L));
+    assertThat(interval.getMax(), equalTo(3L));
+    assertThat(applicationStatistics.getIntervalProcessingTimeHistogram().getCount(), equalTo(0L));
+  }
+
+  @Test
+  public void intervalProcessingTimeHistogramDoesNotConsumeFlowInterval() {
+    process(2L);
+    allStatistics.getApplicationStatistics().getIntervalProcessingTimeHistogram();
+
+    assertThat(flowStatistics.getIntervalProcessingTimeHistogram().getCount(), equalTo(1L));
+  }
+
+  private void process(long time) {
+    flowStatistics.addFlowExecutionBranchTime(time, time);
+    flowStatistics.addCompleteFlowExecutionTime(time);
+  }
+}
@@ -112,6 +112,19 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     assertValues(stats, 2L, 5L, 2L, 3L, 2L);
   }
 
+  @Test
+  public void completeExecutionTimesInHistogram() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionBranchTime(true, 1L, 1L);
+    stats.addExecutionBranchTime(false, 1L, 2L);
+    stats.addCompleteExecutionTime(2L);
+    stats.addExecutionTime(10L);
+
+    assertThat(stats.getExecutionTimeHistogram().getCount(), equalTo(2L));
+    assertThat(stats.getExecutionTimeHistogram().getMedian(), equalTo(2L));
+    assertThat(stats.getExecutionTimeHistogram().getMax(), equalTo(10L));
+  }
+
   @Test
   public void verifyShortStatIntervalReset() {
     // configure to reset continuously
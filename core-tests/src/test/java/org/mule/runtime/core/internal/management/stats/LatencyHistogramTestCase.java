@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram.Snapshot;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void emptyHistogram() {
+    Snapshot snapshot = new LatencyHistogram().getSnapshot();
+    assertThat(snapshot.getCount(), equalTo(0L));
+    assertThat(snapshot.getMedian(), equalTo(0L));
+    assertThat(snapshot.getMax(), equalTo(0L));
+  }
+
+  @Test
+  public void lowValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 10; ++i) {
+      histogram.record(i);
+    }
+
+    Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount(), equalTo(10L));
+    assertThat(snapshot.getMedian(), equalTo(5L));
+    assertThat(snapshot.get90thPercentile(), equalTo(9L));
+    assertThat(snapshot.get99thPercentile(), equalTo(10L));
+    assertThat(snapshot.getMax(), equalTo(10L));
+  }
+
+  @Test
+  public void highValuesWithinRelativeError() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; ++i) {
+      histogram.record(i * 100);
+    }
+
+    Snapshot snapshot = histogram.getSnapshot();
+    assertApproximately(snapshot.getMedian(), 50000);
+    assertApproximately(snapshot.get90thPercentile(), 90000);
+    assertApproximately(snapshot.get99thPercentile(), 99000);
+    assertApproximately(snapshot.get999thPercentile(), 99900);
+    assertApproximately(snapshot.getMax(), 100000);
+  }
+
+  @Test
+  public void valuesAboveMaxAreBounded() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+    assertApproximately(histogram.getSnapshot().getMax(), LatencyHistogram.MAX_VALUE);
+  }
+
+  @Test
+  public void intervalSnapshot() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1);
+    histogram.record(2);
+    assertThat(histogram.getIntervalSnapshot().getCount(), equalTo(2L));
+
+    histogram.record(3);
+    Snapshot interval = histogram.getIntervalSnapshot();
+    assertThat(interval.getCount(), equalTo(1L));
+    assertThat(interval.getMedian(), equalTo(3L));
+    assertThat(histogram.getSnapshot().getCount(), equalTo(3L));
+  }
+
+  @Test
+  public void merge() {
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    first.record(1);
+    second.record(3);
+
+    Snapshot merged = first.getSnapshot().merge(second.getSnapshot());
+    assertThat(merged.getCount(), equalTo(2L));
+    assertThat(merged.getMax(), equalTo(3L));
+  }
+
+  @Test
+  public void since() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1);
+    Snapshot previous = histogram.getSnapshot();
+    histogram.record(3);
+
+    Snapshot since = histogram.getSnapshot().since(previous);
+    assertThat(since.getCount(), equalTo(1L));
+    assertThat(since.getMedian(), equalTo(3L));
+  }
+
+  @Test
+  public void clear() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1);
+    histogram.clear();
+    assertThat(histogram.getSnapshot().getCount(), equalTo(0L));
+    assertThat(histogram.getIntervalSnapshot().getCount(), equalTo(0L));
+  }
+
+  private void assertApproximately(long actual, long expected) {
+    assertThat(actual, both(greaterThanOrEqualTo((long) (expected * 0.96))).and(lessThanOrEqualTo((long) (expected * 1.04))));
+  }
+}
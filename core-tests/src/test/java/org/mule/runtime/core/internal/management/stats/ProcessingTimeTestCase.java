@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.apache.commons.lang3.SerializationUtils.clone;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.management.stats.ProcessingTime;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.reflect.Field;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ProcessingTimeTestCase extends AbstractMuleTestCase {
+
+  private final DefaultFlowConstructStatistics statistics = new DefaultFlowConstructStatistics("Flow", "flow");
+  private ProcessingTime processingTime;
+
+  @Before
+  public void before() {
+    statistics.setEnabled(true);
+    FlowConstruct flowConstruct = mock(FlowConstruct.class);
+    when(flowConstruct.getStatistics()).thenReturn(statistics);
+    processingTime = ProcessingTime.newInstance(flowConstruct);
+    processingTime.addFlowExecutionBranchTime(System.currentTimeMillis());
+  }
+
+  @Test
+  public void completeOnlyOnce() {
+    processingTime.complete();
+    processingTime.complete();
+
+    assertThat(statistics.getProcessingTimeHistogram().getCount(), equalTo(1L));
+  }
+
+  @Test
+  public void completeAfterDeserializingPreviousForm() throws Exception {
+    // previous versions of ProcessingTime didn't have the completed flag
+    Field completed = ProcessingTime.class.getDeclaredField("completed");
+    completed.setAccessible(true);
+    completed.set(processingTime, null);
+
+    ProcessingTime deserialized = clone(processingTime);
+    deserialized.complete();
+
+    assertThat(deserialized.getCompleted().get(), is(true));
+    assertThat(deserialized.getStatistics().getProcessingTimeHistogram().getCount(), equalTo(1L));
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.junit.Assert.fail;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.TRANSACTIONAL_ERROR_MESSAGE;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategyTestCase.RejectingScheduler.REJECTION_COUNT;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_BUFFER_SIZE;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_SUBSCRIBER_COUNT;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_WAIT_STRATEGY;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.ADAPTIVE;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.DefaultMuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.exception.MessagingException;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.transaction.TransactionCoordination;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveProcessingStrategyFactory.AdaptiveProcessingStrategy;
+import org.mule.tck.testmodels.mule.TestTransaction;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(PROCESSING_STRATEGIES)
+@Story(ADAPTIVE)
+public class AdaptiveProcessingStrategyTestCase extends AbstractProcessingStrategyTestCase {
+
+  private static final int MAX_SUBSCRIBER_COUNT = 4;
+  private static final long SAMPLING_INTERVAL = 60000;
+  private static final int SMALL_BUFFER_SIZE = 8;
+
+  public AdaptiveProcessingStrategyTestCase(Mode mode) {
+    super(mode);
+  }
+
+  @Override
+  protected ProcessingStrategy createProcessingStrategy(MuleContext muleContext, String schedulersNamePrefix) {
+    return createAdaptiveProcessingStrategy(() -> blocking, () -> cpuIntensive, 4);
+  }
+
+  private AdaptiveProcessingStrategy createAdaptiveProcessingStrategy(Supplier<Scheduler> blockingSupplier,
+                                                                      Supplier<Scheduler> cpuIntensiveSupplier,
+                                                                      int maxConcurrency) {
+    return createAdaptiveProcessingStrategy(() -> ringBuffer, DEFAULT_BUFFER_SIZE, blockingSupplier, cpuIntensiveSupplier,
+                                            maxConcurrency);
+  }
+
+  private AdaptiveProcessingStrategy createAdaptiveProcessingStrategy(Supplier<Scheduler> ringBufferSupplier,
+                                                                      int bufferSize,
+                                                                      Supplier<Scheduler> blockingSupplier,
+                                                                      Supplier<Scheduler> cpuIntensiveSupplier,
+                                                                      int maxConcurrency) {
+    // Use a long sampling interval so that tests drive adaptation explicitly.
+    return new AdaptiveProcessingStrategy(ringBufferSupplier,
+                                          bufferSize,
+                                          DEFAULT_SUBSCRIBER_COUNT,
+                                          MAX_SUBSCRIBER_COUNT,
+                                          DEFAULT_WAIT_STRATEGY,
+                                          () -> cpuLight,
+                                          blockingSupplier,
+                                          cpuIntensiveSupplier,
+                                          maxConcurrency,
+                                          SAMPLING_INTERVAL);
+  }
+
+  @Override
+  @Description("With the AdaptiveProcessingStrategy, when all processor are CPU_LIGHT then they are all exectured in a single "
+      + " cpu light thread.")
+  public void singleCpuLight() throws Exception {
+    super.singleCpuLight();
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_LIGHT)).count(), equalTo(1l));
+    assertThat(threads, not(hasItem(startsWith(IO))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Override
+  @Description("With the AdaptiveProcessingStrategy, a BLOCKING message processor is scheduled on a IO thread.")
+  public void singleBlocking() throws Exception {
+    super.singleBlocking();
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Override
+  @Description("With the AdaptiveProcessingStrategy, a CPU_INTENSIVE message processor is scheduled on a CPU intensive thread.")
+  public void singleCpuIntensive() throws Exception {
+    super.singleCpuIntensive();
+    assertThat(threads, hasSize(equalTo(1)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(1l));
+    assertThat(threads, not(hasItem(startsWith(IO))));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Override
+  @Description("With the AdaptiveProcessingStrategy, when there is a mix of processor processing types, each processor is "
+      + "scheduled on the correct scheduler.")
+  public void mix() throws Exception {
+    super.mix();
+    assertThat(threads, hasSize(equalTo(3)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(1l));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_LIGHT)).count(), equalTo(1l));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Override
+  @Description("When the AdaptiveProcessingStrategy is configured and a transaction is active processing fails with an error")
+  public void tx() throws Exception {
+    flow = flowBuilder.get().processors(cpuLightProcessor, cpuIntensiveProcessor, blockingProcessor).build();
+    flow.initialise();
+    flow.start();
+
+    TransactionCoordination.getInstance().bindTransaction(new TestTransaction(muleContext));
+
+    expectedException.expect(MessagingException.class);
+    expectedException.expectCause(instanceOf(DefaultMuleException.class));
+    expectedException.expectCause(hasMessage(equalTo(TRANSACTIONAL_ERROR_MESSAGE)));
+    process(flow, testEvent());
+  }
+
+  @Test
+  @Description("If IO pool is busy scheduling is retried and the rejection is accounted for.")
+  public void blockingRejectedExecution() throws Exception {
+    Scheduler blockingSchedulerSpy = spy(blocking);
+    Scheduler rejectingSchedulerSpy = spy(new RejectingScheduler(blockingSchedulerSpy));
+    AdaptiveProcessingStrategy processingStrategy =
+        createAdaptiveProcessingStrategy(() -> rejectingSchedulerSpy, () -> cpuIntensive, 4);
+
+    flow = flowBuilder.get().processors(blockingProcessor)
+        .processingStrategyFactory((context, prefix) -> processingStrategy)
+        .build();
+    flow.initialise();
+    flow.start();
+    process(flow, testEvent());
+    verify(rejectingSchedulerSpy, times(11)).submit(any(Runnable.class));
+    verify(blockingSchedulerSpy, times(1)).submit(any(Runnable.class));
+    assertThat(threads, hasSize(1));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(1l));
+    assertThat(processingStrategy.getBlockingAdmissionStatistics().getRejectedCount(), equalTo((long) REJECTION_COUNT));
+    assertThat(processingStrategy.getBlockingAdmissionStatistics().getAdmittedCount(), equalTo(1l));
+    assertThat(processingStrategy.getCpuIntensiveAdmissionStatistics().getRejectedCount(), equalTo(0l));
+  }
+
+  @Test
+  @Description("If CPU INTENSIVE pool is busy scheduling is retried and the rejection is accounted for.")
+  public void cpuIntensiveRejectedExecution() throws Exception {
+    Scheduler cpuIntensiveSchedulerSpy = spy(cpuIntensive);
+    Scheduler rejectingSchedulerSpy = spy(new RejectingScheduler(cpuIntensiveSchedulerSpy));
+    AdaptiveProcessingStrategy processingStrategy =
+        createAdaptiveProcessingStrategy(() -> blocking, () -> rejectingSchedulerSpy, 4);
+
+    flow = flowBuilder.get().processors(cpuIntensiveProcessor)
+        .processingStrategyFactory((context, prefix) -> processingStrategy)
+        .build();
+    flow.initialise();
+    flow.start();
+    process(flow, testEvent());
+    verify(rejectingSchedulerSpy, times(11)).submit(any(Runnable.class));
+    verify(cpuIntensiveSchedulerSpy, times(1)).submit(any(Runnable.class));
+    assertThat(processingStrategy.getCpuIntensiveAdmissionStatistics().getRejectedCount(), equalTo((long) REJECTION_COUNT));
+    assertThat(processingStrategy.getCpuIntensiveAdmissionStatistics().getAdmittedCount(), equalTo(1l));
+    assertThat(processingStrategy.getBlockingAdmissionStatistics().getRejectedCount(), equalTo(0l));
+  }
+
+  @Test
+  @Description("If max concurrency is 2, only 2 threads are used for BLOCKING processors and further requests blocks.")
+  public void singleBlockingConcurrentMaxConcurrency2() throws Exception {
+    internalConcurrent(flowBuilder.get()
+        .processingStrategyFactory((context, prefix) -> createAdaptiveProcessingStrategy(() -> blocking, () -> cpuIntensive, 2)),
+                       true, BLOCKING, 2);
+    assertThat(threads, hasSize(2));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(2l));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Test
+  @Description("An idle ring-buffer never shrinks below the configured subscriber count.")
+  public void idleRingBufferKeepsConfiguredSubscribers() throws Exception {
+    AdaptiveProcessingStrategy processingStrategy = createAdaptiveProcessingStrategy(() -> blocking, () -> cpuIntensive, 4);
+    flow = flowBuilder.get().processors(cpuLightProcessor)
+        .processingStrategyFactory((context, prefix) -> processingStrategy)
+        .build();
+    flow.initialise();
+    flow.start();
+    process(flow, testEvent());
+
+    for (int i = 0; i < AdaptiveProcessingStrategy.IDLE_SAMPLES_BEFORE_SHRINK * 2; i++) {
+      processingStrategy.adapt();
+    }
+    assertThat(processingStrategy.getSubscriberCount(), equalTo(DEFAULT_SUBSCRIBER_COUNT));
+  }
+
+  @Test
+  @Description("A ring-buffer subscriber is added while the ring-buffer fills up and is retired once it has been idle for a "
+      + "while, without losing the events it takes after being retired.")
+  public void ringBufferGrowsAndShrinks() throws Exception {
+    Scheduler ringBufferScheduler = new TestScheduler(MAX_SUBSCRIBER_COUNT + 1, RING_BUFFER);
+    // With no more concurrency than subscribers, every processor runs on the ring-buffer subscriber threads.
+    AdaptiveProcessingStrategy processingStrategy =
+        createAdaptiveProcessingStrategy(() -> ringBufferScheduler, SMALL_BUFFER_SIZE, () -> blocking, () -> cpuIntensive,
+                                         DEFAULT_SUBSCRIBER_COUNT);
+    MultipleInvocationLatchedProcessor latchedProcessor = new MultipleInvocationLatchedProcessor(CPU_LITE, 2);
+    flow = flowBuilder.get().processors(latchedProcessor)
+        .processingStrategyFactory((context, prefix) -> processingStrategy)
+        .build();
+    flow.initialise();
+    flow.start();
+
+    try {
+      // The first event blocks the only subscriber, so the rest stay in the ring-buffer.
+      int events = SMALL_BUFFER_SIZE / 2 + 2;
+      CountDownLatch responses = new CountDownLatch(events);
+      for (int i = 0; i < events; i++) {
+        processNonBlocking(flow, newEvent(), response -> responses.countDown(), t -> fail(t.getMessage()));
+      }
+
+      processingStrategy.adapt();
+      assertThat(processingStrategy.getSubscriberCount(), equalTo(DEFAULT_SUBSCRIBER_COUNT + 1));
+      assertThat(latchedProcessor.getAllLatchedLatch().await(RECEIVE_TIMEOUT, MILLISECONDS), is(true));
+      assertThat(threads.stream().filter(name -> name.startsWith(RING_BUFFER)).count(), equalTo(2l));
+
+      latchedProcessor.release();
+      assertThat(responses.await(RECEIVE_TIMEOUT, MILLISECONDS), is(true));
+
+      for (int i = 0; i < AdaptiveProcessingStrategy.IDLE_SAMPLES_BEFORE_SHRINK; i++) {
+        processingStrategy.adapt();
+      }
+      assertThat(processingStrategy.getSubscriberCount(), equalTo(DEFAULT_SUBSCRIBER_COUNT));
+
+      // Whichever subscriber takes them, events processed after the shrink all complete.
+      for (int i = 0; i < SMALL_BUFFER_SIZE; i++) {
+        process(flow, newEvent());
+      }
+    } finally {
+      flow.stop();
+      ringBufferScheduler.stop();
+    }
+  }
+
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.verify;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.TRANSACTIONAL_ERROR_MESSAGE;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategyTestCase.RejectingScheduler.REJECTION_COUNT;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_BUFFER_SIZE;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_SUBSCRIBER_COUNT;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_WAIT_STRATEGY;
@@ -205,24 +206,28 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
   }
 
   @Test
-  @Description("If IO pool is busy OVERLOAD error is thrown")
+  @Description("If IO pool is busy scheduling is retried and the rejection is accounted for")
   public void blockingRejectedExecution() throws Exception {
     Scheduler blockingSchedulerSpy = spy(blocking);
     Scheduler rejectingSchedulerSpy = spy(new RejectingScheduler(blockingSchedulerSpy));
 
+    ProactorStreamProcessingStrategy processingStrategy = new ProactorStreamProcessingStrategy(() -> ringBuffer,
+                                                                                              DEFAULT_BUFFER_SIZE,
+                                                                                              DEFAULT_SUBSCRIBER_COUNT,
+                                                                                              DEFAULT_WAIT_STRATEGY,
+                                                                                              () -> cpuLight,
+                                                                                              () -> rejectingSchedulerSpy,
+                                                                                              () -> cpuIntensive,
+                                                                                              4);
+
     flow = flowBuilder.get().processors(blockingProcessor)
-        .processingStrategyFactory((context, prefix) -> new ProactorStreamProcessingStrategy(() -> ringBuffer,
-                                                                                             DEFAULT_BUFFER_SIZE,
-                                                                                             DEFAULT_SUBSCRIBER_COUNT,
-                                                                                             DEFAULT_WAIT_STRATEGY,
-                                                                                             () -> cpuLight,
-                                                                                             () -> rejectingSchedulerSpy,
-                                                                                             () -> cpuIntensive,
-                                                                                             4))
+        .processingStrategyFactory((context, prefix) -> processingStrategy)
         .build();
     flow.initialise();
     flow.start();
     process(flow, testEvent());
+    assertThat(processingStrategy.getBlockingAdmissionStatistics().getRejectedCount(), equalTo((long) REJECTION_COUNT));
+    assertThat(processingStrategy.getBlockingAdmissionStatistics().getAdmittedCount(), equalTo(1l));
     verify(rejectingSchedulerSpy, times(11)).submit(any(Runnable.class));
     verify(blockingSchedulerSpy, times(1)).submit(any(Runnable.class));
     assertThat(threads, hasSize(1));
@@ -233,24 +238,28 @@ public class ProactorStreamProcessingStrategyTestCase extends AbstractProcessing
   }
 
   @Test
-  @Description("If CPU INTENSIVE pool is busy OVERLOAD error is thrown")
+  @Description("If CPU INTENSIVE pool is busy scheduling is retried and the rejection is accounted for")
   public void cpuIntensiveRejectedExecution() throws Exception {
     Scheduler cpuIntensiveSchedulerSpy = spy(cpuIntensive);
     Scheduler rejectingSchedulerSpy = spy(new RejectingScheduler(cpuIntensiveSchedulerSpy));
 
+    ProactorStreamProcessingStrategy processingStrategy = new ProactorStreamProcessingStrategy(() -> ringBuffer,
+                                                                                              DEFAULT_BUFFER_SIZE,
+                                                                                              DEFAULT_SUBSCRIBER_COUNT,
+                                                                                              DEFAULT_WAIT_STRATEGY,
+                                                                                              () -> cpuLight,
+                                                                                              () -> blocking,
+                                                                                              () -> rejectingSchedulerSpy,
+                                                                                              4);
+
     flow = flowBuilder.get().processors(cpuIntensiveProcessor)
-        .processingStrategyFactory((context, prefix) -> new ProactorStreamProcessingStrategy(() -> ringBuffer,
-                                                                                             DEFAULT_BUFFER_SIZE,
-                                                                                             DEFAULT_SUBSCRIBER_COUNT,
-                                                                                             DEFAULT_WAIT_STRATEGY,
-                                                                                             () -> cpuLight,
-                                                                                             () -> blocking,
-                                                                                             () -> rejectingSchedulerSpy,
-                                                                                             4))
+        .processingStrategyFactory((context, prefix) -> processingStrategy)
         .build();
     flow.initialise();
     flow.start();
     process(flow, testEvent());
+    assertThat(processingStrategy.getCpuIntensiveAdmissionStatistics().getRejectedCount(), equalTo((long) REJECTION_COUNT));
+    assertThat(processingStrategy.getCpuIntensiveAdmissionStatistics().getAdmittedCount(), equalTo(1l));
     verify(rejectingSchedulerSpy, times(11)).submit(any(Runnable.class));
     verify(cpuIntensiveSchedulerSpy, times(1)).submit(any(Runnable.class));
     assertThat(threads, hasSize(1));
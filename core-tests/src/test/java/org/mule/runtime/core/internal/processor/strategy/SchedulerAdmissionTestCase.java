@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.just;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.MonoProcessor;
+
+@SmallTest
+public class SchedulerAdmissionTestCase extends AbstractMuleTestCase {
+
+  private final MonoProcessor<String> running = MonoProcessor.create();
+
+  @Test
+  public void cancelWhileWaitingGivesUpTheCredit() {
+    SchedulerAdmission admission = new SchedulerAdmission("test", 1, () -> mock(Scheduler.class));
+    admission.admit("first", item -> running).subscribe();
+
+    List<String> results = new ArrayList<>();
+    Disposable waiting = admission.admit("second", item -> just(item)).subscribe(results::add);
+    assertThat(admission.getQueuedCount(), is(1));
+
+    waiting.dispose();
+    assertThat(admission.getQueuedCount(), is(0));
+
+    running.onNext("first");
+    assertThat(results, is(empty()));
+    assertThat(admission.getActiveCount(), is(0));
+    assertThat(admission.admit("third", item -> just(item)).collectList().block(), contains("third"));
+  }
+
+  @Test
+  public void rejectedDispatchRetriedOnCompletion() {
+    SchedulerAdmission admission = new SchedulerAdmission("test", 2, () -> mock(Scheduler.class));
+    admission.admit("first", item -> running).subscribe();
+
+    AtomicInteger attempts = new AtomicInteger();
+    List<String> results = new ArrayList<>();
+    admission.admit("second", item -> attempts.incrementAndGet() == 1
+        ? error(new RejectedExecutionException())
+        : just(item))
+        .subscribe(results::add);
+
+    // the limit follows the dispatches the scheduler accepted, so the retry waits for the running one to complete
+    assertThat(admission.getRejectedCount(), is(1L));
+    assertThat(admission.getConcurrencyLimit(), is(1));
+    assertThat(admission.getQueuedCount(), is(1));
+    assertThat(results, is(empty()));
+
+    running.onNext("first");
+    assertThat(results, contains("second"));
+    assertThat(attempts.get(), is(2));
+    assertThat(admission.getActiveCount(), is(0));
+    assertThat(admission.getConcurrencyLimit(), is(2));
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.Set;
 
 import org.apache.commons.collections.IteratorUtils;
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -199,6 +200,25 @@ public class EventGroupTestCase extends AbstractMuleContextTestCase {
     assertTrue(es.contains(secondId));
   }
 
+  @Test
+  public void deserializedGroupReadsEventsFromStore() throws Exception {
+    EventGroup eg = new EventGroup(UUID.getUUID(), muleContext);
+    eg.initEventsStore(objectStore);
+    eg.addEvent(eventBuilder().message(Message.of("foo1")).build());
+    eg.addEvent(eventBuilder().message(Message.of("foo2")).build());
+
+    EventGroup deserialized = SerializationUtils.clone(eg);
+    deserialized.initEventsStore(objectStore);
+    deserialized.addEvent(eventBuilder().message(Message.of("foo3")).build());
+
+    InternalEvent[] events = deserialized.toArray();
+    assertEquals(3, deserialized.size());
+    for (int i = 0; i < events.length; i++) {
+      assertEquals("foo" + (i + 1), events[i].getMessage().getPayload().getValue());
+      assertEquals(i + 1, events[i].getVariables().get(EventGroup.MULE_ARRIVAL_ORDER_PROPERTY).getValue());
+    }
+  }
+
   @Test
   public void mergedSessions() throws Exception {
     EventGroup eg = new EventGroup(UUID.getUUID(), muleContext);
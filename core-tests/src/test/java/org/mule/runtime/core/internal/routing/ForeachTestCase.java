@@ -8,20 +8,34 @@ package org.mule.runtime.core.internal.routing;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.message.Message.of;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+import org.mule.runtime.api.component.location.ConfigurationComponentLocator;
+import org.mule.runtime.api.component.location.Location;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.construct.Pipeline;
 import org.mule.runtime.core.api.exception.MessagingException;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.message.InternalMessage;
 import org.mule.tck.junit4.AbstractReactiveProcessorTestCase;
 import org.mule.tck.testmodels.mule.TestMessageProcessor;
@@ -30,6 +44,10 @@ import java.nio.BufferOverflowException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
@@ -37,6 +55,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import reactor.core.publisher.Flux;
 
 public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
 
@@ -298,6 +317,97 @@ public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
     assertThat(processedEvents.get(1).getMessageAsString(muleContext), is("[3]:foo:zas"));
   }
 
+  @Test
+  public void maxConcurrency() throws Exception {
+    final int maxConcurrency = 2;
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    CountDownLatch overlapping = new CountDownLatch(maxConcurrency);
+    List<Object> counters = synchronizedList(new ArrayList<>());
+    Foreach foreachMp = new Foreach();
+    foreachMp.setMuleContext(muleContext);
+    foreachMp.setMessageProcessors(singletonList(event -> {
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      // the first elements wait for each other, so they are only processed if processed at the same time
+      overlapping.countDown();
+      try {
+        overlapping.await(RECEIVE_TIMEOUT, MILLISECONDS);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      counters.add(event.getVariables().get("counter").getValue());
+      active.decrementAndGet();
+      return event;
+    }));
+    foreachMp.setCounterVariableName("counter");
+    foreachMp.setMaxConcurrency(maxConcurrency);
+    foreachMp.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    ExecutorService executor = newCachedThreadPool();
+    foreachMp.setComponentLocator(componentLocatorFor(scheduledFlow(executor)));
+    foreachMp.initialise();
+
+    try {
+      InternalEvent result = process(foreachMp, eventBuilder().message(of(asList("a", "b", "c", "d", "e"))).build());
+
+      assertThat(overlapping.getCount(), is(0L));
+      assertThat(maxActive.get(), is(maxConcurrency));
+      assertThat(counters, containsInAnyOrder(1, 2, 3, 4, 5));
+      assertThat(result.getMessage().getPayload().getValue(), is(asList("a", "b", "c", "d", "e")));
+      assertThat(result.getVariables().containsKey("counter"), is(false));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return a flow whose processing strategy processes each element in a thread of {@code executor}
+   */
+  private Pipeline scheduledFlow(ExecutorService executor) {
+    Pipeline flow = mock(Pipeline.class);
+    ProcessingStrategy processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class)))
+        .thenAnswer(invocation -> (ReactiveProcessor) publisher -> Flux.from(publisher)
+            .publishOn(fromExecutorService(executor))
+            .transform(invocation.getArgumentAt(0, ReactiveProcessor.class)));
+    when(flow.getProcessingStrategy()).thenReturn(processingStrategy);
+    return flow;
+  }
+
+  private ConfigurationComponentLocator componentLocatorFor(Pipeline flow) {
+    ConfigurationComponentLocator componentLocator = mock(ConfigurationComponentLocator.class);
+    when(componentLocator.find(any(Location.class))).thenReturn(Optional.of(flow));
+    return componentLocator;
+  }
+
+  @Test
+  public void iteratorElementsPulledWhenProcessed() throws Exception {
+    AtomicInteger pulled = new AtomicInteger();
+    Iterator<String> iterator = new Iterator<String>() {
+
+      @Override
+      public boolean hasNext() {
+        return pulled.get() < 100;
+      }
+
+      @Override
+      public String next() {
+        return Integer.toString(pulled.incrementAndGet());
+      }
+    };
+    List<Integer> pulledWhenProcessed = new ArrayList<>();
+    Foreach foreachMp = createForeach(singletonList(event -> {
+      pulledWhenProcessed.add(pulled.get());
+      return event;
+    }));
+
+    process(foreachMp, eventBuilder().message(of(iterator)).build());
+
+    assertThat(pulledWhenProcessed, hasSize(100));
+    for (int i = 0; i < pulledWhenProcessed.size(); i++) {
+      assertThat(pulledWhenProcessed.get(i), lessThanOrEqualTo(i + 2));
+    }
+  }
+
   private void assertSimpleProcessedMessages() {
     assertEquals(ERR_NUMBER_MESSAGES, 2, processedEvents.size());
     assertTrue(ERR_PAYLOAD_TYPE, processedEvents.get(0).getMessage().getPayload().getValue() instanceof String);
@@ -39,8 +39,8 @@ public class IdempotentMessageValidatorMule6079TestCase extends AbstractMuleCont
 
   /*
    * This test admits two execution paths, note that the implementation of objectStore can lock on the await call of the latch, to
-   * avoid this a countDown call was added to contains method, since there is a trace that locks otherwise. See implementation of
-   * IdempotentMessageValidator.isNewMessage to understand the trace.
+   * avoid this a countDown call was added to contains method, since there is a trace that locks otherwise if the validator checks
+   * the store before storing the id.
    */
   @Test
   public void testRaceConditionOnAcceptAndProcess() throws Exception {
@@ -101,9 +101,8 @@ public class IdempotentMessageValidatorMule6079TestCase extends AbstractMuleCont
     protected boolean doContains(String key) throws ObjectStoreException {
       boolean containsKey;
       synchronized (this) {
-        // avoiding deadlock with the latch (locks if the element was already added to map, see definition of
-        // IdempotentMessageValidator.isNewMessage definition, if the element is added, it wont enter the
-        // objectStore.store method, and will lock.
+        // avoiding deadlock with the latch (locks if the element was already added to map and the validator checks the store
+        // before storing the id, since it wont enter the objectStore.store method, and will lock.
         containsKey = map.containsKey(key);
         if (containsKey) {
           barrier.countDown();
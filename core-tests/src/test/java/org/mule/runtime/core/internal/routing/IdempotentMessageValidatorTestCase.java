@@ -6,22 +6,32 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.message.Message.of;
 
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.InternalEventContext;
 import org.mule.runtime.core.api.el.ExpressionLanguageAdaptor;
 import org.mule.runtime.core.api.routing.ValidationException;
+import org.mule.runtime.core.api.store.SimpleMemoryObjectStore;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.core.el.DataWeaveExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.message.InternalMessage;
@@ -30,6 +40,10 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import org.mule.weave.v2.el.ByteArrayBasedCursorStreamProvider;
 import org.mule.weave.v2.el.WeaveDefaultExpressionLanguageFactoryService;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -74,6 +88,63 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     processedEvent = idempotent.process(event);
   }
 
+  @Test
+  public void duplicateDetectedWithSingleStoreAccess() throws Exception {
+    ObjectStore<String> store = mock(ObjectStore.class);
+    idempotent.setObjectStore(store);
+
+    final InternalEventContext context = mock(InternalEventContext.class);
+    when(context.getCorrelationId()).thenReturn("1");
+    InternalEvent event = InternalEvent.builder(context).message(of("OK")).build();
+
+    idempotent.process(event);
+    verify(store).store("1", "1");
+
+    doThrow(new ObjectAlreadyExistsException()).when(store).store("1", "1");
+    try {
+      expected.expect(ValidationException.class);
+      idempotent.process(event);
+    } finally {
+      verify(store, never()).contains(anyString());
+    }
+  }
+
+  @Test
+  public void concurrentDuplicatesAcceptedOnce() throws Exception {
+    final int concurrency = 8;
+    idempotent.setObjectStore(new SimpleMemoryObjectStore<>());
+
+    final InternalEventContext context = mock(InternalEventContext.class);
+    when(context.getCorrelationId()).thenReturn("1");
+    final InternalEvent event = InternalEvent.builder(context).message(of("OK")).build();
+
+    final ExecutorService executor = newFixedThreadPool(concurrency);
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicInteger accepted = new AtomicInteger();
+    final AtomicInteger rejected = new AtomicInteger();
+    try {
+      for (int i = 0; i < concurrency; i++) {
+        executor.submit(() -> {
+          start.await();
+          try {
+            idempotent.process(event);
+            accepted.incrementAndGet();
+          } catch (ValidationException e) {
+            rejected.incrementAndGet();
+          }
+          return null;
+        });
+      }
+      start.countDown();
+    } finally {
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, SECONDS), is(true));
+    }
+
+    assertThat(accepted.get(), is(1));
+    assertThat(rejected.get(), is(concurrency - 1));
+  }
+
   @Test
   public void testIdCheckWithMEL() throws Exception {
     String melExpression = "#[payload]";
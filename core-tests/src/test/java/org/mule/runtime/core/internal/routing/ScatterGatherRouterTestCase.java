@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS_FEATURE;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ScatterGatherStory.SCATTER_GATHER;
+import static reactor.core.publisher.Mono.from;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(ROUTERS_FEATURE)
+@Story(SCATTER_GATHER)
+public class ScatterGatherRouterTestCase extends AbstractMuleContextTestCase {
+
+  private static final int ROUTES = 3;
+
+  private ScatterGatherRouter router;
+
+  @Before
+  public void setup() {
+    router = new ScatterGatherRouter();
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+  }
+
+  @After
+  public void teardown() throws Exception {
+    stopIfNeeded(router);
+    disposeIfNeeded(router, null);
+  }
+
+  @Test
+  @Description("All the routes are processed at the same time, and their results are aggregated in the order of the routes.")
+  public void routesProcessedInParallel() throws Exception {
+    CountDownLatch allRoutesStarted = new CountDownLatch(ROUTES);
+    for (int i = 0; i < ROUTES; i++) {
+      final String result = Integer.toString(i);
+      router.addRoute(event -> {
+        allRoutesStarted.countDown();
+        try {
+          if (!allRoutesStarted.await(RECEIVE_TIMEOUT, MILLISECONDS)) {
+            throw new IllegalStateException("Routes were not processed in parallel");
+          }
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return InternalEvent.builder(event).message(of(result)).build();
+      });
+    }
+
+    assertThat(process(), is(new Object[] {"0", "1", "2"}));
+  }
+
+  @Test
+  @Description("When the maximum concurrency is set, no more than that number of routes are processed at the same time.")
+  public void maxConcurrency() throws Exception {
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    for (int i = 0; i < ROUTES; i++) {
+      router.addRoute(event -> {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        sleep(20);
+        active.decrementAndGet();
+        return event;
+      });
+    }
+    router.setMaxConcurrency(1);
+
+    process();
+
+    assertThat(maxActive.get(), is(1));
+  }
+
+  @Test
+  @Description("A route not completed within the timeout is cancelled, and its timeout error is aggregated with the results of the other routes.")
+  public void routeTimeout() throws Exception {
+    router.addRoute(sleepingRoute());
+    router.addRoute(event -> InternalEvent.builder(event).message(of("1")).build());
+    router.setTimeout(50);
+
+    RoutingResult routingResult = processExpectingFailures();
+
+    assertThat(routingResult.getFailures().get("0").getCause(), instanceOf(TimeoutException.class));
+    assertThat(routingResult.getResults().get("1").getPayload().getValue(), is("1"));
+  }
+
+  @Test
+  @Description("When a route times out, its context is completed so the context of the routed event can complete.")
+  public void routeTimeoutCompletesEventContext() throws Exception {
+    router.addRoute(sleepingRoute());
+    router.addRoute(event -> InternalEvent.builder(event).message(of("1")).build());
+    router.setTimeout(50);
+
+    InternalEvent event = testEvent();
+    try {
+      process(event);
+      fail("Expected the routes to fail");
+    } catch (CompositeRoutingException e) {
+      // the timeout error is aggregated with the results of the other routes
+    }
+    event.getContext().success();
+
+    // times out if the context of the route that timed out was never completed
+    from(event.getContext().getCompletionPublisher()).block(ofMillis(RECEIVE_TIMEOUT));
+  }
+
+  @Test
+  @Description("The routes not completed within the overall timeout are cancelled, and their timeout errors are aggregated with the results of the other routes.")
+  public void overallTimeout() throws Exception {
+    router.addRoute(event -> InternalEvent.builder(event).message(of("0")).build());
+    router.addRoute(sleepingRoute());
+    router.setOverallTimeout(50);
+
+    RoutingResult routingResult = processExpectingFailures();
+
+    assertThat(routingResult.getResults().get("0").getPayload().getValue(), is("0"));
+    assertThat(routingResult.getFailures().get("1").getCause(), instanceOf(TimeoutException.class));
+  }
+
+  @Test
+  @Description("Errors in routes don't prevent the rest from being processed, and are aggregated in a CompositeRoutingException.")
+  public void routeError() throws Exception {
+    IllegalStateException exception = new IllegalStateException();
+    router.addRoute(event -> {
+      throw exception;
+    });
+    router.addRoute(event -> InternalEvent.builder(event).message(of("1")).build());
+
+    RoutingResult routingResult = processExpectingFailures();
+
+    assertThat(routingResult.getFailures().get("0").getCause(), is(exception));
+    assertThat(routingResult.getResults().get("1").getPayload().getValue(), is("1"));
+  }
+
+  @Test
+  @Description("A route that doesn't produce a result doesn't complete the context of the routed event.")
+  public void emptyRoute() throws Exception {
+    router.addRoute(event -> InternalEvent.builder(event).message(of("0")).build());
+    router.addRoute(event -> null);
+    router.addRoute(event -> InternalEvent.builder(event).message(of("2")).build());
+
+    InternalEvent event = testEvent();
+
+    assertThat(process(event), is(new Object[] {"0", "2"}));
+    assertThat(from(event.getContext().getResponsePublisher()).toFuture().isDone(), is(false));
+  }
+
+  private Processor sleepingRoute() {
+    return event -> {
+      sleep(RECEIVE_TIMEOUT);
+      return event;
+    };
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      // the route was cancelled
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Object[] process() throws Exception {
+    return process(testEvent());
+  }
+
+  private Object[] process(InternalEvent event) throws Exception {
+    initialiseIfNeeded(router, true, muleContext);
+    router.start();
+
+    Message result = router.process(event).getMessage();
+    return ((List<Message>) result.getPayload().getValue()).stream().map(message -> message.getPayload().getValue())
+        .collect(toList()).toArray();
+  }
+
+  private RoutingResult processExpectingFailures() throws Exception {
+    try {
+      process();
+      fail("Expected the routes to fail");
+      return null;
+    } catch (CompositeRoutingException e) {
+      return (RoutingResult) e.getErrorMessage().getPayload().getValue();
+    }
+  }
+}
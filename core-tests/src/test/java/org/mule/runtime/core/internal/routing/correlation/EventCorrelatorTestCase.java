@@ -7,7 +7,9 @@
 package org.mule.runtime.core.internal.routing.correlation;
 
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,6 +55,8 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase {
 
   public static final String TEST_GROUP_ID = "groupId";
 
+  private static final String CLUSTER_ID = "clusterId";
+
   private static final Logger LOGGER = getLogger(EventCorrelatorTestCase.class);
 
   private MuleContext mockMuleContext = mockContextWithServices();
@@ -173,6 +177,60 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase {
     verify(mockEventGroup, times(1)).getMessageCollectionEvent();
   }
 
+  @Test
+  public void groupRemovedFromSharedStoreIsEvicted() throws Exception {
+    when(mockMuleContext.getClusterId()).thenReturn(CLUSTER_ID);
+    when(mockEventCorrelatorCallback.shouldAggregateEvents(any(EventGroup.class))).thenReturn(false);
+    when(mockMuleEvent.getCorrelationId()).thenReturn(TEST_GROUP_ID);
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    eventCorrelator.process(mockMuleEvent);
+
+    // another node removes the group from the store, so a new one is started
+    memoryObjectStore.remove(TEST_GROUP_ID, "prefix.eventGroups");
+    EventGroup newEventGroup = mock(EventGroup.class);
+    when(newEventGroup.getGroupId()).thenReturn(TEST_GROUP_ID);
+    when(mockEventCorrelatorCallback.createEventGroup(mockMuleEvent, TEST_GROUP_ID)).thenReturn(newEventGroup);
+    eventCorrelator.process(mockMuleEvent);
+
+    verify(mockEventGroup, times(1)).addEvent(mockMuleEvent);
+    verify(newEventGroup, times(1)).addEvent(mockMuleEvent);
+  }
+
+  @Test
+  public void groupEventsReadFromSharedStoreOnEachCorrelation() throws Exception {
+    when(mockMuleContext.getClusterId()).thenReturn(CLUSTER_ID);
+    when(mockEventCorrelatorCallback.shouldAggregateEvents(mockEventGroup)).thenReturn(false);
+    when(mockMuleEvent.getCorrelationId()).thenReturn(TEST_GROUP_ID);
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    eventCorrelator.process(mockMuleEvent);
+    eventCorrelator.process(mockMuleEvent);
+
+    verify(mockEventGroup, times(2)).invalidateEvents();
+  }
+
+  @Test
+  public void groupEventsKeptInMemoryForLocalStore() throws Exception {
+    when(mockEventCorrelatorCallback.shouldAggregateEvents(mockEventGroup)).thenReturn(false);
+    when(mockMuleEvent.getCorrelationId()).thenReturn(TEST_GROUP_ID);
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    eventCorrelator.process(mockMuleEvent);
+    eventCorrelator.process(mockMuleEvent);
+
+    verify(mockEventGroup, never()).invalidateEvents();
+  }
+
+  @Test
+  public void groupEventsKeptInMemoryForPersistentStoreOfSingleNode() throws Exception {
+    memoryObjectStore = new PersistentInMemoryObjectStore();
+    when(mockEventCorrelatorCallback.shouldAggregateEvents(mockEventGroup)).thenReturn(false);
+    when(mockMuleEvent.getCorrelationId()).thenReturn(TEST_GROUP_ID);
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    eventCorrelator.process(mockMuleEvent);
+    eventCorrelator.process(mockMuleEvent);
+
+    verify(mockEventGroup, never()).invalidateEvents();
+  }
+
   private EventCorrelator createEventCorrelator() throws Exception {
     when(mockMuleContext.getRegistry().get(OBJECT_STORE_MANAGER)).thenReturn(mockObjectStoreManager);
     memoryObjectStore.store(TEST_GROUP_ID, mockEventGroup, "prefix.eventGroups");
@@ -186,4 +244,15 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase {
   public abstract class DisposableObjectStore implements ObjectStore, Disposable {
 
   }
+
+  /**
+   * Stands for a store persisted by a single node.
+   */
+  private static class PersistentInMemoryObjectStore extends PartitionedInMemoryObjectStore {
+
+    @Override
+    public boolean isPersistent() {
+      return true;
+    }
+  }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.core.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class SlabByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+  private static final int SAME_CLASS_CAPACITY = CAPACITY + 1;
+  private static final int SIZE_CLASS_CAPACITY = 128;
+  private static final int MAGAZINE_CAPACITY = SlabByteBufferManager.MAX_MAGAZINE_BUFFER_CAPACITY;
+  private static final int BIG_CAPACITY = MAGAZINE_CAPACITY * 2;
+
+  private MutableStreamingStatistics statistics = new MutableStreamingStatistics();
+  private SlabByteBufferManager bufferManager = new SlabByteBufferManager(statistics);
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void capacity() throws Exception {
+    assertCapacity(CAPACITY);
+    assertCapacity(SIZE_CLASS_CAPACITY);
+    assertCapacity(BIG_CAPACITY + 1);
+    assertCapacity(0);
+  }
+
+  @Test
+  public void sizeClasses() {
+    assertThat(SlabByteBufferManager.sizeClassCapacity(SlabByteBufferManager.sizeClassOf(1)), is(64));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(SlabByteBufferManager.sizeClassOf(64)), is(64));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(SlabByteBufferManager.sizeClassOf(65)), is(128));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(SlabByteBufferManager.sizeClassOf(CAPACITY)), is(128));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(SlabByteBufferManager.sizeClassOf(1 << 20)), is(1 << 20));
+  }
+
+  @Test
+  public void poolingWithinSizeClass() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(SAME_CLASS_CAPACITY);
+    assertThat(newBuffer.array(), is(sameInstance(buffer.array())));
+    assertThat(newBuffer.capacity(), is(SAME_CLASS_CAPACITY));
+  }
+
+  @Test
+  public void poolingThroughFreeList() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(BIG_CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(BIG_CAPACITY);
+    assertThat(newBuffer, is(sameInstance(buffer)));
+  }
+
+  @Test
+  public void poolingAcrossThreads() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(BIG_CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer[] allocated = new ByteBuffer[1];
+    Thread thread = new Thread(() -> allocated[0] = bufferManager.allocate(BIG_CAPACITY));
+    thread.start();
+    thread.join();
+
+    assertThat(allocated[0], is(sameInstance(buffer)));
+  }
+
+  @Test
+  public void grow() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(newBuffer.array(), not(sameInstance(buffer.array())));
+  }
+
+  @Test
+  public void statistics() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(statistics.getPooledBufferMissesCount(), is(1L));
+    assertThat(statistics.getPooledBufferHitsCount(), is(0L));
+    assertThat(statistics.getOutstandingBufferBytes(), is((long) SIZE_CLASS_CAPACITY));
+
+    bufferManager.deallocate(buffer);
+    assertThat(statistics.getOutstandingBufferBytes(), is(0L));
+
+    buffer = bufferManager.allocate(CAPACITY);
+    assertThat(statistics.getPooledBufferMissesCount(), is(1L));
+    assertThat(statistics.getPooledBufferHitsCount(), is(1L));
+    assertThat(statistics.getOutstandingBufferBytes(), is((long) SIZE_CLASS_CAPACITY));
+
+    bufferManager.deallocate(buffer);
+  }
+
+  @Test
+  public void directBuffers() throws Exception {
+    bufferManager = new SlabByteBufferManager(new DefaultMemoryManager(), 10, true, statistics);
+
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.isDirect(), is(true));
+    assertThat(buffer.capacity(), is(CAPACITY));
+    bufferManager.deallocate(buffer);
+
+    bufferManager.allocate(SAME_CLASS_CAPACITY);
+    assertThat(statistics.getPooledBufferHitsCount(), is(1L));
+  }
+
+  @Test
+  public void foreignBuffersAreIgnored() throws Exception {
+    bufferManager.deallocate(ByteBuffer.allocate(CAPACITY));
+    assertThat(statistics.getOutstandingBufferBytes(), is(0L));
+  }
+
+  @Test
+  public void foreignSizeClassBuffersAreNotPooled() throws Exception {
+    ByteBuffer foreign = ByteBuffer.allocate(SIZE_CLASS_CAPACITY);
+    bufferManager.deallocate(foreign);
+
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.array(), not(sameInstance(foreign.array())));
+    assertThat(statistics.getPooledBufferMissesCount(), is(1L));
+    assertThat(statistics.getPooledBufferHitsCount(), is(0L));
+    bufferManager.deallocate(buffer);
+  }
+
+  @Test
+  public void idleBuffersReleasedWhenMemoryIsExhausted() throws Exception {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(BIG_CAPACITY * 2L);
+    bufferManager = new SlabByteBufferManager(memoryManager, 10, false, statistics);
+
+    // an idle buffer of a different size class is released to make room for the new one
+    bufferManager.deallocate(bufferManager.allocate(BIG_CAPACITY));
+    ByteBuffer buffer = bufferManager.allocate(BIG_CAPACITY / 2);
+    assertThat(buffer.capacity(), is(BIG_CAPACITY / 2));
+  }
+
+  @Test
+  public void buffersOfDeadThreadsAreReclaimed() throws Exception {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(MAGAZINE_CAPACITY * 2L);
+    bufferManager = new SlabByteBufferManager(memoryManager, 100, false, statistics);
+
+    // the buffer is left in the magazine of a thread which is then gone
+    Thread thread = new Thread(() -> bufferManager.deallocate(bufferManager.allocate(MAGAZINE_CAPACITY)));
+    thread.start();
+    thread.join();
+
+    ByteBuffer buffer = bufferManager.allocate(MAGAZINE_CAPACITY / 2);
+    assertThat(buffer.capacity(), is(MAGAZINE_CAPACITY / 2));
+    bufferManager.deallocate(buffer);
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final long waitTimeoutMillis = 500;
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(BIG_CAPACITY * 4L);
+    bufferManager = new SlabByteBufferManager(memoryManager, waitTimeoutMillis, false, statistics);
+
+    ByteBuffer buffer1 = bufferManager.allocate(BIG_CAPACITY);
+    bufferManager.allocate(BIG_CAPACITY);
+
+    Latch latch = new Latch();
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(BIG_CAPACITY);
+        latch.release();
+      } catch (MaxStreamingMemoryExceededException e) {
+        maxMemoryExhausted.set(true);
+      }
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis * 2, MILLISECONDS), is(false));
+    assertThat(maxMemoryExhausted.get(), is(true));
+
+    Latch secondLatch = new Latch();
+    new Thread(() -> {
+      bufferManager.allocate(BIG_CAPACITY);
+      secondLatch.release();
+    }).start();
+
+    bufferManager.deallocate(buffer1);
+    assertThat(secondLatch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+  }
+
+  private void assertCapacity(int capacity) {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    try {
+      assertThat(buffer.capacity(), is(capacity));
+      assertThat(buffer.position(), is(0));
+      assertThat(buffer.limit(), is(capacity));
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+}
@@ -57,10 +57,10 @@ public class CursorIteratorProviderTestCase extends AbstractObjectStreamingTestC
   }
 
   private final int halfDataLength;
-  private final InMemoryCursorIteratorConfig config;
+  protected final InMemoryCursorIteratorConfig config;
   protected final ScheduledExecutorService executorService;
 
-  private CursorIteratorProvider streamProvider;
+  protected CursorIteratorProvider streamProvider;
   private CountDownLatch controlLatch;
   private CountDownLatch mainThreadLatch;
 
@@ -253,7 +253,7 @@ public class CursorIteratorProviderTestCase extends AbstractObjectStreamingTestC
     mainThreadLatch = new CountDownLatch(2);
   }
 
-  private void withCursor(CheckedConsumer<CursorIterator> consumer) throws IOException {
+  protected void withCursor(CheckedConsumer<CursorIterator> consumer) throws IOException {
     try (CursorIterator cursor = streamProvider.openCursor()) {
       consumer.accept(cursor);
     }
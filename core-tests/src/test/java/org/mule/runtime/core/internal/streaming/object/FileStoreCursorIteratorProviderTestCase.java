@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends CursorIteratorProviderTestCase {
+
+  private static final int MAX_IN_MEMORY_BUCKETS = 1;
+
+  public FileStoreCursorIteratorProviderTestCase(String name, int dataSize, int initialBufferSize, int bufferSizeIncrement,
+                                                 int maxBufferSize) {
+    super(name, dataSize, initialBufferSize, bufferSizeIncrement, maxBufferSize);
+  }
+
+  @Override
+  protected CursorIteratorProvider createStreamProvider(List<Object> data) {
+    // Only one bucket besides the current one is kept in memory, so the "Requires expansion" case goes to disk
+    return new FileStoreCursorIteratorProvider(toStreamingIterator(data),
+                                               new FileStoreCursorIteratorConfig(config.getInitialBufferSize(),
+                                                                                 MAX_IN_MEMORY_BUCKETS),
+                                               muleContext.getObjectSerializer());
+  }
+
+  @Override
+  @Test
+  @Description("Items beyond the in memory buffer size are buffered on disk instead of failing")
+  public void bufferSizeExceeded() throws Exception {
+    data.add("I fit on disk");
+    streamProvider.close();
+    streamProvider = createStreamProvider(data);
+
+    withCursor(cursor -> {
+      assertThat(read(cursor, data.size()).size(), is(data.size()));
+      cursor.seek(0);
+      checkEquals(data, cursor);
+    });
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.trace;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_TRACE;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_TRACE_SAMPLE_RATE;
+import static org.mule.runtime.core.api.processor.MessageProcessors.newChain;
+import org.mule.runtime.core.DefaultMuleContext;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.trace.EventTrace;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProcessorTracerTestCase extends AbstractMuleContextTestCase {
+
+  @Rule
+  public SystemProperty processorTrace = new SystemProperty(MULE_PROCESSOR_TRACE, "true");
+
+  @Rule
+  public SystemProperty sampleRate = new SystemProperty(MULE_PROCESSOR_TRACE_SAMPLE_RATE, "1");
+
+  @Test
+  public void chainRecordsSpans() throws Exception {
+    Processor first = event -> event;
+    Processor second = event -> event;
+    InternalEvent event = testEvent();
+
+    process(newChain(first, second), event);
+
+    EventTrace trace = event.getContext().getEventTrace().get();
+    assertThat(trace.getSpanCount(), is(2));
+    assertThat(trace.getProcessorLocation(0), is(first.toString()));
+    assertThat(trace.getProcessorLocation(1), is(second.toString()));
+    for (int i = 0; i < trace.getSpanCount(); ++i) {
+      assertThat(trace.getEndNanos(i), greaterThanOrEqualTo(trace.getStartNanos(i)));
+      assertThat(trace.isFailed(i), is(false));
+    }
+    assertThat(trace.getStartNanos(1), greaterThanOrEqualTo(trace.getEndNanos(0)));
+  }
+
+  @Test
+  public void traceExportedOnCompletion() throws Exception {
+    List<EventTrace> exported = new ArrayList<>();
+    getProcessorTracer().addExporter(exported::add);
+    InternalEvent event = testEvent();
+
+    process(newChain(result -> result), event);
+    event.getContext().success();
+
+    assertThat(exported, contains(sameInstance(event.getContext().getEventTrace().get())));
+  }
+
+  @Test
+  public void sampleRateAppliesToNewEvents() throws Exception {
+    getProcessorTracer().setSampleRate(0);
+
+    assertThat(testEvent().getContext().getEventTrace().isPresent(), is(false));
+  }
+
+  private ProcessorTracer getProcessorTracer() {
+    return ((DefaultMuleContext) muleContext).getProcessorTracer();
+  }
+}
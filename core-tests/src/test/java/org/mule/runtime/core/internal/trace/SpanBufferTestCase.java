@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.trace;
+
+import static java.util.Optional.ofNullable;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.message.GroupCorrelation.of;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.InternalEventContext;
+import org.mule.runtime.core.api.message.GroupCorrelation;
+import org.mule.runtime.core.api.trace.EventTrace;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class SpanBufferTestCase extends AbstractMuleTestCase {
+
+  private static final String EVENT_ID = "eventId";
+
+  private final ProcessorTracer tracer = new ProcessorTracer(SpanBufferTestCase.class.getClassLoader());
+  private InternalEventContext context;
+  private InternalEvent event;
+
+  @Before
+  public void before() {
+    context = mock(InternalEventContext.class);
+    when(context.getId()).thenReturn(EVENT_ID);
+    event = event(context, null);
+  }
+
+  @Test
+  public void spans() {
+    SpanBuffer trace = new SpanBuffer(tracer, context, 4);
+    trace.start("first", event);
+    trace.start("second", event);
+    trace.end("second", event, true);
+    trace.end("first", event, false);
+
+    assertThat(trace.getEventId(), is(EVENT_ID));
+    assertThat(trace.getSpanCount(), is(2));
+    assertThat(trace.getProcessorLocation(0), is("first"));
+    assertThat(trace.getProcessorLocation(1), is("second"));
+    assertThat(trace.getEndNanos(0), greaterThanOrEqualTo(trace.getEndNanos(1)));
+    assertThat(trace.getEndNanos(1), greaterThanOrEqualTo(trace.getStartNanos(1)));
+    assertThat(trace.isFailed(0), is(false));
+    assertThat(trace.isFailed(1), is(true));
+  }
+
+  @Test
+  public void repeatedProcessorEndsLastExecution() {
+    SpanBuffer trace = new SpanBuffer(tracer, context, 4);
+    trace.start("processor", event);
+    trace.end("processor", event, false);
+    final long firstEnd = trace.getEndNanos(0);
+    trace.start("processor", event);
+    trace.end("processor", event, false);
+
+    assertThat(trace.getSpanCount(), is(2));
+    assertThat(trace.getEndNanos(0), is(firstEnd));
+    assertThat(trace.getEndNanos(1), greaterThan(0L));
+  }
+
+  @Test
+  public void concurrentBranchesEndTheirOwnSpans() {
+    InternalEvent firstBranch = event(context, of(1));
+    InternalEvent secondBranch = event(context, of(2));
+    SpanBuffer trace = new SpanBuffer(tracer, context, 4);
+    trace.start("processor", firstBranch);
+    trace.start("processor", secondBranch);
+    trace.end("processor", firstBranch, true);
+
+    assertThat(trace.getEndNanos(0), greaterThan(0L));
+    assertThat(trace.isFailed(0), is(true));
+    assertThat(trace.getEndNanos(1), is(0L));
+  }
+
+  @Test
+  public void childContextsEndTheirOwnSpans() {
+    InternalEvent firstRoute = event(mock(InternalEventContext.class), null);
+    InternalEvent secondRoute = event(mock(InternalEventContext.class), null);
+    SpanBuffer trace = new SpanBuffer(tracer, context, 4);
+    trace.start("processor", firstRoute);
+    trace.start("processor", secondRoute);
+    trace.end("processor", firstRoute, false);
+
+    assertThat(trace.getEndNanos(0), greaterThan(0L));
+    assertThat(trace.getEndNanos(1), is(0L));
+  }
+
+  @Test
+  public void changedBranchEndsLastExecution() {
+    SpanBuffer trace = new SpanBuffer(tracer, context, 4);
+    trace.start("processor", event);
+    trace.end("processor", event(context, of(1)), false);
+
+    assertThat(trace.getEndNanos(0), greaterThan(0L));
+  }
+
+  @Test
+  public void spansBeyondCapacityDropped() {
+    SpanBuffer trace = new SpanBuffer(tracer, context, 2);
+    for (int i = 0; i < 5; ++i) {
+      trace.start("processor" + i, event);
+    }
+
+    assertThat(trace.getSpanCount(), is(2));
+    assertThat(trace.getDroppedSpans(), is(3));
+  }
+
+  @Test
+  public void export() {
+    List<EventTrace> exported = new ArrayList<>();
+    tracer.addExporter(exported::add);
+
+    SpanBuffer trace = new SpanBuffer(tracer, context, 2);
+    trace.export();
+    assertThat(exported.size(), is(1));
+    assertThat(exported.get(0), sameInstance(trace));
+  }
+
+  @Test
+  public void failingExporterDoesNotPreventOthers() {
+    List<EventTrace> exported = new ArrayList<>();
+    tracer.addExporter(trace -> {
+      throw new IllegalStateException();
+    });
+    tracer.addExporter(exported::add);
+
+    new SpanBuffer(tracer, context, 2).export();
+    assertThat(exported.size(), is(1));
+  }
+
+  private static InternalEvent event(InternalEventContext context, GroupCorrelation groupCorrelation) {
+    InternalEvent event = mock(InternalEvent.class);
+    when(event.getContext()).thenReturn(context);
+    when(event.getGroupCorrelation()).thenReturn(ofNullable(groupCorrelation));
+    return event;
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY1 = "FOO";
+  private static final String KEY2 = "doo";
+
+  // have the same hash code once their case is folded to "aan" and "ac0"
+  private static final String COLLIDING_KEY1 = "Aan";
+  private static final String COLLIDING_KEY2 = "AC0";
+
+  @Test
+  public void caseInsensitive() {
+    PersistentCaseInsensitiveMap<Integer> map = createTestMap();
+
+    assertThat(map.get("foo"), is(1));
+    assertThat(map.get("FOO"), is(1));
+    assertThat(map.get("DOO"), is(2));
+    assertThat(map.containsKey("Doo"), is(true));
+    assertThat(map.get("bar"), nullValue());
+    assertThat(map.containsKey("bar"), is(false));
+  }
+
+  @Test
+  public void keysCaseSensitive() {
+    assertThat(createTestMap().keySet(), containsInAnyOrder(KEY1, KEY2));
+  }
+
+  @Test
+  public void replaceKeepsOriginalKey() {
+    PersistentCaseInsensitiveMap<Integer> map = createTestMap().plus("foo", 3);
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get(KEY1), is(3));
+    assertThat(map.keySet(), containsInAnyOrder(KEY1, KEY2));
+  }
+
+  @Test
+  public void derivedMapsDoNotChangeOriginal() {
+    PersistentCaseInsensitiveMap<Integer> map = createTestMap();
+
+    PersistentCaseInsensitiveMap<Integer> added = map.plus("bar", 3);
+    PersistentCaseInsensitiveMap<Integer> removed = map.minus("foo");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.containsKey("bar"), is(false));
+    assertThat(map.containsKey("foo"), is(true));
+    assertThat(added.size(), is(3));
+    assertThat(added.get("BAR"), is(3));
+    assertThat(removed.keySet(), contains(KEY2));
+  }
+
+  @Test
+  public void unchangedMapReturnedWhenNothingChanges() {
+    PersistentCaseInsensitiveMap<Integer> map = createTestMap();
+
+    assertThat(map.minus("bar"), sameInstance(map));
+    assertThat(map.plus("foo", map.get("foo")), sameInstance(map));
+  }
+
+  @Test
+  public void collidingKeys() {
+    PersistentCaseInsensitiveMap<Integer> map =
+        PersistentCaseInsensitiveMap.<Integer>empty().plus(COLLIDING_KEY1, 1).plus(COLLIDING_KEY2, 2);
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("aAN"), is(1));
+    assertThat(map.get("ac0"), is(2));
+    assertThat(map.plus("AAN", 3).get("aan"), is(3));
+    assertThat(map.plus("aac", 4).size(), is(3));
+    assertThat(map.minus("AAN").keySet(), contains(COLLIDING_KEY2));
+    assertThat(map.minus("aan").minus("Ac0").isEmpty(), is(true));
+  }
+
+  @Test
+  public void manyEntries() {
+    Map<String, Integer> expected = new HashMap<>();
+    PersistentCaseInsensitiveMap<Integer> map = PersistentCaseInsensitiveMap.empty();
+    for (int i = 0; i < 10000; i++) {
+      expected.put("key" + i, i);
+      map = map.plus("KEY" + i, i);
+    }
+    for (int i = 0; i < 10000; i += 2) {
+      expected.remove("key" + i);
+      map = map.minus("Key" + i);
+    }
+
+    assertThat(map.size(), is(expected.size()));
+    for (Map.Entry<String, Integer> entry : map.entrySet()) {
+      assertThat(expected.get(entry.getKey().toLowerCase()), is(entry.getValue()));
+    }
+  }
+
+  @Test
+  public void copyOf() {
+    Map<String, Integer> source = new HashMap<>();
+    source.put(KEY1, 1);
+    source.put(KEY2, 2);
+
+    PersistentCaseInsensitiveMap<Integer> map = PersistentCaseInsensitiveMap.copyOf(source);
+
+    assertThat(map, equalTo(createTestMap()));
+    assertThat(PersistentCaseInsensitiveMap.copyOf(map), sameInstance(map));
+  }
+
+  @Test
+  public void serialize() {
+    PersistentCaseInsensitiveMap<Integer> map = createTestMap();
+
+    PersistentCaseInsensitiveMap<Integer> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+    assertThat(deserialized, equalTo(map));
+    assertThat(deserialized.get("foo"), is(1));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    createTestMap().put("bar", 3);
+  }
+
+  private PersistentCaseInsensitiveMap<Integer> createTestMap() {
+    return PersistentCaseInsensitiveMap.<Integer>empty().plus(KEY1, 1).plus(KEY2, 2);
+  }
+}
@@ -9,16 +9,29 @@ package org.mule.runtime.core.internal.util.journal;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.junit.Assert.assertThat;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -30,6 +43,18 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
   @Rule
   public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
+  private Scheduler writerScheduler;
+
+  @Before
+  public void before() {
+    writerScheduler = muleContext.getSchedulerService().ioScheduler();
+  }
+
+  @After
+  public void after() {
+    writerScheduler.stop();
+  }
+
   @Test
   public void largeQueueName() throws Exception {
     final String queueName = RandomStringUtils.randomAlphanumeric(129);
@@ -51,11 +76,75 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void entriesAfterCorruptedRecordAreIgnored() throws Exception {
+    final String queueName = "queue";
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal();
+    journal.logOperation(new LocalQueueTxJournalEntry(1, (byte) 5, queueName, "first")).get();
+    journal.logOperation(new LocalQueueTxJournalEntry(2, (byte) 5, queueName, "second")).get();
+    journal.close();
+
+    try (RandomAccessFile journalFile = new RandomAccessFile(new File(temporaryFolder.getRoot(), "journal"), "rw")) {
+      journalFile.seek(journalFile.length() - 1);
+      journalFile.write(journalFile.read() + 1);
+    }
+
+    journal = openJournal();
+    assertThat(journal.getLogEntries(1).size(), equalTo(1));
+    assertThat(journal.getLogEntries(2).isEmpty(), is(true));
+  }
+
+  @Test
+  public void legacyFormatLoadedAndRewritten() throws Exception {
+    final String queueName = "queue";
+    final Serializable payload = "Hello World!";
+    final File journalFile = new File(temporaryFolder.getRoot(), "journal");
+    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+    try (DataOutputStream legacyOutputStream = new DataOutputStream(new FileOutputStream(journalFile))) {
+      serializer.serialize(new LocalQueueTxJournalEntry(1, (byte) 5, queueName, payload), legacyOutputStream);
+    }
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal();
+    assertThat(journal.getLogEntries(1).iterator().next().getValue(), equalTo(payload));
+    journal.close();
+
+    try (DataInputStream journalInputStream = new DataInputStream(new FileInputStream(journalFile))) {
+      assertThat(journalInputStream.readInt(), is(TransactionJournalFile.FORMAT_HEADER));
+    }
+    journal = openJournal();
+    assertThat(journal.getLogEntries(1).iterator().next().getValue(), equalTo(payload));
+  }
+
+  @Test
+  public void concurrentOperationsAreAllWritten() throws Exception {
+    final TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal();
+    final List<Future<Void>> written = new ArrayList<>();
+    final ExecutorService executor = newFixedThreadPool(8);
+    try {
+      for (int i = 0; i < 100; i++) {
+        final int txId = i;
+        written.add(executor.submit(() -> journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 5, "queue", txId))
+            .get()));
+      }
+      for (Future<Void> future : written) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    journal.close();
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> reopened = openJournal();
+    for (int i = 0; i < 100; i++) {
+      assertThat(reopened.getLogEntries(i).iterator().next().getValue(), equalTo(i));
+    }
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, writerScheduler);
   }
 
 }
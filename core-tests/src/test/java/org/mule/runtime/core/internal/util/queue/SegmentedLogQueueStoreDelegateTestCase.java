@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.scheduler.SchedulerConfig.config;
+import static org.mule.runtime.core.internal.util.queue.SegmentedLogQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedLogQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int MESSAGES = 50;
+  private static final long TIMEOUT = 100;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(SEGMENT_SIZE_PROPERTY_KEY, "256");
+
+  private MuleContext mockMuleContext;
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private SegmentedLogQueueStoreDelegate queueStore;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    when(mockMuleContext.getSchedulerBaseConfig()).thenReturn(config());
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+  }
+
+  @After
+  public void after() throws Exception {
+    queueStore.dispose();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() {
+    String[] testNames = new String[] {"test-test", "test:/test", "test?test", "test:\\test", "test&test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      SegmentedLogQueueStoreDelegate store = createTestQueueStore(testName);
+      store.putNow("item");
+      store.dispose();
+    }
+  }
+
+  @Test
+  public void entriesRecoveredInOrderAfterReopen() throws Exception {
+    putMessages(0, MESSAGES);
+    for (int i = 0; i < 5; i++) {
+      assertThat(queueStore.poll(TIMEOUT), is(message(i)));
+    }
+
+    reopen();
+
+    assertThat(queueStore.getSize(), is(MESSAGES - 5));
+    for (int i = 5; i < MESSAGES; i++) {
+      assertThat(queueStore.poll(TIMEOUT), is(message(i)));
+    }
+    assertThat(queueStore.poll(TIMEOUT), is(nullValue()));
+  }
+
+  @Test
+  public void untakenEntryRecoveredAtHead() throws Exception {
+    putMessages(0, 2);
+    assertThat(queueStore.poll(TIMEOUT), is(message(0)));
+    queueStore.untake(message(0));
+
+    reopen();
+
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.poll(TIMEOUT), is(message(0)));
+    assertThat(queueStore.poll(TIMEOUT), is(message(1)));
+  }
+
+  @Test
+  public void removedEntryNotRecovered() throws Exception {
+    putMessages(0, 3);
+    queueStore.remove(message(1));
+    assertThat(queueStore.contains(message(1)), is(false));
+
+    reopen();
+
+    assertThat(queueStore.contains(message(1)), is(false));
+    assertThat(queueStore.poll(TIMEOUT), is(message(0)));
+    assertThat(queueStore.poll(TIMEOUT), is(message(2)));
+    assertThat(queueStore.poll(TIMEOUT), is(nullValue()));
+  }
+
+  @Test
+  public void newEntriesAddedAfterConsumingEverything() throws Exception {
+    putMessages(0, 3);
+    queueStore.clear();
+    reopen();
+    assertThat(queueStore.getSize(), is(0));
+
+    putMessages(3, 4);
+    reopen();
+    assertThat(queueStore.poll(TIMEOUT), is(message(3)));
+    assertThat(queueStore.getSize(), is(0));
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws Exception {
+    putMessages(0, MESSAGES);
+    assertThat(segmentFiles().size() > 1, is(true));
+
+    for (int i = 0; i < MESSAGES; i++) {
+      queueStore.poll(TIMEOUT);
+    }
+    assertThat(segmentFiles().size(), is(1));
+  }
+
+  @Test
+  public void compactionRelocatesEntriesOfOldestSegment() throws Exception {
+    putMessages(0, MESSAGES);
+    final File oldestSegment = segmentFiles().get(0);
+
+    // leave only the first entry in the oldest segment
+    for (int i = 1; i < 10; i++) {
+      queueStore.remove(message(i));
+    }
+    queueStore.compact();
+    assertThat(oldestSegment.exists(), is(false));
+
+    reopen();
+
+    assertThat(queueStore.poll(TIMEOUT), is(message(0)));
+    for (int i = 10; i < MESSAGES; i++) {
+      assertThat(queueStore.poll(TIMEOUT), is(message(i)));
+    }
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    queueStore.putNow("item");
+
+    File queueFolder = new File(workingDirectory.getRoot().getAbsolutePath() + "/queuestore");
+    assertThat(queueFilesExist(queueFolder), is(true));
+
+    queueStore.dispose();
+    assertThat(queueFilesExist(queueFolder), is(false));
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final int first = i * MESSAGES;
+      producers.add(new Thread(() -> putMessages(first, first + MESSAGES)));
+    }
+    producers.forEach(Thread::start);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    reopen();
+    assertThat(queueStore.getSize(), is(4 * MESSAGES));
+  }
+
+  private void putMessages(int from, int to) {
+    for (int i = from; i < to; i++) {
+      queueStore.putNow(message(i));
+    }
+  }
+
+  private String message(int index) {
+    return "message-" + index;
+  }
+
+  private void reopen() {
+    queueStore.close();
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+  }
+
+  private List<File> segmentFiles() {
+    List<File> segments = new ArrayList<>();
+    for (int id = 0; id < 1000; id++) {
+      File segment = new File(workingDirectory.getRoot(), "queuestore/" + TEST_QUEUE_NAME + "-log-" + id);
+      if (segment.exists()) {
+        segments.add(segment);
+      }
+    }
+    return segments;
+  }
+
+  private boolean queueFilesExist(File queueFolder) {
+    for (File file : queueFolder.listFiles()) {
+      if (file.getName().contains(TEST_QUEUE_NAME)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private SegmentedLogQueueStoreDelegate createTestQueueStore(String queueName) {
+    return new SegmentedLogQueueStoreDelegate(queueName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+  }
+}
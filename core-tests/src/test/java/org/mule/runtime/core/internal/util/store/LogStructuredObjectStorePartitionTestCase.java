@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final long SEGMENT_SIZE = 512;
+  private static final int ENTRIES = 50;
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  @Mock
+  private MuleContext muleContext;
+
+  private final List<Runnable> pendingCompactions = new ArrayList<>();
+  private boolean deferCompactions = false;
+  private final Executor compactionExecutor = compaction -> {
+    if (deferCompactions) {
+      pendingCompactions.add(compaction);
+    } else {
+      compaction.run();
+    }
+  };
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = createPartition();
+  }
+
+  @After
+  public void tearDown() {
+    partition.dispose();
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void retrieveUnexistentKey() throws Exception {
+    partition.retrieve("nonExistentKey");
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws Exception {
+    partition.store("key", "value");
+    partition.store("key", "other value");
+  }
+
+  @Test
+  public void entriesLoadedAfterReopen() throws Exception {
+    storeEntries();
+    partition.remove(key(3));
+
+    reopen();
+
+    assertThat(partition.allKeys().size(), is(ENTRIES - 1));
+    assertThat(partition.contains(key(3)), is(false));
+    assertThat(partition.retrieve(key(4)), is(value(4)));
+  }
+
+  @Test
+  public void removedKeyStoredAgain() throws Exception {
+    partition.store("key", "value");
+    assertThat(partition.remove("key"), is("value"));
+    partition.store("key", "other value");
+
+    reopen();
+
+    assertThat(partition.retrieve("key"), is("other value"));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    storeEntries();
+    partition.clear();
+    assertThat(partition.allKeys().isEmpty(), is(true));
+
+    partition.store("key", "value");
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder("key"));
+  }
+
+  @Test
+  public void clearBeforeLoaded() throws Exception {
+    storeEntries();
+    reopen();
+
+    partition.clear();
+    assertThat(segmentFiles().length, is(1));
+
+    reopen();
+    assertThat(partition.allKeys().isEmpty(), is(true));
+  }
+
+  @Test
+  public void expireOldestWhenMaxEntriesExceeded() throws Exception {
+    storeEntries();
+    partition.expire(UNBOUNDED, 10);
+
+    assertThat(partition.allKeys().size(), is(10));
+    for (int i = ENTRIES - 10; i < ENTRIES; i++) {
+      assertThat(partition.contains(key(i)), is(true));
+    }
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("old", "value");
+    Thread.sleep(200);
+    partition.store("new", "value");
+
+    partition.expire(100, UNBOUNDED);
+
+    assertThat(partition.allKeys(), containsInAnyOrder("new"));
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder("new"));
+  }
+
+  @Test
+  public void compactionDeletesSegmentsOfRemovedEntries() throws Exception {
+    storeEntries();
+    final int segments = segmentFiles().length;
+    assertThat(segments > 2, is(true));
+
+    for (int i = 0; i < ENTRIES - 1; i++) {
+      partition.remove(key(i));
+    }
+    partition.expire(UNBOUNDED, UNBOUNDED);
+    assertThat(segmentFiles().length, lessThan(segments));
+    assertThat(partition.retrieve(key(ENTRIES - 1)), is(value(ENTRIES - 1)));
+
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder(key(ENTRIES - 1)));
+    assertThat(partition.retrieve(key(ENTRIES - 1)), is(value(ENTRIES - 1)));
+  }
+
+  @Test
+  public void entriesChangedBeforeCompactionRuns() throws Exception {
+    deferCompactions = true;
+    storeEntries();
+    for (int i = 0; i < ENTRIES - 2; i++) {
+      partition.remove(key(i));
+    }
+    partition.expire(UNBOUNDED, UNBOUNDED);
+    assertThat(pendingCompactions.size(), is(1));
+
+    partition.remove(key(ENTRIES - 2));
+    partition.store(key(0), "other value");
+    pendingCompactions.remove(0).run();
+    // the compactions requested while the pending one was not done are submitted once it is
+    assertThat(pendingCompactions.size(), is(1));
+    pendingCompactions.remove(0).run();
+
+    assertThat(partition.allKeys(), containsInAnyOrder(key(0), key(ENTRIES - 1)));
+    assertThat(partition.retrieve(key(ENTRIES - 1)), is(value(ENTRIES - 1)));
+
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder(key(0), key(ENTRIES - 1)));
+    assertThat(partition.retrieve(key(0)), is("other value"));
+  }
+
+  @Test
+  public void incompleteRecordDiscarded() throws Exception {
+    partition.store("key", "value");
+    partition.store("other", "value");
+    partition.dispose();
+
+    File segment = segmentFiles()[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    partition = createPartition();
+    assertThat(partition.allKeys(), containsInAnyOrder("key"));
+
+    partition.store("another", "value");
+    reopen();
+    assertThat(partition.allKeys(), containsInAnyOrder("key", "another"));
+  }
+
+  private void storeEntries() throws Exception {
+    for (int i = 0; i < ENTRIES; i++) {
+      partition.store(key(i), value(i));
+    }
+  }
+
+  private String key(int index) {
+    return "key-" + index;
+  }
+
+  private String value(int index) {
+    return "value-" + index;
+  }
+
+  private File[] segmentFiles() {
+    return objectStoreFolder.getRoot().listFiles((dir, name) -> name.endsWith(".segment"));
+  }
+
+  private void reopen() throws Exception {
+    partition.dispose();
+    partition = createPartition();
+  }
+
+  private LogStructuredObjectStorePartition<String> createPartition() throws Exception {
+    LogStructuredObjectStorePartition<String> partition =
+        new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), SEGMENT_SIZE,
+                                                compactionExecutor);
+    partition.open();
+    return partition;
+  }
+}
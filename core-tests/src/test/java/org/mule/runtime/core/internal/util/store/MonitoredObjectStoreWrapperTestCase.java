@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.core.internal.util.store.MonitoredObjectStoreWrapper.StoredObject;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class MonitoredObjectStoreWrapperTestCase extends AbstractMuleTestCase {
+
+  private static final long ENTRY_TTL = 5000;
+
+  private final ObjectStore<StoredObject<String>> baseStore = mock(ObjectStore.class);
+
+  @Before
+  public void before() throws Exception {
+    final long now = System.currentTimeMillis();
+    // the live entries are found before the expired ones, so they are kept as candidates for eviction first
+    for (int i = 1; i <= 4; ++i) {
+      store("live" + i, now - 10 + i);
+    }
+    store("expired1", now - 2 * ENTRY_TTL);
+    store("expired2", now - 2 * ENTRY_TTL);
+    when(baseStore.allKeys()).thenReturn(asList("live1", "live2", "live3", "live4", "expired1", "expired2"));
+  }
+
+  @Test
+  public void expiredEntriesReduceEvictions() throws Exception {
+    createWrapper(3).expire();
+
+    verify(baseStore).remove("expired1");
+    verify(baseStore).remove("expired2");
+    verify(baseStore).remove("live1");
+    verify(baseStore, never()).remove("live2");
+    verify(baseStore, never()).remove("live3");
+    verify(baseStore, never()).remove("live4");
+  }
+
+  @Test
+  public void noEvictionsWhenExpiredEntriesCoverExcess() throws Exception {
+    createWrapper(4).expire();
+
+    verify(baseStore).remove("expired1");
+    verify(baseStore).remove("expired2");
+    for (int i = 1; i <= 4; ++i) {
+      verify(baseStore, never()).remove("live" + i);
+    }
+  }
+
+  private void store(String key, long timestamp) throws Exception {
+    when(baseStore.retrieve(key)).thenReturn(new StoredObject<>("value", timestamp, key));
+  }
+
+  private MonitoredObjectStoreWrapper<String> createWrapper(int maxEntries) {
+    return new MonitoredObjectStoreWrapper<>(baseStore, ObjectStoreSettings.builder()
+        .maxEntries(maxEntries)
+        .entryTtl(ENTRY_TTL)
+        .build());
+  }
+}
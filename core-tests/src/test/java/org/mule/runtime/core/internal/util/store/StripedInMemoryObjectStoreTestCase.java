@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class StripedInMemoryObjectStoreTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_PARTITION = "testPartition";
+  private static final String TEST_VALUE = "testValue";
+  private static final String TEST_KEY1 = "testKey1";
+  private static final String TEST_KEY2 = "testKey2";
+  private static final String TEST_KEY3 = "testKey3";
+
+  private StripedInMemoryObjectStore<String> store;
+
+  private long currentNanoTime = MILLISECONDS.toNanos(1);
+
+  @Before
+  public void setup() {
+    store = new StripedInMemoryObjectStore<String>() {
+
+      @Override
+      protected long getCurrentNanoTime() {
+        return currentNanoTime;
+      }
+    };
+  }
+
+  @Test
+  public void expireByTtlMultipleKeysInsertedInTheSameMillisecond() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void expireByNumberOfEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(10, 1, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), containsInAnyOrder(TEST_KEY3));
+  }
+
+  @Test
+  public void expiredEntriesRemovedOnAccess() throws ObjectStoreException {
+    store.expire(10, UNBOUNDED, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(10);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+
+    currentNanoTime = MILLISECONDS.toNanos(11);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryEvictedOnStore() throws ObjectStoreException {
+    store.expire(UNBOUNDED, 2, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.retrieve(TEST_KEY1, TEST_PARTITION);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), containsInAnyOrder(TEST_KEY1, TEST_KEY3));
+  }
+
+  @Test
+  public void entriesRescheduledWhenTtlChanges() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(100, UNBOUNDED, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(51);
+    store.expire(50, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void ttlBeyondTimingWheelSpan() throws ObjectStoreException {
+    store.expire(HOURS.toMillis(10), UNBOUNDED, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = HOURS.toNanos(5);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+
+    currentNanoTime = HOURS.toNanos(10);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+
+    currentNanoTime = HOURS.toNanos(10) + MILLISECONDS.toNanos(1);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void manyEntriesExpireInStoreOrder() throws ObjectStoreException {
+    store.expire(1000, UNBOUNDED, TEST_PARTITION);
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      currentNanoTime = MILLISECONDS.toNanos(1 + i);
+      keys.add("key" + i);
+      store.store("key" + i, TEST_VALUE, TEST_PARTITION);
+    }
+
+    currentNanoTime = MILLISECONDS.toNanos(1 + 4000 + 1000);
+    store.expire(1000, UNBOUNDED, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION).size(), is(999));
+    assertThat(store.contains(keys.get(4000), TEST_PARTITION), is(false));
+    assertThat(store.contains(keys.get(4001), TEST_PARTITION), is(true));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+  }
+
+  @Test
+  public void disposePartition() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.disposePartition(TEST_PARTITION);
+
+    assertThat(store.allPartitions().contains(TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+}
@@ -69,6 +69,7 @@ abstract class AbstractEventContext implements InternalEventContext {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(this + " execution completed.");
       }
+      onComplete();
     }).subscribe();
     // When there are no child contexts response triggers completion directly.
     completionSubscriberDisposable = Mono.<Void>whenDelayError(completionCallback,
@@ -182,6 +183,13 @@ abstract class AbstractEventContext implements InternalEventContext {
     return completionProcessor;
   }
 
+  /**
+   * Invoked once this context and all of its children are complete.
+   */
+  protected void onComplete() {
+    // Nothing to do by default
+  }
+
   protected MessagingExceptionHandler getExceptionHandler() {
     return exceptionHandler;
   }
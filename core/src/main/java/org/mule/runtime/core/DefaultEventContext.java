@@ -22,7 +22,10 @@ import org.mule.runtime.core.api.exception.MessagingException;
 import org.mule.runtime.core.api.exception.MessagingExceptionHandler;
 import org.mule.runtime.core.api.management.stats.ProcessingTime;
 import org.mule.runtime.core.api.source.MessageSource;
+import org.mule.runtime.core.api.trace.EventTrace;
 import org.mule.runtime.core.internal.context.notification.DefaultProcessorsTrace;
+import org.mule.runtime.core.internal.trace.ProcessorTracer;
+import org.mule.runtime.core.internal.trace.SpanBuffer;
 
 import java.io.Serializable;
 import java.time.OffsetTime;
@@ -183,6 +186,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   private final ProcessingTime processingTime;
   private final ProcessorsTrace processorsTrace = new DefaultProcessorsTrace();
+  private final transient SpanBuffer eventTrace;
 
   @Override
   public String getId() {
@@ -214,6 +218,21 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     return correlationId != null;
   }
 
+  @Override
+  public Optional<EventTrace> getEventTrace() {
+    return ofNullable(eventTrace);
+  }
+
+  @Override
+  protected void onComplete() {
+    if (processingTime != null) {
+      processingTime.complete();
+    }
+    if (eventTrace != null) {
+      eventTrace.export();
+    }
+  }
+
   @Override
   public ProcessorsTrace getProcessorsTrace() {
     return processorsTrace;
@@ -243,6 +262,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     this.location = location;
     this.processingTime = ProcessingTime.newInstance(flow);
     this.correlationId = correlationId;
+    this.eventTrace = ProcessorTracer.sample(flow, this);
   }
 
   /**
@@ -264,6 +284,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     this.location = location;
     this.processingTime = null;
     this.correlationId = correlationId;
+    this.eventTrace = null;
   }
 
   @Override
@@ -318,6 +339,11 @@ public final class DefaultEventContext extends AbstractEventContext implements S
       return parent.getProcessorsTrace();
     }
 
+    @Override
+    public Optional<EventTrace> getEventTrace() {
+      return parent.getEventTrace();
+    }
+
     @Override
     public boolean isCorrelationIdFromSource() {
       return parent.isCorrelationIdFromSource();
@@ -116,6 +116,7 @@ import org.mule.runtime.core.internal.config.NullClusterConfiguration;
 import org.mule.runtime.core.internal.connector.DefaultSchedulerController;
 import org.mule.runtime.core.internal.exception.ErrorHandlerFactory;
 import org.mule.runtime.core.internal.lifecycle.MuleContextLifecycleManager;
+import org.mule.runtime.core.internal.trace.ProcessorTracer;
 import org.mule.runtime.core.internal.transformer.DynamicDataTypeConversionResolver;
 import org.mule.runtime.core.internal.util.JdkVersionUtils;
 import org.mule.runtime.core.internal.util.splash.ApplicationShutdownSplashScreen;
@@ -233,6 +234,9 @@ public class DefaultMuleContext implements MuleContext {
   private volatile FlowTraceManager flowTraceManager;
   private Object flowTraceManagerLock = new Object();
 
+  private volatile ProcessorTracer processorTracer;
+  private Object processorTracerLock = new Object();
+
   private volatile Collection<ExceptionContextProvider> exceptionContextProviders;
   private Object exceptionContextProvidersLock = new Object();
 
@@ -987,6 +991,21 @@ public class DefaultMuleContext implements MuleContext {
     return flowTraceManager;
   }
 
+  /**
+   * @return the tracer of the processors executed for the events of this context, with the exporters found in its
+   *         {@link #getExecutionClassLoader() execution class loader}.
+   */
+  public ProcessorTracer getProcessorTracer() {
+    if (processorTracer == null) {
+      synchronized (processorTracerLock) {
+        if (processorTracer == null) {
+          processorTracer = new ProcessorTracer(getExecutionClassLoader());
+        }
+      }
+    }
+    return processorTracer;
+  }
+
   @Override
   public Collection<ExceptionContextProvider> getExceptionContextProviders() {
     if (exceptionContextProviders == null) {
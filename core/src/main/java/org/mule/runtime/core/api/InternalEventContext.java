@@ -11,6 +11,7 @@ import org.mule.runtime.api.event.EventContext;
 import org.mule.runtime.core.api.config.DefaultMuleConfiguration;
 import org.mule.runtime.core.api.context.notification.ProcessorsTrace;
 import org.mule.runtime.core.api.management.stats.ProcessingTime;
+import org.mule.runtime.core.api.trace.EventTrace;
 
 import java.time.OffsetTime;
 import java.util.Optional;
@@ -95,6 +96,15 @@ public interface InternalEventContext extends EventContext {
    */
   ProcessorsTrace getProcessorsTrace();
 
+  /**
+   * @return the start and end of each processor executed for this context, if it was sampled for tracing.
+   *
+   * @since 4.0
+   */
+  default Optional<EventTrace> getEventTrace() {
+    return Optional.empty();
+  }
+
   /**
    * Used to determine if the correlation was set by the source connector or was generated.
    *
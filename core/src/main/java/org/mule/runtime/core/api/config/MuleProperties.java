@@ -194,6 +194,25 @@ public class MuleProperties {
   public static final String MULE_SECURITY_PROVIDER_PROPERTY = SYSTEM_PROPERTY_PREFIX + "security.provider";
   public static final String MULE_STREAMING_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "streaming.bufferSize";
   public static final String MULE_STREAMING_MAX_MEMORY = SYSTEM_PROPERTY_PREFIX + "max.streaming.memory";
+  public static final String MULE_STREAMING_SLAB_BUFFERS = SYSTEM_PROPERTY_PREFIX + "streaming.slabBuffers";
+  public static final String MULE_STREAMING_DIRECT_BUFFERS = SYSTEM_PROPERTY_PREFIX + "streaming.directBuffers";
+  public static final String MULE_QUEUE_SEGMENTED_LOG = SYSTEM_PROPERTY_PREFIX + "queue.segmentedLog";
+  public static final String MULE_OBJECT_STORE_LOG_STRUCTURED_PARTITIONS =
+      SYSTEM_PROPERTY_PREFIX + "objectStore.logStructuredPartitions";
+  public static final String MULE_OBJECT_STORE_STRIPED_IN_MEMORY = SYSTEM_PROPERTY_PREFIX + "objectStore.stripedInMemory";
+  public static final String MULE_CONNECTION_POOL_CONCURRENT = SYSTEM_PROPERTY_PREFIX + "connection.pool.concurrent";
+  public static final String MULE_NOTIFICATION_BUS = SYSTEM_PROPERTY_PREFIX + "notifications.bus";
+  public static final String MULE_NOTIFICATION_BUS_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "notifications.bus.bufferSize";
+  public static final String MULE_NOTIFICATION_BUS_OVERFLOW_POLICY = SYSTEM_PROPERTY_PREFIX + "notifications.bus.overflowPolicy";
+  public static final String MULE_PROCESSOR_TRACE = SYSTEM_PROPERTY_PREFIX + "processorTrace";
+  /**
+   * One of how many events is sampled for processor tracing when {@link #MULE_PROCESSOR_TRACE} is enabled: {@code 1} traces
+   * every event, {@code 100} (the default) one in a hundred and {@code 0} none. It is not a percentage.
+   */
+  public static final String MULE_PROCESSOR_TRACE_SAMPLE_RATE = SYSTEM_PROPERTY_PREFIX + "processorTrace.sampleRate";
+  public static final String MULE_PROCESSOR_TRACE_MAX_SPANS = SYSTEM_PROPERTY_PREFIX + "processorTrace.maxSpans";
+  public static final String MULE_CLASSLOADING_LOOKUP_CACHE = SYSTEM_PROPERTY_PREFIX + "classloading.lookupCache";
+  public static final String MULE_CLASSLOADING_LOOKUP_CACHE_SIZE = SYSTEM_PROPERTY_PREFIX + "classloading.lookupCache.size";
   public static final String MULE_SIMPLE_LOG = SYSTEM_PROPERTY_PREFIX + "simpleLog";
   public static final String MULE_FORCE_CONSOLE_LOG = SYSTEM_PROPERTY_PREFIX + "forceConsoleLog";
   public static final String MULE_LOG_CONTEXT_DISPOSE_DELAY_MILLIS = SYSTEM_PROPERTY_PREFIX + "log.context.dispose.delay.millis";
@@ -6,8 +6,16 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.System.getProperty;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATION_BUS;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATION_BUS_BUFFER_SIZE;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATION_BUS_OVERFLOW_POLICY;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -16,6 +24,9 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.internal.context.notification.Configuration;
+import org.mule.runtime.core.internal.context.notification.NotificationBus;
+import org.mule.runtime.core.internal.context.notification.NotificationListenerStatistics;
+import org.mule.runtime.core.internal.context.notification.NotificationOverflowPolicy;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
 
@@ -53,18 +64,27 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * When the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_NOTIFICATION_BUS} system property is set, asynchronous
+ * notifications are delivered through a {@link NotificationBus} on a scheduler of their own instead of submitting a task per
+ * listener and notification to the shared schedulers, and firing them doesn't take any lock.
+ * </p>
  */
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
   private boolean dynamic = false;
-  private Configuration configuration = new Configuration();
+  private volatile Configuration configuration = new Configuration();
   private ReentrantReadWriteLock disposeLock = new ReentrantReadWriteLock();
   private AtomicBoolean disposed = new AtomicBoolean(false);
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private Scheduler notificationsBusScheduler;
+  private volatile NotificationBus notificationBus;
+  private final NotifierCallback busNotifier = (listener, nfn) -> notificationBus.publish(listener, nfn);
 
   @Override
   public boolean isNotificationDynamic() {
@@ -87,6 +107,15 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   public void initialise() throws InitialisationException {
     notificationsLiteScheduler = muleContext.getSchedulerService().cpuLightScheduler();
     notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
+
+    if (getBoolean(MULE_NOTIFICATION_BUS)) {
+      notificationsBusScheduler = muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig().withName("notifications")
+              .withMaxConcurrentTasks(getRuntime().availableProcessors()));
+      notificationBus = new NotificationBus(notificationsBusScheduler, getInteger(MULE_NOTIFICATION_BUS_BUFFER_SIZE, 1024),
+                                            NotificationOverflowPolicy
+                                                .valueOf(getProperty(MULE_NOTIFICATION_BUS_OVERFLOW_POLICY, "BLOCK")));
+    }
   }
 
   public void addInterfaceToType(Class<? extends NotificationListener> iface,
@@ -117,6 +146,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    if (notificationBus != null) {
+      notificationBus.remove(listener);
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -144,6 +176,11 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
 
   @Override
   public void fireNotification(Notification notification) {
+    if (notificationBus != null && !notification.isSynchronous()) {
+      publishNotification(notification);
+      return;
+    }
+
     disposeLock.readLock().lock();
     try {
       if (disposed.get()) {
@@ -170,6 +207,19 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private void publishNotification(Notification notification) {
+    Configuration configuration = this.configuration;
+    if (disposed.get() || configuration == null) {
+      logger.warn("Notification not enqueued after ServerNotificationManager disposal: " + notification);
+      return;
+    }
+
+    if (notification instanceof AbstractServerNotification) {
+      ((AbstractServerNotification) notification).setServerId(muleContext.getId());
+    }
+    configuration.getPolicy().dispatch(notification, busNotifier);
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -201,6 +251,13 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
         notificationsIoScheduler.stop();
         notificationsIoScheduler = null;
       }
+      if (notificationBus != null) {
+        notificationBus.stop();
+      }
+      if (notificationsBusScheduler != null) {
+        notificationsBusScheduler.stop();
+        notificationsBusScheduler = null;
+      }
 
       disposed.set(true);
       configuration = null;
@@ -242,4 +299,12 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   public boolean isDisposed() {
     return disposed.get();
   }
+
+  /**
+   * @return the statistics of the delivery of asynchronous notifications to each listener, empty unless the
+   *         {@link NotificationBus} is enabled
+   */
+  public Map<NotificationListener, NotificationListenerStatistics> getListenerStatistics() {
+    return notificationBus != null ? notificationBus.getStatistics() : emptyMap();
+  }
 }
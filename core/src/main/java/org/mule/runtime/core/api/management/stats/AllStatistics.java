@@ -84,4 +84,17 @@ public class AllStatistics {
   public FlowConstructStatistics getApplicationStatistics() {
     return appStats;
   }
+
+  /**
+   * @return for each flow construct, the time required to process each event since the previous invocation of this method
+   */
+  public synchronized Map<String, LatencyHistogram.Snapshot> getIntervalProcessingTimeHistograms() {
+    Map<String, LatencyHistogram.Snapshot> histograms = new HashMap<>();
+    for (FlowConstructStatistics statistics : flowConstructStats.values()) {
+      if (statistics != appStats) {
+        histograms.put(statistics.getName(), statistics.getIntervalProcessingTimeHistogram());
+      }
+    }
+    return histograms;
+  }
 }
@@ -8,12 +8,19 @@ package org.mule.runtime.core.api.management.stats;
 
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api.
+ * <p/>
+ * Execution times may be recorded concurrently without taking any lock. Each statistic is updated atomically, but readings taken
+ * while events are being recorded, or while the statistics are {@link #clear() cleared}, may be slightly inconsistent with each
+ * other. Besides the minimum, maximum and average, the complete execution times are counted in a {@link LatencyHistogram}, from
+ * which their percentiles can be obtained.
  */
 public class ComponentStatistics implements Statistics {
 
@@ -22,16 +29,16 @@ public class ComponentStatistics implements Statistics {
   /**
    * Serial version
    */
-  private static final long serialVersionUID = -2086999226732861674L;
+  private static final long serialVersionUID = 6409463484137412442L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
+  private final AtomicLong minExecutionTime = new AtomicLong();
+  private final AtomicLong maxExecutionTime = new AtomicLong();
+  private final LongAdder executedEvent = new LongAdder();
+  private final LongAdder totalExecTime = new LongAdder();
+  private final LatencyHistogram executionTimes = new LatencyHistogram();
   private boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private final AtomicLong currentIntervalStartTime = new AtomicLong();
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -63,11 +70,11 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
+    executionTimes.clear();
   }
 
   /**
@@ -100,7 +107,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -109,7 +116,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -119,7 +126,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -131,7 +138,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -141,34 +148,20 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    checkInterval();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+    if (first || executedEvent.sum() > 0) {
+      totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+      updateMax(ProcessingTime.getEffectiveTime(total));
     }
   }
 
@@ -179,12 +172,11 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+      updateMin(effectiveTime);
+      executionTimes.record(effectiveTime);
     }
   }
 
@@ -192,34 +184,50 @@ public class ComponentStatistics implements Statistics {
    * Add a new execution-time measurement for processing an event.
    * <p/>
    * Do not use when reporting branch execution times; instead see {@link #addCompleteExecutionTime(long)}.
+   * <p/>
+   * Like the rest of the recorded times, the minimum and maximum hold the {@link ProcessingTime#getEffectiveTime(long) effective
+   * time}, so an event processed in less than a millisecond counts as taking one.
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
+  public void addExecutionTime(long time) {
+    checkInterval();
+
+    executedEvent.increment();
+
+    long effectiveTime = ProcessingTime.getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+
+    updateMin(effectiveTime);
+    updateMax(effectiveTime);
+    executionTimes.record(effectiveTime);
+  }
+
+  private void checkInterval() {
     if (statIntervalTimeEnabled) {
       long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
+      long intervalStartTime = currentIntervalStartTime.get();
+      if (intervalStartTime == 0) {
+        currentIntervalStartTime.compareAndSet(0, currentTime);
+      } else if ((currentTime - intervalStartTime) > intervalTime
+          && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
         clear();
-        currentIntervalStartTime = currentTime;
       }
     }
+  }
 
-    executedEvent++;
-
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
+  private void updateMin(long time) {
+    long current;
+    do {
+      current = minExecutionTime.get();
+    } while ((current == 0 || time < current) && !minExecutionTime.compareAndSet(current, time));
+  }
 
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
-    }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
-    }
-    averageExecutionTime = totalExecTime / executedEvent;
+  private void updateMax(long time) {
+    long current;
+    do {
+      current = maxExecutionTime.get();
+    } while ((current == 0 || time > current) && !maxExecutionTime.compareAndSet(current, time));
   }
 
   /**
@@ -228,7 +236,22 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    final long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * @return the complete execution times recorded since last cleared
+   */
+  public LatencyHistogram.Snapshot getExecutionTimeHistogram() {
+    return executionTimes.getSnapshot();
+  }
+
+  /**
+   * @return the complete execution times recorded since the previous invocation of this method, or since last cleared
+   */
+  public LatencyHistogram.Snapshot getIntervalExecutionTimeHistogram() {
+    return executionTimes.getIntervalSnapshot();
   }
 
 }
@@ -61,6 +61,21 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalProcessingTime();
 
+  /**
+   * @return the time required to process each event since the statistics were last cleared, from which its percentiles can be
+   *         obtained
+   */
+  default LatencyHistogram.Snapshot getProcessingTimeHistogram() {
+    return LatencyHistogram.Snapshot.EMPTY;
+  }
+
+  /**
+   * @return the time required to process each event since the previous invocation of this method
+   */
+  default LatencyHistogram.Snapshot getIntervalProcessingTimeHistogram() {
+    return LatencyHistogram.Snapshot.EMPTY;
+  }
+
   /**
    * @return the number of execution errors at a given time
    */
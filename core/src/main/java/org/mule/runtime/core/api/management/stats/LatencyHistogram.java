@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogram of latencies with a bounded relative error, in the style of an HDR histogram, from which percentiles can be
+ * obtained.
+ * <p/>
+ * Values below {@link #SUB_BUCKETS} are counted exactly. Above that, each power of two range is split in {@link #SUB_BUCKETS} / 2
+ * buckets, so the value reported for a percentile is within about 3% of the recorded one. Values above {@link #MAX_VALUE} are
+ * counted as {@link #MAX_VALUE}.
+ * <p/>
+ * Recording doesn't take any lock: the counts are striped by thread, so threads recording concurrently usually update different
+ * counters. Stripes are only allocated once a thread that maps to them records a value. Like the rest of the statistics, values
+ * recorded while the histogram is being {@link #clear() cleared} may be lost.
+ *
+ * @since 4.0
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -3471570930564233468L;
+
+  private static final int PRECISION_BITS = 6;
+
+  /**
+   * Number of buckets for the values in the lowest range, which are counted exactly.
+   */
+  public static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+
+  /**
+   * Highest value that can be told apart from bigger ones.
+   */
+  public static final long MAX_VALUE = (1L << 32) - 1;
+
+  private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+  static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+  private static final int STRIPES = stripesFor(getRuntime().availableProcessors());
+
+  private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+  // counts when the last interval snapshot was taken
+  private long[] intervalStart = new long[BUCKETS];
+
+  private static int stripesFor(int processors) {
+    int stripes = 1;
+    while (stripes < processors && stripes < 16) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return value < 0 ? 0 : (int) value;
+    }
+    final long bounded = min(value, MAX_VALUE);
+    final int magnitude = 64 - numberOfLeadingZeros(bounded) - PRECISION_BITS;
+    return magnitude * HALF_SUB_BUCKETS + (int) (bounded >>> magnitude);
+  }
+
+  /**
+   * @return the highest value counted in {@code bucket}
+   */
+  static long highestValueOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int magnitude = bucket / HALF_SUB_BUCKETS - 1;
+    final long subBucket = bucket - magnitude * HALF_SUB_BUCKETS;
+    return ((subBucket + 1) << magnitude) - 1;
+  }
+
+  /**
+   * Counts the given {@code value}
+   */
+  public void record(long value) {
+    final int stripe = (int) Thread.currentThread().getId() & (stripes.length() - 1);
+    AtomicLongArray counts = stripes.get(stripe);
+    if (counts == null) {
+      stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+      counts = stripes.get(stripe);
+    }
+    counts.incrementAndGet(bucketOf(value));
+  }
+
+  /**
+   * @return the values counted since this histogram was created or cleared
+   */
+  public Snapshot getSnapshot() {
+    return new Snapshot(sumStripes());
+  }
+
+  /**
+   * @return the values counted since the previous invocation of this method, or since this histogram was created or cleared
+   */
+  public synchronized Snapshot getIntervalSnapshot() {
+    final long[] counts = sumStripes();
+    final long[] interval = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i) {
+      interval[i] = Math.max(0, counts[i] - intervalStart[i]);
+    }
+    intervalStart = counts;
+    return new Snapshot(interval);
+  }
+
+  /**
+   * Discards every counted value.
+   */
+  public synchronized void clear() {
+    for (int i = 0; i < stripes.length(); ++i) {
+      AtomicLongArray counts = stripes.get(i);
+      if (counts != null) {
+        for (int j = 0; j < BUCKETS; ++j) {
+          counts.set(j, 0);
+        }
+      }
+    }
+    intervalStart = new long[BUCKETS];
+  }
+
+  private long[] sumStripes() {
+    final long[] counts = new long[BUCKETS];
+    for (int i = 0; i < stripes.length(); ++i) {
+      AtomicLongArray stripe = stripes.get(i);
+      if (stripe != null) {
+        for (int j = 0; j < BUCKETS; ++j) {
+          counts[j] += stripe.get(j);
+        }
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * The values counted by a {@link LatencyHistogram} at a given time.
+   */
+  public static final class Snapshot implements Serializable {
+
+    private static final long serialVersionUID = 2883934012880475310L;
+
+    /**
+     * A snapshot without any values.
+     */
+    public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS]);
+
+    private final long[] counts;
+    private final long count;
+
+    private Snapshot(long[] counts) {
+      this.counts = counts;
+      long count = 0;
+      for (long bucketCount : counts) {
+        count += bucketCount;
+      }
+      this.count = count;
+    }
+
+    /**
+     * @return a snapshot with the values of this one and {@code other}
+     */
+    public Snapshot merge(Snapshot other) {
+      final long[] merged = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; ++i) {
+        merged[i] = counts[i] + other.counts[i];
+      }
+      return new Snapshot(merged);
+    }
+
+    /**
+     * @param previous a snapshot taken earlier from the same values
+     * @return a snapshot with the values counted since {@code previous} was taken
+     */
+    public Snapshot since(Snapshot previous) {
+      final long[] interval = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; ++i) {
+        interval[i] = Math.max(0, counts[i] - previous.counts[i]);
+      }
+      return new Snapshot(interval);
+    }
+
+    /**
+     * @return the number of values counted
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @param percentile between {@code 0} and {@code 100}
+     * @return the value below or at which the given {@code percentile} of the values fall, or {@code 0} if there are none
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(min(percentile, 100) / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; ++i) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return highestValueOf(i);
+        }
+      }
+      return MAX_VALUE;
+    }
+
+    public long getMedian() {
+      return getValueAtPercentile(50);
+    }
+
+    public long get90thPercentile() {
+      return getValueAtPercentile(90);
+    }
+
+    public long get99thPercentile() {
+      return getValueAtPercentile(99);
+    }
+
+    public long get999thPercentile() {
+      return getValueAtPercentile(99.9);
+    }
+
+    /**
+     * @return the highest value counted, or {@code 0} if there are none
+     */
+    public long getMax() {
+      for (int i = BUCKETS - 1; i >= 0; --i) {
+        if (counts[i] > 0) {
+          return highestValueOf(i);
+        }
+      }
+      return 0;
+    }
+  }
+}
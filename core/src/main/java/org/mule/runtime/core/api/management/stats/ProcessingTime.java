@@ -8,11 +8,16 @@ package org.mule.runtime.core.api.management.stats;
 
 import org.mule.runtime.core.api.construct.FlowConstruct;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Accumulates the processing time for all branches of a flow
+ * <p/>
+ * The complete processing time is added to the flow construct's statistics once the event is {@link #complete() complete}.
  */
 public class ProcessingTime implements Serializable {
 
@@ -22,6 +27,8 @@ public class ProcessingTime implements Serializable {
   private static final long serialVersionUID = 1L;
 
   private AtomicLong accumulator = new AtomicLong();
+  // not serialized by the previous versions of this class
+  private AtomicBoolean completed = new AtomicBoolean();
   private FlowConstructStatistics statistics;
 
   /**
@@ -32,7 +39,7 @@ public class ProcessingTime implements Serializable {
   public static ProcessingTime newInstance(FlowConstruct flow) {
     FlowConstructStatistics stats = flow.getStatistics();
     if (stats != null && flow.getStatistics().isEnabled()) {
-      return new ProcessingTime(stats, flow.getMuleContext().getProcessorTimeWatcher());
+      return new ProcessingTime(stats);
     } else {
       return null;
     }
@@ -42,11 +49,9 @@ public class ProcessingTime implements Serializable {
    * Create a Processing Time
    *
    * @param stats never null
-   * @param muleContext
    */
-  private ProcessingTime(FlowConstructStatistics stats, ProcessingTimeWatcher processorTimeWatcher) {
+  private ProcessingTime(FlowConstructStatistics stats) {
     this.statistics = stats;
-    processorTimeWatcher.addProcessingTime(this);
   }
 
   /**
@@ -61,6 +66,23 @@ public class ProcessingTime implements Serializable {
     }
   }
 
+  /**
+   * Add the accumulated execution time of all branches to the flow construct's statistics as the complete processing time of the
+   * event. Only the first invocation has any effect.
+   */
+  public void complete() {
+    if (completed.compareAndSet(false, true) && statistics.isEnabled()) {
+      statistics.addCompleteFlowExecutionTime(accumulator.get());
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (completed == null) {
+      completed = new AtomicBoolean();
+    }
+  }
+
   /**
    * Convert processing time to effective processing time. If processing took less than a tick, we consider it to have been one
    * millisecond
@@ -76,4 +98,11 @@ public class ProcessingTime implements Serializable {
   public AtomicLong getAccumulator() {
     return accumulator;
   }
+
+  /**
+   * @return whether the complete processing time was already added to the flow construct's statistics
+   */
+  public AtomicBoolean getCompleted() {
+    return completed;
+  }
 }
@@ -171,6 +171,42 @@ public class MessageProcessors {
     return internalProcessWithChildContext(event, processor, child(event.getContext(), componentLocation), true);
   }
 
+  /**
+   * Process a {@link ReactiveProcessor} using a child {@link InternalEventContext}, like
+   * {@link #processWithChildContext(InternalEvent, ReactiveProcessor, Optional)}, but without completing the parent
+   * {@link InternalEventContext} if the processor doesn't produce a result. This is useful when the processor is invoked many
+   * times for the same parent event, for instance for each element of a collection.
+   * <p>
+   * No error-handling will be performed when errors occur.
+   *
+   * @param event the event to process.
+   * @param processor the processor to process.
+   * @param componentLocation
+   * @return the future result of processing processor, which is empty if the processor didn't produce a result.
+   */
+  public static Publisher<InternalEvent> processWithChildContextDontComplete(InternalEvent event, ReactiveProcessor processor,
+                                                                             Optional<ComponentLocation> componentLocation) {
+    return internalProcessWithChildContext(event, processor, child(event.getContext(), componentLocation), false);
+  }
+
+  /**
+   * Process a {@link ReactiveProcessor} using the given child {@link InternalEventContext}, like
+   * {@link #processWithChildContextDontComplete(InternalEvent, ReactiveProcessor, Optional)}. This is useful when the caller
+   * may cancel the processing, since it then has to complete the child {@link InternalEventContext} itself so the parent one can
+   * complete.
+   * <p>
+   * No error-handling will be performed when errors occur.
+   *
+   * @param event the event to process.
+   * @param processor the processor to process.
+   * @param child the child context of the context of {@code event} to process the event with.
+   * @return the future result of processing processor, which is empty if the processor didn't produce a result.
+   */
+  public static Publisher<InternalEvent> processWithChildContextDontComplete(InternalEvent event, ReactiveProcessor processor,
+                                                                             InternalEventContext child) {
+    return internalProcessWithChildContext(event, processor, child, false);
+  }
+
   /**
    * Process a {@link ReactiveProcessor} using a child {@link InternalEventContext}. This is useful if it is necessary to perform
    * processing in a scope and handle an empty result or error locally rather than complete the response for the whole Flow.
@@ -91,6 +91,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   @Override
   public void clear(String partitionName) throws ObjectStoreException {
     getPartition(partitionName).clear();
+    getExpiryInfoPartition(partitionName).clear();
   }
 
   @Override
@@ -171,18 +172,17 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       return;
     }
 
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
-    if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
+    // The size of the partition is used since counting the entries of the queue requires traversing all of them
+    int excess = 0;
+    ExpiryEntry toRemove;
+    while (partition.size() > maxEntries && (toRemove = store.poll()) != null) {
+      if (partition.remove(toRemove.getKey()) != null) {
+        excess++;
       }
+    }
 
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug("Expired " + excess + " excess entries");
-      }
+    if (excess > 0 && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Expired " + excess + " excess entries");
     }
   }
 
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.store;
 
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.TemplateObjectStore;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -37,7 +38,10 @@ public class SimpleMemoryObjectStore<T extends Serializable> extends TemplateObj
       throw new ObjectStoreException(objectIsNull("value"));
     }
 
-    map.put(key, value);
+    // the key was not in the map when checked by store(), but it may have been stored concurrently since
+    if (map.putIfAbsent(key, value) != null) {
+      throw new ObjectAlreadyExistsException();
+    }
   }
 
   @Override
@@ -6,6 +6,10 @@
  */
 package org.mule.runtime.core.api.streaming;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_DIRECT_BUFFERS;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_STREAMING_SLAB_BUFFERS;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -15,12 +19,15 @@ import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleProperties;
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.internal.streaming.CursorManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
 import org.mule.runtime.core.internal.streaming.ManagedCursorProvider;
 import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager;
 import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.SlabByteBufferManager;
 import org.mule.runtime.core.internal.streaming.object.DefaultObjectStreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.ByteStreamingManager;
 import org.mule.runtime.core.api.streaming.object.ObjectStreamingManager;
@@ -51,7 +58,7 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
     if (!initialised) {
       statistics = new MutableStreamingStatistics();
       cursorManager = new CursorManager(statistics);
-      bufferManager = new PoolingByteBufferManager();
+      bufferManager = createBufferManager();
       byteStreamingManager = createByteStreamingManager();
       objectStreamingManager = createObjectStreamingManager();
 
@@ -61,6 +68,22 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
     }
   }
 
+  /**
+   * Creates the {@link ByteBufferManager} for all the streaming buffers. A {@link SlabByteBufferManager} is used if
+   * the {@link MuleProperties#MULE_STREAMING_SLAB_BUFFERS} system property is set, otherwise a
+   * {@link PoolingByteBufferManager}.
+   *
+   * @return a new {@link ByteBufferManager}
+   */
+  protected ByteBufferManager createBufferManager() {
+    if (getBoolean(MULE_STREAMING_SLAB_BUFFERS)) {
+      return new SlabByteBufferManager(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT,
+                                       getBoolean(MULE_STREAMING_DIRECT_BUFFERS), statistics);
+    }
+
+    return new PoolingByteBufferManager();
+  }
+
   protected ByteStreamingManager createByteStreamingManager() {
     return new DefaultByteStreamingManager(bufferManager, this);
   }
@@ -25,4 +25,25 @@ public interface StreamingStatistics {
    * @return How many {@link CursorStream} instances are currently open
    */
   int getOpenCursorsCount();
+
+  /**
+   * @return How many byte buffer allocations were served with a previously pooled buffer
+   */
+  default long getPooledBufferHitsCount() {
+    return 0;
+  }
+
+  /**
+   * @return How many byte buffer allocations required a new buffer to be created
+   */
+  default long getPooledBufferMissesCount() {
+    return 0;
+  }
+
+  /**
+   * @return How many bytes are held by byte buffers which have been allocated but not deallocated yet
+   */
+  default long getOutstandingBufferBytes() {
+    return 0;
+  }
 }
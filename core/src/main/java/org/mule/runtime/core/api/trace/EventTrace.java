@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.trace;
+
+/**
+ * The processors executed for an event sampled for tracing, with the time each of them took.
+ * <p/>
+ * Each processor execution is a span, identified by its index. Spans are in the order the processors started executing.
+ * Timestamps are in the time base of {@link System#nanoTime()}, so only the differences between them are meaningful.
+ *
+ * @since 4.0
+ */
+public interface EventTrace {
+
+  /**
+   * @return the id of the event context that was traced
+   */
+  String getEventId();
+
+  /**
+   * @return the correlation id of the event context that was traced
+   */
+  String getCorrelationId();
+
+  /**
+   * @return the name of the flow that received the event
+   */
+  String getFlowName();
+
+  /**
+   * @return the time at which the event was received, in milliseconds since the epoch
+   */
+  long getStartTime();
+
+  /**
+   * @return the number of spans recorded
+   */
+  int getSpanCount();
+
+  /**
+   * @return the number of processor executions that were not recorded because the trace was already full
+   */
+  int getDroppedSpans();
+
+  /**
+   * @return the location of the processor of the span at {@code index}
+   */
+  String getProcessorLocation(int index);
+
+  /**
+   * @return when the processor of the span at {@code index} started executing, in nanoseconds
+   */
+  long getStartNanos(int index);
+
+  /**
+   * @return when the processor of the span at {@code index} finished executing, in nanoseconds, or {@code 0} if it didn't
+   */
+  long getEndNanos(int index);
+
+  /**
+   * @return whether the processor of the span at {@code index} failed
+   */
+  boolean isFailed(int index);
+}
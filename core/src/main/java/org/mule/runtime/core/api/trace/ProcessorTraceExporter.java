@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.trace;
+
+/**
+ * Receives the {@link EventTrace traces} of the events sampled for tracing once their processing is complete.
+ * <p/>
+ * Implementations are discovered with {@link java.util.ServiceLoader} in the class loader of each application, by declaring them
+ * in a {@code META-INF/services/org.mule.runtime.core.api.trace.ProcessorTraceExporter} file, and only receive the traces of that
+ * application. They are invoked on the thread that completes the event, so they should hand the trace off to be exported
+ * asynchronously rather than block.
+ *
+ * @since 4.0
+ */
+public interface ProcessorTraceExporter {
+
+  /**
+   * Exports the trace of a completed event.
+   *
+   * @param trace the trace of the event
+   */
+  void export(EventTrace trace);
+}
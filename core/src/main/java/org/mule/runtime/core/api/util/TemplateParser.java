@@ -6,10 +6,15 @@
  */
 package org.mule.runtime.core.api.util;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,6 +32,12 @@ public final class TemplateParser {
   public static final String WIGGLY_MULE_TEMPLATE_STYLE = "mule";
   private static final String NULL_AS_STRING = "null";
 
+  /**
+   * Maximum number of compiled templates kept by each parser. Templates may be built dynamically, so they are not bounded by the
+   * configuration.
+   */
+  static final int MAX_COMPILED_TEMPLATES = 1000;
+
   private static final Map<String, PatternInfo> patterns = new HashMap<>();
 
   static {
@@ -53,7 +64,7 @@ public final class TemplateParser {
   private final int pre;
   private final int post;
   private final PatternInfo style;
-
+  private final ConcurrentMap<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
 
   public static TemplateParser createAntStyleParser() {
     return new TemplateParser(ANT_TEMPLATE_STYLE);
@@ -103,58 +114,67 @@ public final class TemplateParser {
   }
 
   protected String parse(Map<?, ?> props, String template, TemplateCallback callback) {
-    String result = template;
+    CompiledTemplate compiled = compile(template);
+    if (compiled.tokens.length == 0) {
+      return template;
+    }
+
     Map<?, ?> newProps = props;
     if (props != null && !(props instanceof CaseInsensitiveHashMap)) {
       newProps = new CaseInsensitiveHashMap(props);
     }
+    final Map<?, ?> resolvedProps = newProps;
 
-    Matcher m = pattern.matcher(result);
-
-    while (m.find()) {
-      Object value = null;
-
-      String match = m.group();
-      String propname = match.substring(pre, match.length() - post);
-
+    StringBuilder result = new StringBuilder(template.length() + 16 * compiled.tokens.length);
+    compiled.render(result, token -> {
       if (callback != null) {
-        value = callback.match(propname);
-        if (value == null) {
-          value = NULL_AS_STRING;
-        }
-      } else if (newProps != null) {
-        value = newProps.get(propname);
-      }
-
-      if (value == null) {
-        if (logger.isDebugEnabled()) {
-          logger.debug("Value " + propname + " not found in context");
-        }
+        Object value = callback.match(token);
+        return value == null ? NULL_AS_STRING : value;
       } else {
-        String matchRegex = Pattern.quote(match);
-        String valueString = value.toString();
-        valueString = replaceBackSlash(valueString);
-        valueString = replaceDollarSign(valueString);
-
-        result = result.replaceAll(matchRegex, valueString);
+        return resolvedProps != null ? resolvedProps.get(token) : null;
       }
-    }
-    return result;
+    });
+    return result.toString();
   }
 
-  private String replaceDollarSign(String valueString) {
-    if (valueString.indexOf('$') != -1) {
-      valueString = valueString.replace("$", "\\$");
+  /**
+   * Splits {@code template} in the literal text and the tokens to replace. The result is kept, so parsing the same template again
+   * doesn't have to match it against the pattern of the style.
+   *
+   * @param template the string containing the template place holders i.e. My name is ${name}
+   * @return the compiled template
+   */
+  public CompiledTemplate compile(String template) {
+    CompiledTemplate compiled = compiledTemplates.get(template);
+    if (compiled == null) {
+      compiled = doCompile(template);
+      if (compiledTemplates.size() >= MAX_COMPILED_TEMPLATES) {
+        compiledTemplates.clear();
+      }
+      compiledTemplates.put(template, compiled);
     }
-    return valueString;
+    return compiled;
   }
 
-  private String replaceBackSlash(String valueString) {
+  private CompiledTemplate doCompile(String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> matches = new ArrayList<>();
+    Matcher m = pattern.matcher(template);
+    int literalStart = 0;
+    while (m.find()) {
+      literals.add(template.substring(literalStart, m.start()));
+      matches.add(m.group());
+      literalStart = m.end();
+    }
+    literals.add(template.substring(literalStart));
 
-    if (valueString.indexOf("\\") != -1) {
-      valueString = valueString.replace("\\", "\\\\");
+    String[] tokens = new String[matches.size()];
+    for (int i = 0; i < tokens.length; ++i) {
+      String match = matches.get(i);
+      tokens[i] = match.substring(pre, match.length() - post);
     }
-    return valueString;
+    return new CompiledTemplate(literals.toArray(new String[literals.size()]), matches.toArray(new String[matches.size()]),
+                                tokens);
   }
 
   /**
@@ -225,6 +245,56 @@ public final class TemplateParser {
     style.validate(expression);
   }
 
+  /**
+   * A template split in the literal text and the tokens to replace. Rendering it doesn't do any pattern matching.
+   * <p/>
+   * Instances are immutable and may be shared between threads.
+   */
+  public static final class CompiledTemplate {
+
+    // literals[i] goes before tokens[i], the last literal goes after the last token
+    private final String[] literals;
+    private final String[] matches;
+    private final String[] tokens;
+
+    private CompiledTemplate(String[] literals, String[] matches, String[] tokens) {
+      this.literals = literals;
+      this.matches = matches;
+      this.tokens = tokens;
+    }
+
+    /**
+     * Appends the template to {@code result}, replacing each token by the value {@code callback} gives for it. Tokens for which
+     * it gives {@code null} are left as is.
+     *
+     * @param result the builder to append the rendered template to
+     * @param callback a callback used to resolve the property name
+     * @return {@code result}
+     */
+    public StringBuilder render(StringBuilder result, TemplateCallback callback) {
+      for (int i = 0; i < tokens.length; ++i) {
+        result.append(literals[i]);
+        Object value = callback.match(tokens[i]);
+        if (value == null) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Value " + tokens[i] + " not found in context");
+          }
+          result.append(matches[i]);
+        } else {
+          result.append(value);
+        }
+      }
+      return result.append(literals[tokens.length]);
+    }
+
+    /**
+     * @return the names of the tokens of the template, in order
+     */
+    public List<String> getTokens() {
+      return unmodifiableList(asList(tokens));
+    }
+  }
+
   @FunctionalInterface
   public interface TemplateCallback {
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the result of compiling each expression, so the work that only depends on the expression text (resolving its language,
+ * removing its delimiters, etc.) is done once instead of on every evaluation.
+ * <p/>
+ * Lookups don't take any lock. Since expressions may be built dynamically, the number of compiled expressions is bounded, and all
+ * of them are discarded once the bound is reached.
+ *
+ * @param <T> the type of the compiled expressions
+ * @since 4.0
+ */
+public class CompiledExpressionCache<T> {
+
+  /**
+   * Maximum number of compiled expressions kept.
+   */
+  static final int MAX_EXPRESSIONS = 1000;
+
+  private final Function<String, T> compiler;
+  private final ConcurrentMap<String, T> compiledExpressions = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder compileTime = new LongAdder();
+
+  /**
+   * @param compiler the function that compiles an expression. It must not return {@code null}.
+   */
+  public CompiledExpressionCache(Function<String, T> compiler) {
+    this.compiler = compiler;
+  }
+
+  /**
+   * @return the compiled {@code expression}, compiling it if it was not compiled yet
+   */
+  public T get(String expression) {
+    T compiled = compiledExpressions.get(expression);
+    if (compiled != null) {
+      hits.increment();
+      return compiled;
+    }
+
+    misses.increment();
+    final long start = System.nanoTime();
+    compiled = compiler.apply(expression);
+    compileTime.add(System.nanoTime() - start);
+
+    if (compiledExpressions.size() >= MAX_EXPRESSIONS) {
+      compiledExpressions.clear();
+    }
+    compiledExpressions.put(expression, compiled);
+    return compiled;
+  }
+
+  /**
+   * @return the number of lookups which found the expression already compiled
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups which had to compile the expression
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the ratio of lookups which found the expression already compiled, or {@code 0} if there were no lookups
+   */
+  public double getHitRate() {
+    final long hits = getHits();
+    final long lookups = hits + getMisses();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * @return the total time spent compiling expressions, in nanoseconds
+   */
+  public long getCompileTimeNanos() {
+    return compileTime.sum();
+  }
+
+  public int size() {
+    return compiledExpressions.size();
+  }
+}
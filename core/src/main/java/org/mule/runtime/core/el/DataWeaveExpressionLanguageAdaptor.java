@@ -6,8 +6,10 @@
  */
 package org.mule.runtime.core.el;
 
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
 import static org.mule.runtime.api.el.BindingContextUtils.FLOW;
 import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.el.BindingContextUtils.VARS;
 import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.api.metadata.DataType.fromType;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.expressionEvaluationFailed;
@@ -38,6 +40,7 @@ import org.mule.runtime.core.el.context.ServerContext;
 
 import java.util.Iterator;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
@@ -47,8 +50,11 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public static final String MULE = "mule";
   public static final String APP = "app";
 
+  private static final Pattern VARIABLE_EXPRESSION = Pattern.compile(VARS + "\\.[a-zA-Z_][a-zA-Z0-9_]*");
+
   private ExpressionLanguage expressionExecutor;
   private MuleContext muleContext;
+  private final CompiledExpressionCache<CompiledExpression> compiledExpressions = new CompiledExpressionCache<>(this::compile);
 
   public static DataWeaveExpressionLanguageAdaptor create(MuleContext muleContext) {
     try {
@@ -87,26 +93,32 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     expressionExecutor.addGlobalBindings(bindingContext);
   }
 
+  /**
+   * @return the cache of the compiled form of each evaluated expression, to check its hit rate
+   */
+  public CompiledExpressionCache<CompiledExpression> getCompiledExpressions() {
+    return compiledExpressions;
+  }
+
   @Override
   public TypedValue evaluate(String expression, InternalEvent event, BindingContext context) {
-    String sanitized = sanitize(expression);
-    if (isPayloadExpression(sanitized)) {
+    CompiledExpression compiled = compiledExpressions.get(expression);
+    if (compiled.isPayloadExpression()) {
       return event.getMessage().getPayload();
-    } else {
-      BindingContext.Builder contextBuilder = bindingContextBuilderFor(null, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, contextBuilder.build()));
     }
-  }
-
-  private boolean isPayloadExpression(String sanitized) {
-    return sanitized.equals(PAYLOAD);
+    TypedValue value = compiled.access(event, context);
+    if (value != null) {
+      return value;
+    }
+    BindingContext bindingContext = bindingContextFor(null, event, context);
+    return evaluate(compiled.getSanitized(), exp -> expressionExecutor.evaluate(exp, bindingContext));
   }
 
   @Override
   public TypedValue evaluate(String expression, DataType expectedOutputType, InternalEvent event, BindingContext context)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(null, event, context);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, contextBuilder.build()));
+    BindingContext bindingContext = bindingContextFor(null, event, context);
+    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, bindingContext));
   }
 
   @Override
@@ -114,8 +126,8 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
                              ComponentLocation componentLocation,
                              BindingContext context, boolean failOnNull)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(componentLocation, event, context);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, contextBuilder.build()));
+    BindingContext bindingContext = bindingContextFor(componentLocation, event, context);
+    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, bindingContext));
   }
 
   @Override
@@ -128,34 +140,37 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public TypedValue evaluate(String expression, InternalEvent event, InternalEvent.Builder eventBuilder,
                              ComponentLocation componentLocation,
                              BindingContext context) {
-    String sanitized = sanitize(expression);
-    if (isPayloadExpression(sanitized)) {
+    CompiledExpression compiled = compiledExpressions.get(expression);
+    if (compiled.isPayloadExpression()) {
       return event != null ? event.getMessage().getPayload()
           : context != null ? context.lookup(PAYLOAD).orElse(null) : null;
-    } else {
-      BindingContext.Builder contextBuilder = bindingContextBuilderFor(componentLocation, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, contextBuilder.build()));
     }
+    TypedValue value = compiled.access(event, context);
+    if (value != null) {
+      return value;
+    }
+    BindingContext bindingContext = bindingContextFor(componentLocation, event, context);
+    return evaluate(compiled.getSanitized(), exp -> expressionExecutor.evaluate(exp, bindingContext));
   }
 
   @Override
   public ValidationResult validate(String expression) {
-    return expressionExecutor.validate(sanitize(expression));
+    return expressionExecutor.validate(compiledExpressions.get(expression).getSanitized());
   }
 
   @Override
   public Iterator<TypedValue<?>> split(String expression, InternalEvent event, ComponentLocation componentLocation,
                                        BindingContext bindingContext)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(componentLocation, event, bindingContext);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.split(exp, contextBuilder.build()));
+    BindingContext context = bindingContextFor(componentLocation, event, bindingContext);
+    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.split(exp, context));
   }
 
   @Override
   public Iterator<TypedValue<?>> split(String expression, InternalEvent event, BindingContext bindingContext)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(null, event, bindingContext);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.split(exp, contextBuilder.build()));
+    BindingContext context = bindingContextFor(null, event, bindingContext);
+    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.split(exp, context));
   }
 
   @Override
@@ -182,7 +197,7 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
    * @return the result of the evaluation
    */
   private <T> T sanitizeAndEvaluate(String expression, Function<String, T> evaluation) {
-    return evaluate(sanitize(expression), evaluation);
+    return evaluate(compiledExpressions.get(expression).getSanitized(), evaluation);
   }
 
   private <T> T evaluate(String expression, Function<String, T> evaluation) {
@@ -193,19 +208,27 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     }
   }
 
-  private BindingContext.Builder bindingContextBuilderFor(ComponentLocation componentLocation, InternalEvent event,
-                                                          BindingContext context) {
-    Builder contextBuilder;
-    if (event != null) {
-      contextBuilder = BindingContext.builder(addEventBindings(event, context));
-    } else {
-      contextBuilder = BindingContext.builder(context);
+  private BindingContext bindingContextFor(ComponentLocation componentLocation, InternalEvent event, BindingContext context) {
+    BindingContext eventContext = event != null ? addEventBindings(event, context) : context;
+    if (componentLocation == null) {
+      return eventContext;
     }
-    if (componentLocation != null) {
-      contextBuilder.addBinding(FLOW, new TypedValue<>(new FlowVariablesAccessor(componentLocation.getRootContainerName()),
-                                                       fromType(FlowVariablesAccessor.class)));
+    Builder contextBuilder = BindingContext.builder(eventContext);
+    contextBuilder.addBinding(FLOW, new TypedValue<>(new FlowVariablesAccessor(componentLocation.getRootContainerName()),
+                                                     fromType(FlowVariablesAccessor.class)));
+    return contextBuilder.build();
+  }
+
+  private CompiledExpression compile(String expression) {
+    String sanitized = sanitize(expression);
+    Function<InternalEvent, TypedValue> accessor = null;
+    if (sanitized.equals(ATTRIBUTES)) {
+      accessor = event -> event.getMessage().getAttributes();
+    } else if (VARIABLE_EXPRESSION.matcher(sanitized).matches()) {
+      String variableName = sanitized.substring(VARS.length() + 1);
+      accessor = event -> event.getVariables().get(variableName);
     }
-    return contextBuilder;
+    return new CompiledExpression(sanitized, accessor);
   }
 
   private String sanitize(String expression) {
@@ -219,6 +242,42 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     return sanitizedExpression;
   }
 
+  /**
+   * The part of an expression that doesn't depend on the evaluation: the expression without its delimiters and, for expressions
+   * that just read a binding of the event, the function that reads it without going through DataWeave.
+   */
+  public static final class CompiledExpression {
+
+    private final String sanitized;
+    private final Function<InternalEvent, TypedValue> accessor;
+
+    private CompiledExpression(String sanitized, Function<InternalEvent, TypedValue> accessor) {
+      this.sanitized = sanitized;
+      this.accessor = accessor;
+    }
+
+    public String getSanitized() {
+      return sanitized;
+    }
+
+    private boolean isPayloadExpression() {
+      return sanitized.equals(PAYLOAD);
+    }
+
+    /**
+     * Reads the value directly from the {@code event}. Since bindings given by the caller could shadow the ones of the event,
+     * this is only done when there are none.
+     *
+     * @return the value, or {@code null} if it has to be evaluated by DataWeave
+     */
+    private TypedValue access(InternalEvent event, BindingContext context) {
+      if (accessor == null || event == null || (context != null && !context.identifiers().isEmpty())) {
+        return null;
+      }
+      return accessor.apply(event);
+    }
+  }
+
   private class FlowVariablesAccessor {
 
     private String name;
@@ -45,6 +45,8 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
 
   private final Pattern exprPrefixPattern;
   private Map<String, ExtendedExpressionLanguageAdaptor> expressionLanguages;
+  private final CompiledExpressionCache<ExtendedExpressionLanguageAdaptor> selectedLanguages =
+      new CompiledExpressionCache<>(this::resolveExpressionLanguage);
 
   private boolean melDefault = false;
 
@@ -136,7 +138,18 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     return selectExpressionLanguage(expression).split(expression, event, bindingContext);
   }
 
+  /**
+   * @return the cache of the language resolved for each expression, to check its hit rate
+   */
+  public CompiledExpressionCache<ExtendedExpressionLanguageAdaptor> getSelectedLanguages() {
+    return selectedLanguages;
+  }
+
   private ExtendedExpressionLanguageAdaptor selectExpressionLanguage(String expression) {
+    return selectedLanguages.get(expression);
+  }
+
+  private ExtendedExpressionLanguageAdaptor resolveExpressionLanguage(String expression) {
     final String languagePrefix = getLanguagePrefix(expression);
     if (isEmpty(languagePrefix)) {
       if (melDefault) {
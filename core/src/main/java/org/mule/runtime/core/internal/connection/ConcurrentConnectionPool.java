@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * An {@link org.apache.commons.pool.ObjectPool} of connections which doesn't take any lock to borrow or return them.
+ * <p/>
+ * Each connection is kept in a shared list along with its state, and borrowing it is a compare and set of that state. The
+ * connection last borrowed by each thread is tried first, so threads which repeatedly borrow and return a connection usually
+ * get the same one without scanning the list. The {@link PoolingProfile#getMaxActive() max active} connections are bounded
+ * with a {@link Semaphore}, which also implements the {@link PoolingProfile#getExhaustedAction() exhausted action}.
+ * <p/>
+ * Idle connections are evicted and validated by a background task, every
+ * {@link PoolingProfile#getEvictionCheckIntervalMillis() eviction check interval}, in the IO scheduler of the application.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.0
+ */
+final class ConcurrentConnectionPool<C> extends BaseObjectPool<C> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int RESERVED = 2;
+  private static final int REMOVED = 3;
+
+  private final PoolableObjectFactory<C> factory;
+  private final Predicate<C> validator;
+  private final ConnectionPoolStatistics statistics;
+  private final int maxIdle;
+  private final int exhaustedAction;
+  private final long maxWait;
+  private final long minEvictionMillis;
+  // null if the active connections are not bounded
+  private final Semaphore permits;
+
+  private final List<PooledConnection<C>> connections = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastBorrowed = new ThreadLocal<>();
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  // null if idle connections are not evicted
+  private final Scheduler evictionScheduler;
+  private final ScheduledFuture<?> evictionTask;
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory the factory which creates and destroys the connections
+   * @param validator tests whether an idle connection is still valid
+   * @param poolingProfile the {@link PoolingProfile} which configures the pool
+   * @param statistics the {@link ConnectionPoolStatistics} to account the borrows which have to wait
+   * @param muleContext the application's {@link MuleContext}, which provides the scheduler of the eviction task
+   */
+  ConcurrentConnectionPool(PoolableObjectFactory<C> factory, Predicate<C> validator, PoolingProfile poolingProfile,
+                           ConnectionPoolStatistics statistics, MuleContext muleContext) {
+    this.factory = factory;
+    this.validator = validator;
+    this.statistics = statistics;
+    maxIdle = poolingProfile.getMaxIdle();
+    exhaustedAction = poolingProfile.getExhaustedAction();
+    maxWait = poolingProfile.getMaxWait();
+    minEvictionMillis = poolingProfile.getMinEvictionMillis();
+    permits = poolingProfile.getMaxActive() < 0 ? null : new Semaphore(poolingProfile.getMaxActive());
+
+    final long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionInterval > 0) {
+      // validating the connections may block, so the task is run in the IO scheduler
+      evictionScheduler = muleContext.getSchedulerService().ioScheduler();
+      evictionTask = evictionScheduler.scheduleWithFixedDelay(this::evict, evictionInterval, evictionInterval, MILLISECONDS);
+    } else {
+      evictionScheduler = null;
+      evictionTask = null;
+    }
+  }
+
+  @Override
+  public C borrowObject() throws Exception {
+    assertOpen();
+    final boolean permit = acquirePermit();
+    try {
+      PooledConnection<C> pooled = takeIdle();
+      if (pooled == null) {
+        pooled = create();
+      }
+      pooled.holdsPermit = permit;
+      active.incrementAndGet();
+
+      WeakReference<PooledConnection<C>> last = lastBorrowed.get();
+      if (last == null || last.get() != pooled) {
+        lastBorrowed.set(new WeakReference<>(pooled));
+      }
+      return pooled.connection;
+    } catch (Exception e) {
+      if (permit) {
+        permits.release();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @return whether a permit was acquired, which has to be released when the connection is returned
+   * @throws NoSuchElementException if the pool is exhausted and no connection was returned on time
+   */
+  private boolean acquirePermit() throws InterruptedException {
+    if (permits == null || permits.tryAcquire()) {
+      return permits != null;
+    }
+
+    if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+      throw new NoSuchElementException("Pool exhausted");
+    } else if (exhaustedAction == WHEN_EXHAUSTED_WAIT) {
+      statistics.addWait();
+      if (maxWait <= 0) {
+        permits.acquire();
+      } else if (!permits.tryAcquire(maxWait, MILLISECONDS)) {
+        throw new NoSuchElementException("Timeout waiting for idle object");
+      }
+      return true;
+    } else {
+      // grow
+      return false;
+    }
+  }
+
+  private PooledConnection<C> takeIdle() {
+    WeakReference<PooledConnection<C>> last = lastBorrowed.get();
+    PooledConnection<C> pooled = last != null ? last.get() : null;
+    if (pooled != null && pooled.state.compareAndSet(IDLE, IN_USE)) {
+      idle.decrementAndGet();
+      return pooled;
+    }
+
+    for (PooledConnection<C> candidate : connections) {
+      if (candidate.state.compareAndSet(IDLE, IN_USE)) {
+        idle.decrementAndGet();
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private PooledConnection<C> create() throws Exception {
+    PooledConnection<C> pooled = new PooledConnection<>(factory.makeObject());
+    connections.add(pooled);
+    return pooled;
+  }
+
+  @Override
+  public void returnObject(C connection) throws Exception {
+    PooledConnection<C> pooled = find(connection);
+    // read before the connection is made available, since another thread may borrow it right after
+    final boolean permit = pooled.holdsPermit;
+    active.decrementAndGet();
+    try {
+      if (isClosed() || (maxIdle >= 0 && idle.get() >= maxIdle)) {
+        destroy(pooled);
+      } else {
+        pooled.lastReturned = currentTimeMillis();
+        idle.incrementAndGet();
+        pooled.state.set(IDLE);
+        if (isClosed() && pooled.state.compareAndSet(IDLE, RESERVED)) {
+          // the pool was closed concurrently, after destroying the idle connections
+          idle.decrementAndGet();
+          destroy(pooled);
+        }
+      }
+    } finally {
+      if (permit) {
+        permits.release();
+      }
+    }
+  }
+
+  @Override
+  public void invalidateObject(C connection) throws Exception {
+    PooledConnection<C> pooled = find(connection);
+    final boolean permit = pooled.holdsPermit;
+    active.decrementAndGet();
+    try {
+      destroy(pooled);
+    } finally {
+      if (permit) {
+        permits.release();
+      }
+    }
+  }
+
+  private PooledConnection<C> find(C connection) {
+    WeakReference<PooledConnection<C>> last = lastBorrowed.get();
+    PooledConnection<C> pooled = last != null ? last.get() : null;
+    if (pooled != null && pooled.connection == connection) {
+      return pooled;
+    }
+
+    for (PooledConnection<C> candidate : connections) {
+      if (candidate.connection == connection) {
+        return candidate;
+      }
+    }
+    throw new IllegalStateException("Connection of type " + connection.getClass().getName() + " does not belong to this pool");
+  }
+
+  private void destroy(PooledConnection<C> pooled) {
+    pooled.state.set(REMOVED);
+    connections.remove(pooled);
+    try {
+      factory.destroyObject(pooled.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy connection of type " + pooled.connection.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Destroys the idle connections which have been idle for longer than the {@link PoolingProfile#getMinEvictionMillis()} or are
+   * no longer valid. Connections being evicted can't be borrowed.
+   */
+  private void evict() {
+    final long now = currentTimeMillis();
+    for (PooledConnection<C> pooled : connections) {
+      if (!pooled.state.compareAndSet(IDLE, RESERVED)) {
+        continue;
+      }
+      idle.decrementAndGet();
+
+      boolean evict;
+      try {
+        evict = (minEvictionMillis > 0 && now - pooled.lastReturned > minEvictionMillis) || !validator.test(pooled.connection);
+      } catch (Exception e) {
+        LOGGER.warn("Exception was found validating idle connection of type " + pooled.connection.getClass().getName(), e);
+        evict = true;
+      }
+
+      if (evict) {
+        destroy(pooled);
+      } else {
+        idle.incrementAndGet();
+        pooled.state.set(IDLE);
+      }
+    }
+  }
+
+  @Override
+  public int getNumActive() {
+    return active.get();
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idle.get();
+  }
+
+  /**
+   * Closes the pool, destroying the idle connections. Borrowed connections are destroyed when they are returned.
+   */
+  @Override
+  public void close() throws Exception {
+    super.close();
+    if (evictionTask != null) {
+      evictionTask.cancel(false);
+      evictionScheduler.stop();
+    }
+
+    for (PooledConnection<C> pooled : connections) {
+      if (pooled.state.compareAndSet(IDLE, RESERVED)) {
+        idle.decrementAndGet();
+        destroy(pooled);
+      }
+    }
+  }
+
+  private static final class PooledConnection<C> {
+
+    private final C connection;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private volatile long lastReturned;
+    private volatile boolean holdsPermit;
+
+    private PooledConnection(C connection) {
+      this.connection = connection;
+    }
+  }
+}
@@ -69,14 +69,18 @@ final class ConnectionManagementStrategyFactory {
 
   private <C> ConnectionManagementStrategy<C> pooling(ConnectionProvider<C> connectionProvider) {
     PoolingProfile poolingProfile = defaultPoolingProfile;
+    ConnectionPoolStatistics statistics;
     if (connectionProvider instanceof ConnectionProviderWrapper) {
       poolingProfile =
           (PoolingProfile) ((ConnectionProviderWrapper) connectionProvider).getPoolingProfile().orElse(poolingProfile);
+      statistics = ((ConnectionProviderWrapper) connectionProvider).getPoolStatistics();
+    } else {
+      statistics = new ConnectionPoolStatistics();
     }
 
     return poolingProfile.isDisabled() ? withoutManagement(connectionProvider)
         : new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile,
-                                                    (PoolingListener<C>) unwrap(connectionProvider), muleContext);
+                                                    (PoolingListener<C>) unwrap(connectionProvider), statistics, muleContext);
   }
 
   private <C> ConnectionManagementType getManagementType(ConnectionProvider<C> connectionProvider) {
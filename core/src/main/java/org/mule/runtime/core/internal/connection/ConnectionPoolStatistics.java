@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import org.apache.commons.pool.ObjectPool;
+
+/**
+ * Statistics of the pool of connections of a {@link ConnectionProviderWrapper}.
+ * <p/>
+ * Borrow latencies are kept in a histogram of power of two buckets: bucket {@code i} counts the borrows which took less than
+ * 2<sup>i</sup> microseconds and no less than 2<sup>i-1</sup>. The last bucket also counts the ones which took longer.
+ *
+ * @since 4.0
+ */
+public final class ConnectionPoolStatistics {
+
+  static final int HISTOGRAM_BUCKETS = 32;
+
+  private final AtomicLongArray borrowLatencies = new AtomicLongArray(HISTOGRAM_BUCKETS);
+  private final LongAdder borrows = new LongAdder();
+  private final LongAdder waits = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder creations = new LongAdder();
+  private final LongAdder creationTime = new LongAdder();
+  private final LongAdder validations = new LongAdder();
+  private final LongAdder validationTime = new LongAdder();
+
+  private volatile IntSupplier active = () -> 0;
+  private volatile IntSupplier idle = () -> 0;
+
+  /**
+   * Takes the number of active and idle connections from {@code pool}
+   */
+  void bind(ObjectPool<?> pool) {
+    active = pool::getNumActive;
+    idle = pool::getNumIdle;
+  }
+
+  void addBorrow(long nanos) {
+    borrows.increment();
+    long micros = NANOSECONDS.toMicros(nanos);
+    borrowLatencies.incrementAndGet(Math.min(64 - numberOfLeadingZeros(micros), HISTOGRAM_BUCKETS - 1));
+  }
+
+  void addWait() {
+    waits.increment();
+  }
+
+  void addTimeout() {
+    timeouts.increment();
+  }
+
+  void addCreation(long nanos) {
+    creations.increment();
+    creationTime.add(nanos);
+  }
+
+  void addValidation(long nanos) {
+    validations.increment();
+    validationTime.add(nanos);
+  }
+
+  /**
+   * @return a copy of the borrow latency histogram
+   */
+  public long[] getBorrowLatencyHistogram() {
+    long[] histogram = new long[HISTOGRAM_BUCKETS];
+    for (int i = 0; i < HISTOGRAM_BUCKETS; ++i) {
+      histogram[i] = borrowLatencies.get(i);
+    }
+    return histogram;
+  }
+
+  /**
+   * @return the number of connections successfully borrowed
+   */
+  public long getBorrows() {
+    return borrows.sum();
+  }
+
+  /**
+   * @return the number of borrows which had to wait for a connection to be returned. Only accounted by the concurrent pool.
+   */
+  public long getWaits() {
+    return waits.sum();
+  }
+
+  /**
+   * @return the number of borrows which failed because the pool was exhausted
+   */
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * @return the number of connections created
+   */
+  public long getCreations() {
+    return creations.sum();
+  }
+
+  /**
+   * @return the total time spent creating connections, in nanoseconds
+   */
+  public long getCreationTimeNanos() {
+    return creationTime.sum();
+  }
+
+  /**
+   * @return the number of connections validated
+   */
+  public long getValidations() {
+    return validations.sum();
+  }
+
+  /**
+   * @return the total time spent validating connections, in nanoseconds
+   */
+  public long getValidationTimeNanos() {
+    return validationTime.sum();
+  }
+
+  /**
+   * @return the number of connections currently borrowed
+   */
+  public int getActive() {
+    return active.getAsInt();
+  }
+
+  /**
+   * @return the number of connections currently idle in the pool
+   */
+  public int getIdle() {
+    return idle.getAsInt();
+  }
+}
@@ -43,6 +43,7 @@ public abstract class ConnectionProviderWrapper<C> implements ConnectionProvider
   protected MuleContext muleContext;
 
   private final ConnectionProvider<C> delegate;
+  private final ConnectionPoolStatistics poolStatistics = new ConnectionPoolStatistics();
 
   /**
    * Creates a new instance which wraps the {@code delegate}
@@ -118,4 +119,11 @@ public abstract class ConnectionProviderWrapper<C> implements ConnectionProvider
   public Optional<PoolingProfile> getPoolingProfile() {
     return empty();
   }
+
+  /**
+   * @return the statistics of the pool of the connections of this provider. Only updated if the connections are pooled.
+   */
+  public ConnectionPoolStatistics getPoolStatistics() {
+    return poolStatistics;
+  }
 }
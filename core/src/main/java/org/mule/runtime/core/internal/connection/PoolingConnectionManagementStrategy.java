@@ -6,7 +6,10 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.nanoTime;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_CONNECTION_POOL_CONCURRENT;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
@@ -15,6 +18,7 @@ import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.core.api.DefaultMuleException;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleProperties;
 import org.mule.runtime.api.exception.MuleException;
 
 import java.util.NoSuchElementException;
@@ -27,6 +31,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p/>
+ * The pool is a commons-pool {@link GenericObjectPool} unless the {@link MuleProperties#MULE_CONNECTION_POOL_CONCURRENT} system
+ * property is set, in which case it is a {@link ConcurrentConnectionPool}. Either way, its activity is accounted in a
+ * {@link ConnectionPoolStatistics}.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
@@ -40,6 +48,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   private final PoolingProfile poolingProfile;
   private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
+  private final ConnectionPoolStatistics statistics;
 
   /**
    * Creates a new instance
@@ -51,10 +60,27 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
    */
   PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
                                       PoolingListener<C> poolingListener, MuleContext muleContext) {
+    this(connectionProvider, poolingProfile, poolingListener, new ConnectionPoolStatistics(), muleContext);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to manage the connections
+   * @param poolingProfile the {@link PoolingProfile} which configures the {@link #pool}
+   * @param poolingListener a {@link PoolingListener}
+   * @param statistics the {@link ConnectionPoolStatistics} in which the activity of the {@link #pool} is accounted
+   * @param muleContext the application's {@link MuleContext}
+   */
+  PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                                      PoolingListener<C> poolingListener, ConnectionPoolStatistics statistics,
+                                      MuleContext muleContext) {
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
+    this.statistics = statistics;
     pool = createPool();
+    statistics.bind(pool);
   }
 
   /**
@@ -67,7 +93,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   public ConnectionHandler<C> getConnectionHandler() throws ConnectionException {
     try {
       C connection = borrowConnection();
-      ConnectionValidationResult validationResult = connectionProvider.validate(connection);
+      ConnectionValidationResult validationResult = validate(connection);
 
       if (validationResult == null) {
         LOGGER.debug(NULL_VALIDATION_RESULT_ERROR_MESSAGE);
@@ -85,6 +111,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     } catch (ConnectionException e) {
       throw e;
     } catch (NoSuchElementException e) {
+      statistics.addTimeout();
       throw new ConnectionException("Connection pool is exhausted");
     } catch (Exception e) {
       throw new ConnectionException("An exception was found trying to obtain a connection", e);
@@ -92,7 +119,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private C borrowConnection() throws Exception {
+    final long start = nanoTime();
     C connection = pool.borrowObject();
+    statistics.addBorrow(nanoTime() - start);
     try {
       poolingListener.onBorrow(connection);
     } catch (Exception e) {
@@ -118,7 +147,23 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
   }
 
+  private ConnectionValidationResult validate(C connection) {
+    final long start = nanoTime();
+    try {
+      return connectionProvider.validate(connection);
+    } finally {
+      statistics.addValidation(nanoTime() - start);
+    }
+  }
+
   private ObjectPool<C> createPool() {
+    if (getBoolean(MULE_CONNECTION_POOL_CONCURRENT)) {
+      return new ConcurrentConnectionPool<>(new ObjectFactoryAdapter(), connection -> {
+        ConnectionValidationResult result = validate(connection);
+        return result != null && result.isValid();
+      }, poolingProfile, statistics, muleContext);
+    }
+
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -135,11 +180,18 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return poolingProfile;
   }
 
+  public ConnectionPoolStatistics getStatistics() {
+    return statistics;
+  }
+
   private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
 
     @Override
     public C makeObject() throws Exception {
-      return connectionProvider.connect();
+      final long start = nanoTime();
+      C connection = connectionProvider.connect();
+      statistics.addCreation(nanoTime() - start);
+      return connection;
     }
 
     @Override
@@ -6,11 +6,17 @@
  */
 package org.mule.runtime.core.internal.context.notification;
 
+import static java.util.Collections.synchronizedList;
 import org.mule.runtime.core.api.context.notification.ProcessorsTrace;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Keeps context information about the message processors that were executed as part of the processing of an event.
@@ -19,7 +25,10 @@ public class DefaultProcessorsTrace implements ProcessorsTrace {
 
   private static final long serialVersionUID = 5327053121687733907L;
 
-  private List<String> executedProcessors = Collections.synchronizedList(new ArrayList<String>());
+  // serialized as the synchronized list the processors used to be kept in, so both forms can be read by each other
+  private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("executedProcessors", List.class)};
+
+  private transient Queue<String> executedProcessors = new ConcurrentLinkedQueue<>();
 
   /**
    * Adds a message processor path to the list of processors that were executed as part of the processing of this event.
@@ -35,4 +44,14 @@ public class DefaultProcessorsTrace implements ProcessorsTrace {
     return new ArrayList<>(executedProcessors);
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.putFields().put("executedProcessors", synchronizedList(new ArrayList<>(executedProcessors)));
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final List<String> processors = (List<String>) in.readFields().get("executedProcessors", null);
+    executedProcessors = processors != null ? new ConcurrentLinkedQueue<>(processors) : new ConcurrentLinkedQueue<>();
+  }
+
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.core.api.context.notification.Notification;
+import org.mule.runtime.core.api.context.notification.NotificationListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications to their listeners through a bounded {@link NotificationRingBuffer} per listener.
+ * <p/>
+ * Publishing a notification doesn't take any lock nor allocate, it just adds it to the listener's buffer. Each buffer is drained
+ * by a single task at a time, which is only submitted to the {@link Executor} when the buffer goes from empty to non empty, so a
+ * burst of notifications for a listener costs one task instead of one per notification. Notifications are delivered to each
+ * listener in the order they were published.
+ * <p/>
+ * When a listener doesn't keep up with its notifications and its buffer fills up, the {@link NotificationOverflowPolicy} decides
+ * what to do with the new ones. The notifications published, delivered and dropped for each listener are accounted in its
+ * {@link NotificationListenerStatistics}.
+ *
+ * @since 4.0
+ */
+public class NotificationBus {
+
+  private static final Logger LOGGER = getLogger(NotificationBus.class);
+
+  /**
+   * Maximum number of notifications delivered by a drain task before giving its thread to other tasks.
+   */
+  static final int MAX_BATCH = 256;
+
+  /**
+   * With the {@link NotificationOverflowPolicy#SAMPLE} policy, one of every this many notifications is kept once a buffer is
+   * half full.
+   */
+  static final int SAMPLE_RATE = 8;
+
+  private static final long BLOCK_PARK_NANOS = 10000;
+
+  private final Executor executor;
+  private final int bufferSize;
+  private final NotificationOverflowPolicy overflowPolicy;
+  private final ConcurrentMap<NotificationListener, ListenerBuffer> buffers = new ConcurrentHashMap<>();
+  private volatile boolean stopped = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param executor the {@link Executor} on which notifications are delivered
+   * @param bufferSize the maximum number of notifications pending delivery to each listener
+   * @param overflowPolicy what to do with the notifications for a listener whose buffer is full
+   */
+  public NotificationBus(Executor executor, int bufferSize, NotificationOverflowPolicy overflowPolicy) {
+    this.executor = executor;
+    this.bufferSize = bufferSize;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Adds the {@code notification} to the buffer of the {@code listener}, to be delivered asynchronously.
+   */
+  public void publish(NotificationListener listener, Notification notification) {
+    ListenerBuffer buffer = buffers.get(listener);
+    if (buffer == null) {
+      buffer = buffers.computeIfAbsent(listener, ListenerBuffer::new);
+    }
+    buffer.publish(notification);
+  }
+
+  /**
+   * Discards the buffer of the {@code listener} along with the notifications not yet delivered to it.
+   */
+  public void remove(NotificationListener listener) {
+    buffers.remove(listener);
+  }
+
+  /**
+   * Stops accepting notifications. The ones already published may still be delivered.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * @return the statistics of each listener notifications were published for
+   */
+  public Map<NotificationListener, NotificationListenerStatistics> getStatistics() {
+    Map<NotificationListener, NotificationListenerStatistics> statistics = new HashMap<>();
+    buffers.forEach((listener, buffer) -> statistics.put(listener, buffer.statistics));
+    return unmodifiableMap(statistics);
+  }
+
+  public NotificationOverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  private final class ListenerBuffer implements Runnable {
+
+    private final NotificationListener listener;
+    private final NotificationRingBuffer<Notification> ring;
+    private final NotificationListenerStatistics statistics = new NotificationListenerStatistics();
+    private final int sampleThreshold;
+    // number of publications not yet seen by the drain task, which is running or submitted while it is not zero
+    private final AtomicInteger pending = new AtomicInteger();
+    // only used for sampling, so updates lost to races are harmless
+    private int sampleCount;
+    private volatile Thread consumer;
+
+    private ListenerBuffer(NotificationListener listener) {
+      this.listener = listener;
+      ring = new NotificationRingBuffer<>(bufferSize);
+      sampleThreshold = ring.capacity() / 2;
+    }
+
+    private void publish(Notification notification) {
+      if (stopped) {
+        LOGGER.warn("Notification not enqueued after ServerNotificationManager disposal: " + notification);
+        return;
+      }
+
+      statistics.addPublished(ring.size());
+      if (!offer(notification)) {
+        statistics.addDropped();
+        return;
+      }
+      if (pending.getAndIncrement() == 0) {
+        schedule();
+      }
+    }
+
+    private boolean offer(Notification notification) {
+      switch (overflowPolicy) {
+        case BLOCK:
+          while (!ring.offer(notification)) {
+            // a listener firing notifications for itself would never see room in its own buffer
+            if (stopped || consumer == currentThread()) {
+              return false;
+            }
+            parkNanos(BLOCK_PARK_NANOS);
+          }
+          return true;
+        case DROP_OLDEST:
+          while (!ring.offer(notification)) {
+            if (ring.poll() != null) {
+              statistics.addDropped();
+            }
+          }
+          return true;
+        default:
+          if (ring.size() >= sampleThreshold && ++sampleCount % SAMPLE_RATE != 0) {
+            return false;
+          }
+          return ring.offer(notification);
+      }
+    }
+
+    private void schedule() {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Notifications for listener {} discarded since its executor rejected them", listener, e);
+        while (ring.poll() != null) {
+          statistics.addDropped();
+        }
+        pending.set(0);
+      }
+    }
+
+    @Override
+    public void run() {
+      boolean resubmit = false;
+      consumer = currentThread();
+      try {
+        int missed = 1;
+        int delivered = 0;
+        for (;;) {
+          Notification notification;
+          while ((notification = ring.poll()) != null) {
+            deliver(notification);
+            if (++delivered == MAX_BATCH) {
+              resubmit = true;
+              return;
+            }
+          }
+
+          missed = pending.addAndGet(-missed);
+          if (missed == 0) {
+            return;
+          }
+        }
+      } finally {
+        consumer = null;
+        if (resubmit) {
+          schedule();
+        }
+      }
+    }
+
+    private void deliver(Notification notification) {
+      try {
+        listener.onNotification(notification);
+      } catch (Exception e) {
+        // Exceptions from listeners do not affect the notification processing
+      } finally {
+        statistics.addDelivered();
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the delivery of asynchronous notifications to a listener through a {@link NotificationBus}.
+ *
+ * @since 4.0
+ */
+public final class NotificationListenerStatistics {
+
+  private final LongAdder published = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAccumulator maxLag = new LongAccumulator(Math::max, 0);
+
+  void addPublished(int lag) {
+    published.increment();
+    maxLag.accumulate(lag);
+  }
+
+  void addDelivered() {
+    delivered.increment();
+  }
+
+  void addDropped() {
+    dropped.increment();
+  }
+
+  /**
+   * @return the number of notifications published for the listener
+   */
+  public long getPublished() {
+    return published.sum();
+  }
+
+  /**
+   * @return the number of notifications delivered to the listener
+   */
+  public long getDelivered() {
+    return delivered.sum();
+  }
+
+  /**
+   * @return the number of notifications discarded because the listener was not keeping up with them
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the number of notifications published but not yet delivered to the listener
+   */
+  public long getLag() {
+    return Math.max(0, getPublished() - getDropped() - getDelivered());
+  }
+
+  /**
+   * @return the highest {@link #getLag() lag} seen when publishing a notification
+   */
+  public long getMaxLag() {
+    return maxLag.get();
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+/**
+ * What a {@link NotificationBus} does with a notification for a listener which is not keeping up with them.
+ *
+ * @since 4.0
+ */
+public enum NotificationOverflowPolicy {
+
+  /**
+   * The thread firing the notification waits until the listener's buffer has room for it.
+   */
+  BLOCK,
+
+  /**
+   * The oldest notification not yet delivered to the listener is discarded to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Once the listener's buffer is half full, only one of every {@link NotificationBus#SAMPLE_RATE} notifications is kept, and
+   * when it is full new notifications are discarded.
+   */
+  SAMPLE
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.highestOneBit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded queue backed by an array which neither takes locks nor allocates when adding or removing elements.
+ * <p/>
+ * Each slot has a sequence which tells whether it is ready to be written or read for a given position, so producers and consumers
+ * only contend on the position they claim. Any number of threads may add and remove elements concurrently, which allows producers
+ * to discard the oldest element when the buffer is full.
+ *
+ * @param <T> the type of the elements
+ * @since 4.0
+ */
+final class NotificationRingBuffer<T> {
+
+  private final int mask;
+  private final AtomicReferenceArray<T> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * @param capacity the maximum number of elements. Rounded up to a power of two.
+   */
+  NotificationRingBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    final int size = capacity == 1 ? 1 : highestOneBit(capacity - 1) << 1;
+    mask = size - 1;
+    elements = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * @return whether the {@code element} was added, {@code false} if the buffer is full
+   */
+  boolean offer(T element) {
+    long position = tail.get();
+    for (;;) {
+      final int index = (int) position & mask;
+      final long delta = sequences.get(index) - position;
+      if (delta == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (delta < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * @return the oldest element, or {@code null} if the buffer is empty
+   */
+  T poll() {
+    long position = head.get();
+    for (;;) {
+      final int index = (int) position & mask;
+      final long delta = sequences.get(index) - (position + 1);
+      if (delta == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          final T element = elements.get(index);
+          elements.lazySet(index, null);
+          sequences.set(index, position + mask + 1);
+          return element;
+        }
+        position = head.get();
+      } else if (delta < 0) {
+        return null;
+      } else {
+        position = head.get();
+      }
+    }
+  }
+
+  /**
+   * @return the number of elements in the buffer. Only an estimate while elements are being added or removed.
+   */
+  int size() {
+    final long size = tail.get() - head.get();
+    return size < 0 ? 0 : (int) Math.min(size, mask + 1);
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+}
@@ -13,8 +13,9 @@ import org.mule.runtime.core.api.context.notification.NotifierCallback;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,17 +24,23 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * For a particular configuration, this describes what events should be delivered where. It is read-only and a lazy instance is
  * cached by the {@link Configuration}
+ * <p/>
+ * The senders for each notification class, and whether it is enabled, are resolved once per class against the configured events
+ * and kept in routing tables, so dispatching a notification or checking whether its class is enabled is a single map lookup
+ * instead of walking the configured events and their class hierarchies.
  */
 public class Policy {
 
-  // map from event to set of senders
-  private Map<Class<? extends Notification>, Collection<Sender>> eventToSenders =
-      new HashMap<>();
+  private static final Sender[] NO_SENDERS = new Sender[0];
 
-  // these are cumulative - set values should never change, they are just a cache of known info
-  // they are co and contra-variant wrt to exact event type (see code below).
-  private ConcurrentMap knownEventsExact = new ConcurrentHashMap();
-  private ConcurrentMap knownEventsSuper = new ConcurrentHashMap();
+  // map from event to senders, in a predictable iteration order
+  private final Map<Class<? extends Notification>, Collection<Sender>> eventToSenders = new LinkedHashMap<>();
+
+  // routing tables, populated on demand with the classes actually used
+  // senders of each notification class, taking into account the ones of its superclasses
+  private final ConcurrentMap<Class, Sender[]> routes = new ConcurrentHashMap<>();
+  // whether a notification class, any of its subclasses or any of its superclasses is handled
+  private final ConcurrentMap<Class, Boolean> enabled = new ConcurrentHashMap<>();
 
   /**
    * For each listener, we check each interface and see what events can be delivered.
@@ -50,19 +57,17 @@ public class Policy {
             Set<Class<? extends Notification>> events = interfaceToEvents.get(iface);
             for (Class<? extends Notification> event : events) {
               if (notASubclassOfAnyClassInSet(disabledEvents, event)) {
-                knownEventsExact.put(event, Boolean.TRUE);
-                knownEventsSuper.put(event, Boolean.TRUE);
-                if (!eventToSenders.containsKey(event)) {
-                  // use a collection with predictable iteration order
-                  eventToSenders.put(event, new ArrayList<Sender>());
-                }
-                eventToSenders.get(event).add(new Sender(pair));
+                eventToSenders.computeIfAbsent(event, e -> new ArrayList<>()).add(new Sender(pair));
               }
             }
           }
         }
       }
     }
+    for (Class<? extends Notification> event : eventToSenders.keySet()) {
+      routes.put(event, resolveSenders(event));
+      enabled.put(event, Boolean.TRUE);
+    }
   }
 
   protected static boolean notASubclassOfAnyClassInSet(Set set, Class clazz) {
@@ -87,33 +92,29 @@ public class Policy {
 
   public void dispatch(Notification notification, NotifierCallback notifier) {
     if (null != notification) {
-      Class notfnClass = notification.getClass();
-      // search if we don't know about this event, or if we do know it is used
-      if (!knownEventsExact.containsKey(notfnClass)) {
-        boolean found = doDispatch(notification, notfnClass, notifier);
-        knownEventsExact.put(notfnClass, Boolean.valueOf(found));
-      } else if (((Boolean) knownEventsExact.get(notfnClass)).booleanValue()) {
-        boolean found = doDispatch(notification, notfnClass, notifier);
-        // reduce contention on the map by not writing the same value over and over again.
-        if (!found) {
-          knownEventsExact.put(notfnClass, Boolean.valueOf(found));
-        }
+      for (Sender sender : getSenders(notification.getClass())) {
+        sender.dispatch(notification, notifier);
       }
     }
   }
 
-  protected boolean doDispatch(Notification notification, Class<? extends Notification> notfnClass,
-                               NotifierCallback notifier) {
-    boolean found = false;
-    for (Class<? extends Notification> event : eventToSenders.keySet()) {
-      if (event.isAssignableFrom(notfnClass)) {
-        found = true;
-        for (Sender sender : eventToSenders.get(event)) {
-          sender.dispatch(notification, notifier);
-        }
+  private Sender[] getSenders(Class notfnClass) {
+    Sender[] senders = routes.get(notfnClass);
+    if (senders == null) {
+      senders = resolveSenders(notfnClass);
+      routes.put(notfnClass, senders);
+    }
+    return senders;
+  }
+
+  private Sender[] resolveSenders(Class notfnClass) {
+    List<Sender> senders = new ArrayList<>();
+    for (Map.Entry<Class<? extends Notification>, Collection<Sender>> entry : eventToSenders.entrySet()) {
+      if (entry.getKey().isAssignableFrom(notfnClass)) {
+        senders.addAll(entry.getValue());
       }
     }
-    return found;
+    return senders.isEmpty() ? NO_SENDERS : senders.toArray(new Sender[senders.size()]);
   }
 
   /**
@@ -125,26 +126,13 @@ public class Policy {
    * @return false if there is no need to dispatch the notification
    */
   public boolean isNotificationEnabled(Class notfnClass) {
-    if (!knownEventsSuper.containsKey(notfnClass)) {
-      boolean found = false;
-      // this is exhaustive because we initialise to include all events handled.
-      for (Iterator events = knownEventsSuper.keySet().iterator(); events.hasNext() && !found;) {
-        Class event = (Class) events.next();
-        found = ((Boolean) knownEventsSuper.get(event)).booleanValue() && notfnClass.isAssignableFrom(event);
-      }
-      knownEventsSuper.put(notfnClass, Boolean.valueOf(found));
-    }
-    if (!knownEventsExact.containsKey(notfnClass)) {
-      boolean found = false;
-      for (Iterator events = eventToSenders.keySet().iterator(); events.hasNext() && !found;) {
-        Class event = (Class) events.next();
-        found = event.isAssignableFrom(notfnClass);
-      }
-      knownEventsExact.put(notfnClass, Boolean.valueOf(found));
-
+    Boolean notificationEnabled = enabled.get(notfnClass);
+    if (notificationEnabled == null) {
+      notificationEnabled =
+          getSenders(notfnClass).length > 0 || !notASuperclassOfAnyClassInSet(eventToSenders.keySet(), notfnClass);
+      enabled.put(notfnClass, notificationEnabled);
     }
-    return ((Boolean) knownEventsSuper.get(notfnClass)).booleanValue()
-        || ((Boolean) knownEventsExact.get(notfnClass)).booleanValue();
+    return notificationEnabled;
   }
 
 }
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.AllStatistics;
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 
 /**
  * Aggregate statistics for all services and flows in an application. Do this by looping through all of the applications'
@@ -16,6 +17,8 @@ import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 public class ApplicationStatistics extends DefaultFlowConstructStatistics {
 
   private AllStatistics parent;
+  // the aggregated histogram when the last interval histogram was taken
+  private LatencyHistogram.Snapshot intervalStart = LatencyHistogram.Snapshot.EMPTY;
 
   public ApplicationStatistics(AllStatistics parent) {
     super("Application", "application totals");
@@ -86,6 +89,28 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     return total;
   }
 
+  @Override
+  public LatencyHistogram.Snapshot getProcessingTimeHistogram() {
+    LatencyHistogram.Snapshot histogram = LatencyHistogram.Snapshot.EMPTY;
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (!(stats instanceof ApplicationStatistics)) {
+        histogram = histogram.merge(stats.getProcessingTimeHistogram());
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * The interval is tracked on the aggregated histogram, so the intervals of the flows are not consumed by this method.
+   */
+  @Override
+  public synchronized LatencyHistogram.Snapshot getIntervalProcessingTimeHistogram() {
+    LatencyHistogram.Snapshot histogram = getProcessingTimeHistogram();
+    LatencyHistogram.Snapshot interval = histogram.since(intervalStart);
+    intervalStart = histogram;
+    return interval;
+  }
+
   @Override
   public long getExecutionErrors() {
     long total = 0;
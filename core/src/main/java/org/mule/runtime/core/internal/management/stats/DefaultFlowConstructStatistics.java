@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -98,6 +99,16 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public LatencyHistogram.Snapshot getProcessingTimeHistogram() {
+    return flowStatistics.getExecutionTimeHistogram();
+  }
+
+  @Override
+  public LatencyHistogram.Snapshot getIntervalProcessingTimeHistogram() {
+    return flowStatistics.getIntervalExecutionTimeHistogram();
+  }
+
   @Override
   public long getExecutionErrors() {
     return executionError.get();
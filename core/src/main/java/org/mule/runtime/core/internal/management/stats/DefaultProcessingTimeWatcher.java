@@ -22,6 +22,7 @@ import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultProcessingTimeWatcher implements ProcessingTimeWatcher, MuleContextAware {
@@ -71,7 +72,7 @@ public class DefaultProcessingTimeWatcher implements ProcessingTimeWatcher, Mule
           refs.remove(ref);
 
           FlowConstructStatistics stats = ref.getStatistics();
-          if (stats.isEnabled()) {
+          if (stats.isEnabled() && ref.getCompleted().compareAndSet(false, true)) {
             stats.addCompleteFlowExecutionTime(ref.getAccumulator().longValue());
           }
         } catch (InterruptedException ex) {
@@ -88,11 +89,17 @@ public class DefaultProcessingTimeWatcher implements ProcessingTimeWatcher, Mule
 
     private FlowConstructStatistics statistics;
     private AtomicLong accumulator;
+    private AtomicBoolean completed;
 
     ProcessingTimeReference(ProcessingTime time, ReferenceQueue<ProcessingTime> queue) {
       super(time, queue);
       this.statistics = time.getStatistics();
       this.accumulator = time.getAccumulator();
+      this.completed = time.getCompleted();
+    }
+
+    public AtomicBoolean getCompleted() {
+      return completed;
     }
 
     public AtomicLong getAccumulator() {
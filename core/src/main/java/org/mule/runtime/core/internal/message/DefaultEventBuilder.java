@@ -40,7 +40,7 @@ import org.mule.runtime.core.api.store.DeserializationPostInitialisable;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
 import org.mule.runtime.core.api.security.SecurityContext;
-import org.mule.runtime.core.internal.util.CopyOnWriteCaseInsensitiveMap;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 
 import java.io.IOException;
 import java.io.ObjectOutputStream;
@@ -59,7 +59,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private InternalEventContext context;
   private Message message;
-  private Map<String, TypedValue<?>> flowVariables = new HashMap<>();
+  private PersistentCaseInsensitiveMap<TypedValue<?>> flowVariables = PersistentCaseInsensitiveMap.empty();
   private Map<String, TypedValue<?>> moduleProperties = new HashMap<>();
   private Map<String, TypedValue<?>> moduleParameters = new HashMap<>();
   private Map<String, Object> internalParameters = new HashMap<>();
@@ -93,7 +93,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.flowVariables.putAll(event.getVariables());
+    // the variables of the event are shared, the builder derives new maps from them as they change
+    this.flowVariables = PersistentCaseInsensitiveMap.copyOf(event.getVariables());
     this.moduleProperties.putAll(event.getProperties());
     this.moduleParameters.putAll(event.getParameters());
     this.internalParameters.putAll(event.getInternalParameters());
@@ -115,13 +116,23 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public InternalEvent.Builder variables(Map<String, ?> flowVariables) {
-    copyFromTo(flowVariables, this.flowVariables);
+    if (flowVariables instanceof PersistentCaseInsensitiveMap
+        && flowVariables.values().stream().allMatch(value -> value instanceof TypedValue)) {
+      this.flowVariables = (PersistentCaseInsensitiveMap<TypedValue<?>>) flowVariables;
+    } else {
+      PersistentCaseInsensitiveMap<TypedValue<?>> variables = PersistentCaseInsensitiveMap.empty();
+      for (Map.Entry<String, ?> entry : flowVariables.entrySet()) {
+        variables = variables.plus(entry.getKey(), toTypedValue(entry.getValue()));
+      }
+      this.flowVariables = variables;
+    }
+    this.modified = true;
     return this;
   }
 
   @Override
   public InternalEvent.Builder addVariable(String key, Object value) {
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
 
@@ -129,14 +140,16 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public InternalEvent.Builder addVariable(String key, Object value, DataType dataType) {
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public InternalEvent.Builder removeVariable(String key) {
-    this.modified = flowVariables.remove(key) != null;
+    final PersistentCaseInsensitiveMap<TypedValue<?>> variables = flowVariables.minus(key);
+    this.modified = variables != flowVariables;
+    this.flowVariables = variables;
     return this;
   }
 
@@ -265,11 +278,14 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
     target.clear();
-    source.forEach((s, o) -> target
-        .put(s, o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o))));
+    source.forEach((s, o) -> target.put(s, toTypedValue(o)));
     this.modified = true;
   }
 
+  private TypedValue<?> toTypedValue(Object value) {
+    return value instanceof TypedValue ? (TypedValue<Object>) value : new TypedValue<>(value, DataType.fromObject(value));
+  }
+
   /**
    * <code>EventImplementation</code> represents any data event occurring in the Mule environment. All data sent or received
    * within the Mule environment will be passed between components as an MuleEvent.
@@ -298,7 +314,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private final boolean notificationsEnabled;
 
-    private final CopyOnWriteCaseInsensitiveMap<String, TypedValue<?>> variables = new CopyOnWriteCaseInsensitiveMap<>();
+    // a PersistentCaseInsensitiveMap, unless deserialized from an event which kept them in a CopyOnWriteCaseInsensitiveMap
+    private final Map<String, TypedValue<?>> variables;
     private final Map<String, TypedValue<?>> properties;
     private final Map<String, TypedValue<?>> parameters;
     private final Map<String, ?> internalParameters;
@@ -311,7 +328,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     private String flowName;
 
     // Use this constructor from the builder
-    private InternalEventImplementation(InternalEventContext context, Message message, Map<String, TypedValue<?>> variables,
+    private InternalEventImplementation(InternalEventContext context, Message message,
+                                        PersistentCaseInsensitiveMap<TypedValue<?>> variables,
                                         Map<String, TypedValue<?>> properties, Map<String, TypedValue<?>> parameters,
                                         Map<String, ?> internalParameters, FlowConstruct flowConstruct, MuleSession session,
                                         Object replyToDestination, ReplyToHandler replyToHandler,
@@ -324,7 +342,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       }
       this.session = session;
       this.message = message;
-      variables.forEach((s, value) -> this.variables.put(s, new TypedValue<>(value.getValue(), value.getDataType())));
+      this.variables = variables;
       this.properties = properties;
       this.parameters = parameters;
       this.internalParameters = internalParameters;
@@ -541,7 +559,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     @Override
     public Map<String, TypedValue<?>> getVariables() {
-      return unmodifiableMap(variables);
+      return variables instanceof PersistentCaseInsensitiveMap ? variables : unmodifiableMap(variables);
     }
 
     @Override
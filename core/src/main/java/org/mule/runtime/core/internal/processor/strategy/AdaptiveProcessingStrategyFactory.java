@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.defer;
+import static reactor.core.publisher.Flux.empty;
+import static reactor.core.publisher.Flux.from;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.scheduler.SchedulerService;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.WorkQueueProcessor;
+
+/**
+ * Creates {@link AdaptiveProcessingStrategy} instances. This processing strategy behaves like the one created by
+ * {@link ProactorStreamProcessingStrategyFactory} but, instead of using a fixed number of ring-buffer subscribers and a fixed
+ * concurrency for {@link ProcessingType#BLOCKING} and {@link ProcessingType#CPU_INTENSIVE} processors, it periodically samples
+ * the ring-buffer occupancy, the rejections of the {@link SchedulerService} schedulers and the latency of the processors and
+ * grows or shrinks both at runtime.
+ * <ul>
+ * <li>Ring-buffer subscribers are added, up to {@link #setMaxSubscriberCount(int)}, while the ring-buffer is filling up and are
+ * removed, down to {@link #setSubscriberCount(int)}, once it has been idle for a while.</li>
+ * <li>The maximum concurrency of each proactor stage starts low and is increased while there are events waiting for it. It is
+ * decreased when the latency of the stage degrades and never exceeds {@link #setMaxConcurrency(int)}. Rejections of the target
+ * scheduler are handled by the {@link SchedulerAdmission} of the stage.</li>
+ * </ul>
+ * <p/>
+ * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
+ *
+ * @since 4.0
+ */
+public class AdaptiveProcessingStrategyFactory extends ProactorStreamProcessingStrategyFactory {
+
+  private static final String SYSTEM_PROPERTY_PREFIX = AdaptiveProcessingStrategyFactory.class.getName() + ".";
+
+  public static final int DEFAULT_MAX_SUBSCRIBER_COUNT =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "DEFAULT_MAX_SUBSCRIBER_COUNT", getRuntime().availableProcessors());
+  public static final long DEFAULT_SAMPLING_INTERVAL =
+      getLong(SYSTEM_PROPERTY_PREFIX + "DEFAULT_SAMPLING_INTERVAL", 100l);
+
+  private static final ReactorProcessingStrategyFactory NOT_CONCURRENT_TX_AWARE_PS_FACTORY =
+      new ReactorProcessingStrategyFactory();
+
+  private int maxSubscriberCount = DEFAULT_MAX_SUBSCRIBER_COUNT;
+  private long samplingInterval = DEFAULT_SAMPLING_INTERVAL;
+
+  /**
+   * Configure the maximum number of ring-buffer subscribers the strategy may grow to when the ring-buffer fills up.
+   *
+   * @param maxSubscriberCount the maximum number of ring-buffer subscribers.
+   */
+  public void setMaxSubscriberCount(int maxSubscriberCount) {
+    if (maxSubscriberCount < 1) {
+      throw new IllegalArgumentException("maxSubscriberCount must be at least 1");
+    }
+    this.maxSubscriberCount = maxSubscriberCount;
+  }
+
+  /**
+   * Configure how often, in milliseconds, the strategy samples its metrics and adapts its concurrency.
+   *
+   * @param samplingInterval the sampling interval in milliseconds.
+   */
+  public void setSamplingInterval(long samplingInterval) {
+    if (samplingInterval < 1) {
+      throw new IllegalArgumentException("samplingInterval must be at least 1");
+    }
+    this.samplingInterval = samplingInterval;
+  }
+
+  protected int getMaxSubscriberCount() {
+    return max(maxSubscriberCount, getSubscriberCount());
+  }
+
+  protected long getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    if (getMaxConcurrency() == 1) {
+      return NOT_CONCURRENT_TX_AWARE_PS_FACTORY.create(muleContext, schedulersNamePrefix);
+    } else {
+      return new AdaptiveProcessingStrategy(() -> muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig()
+              .withName(schedulersNamePrefix + RING_BUFFER_SCHEDULER_NAME_SUFFIX)
+              .withMaxConcurrentTasks(getMaxSubscriberCount() + 1)),
+                                            getBufferSize(),
+                                            getSubscriberCount(),
+                                            getMaxSubscriberCount(),
+                                            getWaitStrategy(),
+                                            () -> muleContext.getSchedulerService()
+                                                .cpuLightScheduler(muleContext.getSchedulerBaseConfig()
+                                                    .withName(schedulersNamePrefix + "." + CPU_LITE.name())),
+                                            () -> muleContext.getSchedulerService()
+                                                .ioScheduler(muleContext.getSchedulerBaseConfig()
+                                                    .withName(schedulersNamePrefix + "." + BLOCKING.name())),
+                                            () -> muleContext.getSchedulerService()
+                                                .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+                                                    .withName(schedulersNamePrefix + "." + CPU_INTENSIVE.name())),
+                                            getMaxConcurrency(),
+                                            getSamplingInterval());
+    }
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    if (getMaxConcurrency() == 1) {
+      return NOT_CONCURRENT_TX_AWARE_PS_FACTORY.getProcessingStrategyType();
+    } else {
+      return AdaptiveProcessingStrategy.class;
+    }
+  }
+
+  static class AdaptiveProcessingStrategy extends ProactorStreamProcessingStrategy {
+
+    private static Logger LOGGER = getLogger(AdaptiveProcessingStrategy.class);
+
+    /**
+     * Ring-buffer occupancy over which a subscriber is added.
+     */
+    static final double HIGH_OCCUPANCY = 0.5;
+    /**
+     * Ring-buffer occupancy under which the ring-buffer is considered idle.
+     */
+    static final double LOW_OCCUPANCY = 0.1;
+    /**
+     * Number of consecutive idle samples after which a subscriber is removed.
+     */
+    static final int IDLE_SAMPLES_BEFORE_SHRINK = 10;
+    /**
+     * How much the average latency of a stage may exceed its baseline before its concurrency is decreased.
+     */
+    static final int LATENCY_TOLERANCE = 2;
+
+    private final int maxSubscribers;
+    private final long samplingInterval;
+    private final List<AdaptiveRingBuffer> ringBuffers = new CopyOnWriteArrayList<>();
+    private final AdaptiveStage blockingStage;
+    private final AdaptiveStage cpuIntensiveStage;
+    private ScheduledFuture<?> samplingTask;
+
+    public AdaptiveProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
+                                      int bufferSize,
+                                      int subscriberCount,
+                                      int maxSubscriberCount,
+                                      String waitStrategy,
+                                      Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                      Supplier<Scheduler> blockingSchedulerSupplier,
+                                      Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                      int maxConcurrency,
+                                      long samplingInterval) {
+      super(ringBufferSchedulerSupplier, bufferSize, subscriberCount, waitStrategy, cpuLightSchedulerSupplier,
+            blockingSchedulerSupplier, cpuIntensiveSchedulerSupplier, maxConcurrency);
+      this.maxSubscribers = max(maxSubscriberCount, subscriberCount);
+      this.samplingInterval = samplingInterval;
+      this.blockingStage = new AdaptiveStage(getBlockingAdmission());
+      this.cpuIntensiveStage = new AdaptiveStage(getCpuIntensiveAdmission());
+    }
+
+    @Override
+    public void start() throws MuleException {
+      super.start();
+      samplingTask = getCpuLightScheduler().scheduleWithFixedDelay(this::adapt, samplingInterval, samplingInterval, MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws MuleException {
+      if (samplingTask != null) {
+        samplingTask.cancel(false);
+        samplingTask = null;
+      }
+      super.stop();
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor function) {
+      WorkQueueProcessor<InternalEvent> processor =
+          WorkQueueProcessor.share(ringBufferSchedulerSupplier.get(), bufferSize, waitStrategy.getReactorWaitStrategy(), false);
+      AdaptiveRingBuffer ringBuffer =
+          new AdaptiveRingBuffer(processor, function, maxConcurrency < subscribers ? maxConcurrency : subscribers);
+      ringBuffers.add(ringBuffer);
+      return new ReactorSink(processor.connectSink(), () -> {
+        ringBuffers.remove(ringBuffer);
+        ringBuffer.dispose();
+        processor.shutdown();
+      }, createOnEventConsumer());
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      if (processor.getProcessingType() == BLOCKING && maxConcurrency > subscribers) {
+        return proactor(blockingStage.measure(processor), this::getBlockingScheduler, getBlockingAdmission());
+      } else if (processor.getProcessingType() == CPU_INTENSIVE && maxConcurrency > subscribers) {
+        return proactor(cpuIntensiveStage.measure(processor), this::getCpuIntensiveScheduler, getCpuIntensiveAdmission());
+      } else {
+        return super.onProcessor(processor);
+      }
+    }
+
+    /**
+     * Samples the metrics gathered since the previous invocation and adapts the ring-buffer subscribers and proactor concurrency
+     * accordingly.
+     */
+    void adapt() {
+      try {
+        ringBuffers.forEach(AdaptiveRingBuffer::adapt);
+        blockingStage.adapt();
+        cpuIntensiveStage.adapt();
+      } catch (Exception e) {
+        // Never let the sampling task die, it would freeze the current concurrency.
+        LOGGER.warn("Unable to adapt processing strategy concurrency", e);
+      }
+    }
+
+    int getSubscriberCount() {
+      return ringBuffers.stream().mapToInt(AdaptiveRingBuffer::getSubscriberCount).sum();
+    }
+
+    /**
+     * Ring-buffer whose number of subscribers is adapted to its occupancy.
+     * <p/>
+     * Subscribers are never cancelled while they have events in-flight, since cancelling them would drop those events. Instead a
+     * subscriber is first retired: it stops taking events from the ring-buffer, handing the one it took when noticing it was
+     * retired over to the first subscriber, and completes once the events it took before have been processed. The hand-over
+     * is buffered, so it never waits for room in the ring-buffer the retired subscriber is consuming.
+     */
+    private class AdaptiveRingBuffer {
+
+      private final WorkQueueProcessor<InternalEvent> processor;
+      private final ReactiveProcessor function;
+      private final int minSubscribers;
+      private final Deque<RingBufferSubscriber> subscribers = new ConcurrentLinkedDeque<>();
+      private final Deque<RingBufferSubscriber> retiredSubscribers = new ConcurrentLinkedDeque<>();
+      private volatile FluxSink<InternalEvent> leftovers;
+      private int idleSamples;
+
+      AdaptiveRingBuffer(WorkQueueProcessor<InternalEvent> processor, ReactiveProcessor function, int minSubscribers) {
+        this.processor = processor;
+        this.function = function;
+        this.minSubscribers = minSubscribers;
+        // The first subscriber is never retired, so it takes the events handed over by the retired ones.
+        subscribers.add(new RingBufferSubscriber(this, Flux.create(sink -> leftovers = sink)));
+        for (int i = 1; i < minSubscribers; i++) {
+          subscribers.add(new RingBufferSubscriber(this, empty()));
+        }
+      }
+
+      synchronized void adapt() {
+        retiredSubscribers.removeIf(RingBufferSubscriber::isTerminated);
+
+        double occupancy = (double) processor.getPending() / bufferSize;
+        if (occupancy >= HIGH_OCCUPANCY && subscribers.size() < maxSubscribers) {
+          subscribers.add(new RingBufferSubscriber(this, empty()));
+          idleSamples = 0;
+        } else if (occupancy <= LOW_OCCUPANCY && subscribers.size() > minSubscribers) {
+          if (++idleSamples >= IDLE_SAMPLES_BEFORE_SHRINK) {
+            RingBufferSubscriber retired = subscribers.pollLast();
+            retired.retire();
+            retiredSubscribers.add(retired);
+            idleSamples = 0;
+          }
+        } else {
+          idleSamples = 0;
+        }
+      }
+
+      void handOver(InternalEvent event) {
+        leftovers.next(event);
+      }
+
+      int getSubscriberCount() {
+        return subscribers.size();
+      }
+
+      synchronized void dispose() {
+        subscribers.forEach(RingBufferSubscriber::dispose);
+        retiredSubscribers.forEach(RingBufferSubscriber::dispose);
+        subscribers.clear();
+        retiredSubscribers.clear();
+      }
+    }
+
+    private static class RingBufferSubscriber {
+
+      private volatile boolean retired;
+      private volatile boolean terminated;
+      private final Disposable disposable;
+
+      RingBufferSubscriber(AdaptiveRingBuffer ringBuffer, Publisher<InternalEvent> leftovers) {
+        disposable = ringBuffer.processor
+            .takeWhile(event -> {
+              if (retired) {
+                ringBuffer.handOver(event);
+                return false;
+              }
+              return true;
+            })
+            .mergeWith(leftovers)
+            .transform(ringBuffer.function)
+            .doOnTerminate(() -> terminated = true)
+            .subscribe();
+      }
+
+      void retire() {
+        retired = true;
+      }
+
+      /**
+       * @return whether this subscriber was retired and all the events it took have been processed
+       */
+      boolean isTerminated() {
+        return terminated;
+      }
+
+      void dispose() {
+        disposable.dispose();
+      }
+    }
+
+    /**
+     * Proactor stage whose maximum concurrency is adapted to its latency and to the events waiting for it. Rejections of its
+     * scheduler are already handled by its {@link SchedulerAdmission}.
+     */
+    private class AdaptiveStage {
+
+      private final SchedulerAdmission admission;
+      private final AtomicLong completions = new AtomicLong();
+      private final AtomicLong latency = new AtomicLong();
+      private long baselineLatency;
+
+      AdaptiveStage(SchedulerAdmission admission) {
+        this.admission = admission;
+        admission.setMaxConcurrency(min(maxConcurrency, getRuntime().availableProcessors() * 2));
+      }
+
+      ReactiveProcessor measure(ReactiveProcessor processor) {
+        return publisher -> defer(() -> {
+          long start = nanoTime();
+          return from(publisher).transform(processor)
+              .doOnComplete(() -> {
+                completions.incrementAndGet();
+                latency.addAndGet(nanoTime() - start);
+              });
+        });
+      }
+
+      void adapt() {
+        long completed = completions.getAndSet(0);
+        long totalLatency = latency.getAndSet(0);
+        int limit = admission.getMaxConcurrency();
+
+        if (completed > 0) {
+          long averageLatency = totalLatency / completed;
+          if (baselineLatency == 0 || averageLatency < baselineLatency) {
+            baselineLatency = averageLatency;
+          } else {
+            // Let the baseline slowly follow the latency so a permanent change in the workload does not throttle forever.
+            baselineLatency += (averageLatency - baselineLatency) >> 4;
+          }
+
+          if (averageLatency > baselineLatency * LATENCY_TOLERANCE) {
+            admission.setMaxConcurrency(max(1, limit - 1));
+            return;
+          }
+        }
+
+        int queued = admission.getQueuedCount();
+        if (queued > 0 && admission.getConcurrencyLimit() == limit) {
+          admission.setMaxConcurrency((int) min(maxConcurrency, (long) limit + max(1, min(queued, limit))));
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+
+/**
+ * Statistics about the work a processing strategy dispatches to a {@link Scheduler}.
+ *
+ * @since 4.0
+ */
+public interface AdmissionStatistics {
+
+  /**
+   * @return How many events are currently waiting for capacity in the target {@link Scheduler}
+   */
+  int getQueuedCount();
+
+  /**
+   * @return How many events are currently executing in the target {@link Scheduler}
+   */
+  int getActiveCount();
+
+  /**
+   * @return How many events have been accepted by the target {@link Scheduler} so far
+   */
+  long getAdmittedCount();
+
+  /**
+   * @return How many times the target {@link Scheduler} rejected an event because it was busy
+   */
+  long getRejectedCount();
+
+  /**
+   * @return The number of events currently allowed to execute concurrently in the target {@link Scheduler}
+   */
+  int getConcurrencyLimit();
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking limiter of the number of tasks that may be active concurrently. Rather than blocking the caller when no permit is
+ * available, the task requesting a permit is queued and run as soon as a permit is released.
+ * <p/>
+ * The limit may be changed at runtime. Lowering it does not affect tasks that are already active, it only prevents new ones from
+ * being run until the number of active tasks drops below the new limit.
+ *
+ * @since 4.0
+ */
+class ConcurrencyLimiter {
+
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final Queue<Runnable> waitingTasks = new ConcurrentLinkedQueue<>();
+  private volatile int limit;
+
+  ConcurrencyLimiter(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be at least 1");
+    }
+    this.limit = limit;
+  }
+
+  /**
+   * Runs {@code onPermit} once a permit is available, which may be immediately in the calling thread or later in the thread that
+   * releases a permit. The permit must be returned with {@link #release()} once the task is done.
+   *
+   * @param onPermit the task to run once a permit is granted.
+   */
+  void acquire(Runnable onPermit) {
+    if (waiting.get() == 0 && tryAcquire()) {
+      onPermit.run();
+    } else {
+      waiting.incrementAndGet();
+      waitingTasks.offer(onPermit);
+      drain();
+    }
+  }
+
+  /**
+   * Stops waiting for a permit for {@code onPermit}.
+   *
+   * @param onPermit a task passed to {@link #acquire(Runnable)}.
+   * @return {@code true} if the task was still waiting, {@code false} if it was already granted a permit, or is being granted one.
+   */
+  boolean remove(Runnable onPermit) {
+    if (waitingTasks.remove(onPermit)) {
+      waiting.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns a permit granted by {@link #acquire(Runnable)}, running the next waiting task if any.
+   */
+  void release() {
+    active.decrementAndGet();
+    drain();
+  }
+
+  /**
+   * Changes the maximum number of concurrently active tasks.
+   *
+   * @param limit the new limit, at least 1.
+   */
+  void setLimit(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be at least 1");
+    }
+    this.limit = limit;
+    drain();
+  }
+
+  int getLimit() {
+    return limit;
+  }
+
+  int getActive() {
+    return active.get();
+  }
+
+  int getWaiting() {
+    return waiting.get();
+  }
+
+  private boolean tryAcquire() {
+    for (;;) {
+      int current = active.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (active.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void drain() {
+    while (!waitingTasks.isEmpty() && tryAcquire()) {
+      Runnable next = waitingTasks.poll();
+      if (next == null) {
+        // Another thread took the task, give back the permit and check again.
+        active.decrementAndGet();
+      } else {
+        waiting.decrementAndGet();
+        next.run();
+      }
+    }
+  }
+
+}
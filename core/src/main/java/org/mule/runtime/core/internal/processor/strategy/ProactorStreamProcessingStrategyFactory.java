@@ -6,14 +6,11 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
-import static java.time.Duration.ofMillis;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
-import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Flux.just;
-import static reactor.core.publisher.Mono.delay;
 import static reactor.core.scheduler.Schedulers.fromExecutorService;
 
 import org.mule.runtime.api.exception.MuleException;
@@ -24,11 +21,8 @@ import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.scheduler.SchedulerService;
 
-import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
-import org.slf4j.Logger;
-
 /**
  * Creates {@link ReactorProcessingStrategyFactory.ReactorProcessingStrategy} instance that implements the proactor pattern by
  * de-multiplexing incoming events onto a single event-loop using a ring-buffer and then using using the
@@ -37,6 +31,9 @@ import org.slf4j.Logger;
  * {@link ProcessingType#BLOCKING} processors differently and schedules there execution on dedicated
  * {@link SchedulerService#cpuIntensiveScheduler()} and {@link SchedulerService#ioScheduler()} ()} schedulers.
  * <p/>
+ * Work dispatched to these schedulers goes through a {@link SchedulerAdmission} so that, when they are busy, events wait for
+ * capacity to be freed instead of retrying their dispatch in a loop.
+ * <p/>
  * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
  *
  * @since 4.0
@@ -81,13 +78,12 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
 
   static class ProactorStreamProcessingStrategy extends ReactorStreamProcessingStrategy {
 
-    private static Logger LOGGER = getLogger(ProactorStreamProcessingStrategy.class);
-    private static int SCHEDULER_BUSY_RETRY_INTERVAL_MS = 10;
-
     private Supplier<Scheduler> blockingSchedulerSupplier;
     private Supplier<Scheduler> cpuIntensiveSchedulerSupplier;
     private Scheduler blockingScheduler;
     private Scheduler cpuIntensiveScheduler;
+    private final SchedulerAdmission blockingAdmission;
+    private final SchedulerAdmission cpuIntensiveAdmission;
 
     public ProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
                                             int bufferSize,
@@ -102,6 +98,8 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       super(ringBufferSchedulerSupplier, bufferSize, subscriberCount, waitStrategy, cpuLightSchedulerSupplier, maxConcurrency);
       this.blockingSchedulerSupplier = blockingSchedulerSupplier;
       this.cpuIntensiveSchedulerSupplier = cpuIntensiveSchedulerSupplier;
+      this.blockingAdmission = new SchedulerAdmission(BLOCKING.name(), maxConcurrency, this::getCpuLightScheduler);
+      this.cpuIntensiveAdmission = new SchedulerAdmission(CPU_INTENSIVE.name(), maxConcurrency, this::getCpuLightScheduler);
     }
 
     @Override
@@ -122,28 +120,55 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
       super.stop();
     }
 
+    protected Scheduler getBlockingScheduler() {
+      return blockingScheduler;
+    }
+
+    protected Scheduler getCpuIntensiveScheduler() {
+      return cpuIntensiveScheduler;
+    }
+
+    /**
+     * @return statistics of the admission of events to the {@link SchedulerService#ioScheduler()} used for
+     *         {@link ProcessingType#BLOCKING} processors.
+     */
+    public AdmissionStatistics getBlockingAdmissionStatistics() {
+      return blockingAdmission;
+    }
+
+    /**
+     * @return statistics of the admission of events to the {@link SchedulerService#cpuIntensiveScheduler()} used for
+     *         {@link ProcessingType#CPU_INTENSIVE} processors.
+     */
+    public AdmissionStatistics getCpuIntensiveAdmissionStatistics() {
+      return cpuIntensiveAdmission;
+    }
+
+    protected SchedulerAdmission getBlockingAdmission() {
+      return blockingAdmission;
+    }
+
+    protected SchedulerAdmission getCpuIntensiveAdmission() {
+      return cpuIntensiveAdmission;
+    }
+
     @Override
     public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
       if (processor.getProcessingType() == BLOCKING && maxConcurrency > subscribers) {
-        return proactor(processor, blockingScheduler);
+        return proactor(processor, this::getBlockingScheduler, blockingAdmission);
       } else if (processor.getProcessingType() == CPU_INTENSIVE && maxConcurrency > subscribers) {
-        return proactor(processor, cpuIntensiveScheduler);
+        return proactor(processor, this::getCpuIntensiveScheduler, cpuIntensiveAdmission);
       } else {
         return super.onProcessor(processor);
       }
     }
 
-    private ReactiveProcessor proactor(ReactiveProcessor processor, Scheduler scheduler) {
+    protected ReactiveProcessor proactor(ReactiveProcessor processor, Supplier<Scheduler> schedulerSupplier,
+                                         SchedulerAdmission admission) {
       return publisher -> from(publisher)
-          .flatMap(event -> just(event).transform(processor)
+          .flatMap(event -> admission.admit(event, admitted -> just(admitted).transform(processor)
               .publishOn(fromExecutorService(decorateScheduler(getCpuLightScheduler())))
-              .subscribeOn(fromExecutorService(decorateScheduler(scheduler)))
-              .doOnError(RejectedExecutionException.class, throwable -> LOGGER.trace("Shared scheduler " + scheduler.getName()
-                  + " is busy.  Scheduling of the current event will be retried after " + SCHEDULER_BUSY_RETRY_INTERVAL_MS
-                  + "ms."))
-              .retryWhen(errors -> errors
-                  .flatMap(error -> delay(ofMillis(SCHEDULER_BUSY_RETRY_INTERVAL_MS),
-                                          fromExecutorService(getCpuLightScheduler())))),
+              .subscribeOn(fromExecutorService(decorateScheduler(schedulerSupplier.get())))),
                    maxConcurrency);
     }
 
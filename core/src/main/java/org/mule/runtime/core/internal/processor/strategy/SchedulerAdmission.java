@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.max;
+import static java.time.Duration.ofMillis;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.delay;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.just;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control for the work a processing strategy dispatches to a shared {@link Scheduler}.
+ * <p/>
+ * Each dispatch needs a credit from a {@link ConcurrencyLimiter}. Events that cannot get one wait, without holding any thread,
+ * until a running dispatch completes. When the {@link Scheduler} rejects a dispatch, the number of credits is reduced to the
+ * number of dispatches it currently has accepted, so that demand follows the capacity actually available in the
+ * {@link Scheduler} instead of retrying in a loop. Credits are given back one by one as dispatches complete, up to the configured
+ * maximum concurrency.
+ * <p/>
+ * Only when the {@link Scheduler} rejects work while none of the dispatches of this admission are running, which means it is
+ * saturated by someone else and no completion will signal free capacity, is the dispatch retried after
+ * {@link #SCHEDULER_BUSY_RETRY_INTERVAL_MS}.
+ * <p/>
+ * If the subscriber cancels while waiting for a credit, it stops waiting. If the credit was already granted but the dispatch
+ * didn't start yet, the credit is given back.
+ *
+ * @since 4.0
+ */
+class SchedulerAdmission implements AdmissionStatistics {
+
+  private static final Logger LOGGER = getLogger(SchedulerAdmission.class);
+
+  static int SCHEDULER_BUSY_RETRY_INTERVAL_MS = 10;
+
+  private final String name;
+  private final ConcurrencyLimiter limiter;
+  private final Supplier<Scheduler> retrySchedulerSupplier;
+  private final AtomicLong granted = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private volatile int maxConcurrency;
+
+  /**
+   * @param name the name of the admission, used for logging.
+   * @param maxConcurrency the maximum number of dispatches that may run concurrently.
+   * @param retrySchedulerSupplier the {@link Scheduler} to use for delayed retries when no dispatch is running.
+   */
+  SchedulerAdmission(String name, int maxConcurrency, Supplier<Scheduler> retrySchedulerSupplier) {
+    this.name = name;
+    this.maxConcurrency = maxConcurrency;
+    this.limiter = new ConcurrencyLimiter(maxConcurrency);
+    this.retrySchedulerSupplier = retrySchedulerSupplier;
+  }
+
+  /**
+   * Dispatches {@code item} once there are credits available, re-dispatching it if the target {@link Scheduler} rejects it.
+   *
+   * @param item the item to dispatch.
+   * @param dispatch function that dispatches the item, which will fail with a {@link RejectedExecutionException} on
+   *        subscription if the target {@link Scheduler} is busy.
+   * @return the result of the dispatch.
+   */
+  <T, R> Flux<R> admit(T item, Function<T, Publisher<R>> dispatch) {
+    return Flux.defer(() -> {
+      final Ticket ticket = new Ticket();
+      return Mono.<T>create(sink -> ticket.acquire(() -> sink.success(item)))
+          .doOnCancel(ticket::cancel)
+          .flatMapMany(admitted -> ticket.dispatch()
+              ? from(dispatch.apply(admitted))
+                  .doOnComplete(this::onCompleted)
+                  .doOnError(this::onError)
+                  .doOnCancel(limiter::release)
+              : Flux.<R>empty());
+    })
+        .retryWhen(errors -> errors.flatMap(this::retry));
+  }
+
+  /**
+   * Changes the maximum number of dispatches that may run concurrently.
+   *
+   * @param maxConcurrency the new maximum concurrency, at least 1.
+   */
+  void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+    if (limiter.getLimit() > maxConcurrency) {
+      limiter.setLimit(maxConcurrency);
+    }
+  }
+
+  int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  private void onCompleted() {
+    int limit = limiter.getLimit();
+    if (limit < maxConcurrency) {
+      limiter.setLimit(limit + 1);
+    }
+    limiter.release();
+  }
+
+  private void onError(Throwable throwable) {
+    if (throwable instanceof RejectedExecutionException) {
+      rejected.incrementAndGet();
+      // The credit of the rejected dispatch is still held at this point, don't count it as accepted by the scheduler.
+      limiter.setLimit(max(1, limiter.getActive() - 1));
+    }
+    limiter.release();
+  }
+
+  private Publisher<?> retry(Throwable throwable) {
+    if (!(throwable instanceof RejectedExecutionException)) {
+      return error(throwable);
+    } else if (limiter.getActive() > 0) {
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("Scheduler for " + name + " is busy. Scheduling of the current event will be retried once capacity is "
+            + "available.");
+      }
+      // A running dispatch will release its credit on completion, so queue up behind it.
+      return just(throwable);
+    } else {
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("Scheduler for " + name + " is busy. Scheduling of the current event will be retried after "
+            + SCHEDULER_BUSY_RETRY_INTERVAL_MS + "ms.");
+      }
+      return delay(ofMillis(SCHEDULER_BUSY_RETRY_INTERVAL_MS), fromExecutorService(retrySchedulerSupplier.get()));
+    }
+  }
+
+  /**
+   * The request of a credit for a single dispatch attempt, which makes sure the credit is given back if the subscriber cancels
+   * before the dispatch starts.
+   */
+  private final class Ticket implements Runnable {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int DISPATCHED = 2;
+    private static final int CANCELLED = 3;
+
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private Runnable onGranted;
+
+    private void acquire(Runnable onGranted) {
+      this.onGranted = onGranted;
+      limiter.acquire(this);
+    }
+
+    @Override
+    public void run() {
+      if (state.compareAndSet(WAITING, GRANTED)) {
+        granted.incrementAndGet();
+        onGranted.run();
+      } else {
+        // cancelled while the credit was being granted
+        limiter.release();
+      }
+    }
+
+    /**
+     * @return whether the dispatch may start, {@code false} if it was cancelled and the credit already given back.
+     */
+    private boolean dispatch() {
+      return state.compareAndSet(GRANTED, DISPATCHED);
+    }
+
+    private void cancel() {
+      if (state.compareAndSet(WAITING, CANCELLED)) {
+        // if it can't be removed, it is being granted right now and will give the credit back when run
+        limiter.remove(this);
+      } else if (state.compareAndSet(GRANTED, CANCELLED)) {
+        limiter.release();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getQueuedCount() {
+    return limiter.getWaiting();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getActiveCount() {
+    return limiter.getActive();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getAdmittedCount() {
+    return granted.get() - rejected.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getConcurrencyLimit() {
+    return limiter.getLimit();
+  }
+
+}
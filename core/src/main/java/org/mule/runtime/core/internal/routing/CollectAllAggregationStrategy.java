@@ -8,12 +8,16 @@
 package org.mule.runtime.core.internal.routing;
 
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.Message;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.routing.AggregationContext;
 import org.mule.runtime.core.api.routing.RouterResultsHandler;
 import org.mule.runtime.core.privileged.routing.DefaultRouterResultsHandler;
 
-import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * If no routes generated exeption then it returns a new {@link InternalEvent} under the rules of
@@ -41,8 +45,22 @@ public class CollectAllAggregationStrategy implements AggregationStrategy {
   }
 
   protected InternalEvent aggregateWithFailedRoutes(AggregationContext context) throws MuleException {
-    // TODO MULE-13216 Rework scatter-gather to be non-blocking and use ForkJoinStrategy API
-    throw new CompositeRoutingException(new RoutingResult(Collections.emptyMap(), Collections.emptyMap()));
+    Map<String, Message> successMap = new LinkedHashMap<>();
+    Map<String, Error> errorMap = new LinkedHashMap<>();
+
+    List<InternalEvent> events = context.getEvents();
+    for (int i = 0; i < events.size(); i++) {
+      InternalEvent event = events.get(i);
+      if (event == null) {
+        continue;
+      }
+      if (event.getError().isPresent()) {
+        errorMap.put(Integer.toString(i), event.getError().get());
+      } else {
+        successMap.put(Integer.toString(i), event.getMessage());
+      }
+    }
+    throw new CompositeRoutingException(new RoutingResult(successMap, errorMap));
   }
 
 }
@@ -22,6 +22,7 @@ import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.api.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -33,6 +34,10 @@ import org.apache.commons.collections.IteratorUtils;
 /**
  * <code>EventGroup</code> is a holder over events grouped by a common group Id. This can be used by components such as routers to
  * managed related events.
+ * <p/>
+ * Events are stored in the events object store as they are added, and are also kept in memory in arrival order, so querying the
+ * group doesn't access the store. A deserialized or invalidated group reads its events from the store the first time they are
+ * needed.
  */
 // @ThreadSafe
 public class EventGroup implements Comparable<EventGroup>, Serializable, DeserializationPostInitialisable {
@@ -54,6 +59,8 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   private final Integer expectedSize;
   transient private MuleContext muleContext;
   private int arrivalOrderCounter = 0;
+  // @GuardedBy this, null until read from the events object store
+  private transient List<InternalEvent> events;
 
   public static final String DEFAULT_STORE_PREFIX = "DEFAULT_STORE";
 
@@ -71,6 +78,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
     this.expectedSize = expectedSize.orElse(null);
     this.groupId = groupId;
+    this.events = new ArrayList<>();
   }
 
   /**
@@ -161,7 +169,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   @SuppressWarnings("unchecked")
   public Iterator<InternalEvent> iterator(boolean sortByArrival) throws ObjectStoreException {
     synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
+      if (getEvents().isEmpty()) {
         return IteratorUtils.emptyIterator();
       } else {
         return IteratorUtils.arrayIterator(this.toArray(sortByArrival));
@@ -188,18 +196,8 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    */
   public InternalEvent[] toArray(boolean sortByArrival) throws ObjectStoreException {
     synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
-        return EMPTY_EVENTS_ARRAY;
-      }
-      List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
-      InternalEvent[] eventArray = new InternalEvent[keys.size()];
-      for (int i = 0; i < keys.size(); i++) {
-        eventArray[i] = eventsObjectStore.retrieve(keys.get(i), eventsPartitionKey);
-      }
-      if (sortByArrival) {
-        Arrays.sort(eventArray, new ArrivalOrderEventComparator());
-      }
-      return eventArray;
+      // the events are kept in arrival order, so they are sorted either way
+      return getEvents().toArray(EMPTY_EVENTS_ARRAY);
     }
   }
 
@@ -211,12 +209,32 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    */
   public void addEvent(InternalEvent event) throws ObjectStoreException {
     synchronized (this) {
+      final List<InternalEvent> events = getEvents();
       event = InternalEvent.builder(event).addVariable(MULE_ARRIVAL_ORDER_PROPERTY, ++arrivalOrderCounter).build();
       // Using both event ID and CorrelationSequence since in certain instances
       // when an event is split up, the same event IDs are used.
       String key = getEventKey(event);
       eventsObjectStore.store(key, event, eventsPartitionKey);
+      events.add(event);
+    }
+  }
+
+  private List<InternalEvent> getEvents() throws ObjectStoreException {
+    if (events == null) {
+      final List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
+      final List<InternalEvent> storedEvents = new ArrayList<>(keys.size());
+      for (String key : keys) {
+        storedEvents.add(eventsObjectStore.retrieve(key, eventsPartitionKey));
+      }
+      final ArrivalOrderEventComparator comparator = new ArrivalOrderEventComparator();
+      storedEvents.sort(comparator);
+      if (!storedEvents.isEmpty()) {
+        final InternalEvent lastEvent = storedEvents.get(storedEvents.size() - 1);
+        arrivalOrderCounter = Math.max(arrivalOrderCounter, comparator.getEventOrder(lastEvent));
+      }
+      events = storedEvents;
     }
+    return events;
   }
 
   private String getEventKey(InternalEvent event) {
@@ -245,7 +263,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   public int size() {
     synchronized (this) {
       try {
-        return eventsObjectStore.allKeys(eventsPartitionKey).size();
+        return getEvents().size();
       } catch (ObjectStoreException e) {
         // TODO Check if this is ok.
         return -1;
@@ -262,6 +280,16 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
     return Optional.ofNullable(expectedSize);
   }
 
+  /**
+   * Discards the events kept in memory, so they are read from the events object store the next time they are needed. Used when
+   * the store is shared, since other nodes may have added events to the group.
+   */
+  public void invalidateEvents() {
+    synchronized (this) {
+      events = null;
+    }
+  }
+
   /**
    * Removes all events from this group.
    *
@@ -271,6 +299,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
     synchronized (this) {
       eventsObjectStore.clear(eventsPartitionKey);
       eventsObjectStore.close(eventsPartitionKey);
+      events = new ArrayList<>();
     }
   }
 
@@ -284,18 +313,15 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
     try {
       synchronized (this) {
-        int currentSize;
-
-        currentSize = eventsObjectStore.allKeys(eventsPartitionKey).size();
+        final List<InternalEvent> events = getEvents();
 
-        buf.append(", current events=").append(currentSize);
+        buf.append(", current events=").append(events.size());
 
-        if (currentSize > 0) {
+        if (!events.isEmpty()) {
           buf.append(" [");
-          Iterator<String> i = eventsObjectStore.allKeys(eventsPartitionKey).iterator();
+          Iterator<InternalEvent> i = events.iterator();
           while (i.hasNext()) {
-            String id = i.next();
-            buf.append(eventsObjectStore.retrieve(id, eventsPartitionKey).getCorrelationId());
+            buf.append(i.next().getCorrelationId());
             if (i.hasNext()) {
               buf.append(", ");
             }
@@ -8,12 +8,14 @@ package org.mule.runtime.core.internal.routing;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
-import static java.util.Optional.ofNullable;
-import static org.mule.runtime.api.exception.MuleException.INFO_LOCATION_KEY;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.processor.MessageProcessors.newChain;
-import static org.mule.runtime.core.api.processor.MessageProcessors.processWithChildContext;
-import static org.mule.runtime.core.api.rx.Exceptions.rxExceptionToMuleException;
+import static org.mule.runtime.core.api.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.api.rx.Exceptions.checkedFunction;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPIT_EXPRESSION;
+import static reactor.core.Exceptions.unwrap;
+import static reactor.core.publisher.Flux.from;
+import org.mule.runtime.api.component.location.ConfigurationComponentLocator;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -22,19 +24,24 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.InternalEvent.Builder;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.construct.Pipeline;
 import org.mule.runtime.core.api.exception.MessagingException;
 import org.mule.runtime.core.api.processor.AbstractMessageProcessorOwner;
 import org.mule.runtime.core.api.processor.MessageProcessorChain;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.Scope;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.privileged.expression.ExpressionConfig;
 import org.mule.runtime.core.internal.routing.outbound.AbstractMessageSequenceSplitter;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import javax.inject.Inject;
+
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -50,6 +57,10 @@ import reactor.core.publisher.Mono;
  * <p>
  * Defining a groupSize greater than one, allows iterating over collections of elements of the specified size.
  * <p>
+ * The elements are pulled from the collection as they are processed, so iterators are never loaded in memory at once. Defining
+ * a maxConcurrency greater than one allows processing that number of elements (or groups) at the same time. In that case the
+ * variables set while processing an element are not seen by the rest of the elements.
+ * <p>
  * The {@link InternalEvent} sent to the next message processor is the same that arrived to foreach.
  */
 public class Foreach extends AbstractMessageProcessorOwner implements Initialisable, Scope {
@@ -58,11 +69,16 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
 
   protected Logger logger = LoggerFactory.getLogger(getClass());
 
+  @Inject
+  private ConfigurationComponentLocator componentLocator;
+
   private List<Processor> messageProcessors;
-  private MessageProcessorChain ownedMessageProcessor;
+  private MessageProcessorChain nestedChain;
   private AbstractMessageSequenceSplitter splitter;
+  private FlowConstruct flowConstruct;
   private String collectionExpression = DEFAULT_SPIT_EXPRESSION;
   private int batchSize;
+  private int maxConcurrency = 1;
   private String rootMessageVariableName;
   private String counterVariableName;
   private boolean xpathCollection;
@@ -70,63 +86,86 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
 
   @Override
   public InternalEvent process(InternalEvent event) throws MuleException {
-    String parentMessageProp = rootMessageVariableName != null ? rootMessageVariableName : ROOT_MESSAGE_PROPERTY;
-    Object previousCounterVar = null;
-    Object previousRootMessageVar = null;
-    if (event.getVariables().containsKey(counterVariableName)) {
-      previousCounterVar = event.getVariables().get(counterVariableName).getValue();
-    }
-    if (event.getVariables().containsKey(parentMessageProp)) {
-      previousRootMessageVar = event.getVariables().get(parentMessageProp).getValue();
-    }
-    Message message = event.getMessage();
-    final Builder requestBuilder = InternalEvent.builder(event);
-    boolean transformed = false;
-    if (xpathCollection) {
-      Message transformedMessage = transformPayloadIfNeeded(message);
-      if (transformedMessage != message) {
-        transformed = true;
-        message = transformedMessage;
-        requestBuilder.message(transformedMessage);
+    return processToApply(event, this);
+  }
+
+  @Override
+  public Publisher<InternalEvent> apply(Publisher<InternalEvent> publisher) {
+    return from(publisher).flatMap(event -> {
+      String parentMessageProp = rootMessageVariableName != null ? rootMessageVariableName : ROOT_MESSAGE_PROPERTY;
+      Object previousCounterVar = null;
+      Object previousRootMessageVar = null;
+      if (event.getVariables().containsKey(counterVariableName)) {
+        previousCounterVar = event.getVariables().get(counterVariableName).getValue();
       }
-    }
-    requestBuilder.addVariable(parentMessageProp, message);
-    final Builder responseBuilder = InternalEvent.builder(doProcess(requestBuilder.build()));
-    if (transformed) {
-      responseBuilder.message(transformBack(message));
-    } else {
-      responseBuilder.message(message);
-    }
-    if (previousCounterVar != null) {
-      responseBuilder.addVariable(counterVariableName, previousCounterVar);
-    } else {
-      responseBuilder.removeVariable(counterVariableName);
-    }
-    if (previousRootMessageVar != null) {
-      responseBuilder.addVariable(parentMessageProp, previousRootMessageVar);
-    } else {
-      responseBuilder.removeVariable(parentMessageProp);
-    }
-    return responseBuilder.build();
-  }
-
-  protected InternalEvent doProcess(InternalEvent event) throws MuleException {
-    try {
-      // TODO MULE-13052 Migrate Splitter and Foreach implementation to non-blocking
-      return Mono.just(event)
-          .then(request -> Mono
-              .from(processWithChildContext(request, ownedMessageProcessor, ofNullable(getLocation()))))
-          .onErrorMap(MessagingException.class, e -> {
-            if (splitter.equals(e.getFailingMessageProcessor())) {
-              // Make sure the context information for the exception is relative to the ForEach.
-              e.getInfo().remove(INFO_LOCATION_KEY);
-              return new MessagingException(event, e.getCause(), this);
+      if (event.getVariables().containsKey(parentMessageProp)) {
+        previousRootMessageVar = event.getVariables().get(parentMessageProp).getValue();
+      }
+      Message message = event.getMessage();
+      final Builder requestBuilder = InternalEvent.builder(event);
+      boolean transformed = false;
+      if (xpathCollection) {
+        try {
+          Message transformedMessage = transformPayloadIfNeeded(message);
+          if (transformedMessage != message) {
+            transformed = true;
+            message = transformedMessage;
+            requestBuilder.message(transformedMessage);
+          }
+        } catch (TransformerException e) {
+          return Mono.error(new MessagingException(event, e, this));
+        }
+      }
+      requestBuilder.addVariable(parentMessageProp, message);
+      final InternalEvent request = requestBuilder.build();
+
+      final Message rootMessage = message;
+      final boolean rootMessageTransformed = transformed;
+      final Object counterVar = previousCounterVar;
+      final Object rootMessageVar = previousRootMessageVar;
+      return from(splitter.splitAndProcess(request, scheduleRoute(nestedChain), maxConcurrency))
+          .reduce(request, this::mergeVariables)
+          .map(checkedFunction(result -> {
+            final Builder responseBuilder = InternalEvent.builder(result);
+            if (rootMessageTransformed) {
+              responseBuilder.message(transformBack(rootMessage));
             } else {
-              return e;
+              responseBuilder.message(rootMessage);
             }
-          }).block();
-    } catch (Throwable throwable) {
-      throw rxExceptionToMuleException(throwable);
+            if (counterVar != null) {
+              responseBuilder.addVariable(counterVariableName, counterVar);
+            } else {
+              responseBuilder.removeVariable(counterVariableName);
+            }
+            if (rootMessageVar != null) {
+              responseBuilder.addVariable(parentMessageProp, rootMessageVar);
+            } else {
+              responseBuilder.removeVariable(parentMessageProp);
+            }
+            return responseBuilder.build();
+          }))
+          .onErrorMap(e -> {
+            final Throwable cause = unwrap(e);
+            // Make sure the context information for errors not thrown by the nested processors is relative to the ForEach.
+            return cause instanceof MessagingException ? cause : new MessagingException(request, cause, this);
+          });
+    });
+  }
+
+  private InternalEvent mergeVariables(InternalEvent previous, InternalEvent result) {
+    final Builder builder = InternalEvent.builder(previous);
+    for (Map.Entry<String, TypedValue<?>> variable : result.getVariables().entrySet()) {
+      builder.addVariable(variable.getKey(), variable.getValue().getValue(), variable.getValue().getDataType());
+    }
+    return builder.build();
+  }
+
+  private ReactiveProcessor scheduleRoute(ReactiveProcessor route) {
+    if (maxConcurrency > 1 && flowConstruct instanceof Pipeline) {
+      // Use the processing strategy of the flow so the elements are actually processed at the same time
+      return publisher -> from(publisher).transform(((Pipeline) flowConstruct).getProcessingStrategy().onPipeline(route));
+    } else {
+      return route;
     }
   }
 
@@ -145,7 +184,7 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
 
   @Override
   protected List<Processor> getOwnedMessageProcessors() {
-    return singletonList(ownedMessageProcessor);
+    return singletonList(nestedChain);
   }
 
   public void setMessageProcessors(List<Processor> messageProcessors) throws MuleException {
@@ -178,11 +217,13 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     splitter.setBatchSize(batchSize);
     splitter.setCounterVariableName(counterVariableName);
     splitter.setMuleContext(muleContext);
+    initialiseIfNeeded(splitter, muleContext);
+
+    nestedChain = newChain(messageProcessors);
 
-    List<Processor> chainProcessors = new ArrayList<>();
-    chainProcessors.add(splitter);
-    chainProcessors.add(newChain(messageProcessors));
-    ownedMessageProcessor = newChain(chainProcessors);
+    if (maxConcurrency > 1 && componentLocator != null) {
+      flowConstruct = FlowConstruct.getFromAnnotatedObject(componentLocator, this);
+    }
 
     super.initialise();
   }
@@ -207,6 +248,18 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     this.counterVariableName = counterVariableName;
   }
 
+  /**
+   * @param maxConcurrency the maximum number of elements processed at the same time. Defaults to one, processing the elements
+   *        sequentially.
+   */
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public void setComponentLocator(ConfigurationComponentLocator componentLocator) {
+    this.componentLocator = componentLocator;
+  }
+
   /**
    * Handles the given error types so that items that cause them when being processed are ignored, rather than propagating the
    * error.
@@ -117,51 +117,46 @@ public class IdempotentMessageValidator extends AbstractAnnotatedObject
     this.store = store;
   }
 
+  /**
+   * Stores the id of {@code event}, relying on the atomicity of {@link ObjectStore#store} to detect duplicates,
+   * so the store is accessed only once for each message.
+   *
+   * @return whether the id was not already stored
+   */
   private boolean accept(InternalEvent event) {
-    if (event != null && isNewMessage(event)) {
-      try {
-        String id = getIdForEvent(event);
-        String value = getValueForEvent(event);
-        try {
-          store.store(id, value);
-          return true;
-        } catch (ObjectAlreadyExistsException ex) {
-          return false;
-        } catch (ObjectStoreNotAvailableException e) {
-          LOGGER.error("ObjectStore not available: " + e.getMessage());
-          return false;
-        } catch (ObjectStoreException e) {
-          LOGGER.warn("ObjectStore exception: " + e.getMessage());
-          return false;
-        }
-      } catch (MuleException e) {
-        LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
-        return false;
-      }
-    } else {
+    if (event == null) {
       return false;
     }
-  }
 
-  @Override
-  public final InternalEvent process(InternalEvent event) throws MuleException {
-    if (accept(event)) {
-      return event;
-    } else {
-      throw new DuplicateMessageException();
+    final String id;
+    final String value;
+    try {
+      id = getIdForEvent(event);
+      value = getValueForEvent(event);
+    } catch (MuleException e) {
+      LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
+      return false;
     }
-  }
 
-  protected boolean isNewMessage(InternalEvent event) {
     try {
-      String id = this.getIdForEvent(event);
       if (store == null) {
         synchronized (this) {
-          initialise();
+          if (store == null) {
+            initialise();
+          }
         }
       }
-      return !store.contains(id);
-    } catch (MuleException e) {
+      store.store(id, value);
+      return true;
+    } catch (ObjectAlreadyExistsException ex) {
+      return false;
+    } catch (ObjectStoreNotAvailableException e) {
+      LOGGER.error("ObjectStore not available: " + e.getMessage());
+      return false;
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("ObjectStore exception: " + e.getMessage());
+      return false;
+    } catch (InitialisationException e) {
       LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
           + " from the connector "
           + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
@@ -169,6 +164,15 @@ public class IdempotentMessageValidator extends AbstractAnnotatedObject
     }
   }
 
+  @Override
+  public final InternalEvent process(InternalEvent event) throws MuleException {
+    if (accept(event)) {
+      return event;
+    } else {
+      throw new DuplicateMessageException();
+    }
+  }
+
   public String getValueExpression() {
     return valueExpression;
   }
@@ -7,28 +7,41 @@
 
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Integer.MAX_VALUE;
+import static java.time.Duration.ofMillis;
 import static java.util.Collections.emptyList;
+import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.core.DefaultEventContext.child;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.noEndpointsForRouter;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.TIMEOUT;
 import static org.mule.runtime.core.api.processor.MessageProcessors.newChain;
 import static org.mule.runtime.core.api.processor.MessageProcessors.newExplicitChain;
 import static org.mule.runtime.core.api.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.api.processor.MessageProcessors.processWithChildContextDontComplete;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedConsumer;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedFunction;
 import static org.mule.runtime.core.internal.routing.FirstSuccessfulRoutingStrategy.validateMessageIsNotConsumable;
 import static org.mule.runtime.core.internal.util.ProcessingStrategyUtils.isSynchronousProcessing;
+import static reactor.core.publisher.Flux.defer;
 import static reactor.core.publisher.Flux.from;
-import static reactor.core.publisher.Flux.fromIterable;
 import static reactor.core.publisher.Flux.just;
+import static reactor.core.publisher.Flux.range;
+import static reactor.core.publisher.Mono.delay;
 import static reactor.core.scheduler.Schedulers.fromExecutorService;
 import org.mule.runtime.api.component.location.ConfigurationComponentLocator;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.util.Preconditions;
 import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.InternalEventContext;
 import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.construct.Pipeline;
+import org.mule.runtime.core.api.exception.MessagingException;
+import org.mule.runtime.core.api.message.ErrorBuilder;
 import org.mule.runtime.core.api.processor.AbstractMessageProcessorOwner;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
@@ -39,17 +52,27 @@ import org.mule.runtime.core.api.scheduler.SchedulerService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.inject.Inject;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * <p>
  * The <code>Scatter-Gather</code> router will broadcast copies of the current message to every endpoint registered with the
  * router in parallel.
  * <p>
+ * All the routes are started at once, unless a {@link #setMaxConcurrency(int) maximum concurrency} is set. A route that doesn't
+ * complete within the {@link #setTimeout(long) timeout} is cancelled, and so are the routes not completed within the
+ * {@link #setOverallTimeout(long) overall timeout}. The results of the cancelled routes are events with a timeout error, which
+ * are aggregated along with the rest.
+ * <p>
  * For advanced use cases, a custom {@link AggregationStrategy} can be applied to customize the logic used to aggregate the route
  * responses back into one single element or to throw exception
  * <p>
@@ -73,6 +96,16 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
    */
   private long timeout = 0;
 
+  /**
+   * Timeout in milliseconds to be applied to all the routes together. Values lower or equal to zero means no timeout
+   */
+  private long overallTimeout = 0;
+
+  /**
+   * Maximum number of routes processed at the same time
+   */
+  private int maxConcurrency = MAX_VALUE;
+
   /**
    * The routes that the message will be sent to
    */
@@ -95,6 +128,7 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
 
   private Scheduler scheduler;
   private reactor.core.scheduler.Scheduler reactorScheduler;
+  private ErrorType timeoutErrorType;
 
   @Override
   public InternalEvent process(InternalEvent event) throws MuleException {
@@ -112,9 +146,71 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
     return from(publisher).doOnNext(checkedConsumer(event -> {
       assertMorethanOneRoute();
       validateMessageIsNotConsumable(event.getMessage());
-    })).concatMap(event -> from(fromIterable(routeChains).concatMap(processor -> just(event).transform(scheduleRoute(processor))))
-        .collectList()
-        .map(checkedFunction(list -> aggregationStrategy.aggregate(new AggregationContext(event, list)))));
+    })).concatMap(event -> {
+      final AtomicReferenceArray<Optional<InternalEvent>> results = new AtomicReferenceArray<>(routeChains.size());
+      Flux<Optional<InternalEvent>> routeResults = range(0, routeChains.size())
+          .flatMap(index -> processRoute(event, index).doOnNext(result -> results.set(index, result)), maxConcurrency);
+      if (overallTimeout < Long.MAX_VALUE) {
+        // cancels the routes still in progress
+        routeResults = routeResults.takeUntilOther(delay(ofMillis(overallTimeout), reactorScheduler));
+      }
+      return routeResults.then(Mono.just(event))
+          .map(checkedFunction(original -> aggregationStrategy.aggregate(new AggregationContext(original,
+                                                                                                collectResults(original,
+                                                                                                               results)))));
+    });
+  }
+
+  private Mono<Optional<InternalEvent>> processRoute(InternalEvent event, int index) {
+    // a child context keeps errors or empty results in the route from completing the whole flow, so they can be aggregated
+    final InternalEventContext childContext = child(event.getContext(), empty());
+    final ReactiveProcessor scheduledRoute = scheduleRoute(routeChains.get(index));
+    final ReactiveProcessor route = timeout < Long.MAX_VALUE
+        ? publisher -> from(publisher).transform(scheduledRoute)
+            .timeout(ofMillis(timeout), defer(() -> {
+              cancelRoute(childContext, index);
+              return just(createTimeoutErrorEvent(event, index));
+            }), reactorScheduler)
+        : scheduledRoute;
+
+    return Mono.from(processWithChildContextDontComplete(event, route, childContext))
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .onErrorResume(MessagingException.class, me -> Mono.just(Optional.of(me.getEvent())))
+        // the route is cancelled when the overall timeout elapses
+        .doOnCancel(() -> cancelRoute(childContext, index));
+  }
+
+  /**
+   * Completes the context of a route that didn't complete on time, since the context of the event being routed can't complete
+   * until the contexts of all of its routes do.
+   */
+  private void cancelRoute(InternalEventContext childContext, int index) {
+    if (!Mono.from(childContext.getResponsePublisher()).toFuture().isDone()) {
+      childContext.error(new TimeoutException("Route " + index + " was cancelled because it didn't complete on time"));
+    }
+  }
+
+  /**
+   * @return the result of each route, in the order of the routes. Routes that didn't produce an event have a {@code null}
+   *         result, and routes that didn't complete have an event with a timeout error
+   */
+  private List<InternalEvent> collectResults(InternalEvent event, AtomicReferenceArray<Optional<InternalEvent>> results) {
+    final List<InternalEvent> list = new ArrayList<>(results.length());
+    for (int i = 0; i < results.length(); i++) {
+      final Optional<InternalEvent> result = results.get(i);
+      list.add(result == null ? createTimeoutErrorEvent(event, i) : result.orElse(null));
+    }
+    return list;
+  }
+
+  private InternalEvent createTimeoutErrorEvent(InternalEvent event, int index) {
+    return InternalEvent.builder(event).message(Message.of(null))
+        .error(ErrorBuilder.builder(new TimeoutException()).errorType(timeoutErrorType)
+            .description("Route Timeout")
+            .detailedDescription("Timeout while processing route '" + index + "'")
+            .build())
+        .build();
   }
 
   private ReactiveProcessor scheduleRoute(Processor route) {
@@ -137,6 +233,11 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
       if (timeout <= 0) {
         timeout = Long.MAX_VALUE;
       }
+      if (overallTimeout <= 0) {
+        overallTimeout = Long.MAX_VALUE;
+      }
+      Preconditions.checkState(maxConcurrency > 0, "maxConcurrency must be greater than zero");
+      timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
     } catch (Exception e) {
       throw new InitialisationException(e, this);
     }
@@ -196,6 +297,14 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
     this.timeout = timeout;
   }
 
+  public void setOverallTimeout(long overallTimeout) {
+    this.overallTimeout = overallTimeout;
+  }
+
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
   public void setRoutes(List<Processor> routes) {
     this.routes = routes;
   }
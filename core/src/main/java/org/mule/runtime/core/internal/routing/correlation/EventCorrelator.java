@@ -11,6 +11,7 @@ import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.correlationTimedOut;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
@@ -45,14 +46,30 @@ import org.mule.runtime.core.api.util.StringMessageUtils;
 import org.mule.runtime.core.api.util.monitor.Expirable;
 import org.mule.runtime.core.api.util.monitor.ExpiryMonitor;
 import org.mule.runtime.core.internal.routing.EventGroup;
+import org.mule.runtime.core.internal.util.store.TimingWheel;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Correlates events into {@link EventGroup}s, and aggregates each group once it is complete or has timed out.
+ * <p/>
+ * The groups being correlated are kept in memory, besides being stored in the correlator store, so each event only accesses the
+ * store to add itself to its group. When the store is shared by the nodes of a cluster, other nodes may add events to a group or
+ * remove it, so the group is checked against the store and its events are read again on each correlation. A persistent store
+ * of a single node has no other writer, so its groups are kept in memory as well.
+ * <p/>
+ * Events of different groups are processed concurrently, since only the group being updated is locked. Group timeouts are
+ * tracked in a {@link TimingWheel}, so checking for expired groups only visits the groups whose timeout was reached.
+ */
 public class EventCorrelator implements Startable, Stoppable {
 
   /**
@@ -64,9 +81,6 @@ public class EventCorrelator implements Startable, Stoppable {
 
   private static final long DELAY_TIME = 10;
 
-  protected final Object groupsLock = new Object();
-
-  // @GuardedBy groupsLock
   protected ObjectStore<Long> processedGroups = null;
 
   private long timeout = -1; // undefined
@@ -88,6 +102,21 @@ public class EventCorrelator implements Startable, Stoppable {
   private PartitionableObjectStore correlatorStore = null;
   private String storePrefix;
 
+  /**
+   * The groups being correlated, each one being the only instance used for its group id until it is removed.
+   */
+  private final ConcurrentMap<String, EventGroup> groups = new ConcurrentHashMap<>();
+
+  /**
+   * Whether the groups in {@link #groups} are always up to date, which is only true if no other node shares the correlator store.
+   */
+  private final boolean localGroups;
+
+  // @GuardedBy groupTimers
+  private TimingWheel<GroupTimer> timingWheel;
+  private final ConcurrentMap<String, GroupTimer> groupTimers = new ConcurrentHashMap<>();
+  private final Queue<GroupTimer> overdueGroups = new ConcurrentLinkedQueue<>();
+
   private Scheduler scheduler;
   private ExpiringGroupMonitoringRunnable expiringGroupRunnable;
   private final String name;
@@ -117,12 +146,14 @@ public class EventCorrelator implements Startable, Stoppable {
     this.correlatorStore = correlatorStore;
     this.storePrefix = storePrefix;
     this.processedGroups = processedGroups;
+    this.localGroups = correlatorStore != null && isEmpty(muleContext.getClusterId());
   }
 
   public void forceGroupExpiry(String groupId) throws MuleException {
     try {
-      if (correlatorStore.retrieve(groupId, getEventGroupsPartitionKey()) != null) {
-        handleGroupExpiry(getEventGroup(groupId));
+      EventGroup group = getEventGroup(groupId);
+      if (group != null) {
+        handleGroupExpiry(group);
       } else {
         addProcessedGroup(groupId);
       }
@@ -185,7 +216,16 @@ public class EventCorrelator implements Startable, Stoppable {
       }
 
       // ensure that only one thread at a time evaluates this EventGroup
-      synchronized (groupsLock) {
+      synchronized (group) {
+        try {
+          if (groups.get(groupId) != group || !refreshEventGroup(group)) {
+            // the group was aggregated or expired by another thread or node, check again whether it was processed
+            continue;
+          }
+        } catch (ObjectStoreException e) {
+          throw new RoutingException(timeoutMessageProcessor, e);
+        }
+
         if (logger.isDebugEnabled()) {
           logger.debug("Adding event to aggregator group: " + groupId);
         }
@@ -230,8 +270,13 @@ public class EventCorrelator implements Startable, Stoppable {
   }
 
   protected EventGroup getEventGroup(String groupId) throws ObjectStoreException {
+    EventGroup eventGroup = groups.get(groupId);
+    if (eventGroup != null) {
+      return eventGroup;
+    }
+
     try {
-      EventGroup eventGroup = (EventGroup) correlatorStore.retrieve(groupId, getEventGroupsPartitionKey());
+      eventGroup = (EventGroup) correlatorStore.retrieve(groupId, getEventGroupsPartitionKey());
       if (!eventGroup.isInitialised()) {
         try {
           DeserializationPostInitialisable.Implementation.init(eventGroup, muleContext);
@@ -240,7 +285,7 @@ public class EventCorrelator implements Startable, Stoppable {
         }
       }
       eventGroup.initEventsStore(correlatorStore);
-      return eventGroup;
+      return registerGroup(groupId, eventGroup);
     } catch (ObjectDoesNotExistException e) {
       return null;
     }
@@ -249,31 +294,89 @@ public class EventCorrelator implements Startable, Stoppable {
   protected EventGroup addEventGroup(EventGroup group) throws ObjectStoreException {
     try {
       correlatorStore.store((String) group.getGroupId(), group, getEventGroupsPartitionKey());
-      return group;
+      return registerGroup((String) group.getGroupId(), group);
     } catch (ObjectAlreadyExistsException e) {
       return getEventGroup((String) group.getGroupId());
     }
   }
 
+  /**
+   * Brings a group up to date with the correlator store when it may be shared with other nodes.
+   *
+   * @return {@code false} if the group is no longer in the store, in which case it is no longer correlated
+   */
+  private boolean refreshEventGroup(EventGroup group) throws ObjectStoreException {
+    if (localGroups) {
+      return true;
+    }
+
+    final String groupId = (String) group.getGroupId();
+    synchronized (group) {
+      if (!correlatorStore.contains(groupId, getEventGroupsPartitionKey())) {
+        evictGroup(groupId, group);
+        return false;
+      }
+      group.invalidateEvents();
+      return true;
+    }
+  }
+
+  private EventGroup registerGroup(String groupId, EventGroup group) {
+    final EventGroup previous = groups.putIfAbsent(groupId, group);
+    if (previous != null) {
+      return previous;
+    }
+    scheduleExpiry(groupId, group);
+    return group;
+  }
+
   protected void removeEventGroup(EventGroup group) throws ObjectStoreException {
-    final Object groupId = group.getGroupId();
-    synchronized (groupsLock) {
-      if (!isGroupAlreadyProcessed(groupId)) {
-        correlatorStore.remove((String) groupId, getEventGroupsPartitionKey());
-        addProcessedGroup(groupId);
+    final String groupId = (String) group.getGroupId();
+    synchronized (group) {
+      try {
+        if (!isGroupAlreadyProcessed(groupId)) {
+          correlatorStore.remove(groupId, getEventGroupsPartitionKey());
+          addProcessedGroup(groupId);
+        }
+      } finally {
+        evictGroup(groupId, group);
       }
     }
   }
 
+  private void evictGroup(String groupId, EventGroup group) {
+    groups.remove(groupId, group);
+    cancelExpiry(groupId);
+  }
+
   protected void addProcessedGroup(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
-      processedGroups.store((String) id, currentTimeMillis());
-    }
+    processedGroups.store((String) id, currentTimeMillis());
   }
 
   protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
-      return processedGroups.contains((String) id);
+    return processedGroups.contains((String) id);
+  }
+
+  private void scheduleExpiry(String groupId, EventGroup group) {
+    final GroupTimer timer = new GroupTimer(groupId);
+    // the group expires once its timeout has been exceeded
+    timer.setDeadline(group.getCreated() + getTimeout() + 1);
+    synchronized (groupTimers) {
+      if (timingWheel == null || groupTimers.putIfAbsent(groupId, timer) != null) {
+        return;
+      }
+      if (!timingWheel.schedule(timer)) {
+        overdueGroups.add(timer);
+      }
+    }
+  }
+
+  private void cancelExpiry(String groupId) {
+    synchronized (groupTimers) {
+      final GroupTimer timer = groupTimers.remove(groupId);
+      if (timer != null && timingWheel != null) {
+        timingWheel.cancel(timer);
+      }
     }
   }
 
@@ -351,6 +454,9 @@ public class EventCorrelator implements Startable, Stoppable {
   public void start() throws MuleException {
     logger.info("Starting event correlator: " + name);
     if (timeout != 0) {
+      synchronized (groupTimers) {
+        timingWheel = new TimingWheel<>(currentTimeMillis());
+      }
       scheduler = muleContext.getSchedulerService().customScheduler(muleContext.getSchedulerBaseConfig().withName(name)
           .withMaxConcurrentTasks(1).withShutdownTimeout(0, MILLISECONDS));
       expiringGroupRunnable = new ExpiringGroupMonitoringRunnable();
@@ -368,11 +474,20 @@ public class EventCorrelator implements Startable, Stoppable {
       expiringGroupRunnable.dispose();
       expiringGroupRunnable = null;
     }
+    synchronized (groupTimers) {
+      if (timingWheel != null) {
+        timingWheel.clear();
+        timingWheel = null;
+      }
+      groupTimers.clear();
+      overdueGroups.clear();
+    }
   }
 
   private final class ExpiringGroupMonitoringRunnable implements Runnable, Expirable, Disposable {
 
     private ExpiryMonitor expiryMonitor;
+    private boolean groupsScheduled = false;
 
     public ExpiringGroupMonitoringRunnable() {
       this.expiryMonitor = new ExpiryMonitor(name, MINUTES.toMillis(1), muleContext, true);
@@ -404,20 +519,58 @@ public class EventCorrelator implements Startable, Stoppable {
       //// start the thread on the primary node only, and then use a notification schema to start a new thread
       //// in a different node when the primary goes down.
       if (!muleContext.isPrimaryPollingInstance()) {
+        // the groups are scheduled again if this node becomes the primary one
+        groupsScheduled = false;
         return;
       }
 
-      List<EventGroup> expired = new ArrayList<>(1);
-      try {
-        for (String o : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
-          EventGroup group = getEventGroup(o);
-          // group may have been removed by another thread right after eventGroups.allKeys()
-          if (group != null && group.getCreated() + getTimeout() < currentTimeMillis()) {
-            expired.add(group);
+      if (!groupsScheduled) {
+        // schedules the groups that were stored before this node started correlating them
+        try {
+          for (String groupId : (List<String>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
+            EventGroup group = getEventGroup(groupId);
+            // group may have been removed by another thread right after eventGroups.allKeys()
+            if (group != null) {
+              scheduleExpiry(groupId, group);
+            }
           }
+          groupsScheduled = true;
+        } catch (ObjectStoreException e) {
+          logger.warn("expiry failed dues to ObjectStoreException " + e);
+        }
+      }
+
+      final List<String> expiredIds = new ArrayList<>();
+      synchronized (groupTimers) {
+        if (timingWheel == null) {
+          return;
+        }
+        timingWheel.advance(currentTimeMillis(), timer -> {
+          groupTimers.remove(timer.groupId, timer);
+          expiredIds.add(timer.groupId);
+        });
+      }
+      GroupTimer overdue;
+      while ((overdue = overdueGroups.poll()) != null) {
+        groupTimers.remove(overdue.groupId, overdue);
+        expiredIds.add(overdue.groupId);
+      }
+
+      List<EventGroup> expired = new ArrayList<>(expiredIds.size());
+      for (String groupId : expiredIds) {
+        try {
+          EventGroup group = getEventGroup(groupId);
+          // group may have been aggregated since its timer expired
+          if (group != null && refreshEventGroup(group)) {
+            if (group.getCreated() + getTimeout() < currentTimeMillis()) {
+              expired.add(group);
+            } else {
+              scheduleExpiry(groupId, group);
+            }
+          }
+        } catch (ObjectStoreException e) {
+          logger.warn("expiry failed dues to ObjectStoreException " + e);
         }
-      } catch (ObjectStoreException e) {
-        logger.warn("expiry failed dues to ObjectStoreException " + e);
       }
       for (final EventGroup group : expired) {
         try {
@@ -438,6 +591,18 @@ public class EventCorrelator implements Startable, Stoppable {
     }
   }
 
+  /**
+   * The timeout of a group being correlated.
+   */
+  private static final class GroupTimer extends TimingWheel.Timer {
+
+    private final String groupId;
+
+    private GroupTimer(String groupId) {
+      this.groupId = groupId;
+    }
+  }
+
   protected String getExpiredAndDispatchedPartitionKey() {
     return storePrefix + ".expiredAndDispatchedGroups";
   }
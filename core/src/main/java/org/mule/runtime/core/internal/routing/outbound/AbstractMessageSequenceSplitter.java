@@ -7,9 +7,11 @@
 package org.mule.runtime.core.internal.routing.outbound;
 
 import static java.util.Collections.emptyMap;
+import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
 import static org.mule.runtime.core.api.InternalEvent.builder;
 import static org.mule.runtime.core.api.processor.MessageProcessors.processToApplyWithChildContext;
+import static org.mule.runtime.core.api.processor.MessageProcessors.processWithChildContextDontComplete;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
@@ -19,6 +21,7 @@ import org.mule.runtime.core.api.InternalEvent.Builder;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.exception.MessagingException;
 import org.mule.runtime.core.api.message.GroupCorrelation;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.routing.MessageSequence;
 import org.mule.runtime.core.api.routing.RouterResultsHandler;
 import org.mule.runtime.core.internal.routing.AbstractSplitter;
@@ -27,9 +30,16 @@ import org.mule.runtime.core.privileged.routing.DefaultRouterResultsHandler;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Base implementation of a {@link Message} splitter, that converts its payload in a {@link MessageSequence}, and process each
@@ -99,20 +109,12 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
     for (; messageSequence.hasNext();) {
       correlationSequence++;
 
-      final Builder builder = builder(originalEvent);
-
-      propagateFlowVars(lastResult, builder);
-      if (counterVariableName != null) {
-        builder.addVariable(counterVariableName, correlationSequence);
-      }
-
-      builder.groupCorrelation(Optional
-          .of(count != null ? GroupCorrelation.of(correlationSequence, count) : GroupCorrelation.of(correlationSequence)));
-      initEventBuilder(messageSequence.next(), originalEvent, builder, resolvePropagatedFlowVars(lastResult));
-
       try {
-        // TODO MULE-13052 Migrate Splitter and Foreach implementation to non-blocking
-        InternalEvent resultEvent = processToApplyWithChildContext(builder.build(), applyNext());
+        // TODO MULE-13052 Migrate Splitter implementation to non-blocking
+        InternalEvent resultEvent =
+            processToApplyWithChildContext(createPartEvent(messageSequence.next(), correlationSequence, count, lastResult,
+                                                           originalEvent),
+                                           applyNext());
         if (resultEvent != null) {
           resultEvents.add(builder(originalEvent.getContext(), resultEvent).build());
           lastResult = resultEvent;
@@ -129,6 +131,74 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
     return resultEvents;
   }
 
+  /**
+   * Splits {@code event} and processes each of its parts with {@code route}, without blocking.
+   * <p>
+   * The parts are pulled from the {@link MessageSequence} as they are processed, so sequences backed by an iterator are never
+   * loaded in memory at once. If {@code maxConcurrency} is greater than one, up to that number of parts are processed at the
+   * same time, and each part only gets the flow variables of {@code event} instead of those of the result of the previous part.
+   *
+   * @param event the event to split
+   * @param route the processor for each part
+   * @param maxConcurrency the maximum number of parts processed at the same time
+   * @return the results of processing each part, in the order of the parts
+   */
+  public Publisher<InternalEvent> splitAndProcess(InternalEvent event, ReactiveProcessor route, int maxConcurrency) {
+    return Flux.defer(() -> {
+      final MessageSequence<?> seq;
+      try {
+        seq = splitMessageIntoSequence(event);
+      } catch (MuleException e) {
+        return Flux.error(e);
+      }
+      if (seq.isEmpty()) {
+        logger.warn("Splitter returned no results. If this is not expected, please check your split expression");
+        return Flux.empty();
+      }
+
+      final MessageSequence<?> messageSequence = batchSize > 1 ? new PartitionedMessageSequence<>(seq, batchSize) : seq;
+      final Integer count = messageSequence.size();
+      final AtomicInteger correlationSequence = new AtomicInteger();
+      final Flux<Object> parts = Flux.fromIterable(() -> (Iterator<Object>) messageSequence);
+
+      // Parts are requested one at a time so no more than the ones being processed are pulled from the sequence
+      if (maxConcurrency > 1) {
+        return parts.flatMapSequential(part -> processPart(part, correlationSequence.incrementAndGet(), count, null, event,
+                                                           route),
+                                       maxConcurrency, 1);
+      } else {
+        final AtomicReference<InternalEvent> lastResult = new AtomicReference<>();
+        return parts.concatMap(part -> processPart(part, correlationSequence.incrementAndGet(), count, lastResult.get(), event,
+                                                   route)
+                                                       .doOnNext(lastResult::set),
+                               1);
+      }
+    });
+  }
+
+  private Mono<InternalEvent> processPart(Object part, int sequence, Integer count, InternalEvent lastResult,
+                                          InternalEvent originalEvent, ReactiveProcessor route) {
+    return Mono.from(processWithChildContextDontComplete(createPartEvent(part, sequence, count, lastResult, originalEvent),
+                                                         route, empty()))
+        .map(result -> builder(originalEvent.getContext(), result).build())
+        .onErrorResume(MessagingException.class,
+                       e -> filterOnErrorTypeAcceptor.accept(e.getEvent()) ? Mono.empty() : Mono.error(e));
+  }
+
+  private InternalEvent createPartEvent(Object part, int sequence, Integer count, InternalEvent lastResult,
+                                        InternalEvent originalEvent) {
+    final Builder builder = builder(originalEvent);
+
+    propagateFlowVars(lastResult, builder);
+    if (counterVariableName != null) {
+      builder.addVariable(counterVariableName, sequence);
+    }
+
+    builder.groupCorrelation(Optional.of(count != null ? GroupCorrelation.of(sequence, count) : GroupCorrelation.of(sequence)));
+    initEventBuilder(part, originalEvent, builder, resolvePropagatedFlowVars(lastResult));
+    return builder.build();
+  }
+
   protected Map<String, ?> resolvePropagatedFlowVars(InternalEvent lastResult) {
     return emptyMap();
   }
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.streaming;
 import org.mule.runtime.core.api.streaming.StreamingStatistics;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Mutable implementation of {@link StreamingStatistics}
@@ -19,6 +20,9 @@ public class MutableStreamingStatistics implements StreamingStatistics {
 
   private final AtomicInteger openProviders = new AtomicInteger(0);
   private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final LongAdder pooledBufferHits = new LongAdder();
+  private final LongAdder pooledBufferMisses = new LongAdder();
+  private final LongAdder outstandingBufferBytes = new LongAdder();
 
   void incrementOpenProviders() {
     openProviders.incrementAndGet();
@@ -36,6 +40,29 @@ public class MutableStreamingStatistics implements StreamingStatistics {
     openCursors.decrementAndGet();
   }
 
+  /**
+   * Registers that a buffer allocation was served with a pooled buffer
+   */
+  public void pooledBufferHit() {
+    pooledBufferHits.increment();
+  }
+
+  /**
+   * Registers that a buffer allocation required a new buffer to be created
+   */
+  public void pooledBufferMiss() {
+    pooledBufferMisses.increment();
+  }
+
+  /**
+   * Adds {@code bytes} to the amount of outstanding buffer bytes. Use a negative value when buffers are deallocated.
+   *
+   * @param bytes the amount of bytes allocated or deallocated
+   */
+  public void addOutstandingBufferBytes(long bytes) {
+    outstandingBufferBytes.add(bytes);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -51,4 +78,28 @@ public class MutableStreamingStatistics implements StreamingStatistics {
   public int getOpenCursorsCount() {
     return openCursors.get();
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getPooledBufferHitsCount() {
+    return pooledBufferHits.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getPooledBufferMissesCount() {
+    return pooledBufferMisses.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getOutstandingBufferBytes() {
+    return outstandingBufferBytes.sum();
+  }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.open;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.util.LazyValue;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which keeps a bounded window of the stream in memory and
+ * spills everything else to a temporal file.
+ * <p>
+ * The in memory window always holds the most recently consumed data, which is what cursors reading the stream
+ * for the first time are interested in. When the window is full, its contents are appended to the file and the
+ * window is reused for the next chunk of the stream. Data which is no longer in the window is read back from the
+ * file using positional reads, so cursors can freely seek back and forth across both tiers.
+ * <p>
+ * The file is created the first time the window is spilled, so streams which fit in memory never touch the disk.
+ * It is deleted when the buffer is closed.
+ *
+ * @since 4.0
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  private final LazyValue<FileChannel> fileChannel = new LazyValue<>(this::openBufferFile);
+  private File bufferFile;
+
+  /**
+   * Position in the stream of the first byte held in the memory window. Every byte before it lives in the file,
+   * at the same offset
+   */
+  private long windowStart = 0;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the memory window
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager, config.getMaxInMemorySize().toBytes());
+    checkArgument(config.getMaxInMemorySize().toBytes() > 0, "maxInMemorySize has to be greater than zero");
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(releaser -> {
+
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaser.release();
+        return withWriteLock(() -> {
+
+          ByteBuffer refetch;
+          refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!isStreamFullyConsumed() && bufferTip < requiredUpperBound) {
+            try {
+              final int read = consumeForwardData();
+              if (read > 0) {
+                refetch = getFromCurrentData(position, length);
+                if (refetch != null) {
+                  return refetch;
+                }
+              } else {
+                streamFullyConsumed();
+              }
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(position, length, false);
+        });
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    if (position >= windowStart) {
+      length = min(length, toIntExact(bufferTip - position));
+      return copy(position - windowStart, length);
+    }
+
+    // never cross into the window, the cursor will ask for the rest afterwards
+    length = toIntExact(min(length, windowStart - position));
+    return readFromFile(position, length);
+  }
+
+  private ByteBuffer readFromFile(long position, int length) {
+    ByteBuffer data = ByteBuffer.allocate(length);
+    try {
+      final FileChannel channel = fileChannel.get();
+      long filePosition = position;
+      while (data.hasRemaining()) {
+        int read = channel.read(data, filePosition);
+        if (read < 0) {
+          break;
+        }
+        filePosition += read;
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from buffer file " + bufferFile.getAbsolutePath()), e);
+    }
+
+    data.flip();
+    return data;
+  }
+
+  /**
+   * {@inheritDoc}
+   * If the memory window doesn't have any remaining capacity, then its contents are spilled to the buffer file before
+   * attempting to consume new information.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    ByteBuffer b = buffer.get();
+    if (!b.hasRemaining()) {
+      spillWindow(b);
+    }
+
+    final int read = consumeStream(b);
+    if (read > 0) {
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  private void spillWindow(ByteBuffer window) throws IOException {
+    final FileChannel channel = fileChannel.get();
+    window.flip();
+
+    long filePosition = windowStart;
+    while (window.hasRemaining()) {
+      filePosition += channel.write(window, filePosition);
+    }
+
+    window.clear();
+    windowStart = bufferTip;
+  }
+
+  private FileChannel openBufferFile() {
+    bufferFile = createBufferFile("stream-buffer");
+    try {
+      return open(bufferFile.toPath(), CREATE_NEW, READ, WRITE);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create buffer file " + bufferFile.getAbsolutePath()), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * Closes and deletes the buffer file, if one was created
+   */
+  @Override
+  public void doClose() {
+    fileChannel.ifComputed(channel -> closeSafely(channel::close));
+    if (bufferFile != null) {
+      closeSafely(() -> deleteIfExists(bufferFile.toPath()));
+    }
+  }
+
+  /**
+   * The memory window is reused once spilled, so slices of it cannot be handed to the cursors
+   *
+   * @return {@code false}
+   */
+  @Override
+  protected boolean canDoSoftCopy() {
+    return false;
+  }
+}
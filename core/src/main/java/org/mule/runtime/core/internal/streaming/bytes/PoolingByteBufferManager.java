@@ -112,7 +112,7 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
     this.waitTimeoutMillis = waitTimeoutMillis;
   }
 
-  private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
+  static long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
       return round(memoryManager.getMaxMemory() * 0.5);
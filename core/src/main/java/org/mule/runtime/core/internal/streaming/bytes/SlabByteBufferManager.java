@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.String.format;
+import static java.lang.System.identityHashCode;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ByteBufferManager} implementation which pools buffers in power of two size classes.
+ * <p>
+ * Requested capacities are rounded up to the next size class, so that buffers of slightly different sizes share the
+ * same pool instead of fragmenting the retained memory across many exact-size pools. The returned buffer is a slice
+ * of the pooled one, so its capacity is always the one requested.
+ * <p>
+ * Deallocated buffers are first kept in a small per thread magazine, which allows the typical allocate/deallocate
+ * cycle to be served without any synchronization at all. When the magazine is full, or the buffer is too big for it,
+ * the buffer goes to a lock-free free list shared by all threads.
+ * <p>
+ * As in {@link PoolingByteBufferManager}, the pool is bounded by the amount of memory it retains. When a new buffer
+ * is needed and the limit has been reached, idle buffers in the free lists are released. If that's not enough,
+ * {@link #allocate(int)} waits for up to {@link #waitTimeoutMillis} milliseconds before throwing a
+ * {@link MaxStreamingMemoryExceededException}. While a thread is waiting, deallocated buffers skip the magazines so
+ * that they can be released for it.
+ * <p>
+ * The magazines are also referenced by the manager, so the buffers in the magazine of a thread which is gone are not
+ * lost: they are moved to the free lists when a new magazine is created or when memory is needed.
+ * <p>
+ * Buffers can optionally be allocated off-heap, in which case they are direct {@link ByteBuffer buffers} and don't
+ * have a backing array.
+ * <p>
+ * Only buffers allocated by this manager are pooled or accounted when deallocated, any other buffer is ignored.
+ *
+ * @since 4.0
+ */
+public class SlabByteBufferManager implements ByteBufferManager, Disposable {
+
+  private static final int MIN_SIZE_CLASS_SHIFT = 6;
+  private static final int MAX_SIZE_CLASS_SHIFT = 30;
+  private static final int SIZE_CLASS_COUNT = MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1;
+
+  static final int MAGAZINE_SIZE = 4;
+  static final int MAX_MAGAZINE_BUFFER_CAPACITY = 64 * 1024;
+  private static final int MAGAZINE_SIZE_CLASS_COUNT = sizeClassOf(MAX_MAGAZINE_BUFFER_CAPACITY) + 1;
+
+  private static final long WAIT_PARK_NANOS = MILLISECONDS.toNanos(1);
+
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+  private final boolean direct;
+  private final MutableStreamingStatistics statistics;
+
+  private final AtomicLong retainedMemory = new AtomicLong(0);
+  private final AtomicInteger waiters = new AtomicInteger(0);
+  private final FreeList[] freeLists = new FreeList[SIZE_CLASS_COUNT];
+  private final ThreadLocal<Magazine> magazines = ThreadLocal.withInitial(this::newMagazine);
+  // strongly referenced so that the buffers in the magazines of threads which are gone can be reclaimed
+  private final Queue<Magazine> allMagazines = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The memory allocated by this manager and not released yet: the backing arrays of heap buffers or the direct
+   * buffers themselves.
+   */
+  private final Set<BufferKey> ownedMemory = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Direct buffers have no backing array through which to find the pooled buffer of a slice, so the relation is kept
+   * here. Not used for heap buffers.
+   */
+  private final Map<BufferKey, ByteBuffer> directSlabs = new ConcurrentHashMap<>();
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance which allocates heap buffers, allows the pool to grow up to 50% of the runtime's max memory
+   * and has a wait timeout of 10 seconds. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   *
+   * @param statistics the {@link MutableStreamingStatistics} in which allocations are to be recorded
+   */
+  public SlabByteBufferManager(MutableStreamingStatistics statistics) {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, false, statistics);
+  }
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of calling {@link MemoryManager#getMaxMemory()}
+   * on the given {@code memoryManager}, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   * @param direct            whether to allocate direct (off-heap) buffers
+   * @param statistics        the {@link MutableStreamingStatistics} in which allocations are to be recorded
+   */
+  public SlabByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis, boolean direct,
+                               MutableStreamingStatistics statistics) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.direct = direct;
+    this.statistics = statistics;
+    for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+      freeLists[i] = new FreeList();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    final int sizeClass = sizeClassOf(capacity);
+    if (sizeClass >= SIZE_CLASS_COUNT) {
+      // too big for any size class, not worth pooling
+      reserve(capacity);
+      statistics.pooledBufferMiss();
+      statistics.addOutstandingBufferBytes(capacity);
+      return newBuffer(capacity);
+    }
+
+    ByteBuffer slab = sizeClass < MAGAZINE_SIZE_CLASS_COUNT && !disposed ? magazines.get().pop(sizeClass) : null;
+    if (slab == null) {
+      slab = freeLists[sizeClass].pop();
+    }
+
+    if (slab != null) {
+      statistics.pooledBufferHit();
+    } else {
+      final int slabCapacity = sizeClassCapacity(sizeClass);
+      reserve(slabCapacity);
+      statistics.pooledBufferMiss();
+      slab = newBuffer(slabCapacity);
+    }
+
+    statistics.addOutstandingBufferBytes(slab.capacity());
+    return sliceOf(slab, capacity);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    ByteBuffer slab = slabOf(byteBuffer);
+    if (slab == null || !ownedMemory.contains(memoryOf(slab))) {
+      return;
+    }
+
+    final int capacity = slab.capacity();
+    statistics.addOutstandingBufferBytes(-capacity);
+
+    final int sizeClass = sizeClassOf(capacity);
+    if (disposed || sizeClass >= SIZE_CLASS_COUNT) {
+      release(slab);
+      return;
+    }
+
+    // while someone is waiting for memory, buffers go where every thread can reach them
+    if (sizeClass >= MAGAZINE_SIZE_CLASS_COUNT || waiters.get() > 0 || !magazines.get().push(sizeClass, slab)) {
+      freeLists[sizeClass].push(slab);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    Magazine magazine;
+    while ((magazine = allMagazines.poll()) != null) {
+      magazine.flushTo(freeLists);
+    }
+    magazines.remove();
+
+    for (FreeList freeList : freeLists) {
+      releaseIdle(freeList, Long.MAX_VALUE);
+    }
+    directSlabs.clear();
+  }
+
+  private Magazine newMagazine() {
+    reclaimOrphanMagazines();
+    Magazine magazine = new Magazine(Thread.currentThread());
+    allMagazines.add(magazine);
+    return magazine;
+  }
+
+  /**
+   * Moves the buffers in the magazines of the threads which are gone to the free lists, so they can be reused or
+   * released.
+   */
+  private void reclaimOrphanMagazines() {
+    for (Magazine magazine : allMagazines) {
+      if (magazine.isOrphan() && allMagazines.remove(magazine)) {
+        magazine.flushTo(freeLists);
+      }
+    }
+  }
+
+  private ByteBuffer newBuffer(int capacity) {
+    ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    ownedMemory.add(memoryOf(buffer));
+    return buffer;
+  }
+
+  private void release(ByteBuffer slab) {
+    if (ownedMemory.remove(memoryOf(slab))) {
+      retainedMemory.addAndGet(-slab.capacity());
+    }
+  }
+
+  private static BufferKey memoryOf(ByteBuffer buffer) {
+    return new BufferKey(buffer.hasArray() ? buffer.array() : buffer);
+  }
+
+  private ByteBuffer sliceOf(ByteBuffer slab, int capacity) {
+    slab.clear();
+    if (slab.capacity() == capacity) {
+      return slab;
+    }
+
+    slab.limit(capacity);
+    ByteBuffer slice = slab.slice();
+    if (direct) {
+      directSlabs.put(new BufferKey(slice), slab);
+    }
+
+    return slice;
+  }
+
+  /**
+   * @return the pooled buffer from which {@code byteBuffer} was obtained, or {@code null} if it was not allocated
+   *         by this manager
+   */
+  private ByteBuffer slabOf(ByteBuffer byteBuffer) {
+    if (sizeClassOf(byteBuffer.capacity()) >= SIZE_CLASS_COUNT) {
+      // unpooled buffer, it's only returned to release its memory
+      return byteBuffer;
+    }
+
+    if (byteBuffer.isDirect()) {
+      ByteBuffer slab = directSlabs.remove(new BufferKey(byteBuffer));
+      return slab != null ? slab : (isSlabCapacity(byteBuffer.capacity()) ? byteBuffer : null);
+    }
+
+    if (!byteBuffer.hasArray() || byteBuffer.arrayOffset() != 0) {
+      return null;
+    }
+
+    final byte[] array = byteBuffer.array();
+    if (!isSlabCapacity(array.length)) {
+      return null;
+    }
+
+    return array.length == byteBuffer.capacity() ? byteBuffer : ByteBuffer.wrap(array);
+  }
+
+  private void reserve(int capacity) {
+    if (tryReserve(capacity)) {
+      return;
+    }
+
+    waiters.incrementAndGet();
+    try {
+      magazines.get().flushTo(freeLists);
+      reclaimOrphanMagazines();
+      final long deadline = nanoTime() + MILLISECONDS.toNanos(waitTimeoutMillis);
+      while (!tryReserve(capacity)) {
+        if (releaseIdle(capacity)) {
+          continue;
+        }
+
+        if (nanoTime() - deadline >= 0) {
+          throw new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                                   "Max streaming memory limit of %d bytes was exceeded",
+                                                                                   maxStreamingMemory)));
+        }
+        parkNanos(WAIT_PARK_NANOS);
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private boolean tryReserve(int capacity) {
+    for (;;) {
+      long current = retainedMemory.get();
+      long next = current + capacity;
+      if (next > maxStreamingMemory) {
+        return false;
+      }
+      if (retainedMemory.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases idle buffers from the free lists, biggest first, until at least {@code capacity} bytes have been released.
+   *
+   * @return whether any memory was released
+   */
+  private boolean releaseIdle(int capacity) {
+    long released = 0;
+    for (int i = SIZE_CLASS_COUNT - 1; i >= 0 && released < capacity; i--) {
+      released += releaseIdle(freeLists[i], capacity - released);
+    }
+
+    return released > 0;
+  }
+
+  private long releaseIdle(FreeList freeList, long bytes) {
+    long released = 0;
+    ByteBuffer slab;
+    while (released < bytes && (slab = freeList.pop()) != null) {
+      released += slab.capacity();
+      release(slab);
+    }
+
+    return released;
+  }
+
+  static int sizeClassOf(int capacity) {
+    if (capacity <= 1 << MIN_SIZE_CLASS_SHIFT) {
+      return 0;
+    }
+
+    return (32 - numberOfLeadingZeros(capacity - 1)) - MIN_SIZE_CLASS_SHIFT;
+  }
+
+  static int sizeClassCapacity(int sizeClass) {
+    return 1 << (sizeClass + MIN_SIZE_CLASS_SHIFT);
+  }
+
+  private static boolean isSlabCapacity(int capacity) {
+    final int sizeClass = sizeClassOf(capacity);
+    return sizeClass < SIZE_CLASS_COUNT && sizeClassCapacity(sizeClass) == capacity;
+  }
+
+  /**
+   * Lock-free stack of idle buffers of the same size class
+   */
+  private static final class FreeList {
+
+    private final AtomicReference<Node> head = new AtomicReference<>();
+
+    private void push(ByteBuffer buffer) {
+      Node node = new Node(buffer);
+      do {
+        node.next = head.get();
+      } while (!head.compareAndSet(node.next, node));
+    }
+
+    private ByteBuffer pop() {
+      Node current;
+      do {
+        current = head.get();
+        if (current == null) {
+          return null;
+        }
+      } while (!head.compareAndSet(current, current.next));
+
+      return current.buffer;
+    }
+  }
+
+  private static final class Node {
+
+    private final ByteBuffer buffer;
+    private Node next;
+
+    private Node(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * Per thread cache of idle buffers for the smaller size classes. Only accessed by its owner thread, except when the
+   * manager is disposed, after which the owner no longer uses it, or when the owner is gone.
+   */
+  private static final class Magazine {
+
+    private final WeakReference<Thread> owner;
+    private final ByteBuffer[][] rounds = new ByteBuffer[MAGAZINE_SIZE_CLASS_COUNT][MAGAZINE_SIZE];
+    private final int[] counts = new int[MAGAZINE_SIZE_CLASS_COUNT];
+
+    private Magazine(Thread owner) {
+      this.owner = new WeakReference<>(owner);
+    }
+
+    /**
+     * @return whether the owner thread is gone. Once it is, everything it did to this magazine is visible to the caller.
+     */
+    private boolean isOrphan() {
+      final Thread thread = owner.get();
+      return thread == null || !thread.isAlive();
+    }
+
+    private ByteBuffer pop(int sizeClass) {
+      int count = counts[sizeClass];
+      if (count == 0) {
+        return null;
+      }
+
+      counts[sizeClass] = --count;
+      ByteBuffer buffer = rounds[sizeClass][count];
+      rounds[sizeClass][count] = null;
+      return buffer;
+    }
+
+    private boolean push(int sizeClass, ByteBuffer buffer) {
+      int count = counts[sizeClass];
+      if (count == MAGAZINE_SIZE) {
+        return false;
+      }
+
+      rounds[sizeClass][count] = buffer;
+      counts[sizeClass] = count + 1;
+      return true;
+    }
+
+    private void flushTo(FreeList[] freeLists) {
+      for (int sizeClass = 0; sizeClass < MAGAZINE_SIZE_CLASS_COUNT; sizeClass++) {
+        ByteBuffer buffer;
+        while ((buffer = pop(sizeClass)) != null) {
+          freeLists[sizeClass].push(buffer);
+        }
+      }
+    }
+  }
+
+  /**
+   * Identity based key for {@link ByteBuffer buffers} or their backing arrays, which otherwise implement {@code equals}
+   * and {@code hashCode} based on their contents
+   */
+  private static final class BufferKey {
+
+    private final Object buffer;
+
+    private BufferKey(Object buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof BufferKey && ((BufferKey) obj).buffer == buffer;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(buffer);
+    }
+  }
+}
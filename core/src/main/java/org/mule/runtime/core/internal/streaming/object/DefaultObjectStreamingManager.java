@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.streaming.object;
 
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.internal.streaming.object.factory.FileStoreCursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.streaming.object.factory.InMemoryCursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.streaming.object.factory.NullCursorIteratorProviderFactory;
 import org.mule.runtime.core.api.streaming.StreamingManager;
@@ -34,6 +36,19 @@ public class DefaultObjectStreamingManager implements ObjectStreamingManager {
     return new InMemoryCursorIteratorProviderFactory(config, streamingManager);
   }
 
+  /**
+   * Creates a {@link CursorIteratorProviderFactory} which buffers to disk, only keeping a bounded amount of items
+   * in memory
+   *
+   * @param config     the configuration for the produced providers
+   * @param serializer the {@link ObjectSerializer} used to write the buffered items to disk
+   * @return a new {@link CursorIteratorProviderFactory}
+   */
+  public CursorIteratorProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorIteratorConfig config,
+                                                                         ObjectSerializer serializer) {
+    return new FileStoreCursorIteratorProviderFactory(config, serializer, streamingManager);
+  }
+
   /**
    * {@inheritDoc}
    */
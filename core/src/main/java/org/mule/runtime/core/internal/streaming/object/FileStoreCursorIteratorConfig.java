@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE;
+
+/**
+ * Configuration for a {@link ObjectStreamBuffer} which uses local files for buffering
+ *
+ * @since 4.0
+ */
+public final class FileStoreCursorIteratorConfig {
+
+  /**
+   * The default amount of {@link Bucket buckets} to hold in memory
+   */
+  public static final int DEFAULT_MAX_IN_MEMORY_BUCKETS = 4;
+
+  private final int bucketSize;
+  private final int maxInMemoryBuckets;
+
+  /**
+   * @return A new instance configured with default settings
+   */
+  public static FileStoreCursorIteratorConfig getDefault() {
+    return new FileStoreCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE, DEFAULT_MAX_IN_MEMORY_BUCKETS);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param bucketSize         the amount of items in each {@link Bucket}. Must be greater than zero
+   * @param maxInMemoryBuckets the maximum amount of {@link Bucket buckets} to be held in memory, besides the one which
+   *                           is being filled. Must be greater than zero
+   * @throws IllegalArgumentException if any of the given arguments is invalid
+   */
+  public FileStoreCursorIteratorConfig(int bucketSize, int maxInMemoryBuckets) {
+    checkArgument(bucketSize > 0, "bucketSize must be greater than zero");
+    checkArgument(maxInMemoryBuckets > 0, "maxInMemoryBuckets must be greater than zero");
+
+    this.bucketSize = bucketSize;
+    this.maxInMemoryBuckets = maxInMemoryBuckets;
+  }
+
+  /**
+   * @return The amount of items in each {@link Bucket}
+   */
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of {@link Bucket buckets} to be held in memory
+   */
+  public int getMaxInMemoryBuckets() {
+    return maxInMemoryBuckets;
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
+
+/**
+ * An implementation of {@link AbstractCursorIteratorProvider} which yields
+ * cursors that buffer to disk, only keeping a bounded amount of items in memory
+ *
+ * @since 4.0
+ */
+public class FileStoreCursorIteratorProvider extends AbstractCursorIteratorProvider {
+
+  private final ObjectStreamBuffer buffer;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream     the stream to buffer from
+   * @param config     the config of the generated buffer
+   * @param serializer the {@link ObjectSerializer} used to write the buffered items to disk
+   */
+  public FileStoreCursorIteratorProvider(StreamingIterator stream, FileStoreCursorIteratorConfig config,
+                                         ObjectSerializer serializer) {
+    super(stream);
+    buffer = new FileStoreObjectStreamBuffer(stream, config, serializer);
+    buffer.initialise();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected CursorIterator doOpenCursor() {
+    return new BufferedCursorIterator(buffer, this);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void releaseResources() {
+    if (buffer != null) {
+      buffer.close();
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.open;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which only keeps a bounded amount of {@link Bucket buckets}
+ * in memory.
+ * <p>
+ * All buckets have the same size. Once a bucket is full, it's serialized with the given {@link ObjectSerializer} and
+ * appended to a log on disk. The log is split in segment files of up to {@link #SEGMENT_MAX_SIZE} bytes, so that no
+ * file grows unbounded. Only the location of each bucket in the log is kept in memory.
+ * <p>
+ * Buckets which are requested again are read back from the log and kept in a least recently used cache of
+ * {@link FileStoreCursorIteratorConfig#getMaxInMemoryBuckets()} entries, so cursors traversing the stream only hold
+ * the buckets they're currently working on. The items in the stream must be serializable by the
+ * {@link ObjectSerializer}.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  static final long SEGMENT_MAX_SIZE = 64 * 1024 * 1024;
+
+  private final FileStoreCursorIteratorConfig config;
+  private final ObjectSerializer serializer;
+
+  private final List<File> segmentFiles = new ArrayList<>();
+  private final List<FileChannel> segments = new ArrayList<>();
+  private final List<BucketLocation> locations = new ArrayList<>();
+  private long segmentTip = 0;
+
+  private final Map<Integer, Bucket<T>> cache;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream     the stream to be buffered
+   * @param config     this buffer's configuration
+   * @param serializer the {@link ObjectSerializer} used to write the {@link Bucket buckets} to disk
+   */
+  public FileStoreObjectStreamBuffer(StreamingIterator<T> stream, FileStoreCursorIteratorConfig config,
+                                     ObjectSerializer serializer) {
+    super(stream);
+    this.config = config;
+    this.serializer = serializer;
+    cache = new LinkedHashMap<Integer, Bucket<T>>(config.getMaxInMemoryBuckets() + 1, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Bucket<T>> eldest) {
+        return size() > config.getMaxInMemoryBuckets();
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    final int bucketSize = config.getBucketSize();
+    return new Position(toIntExact(position / bucketSize), toIntExact(position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Optional<Bucket<T>> getPresentBucket(Position position) {
+    final int index = position.getBucketIndex();
+    final Bucket<T> current = getCurrentBucket();
+    if (current != null && current.getIndex() == index) {
+      return of(current);
+    }
+
+    if (index >= locations.size()) {
+      return empty();
+    }
+
+    Bucket<T> bucket;
+    synchronized (cache) {
+      bucket = cache.get(index);
+    }
+
+    if (bucket == null) {
+      bucket = load(index);
+      synchronized (cache) {
+        cache.put(index, bucket);
+      }
+    }
+
+    return of(bucket);
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    spill(overflownBucket);
+    synchronized (cache) {
+      cache.put(overflownBucket.getIndex(), overflownBucket);
+    }
+
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  /**
+   * Items are buffered on disk, so there's no limit to enforce
+   */
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {}
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    synchronized (cache) {
+      cache.clear();
+    }
+
+    segments.forEach(segment -> closeSafely(segment::close));
+    segmentFiles.forEach(file -> closeSafely(() -> deleteIfExists(file.toPath())));
+    segments.clear();
+    segmentFiles.clear();
+    locations.clear();
+  }
+
+  private void spill(Bucket<T> bucket) {
+    final ByteBuffer data = ByteBuffer.wrap(serializer.getInternalProtocol().serialize(new ArrayList<>(bucket.getItems())));
+
+    try {
+      if (segments.isEmpty() || segmentTip + data.remaining() > SEGMENT_MAX_SIZE) {
+        newSegment();
+      }
+
+      final int segmentIndex = segments.size() - 1;
+      final FileChannel segment = segments.get(segmentIndex);
+      final long offset = segmentTip;
+      final int length = data.remaining();
+
+      long filePosition = offset;
+      while (data.hasRemaining()) {
+        filePosition += segment.write(data, filePosition);
+      }
+
+      segmentTip = filePosition;
+      locations.add(new BucketLocation(segmentIndex, offset, length));
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write object stream buffer to disk"), e);
+    }
+  }
+
+  private void newSegment() throws IOException {
+    File file = createBufferFile("object-stream-buffer");
+    segmentFiles.add(file);
+    segments.add(open(file.toPath(), CREATE_NEW, READ, WRITE));
+    segmentTip = 0;
+  }
+
+  private Bucket<T> load(int index) {
+    final BucketLocation location = locations.get(index);
+    final ByteBuffer data = ByteBuffer.allocate(location.length);
+
+    try {
+      final FileChannel segment = segments.get(location.segment);
+      long filePosition = location.offset;
+      while (data.hasRemaining()) {
+        int read = segment.read(data, filePosition);
+        if (read < 0) {
+          throw new IOException("Unexpected end of segment " + segmentFiles.get(location.segment).getAbsolutePath());
+        }
+        filePosition += read;
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read object stream buffer from disk"), e);
+    }
+
+    List<T> items = serializer.getInternalProtocol().deserialize(data.array());
+    Bucket<T> bucket = new Bucket<>(index, config.getBucketSize());
+    items.forEach(bucket::add);
+
+    return bucket;
+  }
+
+  private static class BucketLocation {
+
+    private final int segment;
+    private final long offset;
+    private final int length;
+
+    private BucketLocation(int segment, long offset, int length) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
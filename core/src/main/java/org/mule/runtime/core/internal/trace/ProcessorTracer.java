@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.trace;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_TRACE;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_TRACE_MAX_SPANS;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_TRACE_SAMPLE_RATE;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.core.DefaultMuleContext;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.InternalEventContext;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.registry.SpiServiceRegistry;
+import org.mule.runtime.core.api.trace.EventTrace;
+import org.mule.runtime.core.api.trace.ProcessorTraceExporter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+
+/**
+ * Records the start and end of each processor executed for the events of an application sampled for tracing, and exports their
+ * {@link EventTrace traces} through the application's {@link ProcessorTraceExporter}s once they are complete.
+ * <p/>
+ * Tracing is enabled with the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_PROCESSOR_TRACE} system property, read
+ * once when the tracer of the application is created. When it is not, processor chains don't even add the tracing step, so it
+ * costs nothing. When it is, one of every
+ * {@link #getSampleRate() sample rate} events is traced, chosen when its context is created; the spans of the rest are not
+ * recorded. The sample rate is not a percentage: {@code 1} traces every event, {@code 100} (the default) one in a hundred and
+ * {@code 0} none. It can be changed at any time, and only affects the events created afterwards.
+ * <p/>
+ * Each {@link MuleContext} has its own tracer, whose exporters are found in the {@link MuleContext#getExecutionClassLoader()
+ * execution class loader} of the application, so applications can't see nor change each other's tracing.
+ *
+ * @since 4.0
+ */
+public final class ProcessorTracer {
+
+  private static final Logger LOGGER = getLogger(ProcessorTracer.class);
+
+  /**
+   * One of how many events is traced when {@link org.mule.runtime.core.api.config.MuleProperties#MULE_PROCESSOR_TRACE_SAMPLE_RATE}
+   * is not set.
+   */
+  public static final int DEFAULT_SAMPLE_RATE = 100;
+
+  private final boolean enabled = getBoolean(MULE_PROCESSOR_TRACE);
+  private final int maxSpans = getInteger(MULE_PROCESSOR_TRACE_MAX_SPANS, 64);
+  private volatile int sampleRate = getInteger(MULE_PROCESSOR_TRACE_SAMPLE_RATE, DEFAULT_SAMPLE_RATE);
+  private final List<ProcessorTraceExporter> exporters = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates the tracer of an application.
+   *
+   * @param classLoader the class loader of the application, in which the {@link ProcessorTraceExporter}s are looked up
+   */
+  public ProcessorTracer(ClassLoader classLoader) {
+    if (isEnabled()) {
+      exporters.addAll(new SpiServiceRegistry().lookupProviders(ProcessorTraceExporter.class, classLoader));
+    }
+  }
+
+  /**
+   * @return whether processor tracing is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return whether processor tracing is enabled for the application of {@code muleContext}
+   */
+  public static boolean isEnabled(MuleContext muleContext) {
+    return muleContext instanceof DefaultMuleContext && ((DefaultMuleContext) muleContext).getProcessorTracer().isEnabled();
+  }
+
+  /**
+   * @return one of how many events is traced, {@code 0} if none is
+   */
+  public int getSampleRate() {
+    return sampleRate;
+  }
+
+  /**
+   * @param rate one of how many events to trace, {@code 0} to trace none
+   */
+  public void setSampleRate(int rate) {
+    sampleRate = rate;
+  }
+
+  public void addExporter(ProcessorTraceExporter exporter) {
+    exporters.add(exporter);
+  }
+
+  public void removeExporter(ProcessorTraceExporter exporter) {
+    exporters.remove(exporter);
+  }
+
+  /**
+   * Decides whether the events of the given {@code context}, created for {@code flow}, are traced.
+   *
+   * @return the buffer on which the spans of the {@code context} are recorded, or {@code null} if it is not traced
+   */
+  public static SpanBuffer sample(FlowConstruct flow, InternalEventContext context) {
+    if (!isEnabled(flow.getMuleContext())) {
+      return null;
+    }
+    return ((DefaultMuleContext) flow.getMuleContext()).getProcessorTracer().sample(context);
+  }
+
+  /**
+   * Decides whether the events of the given {@code context} are traced.
+   *
+   * @return the buffer on which the spans of the {@code context} are recorded, or {@code null} if it is not traced
+   */
+  public SpanBuffer sample(InternalEventContext context) {
+    final int rate = sampleRate;
+    if (rate <= 0 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0)) {
+      return null;
+    }
+    return new SpanBuffer(this, context, maxSpans);
+  }
+
+  /**
+   * Records that {@code processor} started processing {@code event}, if the event is traced.
+   */
+  public static void onProcessorStart(InternalEvent event, Object processor) {
+    Optional<EventTrace> trace = event.getContext().getEventTrace();
+    if (trace.isPresent()) {
+      ((SpanBuffer) trace.get()).start(processor, event);
+    }
+  }
+
+  /**
+   * Records that {@code processor} finished processing {@code event}, if the event is traced.
+   */
+  public static void onProcessorEnd(InternalEvent event, Object processor, boolean failed) {
+    Optional<EventTrace> trace = event.getContext().getEventTrace();
+    if (trace.isPresent()) {
+      ((SpanBuffer) trace.get()).end(processor, event, failed);
+    }
+  }
+
+  /**
+   * Hands the {@code trace} of a completed event to every exporter.
+   */
+  public void export(EventTrace trace) {
+    for (ProcessorTraceExporter exporter : exporters) {
+      try {
+        exporter.export(trace);
+      } catch (Exception e) {
+        LOGGER.warn("Exception was found exporting the trace of event " + trace.getEventId(), e);
+      }
+    }
+  }
+}
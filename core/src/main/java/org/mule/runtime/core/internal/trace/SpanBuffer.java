@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.trace;
+
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import org.mule.runtime.api.meta.AnnotatedObject;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.InternalEventContext;
+import org.mule.runtime.core.api.trace.EventTrace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link EventTrace} of an event context, with room for a fixed number of spans allocated when the context is sampled.
+ * <p/>
+ * Recording a span only claims the next slot and stores its processor and timestamp, without allocating. Processors executed
+ * once the buffer is full are only counted.
+ * <p/>
+ * Spans may be recorded concurrently by the branches of a scatter-gather or a parallel foreach. A span is published by setting its
+ * processor once the rest of it is written, and it is ended by the branch that started it: the one with the same event context
+ * and group correlation sequence.
+ *
+ * @since 4.0
+ */
+public final class SpanBuffer implements EventTrace {
+
+  private static final int NO_SEQUENCE = -1;
+
+  private final ProcessorTracer tracer;
+  private final InternalEventContext context;
+  private final long startTime = currentTimeMillis();
+  private final AtomicReferenceArray<Object> processors;
+  // the branch of each span, only read once its processor is published
+  private final InternalEventContext[] branchContexts;
+  private final int[] branchSequences;
+  private final AtomicLongArray starts;
+  private final AtomicLongArray ends;
+  private final AtomicIntegerArray failed;
+  private final AtomicInteger next = new AtomicInteger();
+
+  SpanBuffer(ProcessorTracer tracer, InternalEventContext context, int capacity) {
+    this.tracer = tracer;
+    this.context = context;
+    processors = new AtomicReferenceArray<>(capacity);
+    branchContexts = new InternalEventContext[capacity];
+    branchSequences = new int[capacity];
+    starts = new AtomicLongArray(capacity);
+    ends = new AtomicLongArray(capacity);
+    failed = new AtomicIntegerArray(capacity);
+  }
+
+  /**
+   * Records that {@code processor} started processing {@code event}.
+   */
+  void start(Object processor, InternalEvent event) {
+    final int index = next.getAndIncrement();
+    if (index < processors.length()) {
+      branchContexts[index] = event.getContext();
+      branchSequences[index] = sequenceOf(event);
+      starts.set(index, nanoTime());
+      processors.set(index, processor);
+    }
+  }
+
+  /**
+   * Records that the last execution of {@code processor} in the branch of {@code event} which had not finished yet is done. If
+   * the processor changed the branch of the event, the last unfinished execution of {@code processor} in any branch is.
+   */
+  void end(Object processor, InternalEvent event, boolean failure) {
+    final long now = nanoTime();
+    if (!end(processor, event.getContext(), sequenceOf(event), now, failure)) {
+      end(processor, null, NO_SEQUENCE, now, failure);
+    }
+  }
+
+  private boolean end(Object processor, InternalEventContext branchContext, int branchSequence, long now, boolean failure) {
+    for (int i = getSpanCount() - 1; i >= 0; --i) {
+      if (processors.get(i) == processor
+          && (branchContext == null || (branchContexts[i] == branchContext && branchSequences[i] == branchSequence))
+          && ends.compareAndSet(i, 0, now)) {
+        failed.set(i, failure ? 1 : 0);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int sequenceOf(InternalEvent event) {
+    return event.getGroupCorrelation().isPresent() ? event.getGroupCorrelation().get().getSequence() : NO_SEQUENCE;
+  }
+
+  /**
+   * Hands this trace to the exporters of the tracer that sampled it.
+   */
+  public void export() {
+    tracer.export(this);
+  }
+
+  @Override
+  public String getEventId() {
+    return context.getId();
+  }
+
+  @Override
+  public String getCorrelationId() {
+    return context.getCorrelationId();
+  }
+
+  @Override
+  public String getFlowName() {
+    return context.getOriginatingLocation() != null ? context.getOriginatingLocation().getRootContainerName() : null;
+  }
+
+  @Override
+  public long getStartTime() {
+    return startTime;
+  }
+
+  @Override
+  public int getSpanCount() {
+    return min(next.get(), processors.length());
+  }
+
+  @Override
+  public int getDroppedSpans() {
+    return Math.max(0, next.get() - processors.length());
+  }
+
+  @Override
+  public String getProcessorLocation(int index) {
+    final Object processor = processors.get(index);
+    if (processor instanceof AnnotatedObject && ((AnnotatedObject) processor).getLocation() != null) {
+      return ((AnnotatedObject) processor).getLocation().getLocation();
+    }
+    return String.valueOf(processor);
+  }
+
+  @Override
+  public long getStartNanos(int index) {
+    return starts.get(index);
+  }
+
+  @Override
+  public long getEndNanos(int index) {
+    return ends.get(index);
+  }
+
+  @Override
+  public boolean isFailed(int index) {
+    return failed.get(index) != 0;
+  }
+}
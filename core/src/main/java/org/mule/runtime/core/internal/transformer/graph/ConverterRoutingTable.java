@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer.graph;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Converter;
+import org.mule.runtime.core.api.transformer.Transformer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the converter resolved for each pair of source and result {@link DataType}, so resolving them again doesn't require
+ * looking for paths in the {@link TransformationGraph}.
+ * <p/>
+ * Lookups don't take any lock. When a converter is added to or removed from the graph, only the routes that may go through it
+ * are invalidated: those whose source reaches the source types of the converter and whose result is reachable from its return
+ * type.
+ */
+class ConverterRoutingTable {
+
+  /**
+   * Maximum number of routes kept. Data types may differ in their mime type or encoding, so the number of pairs is not bounded
+   * by the registered converters.
+   */
+  static final int MAX_ROUTES = 1000;
+
+  private final ConcurrentMap<DataType, ConcurrentMap<DataType, Route>> routes = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @return the route from {@code source} to {@code result}, or {@code null} if it was not resolved yet
+   */
+  Route get(DataType source, DataType result) {
+    final Map<DataType, Route> sourceRoutes = routes.get(source);
+    final Route route = sourceRoutes == null ? null : sourceRoutes.get(result);
+    if (route == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return route;
+  }
+
+  /**
+   * Keeps the route from {@code source} to {@code result}.
+   *
+   * @param converter the resolved converter, or {@code null} if there is none
+   */
+  void put(DataType source, DataType result, Transformer converter) {
+    if (size.get() >= MAX_ROUTES) {
+      clear();
+    }
+    if (routes.computeIfAbsent(source, type -> new ConcurrentHashMap<>()).put(result, new Route(converter)) == null) {
+      size.incrementAndGet();
+    }
+  }
+
+  /**
+   * Removes the routes that may change when {@code converter} is added to or removed from {@code graph}. Must be called with
+   * {@code converter} in the graph, that is, after adding it or before removing it.
+   *
+   * @return the source and result of the removed routes
+   */
+  List<DataType[]> invalidate(TransformationGraph graph, Converter converter) {
+    final Set<DataType> sources = new HashSet<>();
+    for (DataType sourceDataType : converter.getSourceDataTypes()) {
+      sources.addAll(reachable(sourceDataType, type -> graph.containsVertex(type) ? graph.incomingEdgesOf(type) : null,
+                               graph::getEdgeSource));
+    }
+    final DataType returnDataType = converter.getReturnDataType();
+    final Set<DataType> results = reachable(returnDataType,
+                                            type -> graph.containsVertex(type) ? graph.outgoingEdgesOf(type) : null,
+                                            graph::getEdgeTarget);
+
+    final List<DataType[]> invalidated = new ArrayList<>();
+    for (DataType source : sources) {
+      final Map<DataType, Route> sourceRoutes = routes.get(source);
+      if (sourceRoutes == null) {
+        continue;
+      }
+      for (DataType result : results) {
+        if (sourceRoutes.remove(result) != null) {
+          size.decrementAndGet();
+          invalidated.add(new DataType[] {source, result});
+        }
+      }
+    }
+    return invalidated;
+  }
+
+  void clear() {
+    routes.clear();
+    size.set(0);
+  }
+
+  /**
+   * @return the number of lookups which found a route
+   */
+  long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups which didn't find a route
+   */
+  long getMisses() {
+    return misses.sum();
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  private static Set<DataType> reachable(DataType from, Function<DataType, Set<TransformationEdge>> edgesOf,
+                                         Function<TransformationEdge, DataType> nextOf) {
+    final Set<DataType> reached = new HashSet<>();
+    final Queue<DataType> pending = new LinkedList<>();
+    reached.add(from);
+    pending.add(from);
+
+    DataType type;
+    while ((type = pending.poll()) != null) {
+      final Set<TransformationEdge> edges = edgesOf.apply(type);
+      if (edges == null) {
+        continue;
+      }
+      for (TransformationEdge edge : edges) {
+        final DataType next = nextOf.apply(edge);
+        if (reached.add(next)) {
+          pending.add(next);
+        }
+      }
+    }
+    return reached;
+  }
+
+  /**
+   * The converter resolved for a pair of data types.
+   */
+  static class Route {
+
+    private final Transformer converter;
+
+    private Route(Transformer converter) {
+      this.converter = converter;
+    }
+
+    /**
+     * @return the resolved converter, or {@code null} if there is none
+     */
+    Transformer getConverter() {
+      return converter;
+    }
+  }
+}
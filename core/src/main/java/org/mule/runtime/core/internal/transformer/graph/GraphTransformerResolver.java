@@ -12,18 +12,17 @@ import org.mule.runtime.core.api.registry.TransformerResolver;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.config.i18n.CoreMessages;
+import org.mule.runtime.core.internal.transformer.graph.ConverterRoutingTable.Route;
 
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-import org.apache.commons.collections.map.LRUMap;
-
 public class GraphTransformerResolver implements TransformerResolver {
 
   private ReentrantReadWriteLock readWriteLock;
   private TransformationGraph graph;
   private CompositeConverterFilter converterFilter;
-  private LRUMap cache;
+  private ConverterRoutingTable routingTable;
   private TransformationGraphLookupStrategy lookupStrategyTransformation;
 
   public GraphTransformerResolver() {
@@ -32,22 +31,28 @@ public class GraphTransformerResolver implements TransformerResolver {
     lookupStrategyTransformation = new TransformationGraphLookupStrategy(graph);
     converterFilter = new CompositeConverterFilter(new TransformationLengthConverterFilter(),
                                                    new PriorityWeightingConverterFilter(), new NameConverterFilter());
-    cache = new LRUMap();
+    routingTable = new ConverterRoutingTable();
   }
 
   @Override
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    String cacheKey = getDataTypeSourceResultPairHash(source, result);
+    Route route = routingTable.get(source, result);
+    if (route != null) {
+      return route.getConverter();
+    }
 
+    // the graph is only searched under the read lock, so no route is kept for a graph which is being modified
     readWriteLock.readLock().lock();
     try {
-      if (cache.containsKey(cacheKey)) {
-        return (Converter) cache.get(cacheKey);
-      }
+      Transformer converter = lookupConverter(source, result);
+      routingTable.put(source, result, converter);
+      return converter;
     } finally {
       readWriteLock.readLock().unlock();
     }
+  }
 
+  private Transformer lookupConverter(DataType source, DataType result) throws ResolverException {
     List<Converter> converters =
         converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
 
@@ -55,48 +60,55 @@ public class GraphTransformerResolver implements TransformerResolver {
       throw new ResolverException(CoreMessages.transformHasMultipleMatches(source.getType(), result.getType(), converters));
     }
 
-    Transformer converter = (converters.size() == 0) ? null : converters.get(0);
-
-
-    readWriteLock.writeLock().lock();
-    try {
-      cache.put(cacheKey, converter);
-    } finally {
-      readWriteLock.writeLock().unlock();
-    }
-
-    return converter;
-  }
-
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    StringBuilder builder = new StringBuilder();
-    builder.append(source.getClass().getName());
-    builder.append(source.hashCode());
-    builder.append(":");
-    builder.append(result.getClass().getName());
-    builder.append(result.hashCode());
-
-    return builder.toString();
+    return (converters.size() == 0) ? null : converters.get(0);
   }
 
   @Override
   public void transformerChange(Transformer transformer, RegistryAction registryAction) {
+    if (!(transformer instanceof Converter)) {
+      return;
+    }
+
     readWriteLock.writeLock().lock();
 
     try {
-      if (!(transformer instanceof Converter)) {
-        return;
-      }
-
-      cache.clear();
+      Converter converter = (Converter) transformer;
+      List<DataType[]> invalidated;
 
       if (registryAction == RegistryAction.ADDED) {
-        graph.addConverter((Converter) transformer);
+        graph.addConverter(converter);
+        invalidated = routingTable.invalidate(graph, converter);
       } else if (registryAction == RegistryAction.REMOVED) {
-        graph.removeConverter((Converter) transformer);
+        invalidated = routingTable.invalidate(graph, converter);
+        graph.removeConverter(converter);
+      } else {
+        return;
+      }
+
+      // the invalidated routes were in use, so they are resolved again right away
+      for (DataType[] pair : invalidated) {
+        try {
+          routingTable.put(pair[0], pair[1], lookupConverter(pair[0], pair[1]));
+        } catch (ResolverException e) {
+          // left to be reported when resolved
+        }
       }
     } finally {
       readWriteLock.writeLock().unlock();
     }
   }
+
+  /**
+   * @return the number of resolutions which used an already resolved converter
+   */
+  public long getRoutingTableHits() {
+    return routingTable.getHits();
+  }
+
+  /**
+   * @return the number of resolutions which had to look for a converter in the transformation graph
+   */
+  public long getRoutingTableMisses() {
+    return routingTable.getMisses();
+  }
 }
@@ -0,0 +1,472 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable {@link Map} with case insensitive {@link String} keys, implemented as a hash array mapped trie.
+ * <p/>
+ * Instead of being modified, the map is derived into a new one with {@link #plus(String, Object)} and {@link #minus(String)}.
+ * Those only copy the O(log n) nodes in the path to the changed key, sharing every other node with the original map, so
+ * deriving a map doesn't depend on the number of entries in it.
+ * <p/>
+ * As with {@link org.mule.runtime.core.api.util.CaseInsensitiveHashMap}, replacing the value of a key keeps the case of the key
+ * already in the map. The mutator methods of {@link Map} throw {@link UnsupportedOperationException}.
+ *
+ * @param <V> the type of the values
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = -1386283573637785129L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final Object NOT_FOUND = new Object();
+
+  private static final PersistentCaseInsensitiveMap<?> EMPTY = new PersistentCaseInsensitiveMap<>(null, 0);
+
+  private final transient Node root;
+  private final transient int size;
+  private transient Set<Entry<String, V>> entrySet;
+
+  private PersistentCaseInsensitiveMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * @return an empty map
+   */
+  public static <V> PersistentCaseInsensitiveMap<V> empty() {
+    return (PersistentCaseInsensitiveMap<V>) EMPTY;
+  }
+
+  /**
+   * @return a map with the entries of {@code map}. If {@code map} is already a {@link PersistentCaseInsensitiveMap} it's
+   *         returned as is
+   */
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+
+    PersistentCaseInsensitiveMap<V> copy = empty();
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * @return a map with the entries of this one, and {@code key} mapped to {@code value}
+   */
+  public PersistentCaseInsensitiveMap<V> plus(String key, V value) {
+    final boolean[] added = new boolean[1];
+    final int hash = hash(key);
+    final Node newRoot = root == null ? BitmapNode.EMPTY.plus(0, hash, key, value, added) : root.plus(0, hash, key, value, added);
+    return newRoot == root ? this : new PersistentCaseInsensitiveMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * @return a map with the entries of this one except {@code key}
+   */
+  public PersistentCaseInsensitiveMap<V> minus(String key) {
+    if (root == null) {
+      return this;
+    }
+    final Node newRoot = root.minus(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentCaseInsensitiveMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public V get(Object key) {
+    final Object value = find(key);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != NOT_FOUND;
+  }
+
+  private Object find(Object key) {
+    if (root == null || !(key instanceof String)) {
+      return NOT_FOUND;
+    }
+    return root.find(0, hash((String) key), (String) key);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  /**
+   * Hashes {@code key} ignoring case, the same way {@link String#equalsIgnoreCase(String)} compares characters, without
+   * creating a lower case copy of it.
+   */
+  private static int hash(String key) {
+    int hash = 0;
+    for (int i = 0; i < key.length(); i++) {
+      hash = 31 * hash + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * A node of the trie. Nodes are never modified once built.
+   */
+  private interface Node {
+
+    Object find(int shift, int hash, String key);
+
+    Node plus(int shift, int hash, String key, Object value, boolean[] added);
+
+    /**
+     * @return the node without {@code key}, which is {@code null} if it would be empty
+     */
+    Node minus(int shift, int hash, String key);
+
+    /**
+     * @return the keys and values of the node interleaved. A {@code null} key means the value is a child node
+     */
+    Object[] array();
+  }
+
+  private static final class BitmapNode implements Node {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] array;
+
+    private BitmapNode(int bitmap, Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    private int index(int bit) {
+      return 2 * bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    public Object find(int shift, int hash, String key) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      final int index = index(bit);
+      final Object entryKey = array[index];
+      if (entryKey == null) {
+        return ((Node) array[index + 1]).find(shift + BITS, hash, key);
+      }
+      return key.equalsIgnoreCase((String) entryKey) ? array[index + 1] : NOT_FOUND;
+    }
+
+    @Override
+    public Node plus(int shift, int hash, String key, Object value, boolean[] added) {
+      final int bit = bit(hash, shift);
+      final int index = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        final Object[] newArray = new Object[array.length + 2];
+        arraycopy(array, 0, newArray, 0, index);
+        newArray[index] = key;
+        newArray[index + 1] = value;
+        arraycopy(array, index, newArray, index + 2, array.length - index);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+
+      final Object entryKey = array[index];
+      final Object entryValue = array[index + 1];
+      if (entryKey == null) {
+        final Node child = (Node) entryValue;
+        final Node newChild = child.plus(shift + BITS, hash, key, value, added);
+        return newChild == child ? this : with(index + 1, newChild);
+      }
+      if (key.equalsIgnoreCase((String) entryKey)) {
+        return entryValue == value ? this : with(index + 1, value);
+      }
+
+      added[0] = true;
+      final Node child = createNode(shift + BITS, (String) entryKey, entryValue, hash, key, value);
+      final Object[] newArray = array.clone();
+      newArray[index] = null;
+      newArray[index + 1] = child;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    @Override
+    public Node minus(int shift, int hash, String key) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      final int index = index(bit);
+      final Object entryKey = array[index];
+      if (entryKey == null) {
+        final Node child = (Node) array[index + 1];
+        final Node newChild = child.minus(shift + BITS, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild != null) {
+          final Object[] childArray = newChild.array();
+          // a child left with a single entry is inlined
+          if (childArray.length == 2 && childArray[0] != null) {
+            final Object[] newArray = array.clone();
+            newArray[index] = childArray[0];
+            newArray[index + 1] = childArray[1];
+            return new BitmapNode(bitmap, newArray);
+          }
+          return with(index + 1, newChild);
+        }
+      } else if (!key.equalsIgnoreCase((String) entryKey)) {
+        return this;
+      }
+
+      if (bitmap == bit) {
+        return null;
+      }
+      final Object[] newArray = new Object[array.length - 2];
+      arraycopy(array, 0, newArray, 0, index);
+      arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new BitmapNode(bitmap & ~bit, newArray);
+    }
+
+    @Override
+    public Object[] array() {
+      return array;
+    }
+
+    private BitmapNode with(int index, Object value) {
+      final Object[] newArray = array.clone();
+      newArray[index] = value;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    private static Node createNode(int shift, String key1, Object value1, int hash2, String key2, Object value2) {
+      final int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+      }
+      final boolean[] added = new boolean[1];
+      return EMPTY.plus(shift, hash1, key1, value1, added).plus(shift, hash2, key2, value2, added);
+    }
+  }
+
+  /**
+   * Holds the entries whose keys have the same hash.
+   */
+  private static final class CollisionNode implements Node {
+
+    private final int hash;
+    private final Object[] array;
+
+    private CollisionNode(int hash, Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equalsIgnoreCase((String) array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public Object find(int shift, int hash, String key) {
+      final int index = hash == this.hash ? indexOf(key) : -1;
+      return index < 0 ? NOT_FOUND : array[index + 1];
+    }
+
+    @Override
+    public Node plus(int shift, int hash, String key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // nest this node so both hashes can be told apart
+        return new BitmapNode(bit(this.hash, shift), new Object[] {null, this}).plus(shift, hash, key, value, added);
+      }
+
+      final int index = indexOf(key);
+      if (index >= 0) {
+        if (array[index + 1] == value) {
+          return this;
+        }
+        final Object[] newArray = array.clone();
+        newArray[index + 1] = value;
+        return new CollisionNode(hash, newArray);
+      }
+
+      final Object[] newArray = new Object[array.length + 2];
+      arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    public Node minus(int shift, int hash, String key) {
+      final int index = hash == this.hash ? indexOf(key) : -1;
+      if (index < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      final Object[] newArray = new Object[array.length - 2];
+      arraycopy(array, 0, newArray, 0, index);
+      arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    public Object[] array() {
+      return array;
+    }
+  }
+
+  /**
+   * Iterates the entries depth first, keeping the position within each node in the path.
+   */
+  private static final class EntryIterator<V> implements Iterator<Entry<String, V>> {
+
+    private final Deque<Object[]> arrays = new ArrayDeque<>();
+    private final Deque<Integer> positions = new ArrayDeque<>();
+    private Object[] array;
+    private int position;
+
+    private EntryIterator(Node root) {
+      array = root == null ? new Object[0] : root.array();
+      advance();
+    }
+
+    private void advance() {
+      while (true) {
+        if (position < array.length) {
+          if (array[position] != null) {
+            return;
+          }
+          // descend into the child node
+          arrays.push(array);
+          positions.push(position + 2);
+          array = ((Node) array[position + 1]).array();
+          position = 0;
+        } else if (!arrays.isEmpty()) {
+          array = arrays.pop();
+          position = positions.pop();
+        } else {
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return position < array.length;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Entry<String, V> entry = new SimpleImmutableEntry<>((String) array[position], (V) array[position + 1]);
+      position += 2;
+      advance();
+      return entry;
+    }
+  }
+
+  // //////////////////////////
+  // Serialization methods
+  // //////////////////////////
+
+  private Object writeReplace() {
+    return new SerializedForm(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized form expected");
+  }
+
+  /**
+   * Serializes the entries of the map, which is rebuilt from them when deserialized.
+   */
+  private static final class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = 2270453470564573004L;
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private SerializedForm(PersistentCaseInsensitiveMap<?> map) {
+      keys = new String[map.size()];
+      values = new Object[map.size()];
+      int i = 0;
+      for (Entry<String, ?> entry : map.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i++] = entry.getValue();
+      }
+    }
+
+    private Object readResolve() {
+      PersistentCaseInsensitiveMap<Object> map = empty();
+      for (int i = 0; i < keys.length; i++) {
+        map = map.plus(keys[i], values[i]);
+      }
+      return map;
+    }
+  }
+}
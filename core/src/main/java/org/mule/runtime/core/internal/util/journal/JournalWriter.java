@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes records to a journal file one group at a time, grouping all the records submitted while a write is in progress into
+ * the next one.
+ * <p/>
+ * Groups are written by a task submitted to the given executor when records are submitted and no write is in progress, so no
+ * thread is kept waiting for records. Should the executor reject it, the group is written by the thread submitting the record.
+ * <p/>
+ * Each group is written with a single gathering write followed by a single {@link FileChannel#force(boolean)}, after which the
+ * futures of all the records in the group are completed. Records are written in the order they were submitted.
+ */
+class JournalWriter {
+
+  private static final int MAX_GROUP_SIZE = 1024;
+  private static final ByteBuffer FLUSH_MARKER = ByteBuffer.allocate(0);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalWriter.class);
+
+  private final FileChannel channel;
+  private final Executor executor;
+  private final Queue<PendingRecord> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean writing = new AtomicBoolean();
+  private volatile boolean running = true;
+
+  /**
+   * @param channel the channel to write to. Records are written at its current position
+   * @param executor the executor in which the records are written
+   */
+  JournalWriter(FileChannel channel, Executor executor) {
+    this.channel = channel;
+    this.executor = executor;
+  }
+
+  /**
+   * Submits a record to be written.
+   *
+   * @param record the record to write
+   * @return a future completed once the record is durable in the storage device
+   */
+  CompletableFuture<Void> write(ByteBuffer record) {
+    if (!running) {
+      throw new IllegalStateException("Journal writer is closed");
+    }
+    PendingRecord pendingRecord = new PendingRecord(record);
+    pending.add(pendingRecord);
+    if (writing.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::writePending);
+      } catch (RejectedExecutionException e) {
+        writePending();
+      }
+    }
+    return pendingRecord.written;
+  }
+
+  /**
+   * Blocks until all the records submitted so far are durable in the storage device.
+   */
+  void flush() {
+    if (running) {
+      await(write(FLUSH_MARKER.duplicate()));
+    }
+  }
+
+  /**
+   * Writes all the records submitted so far and rejects any further one.
+   */
+  void close() {
+    flush();
+    running = false;
+  }
+
+  /**
+   * Blocks until {@code written} is complete, rethrowing any error writing the record.
+   */
+  static void await(CompletableFuture<Void> written) {
+    try {
+      written.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MuleRuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new MuleRuntimeException(e.getCause());
+    }
+  }
+
+  private void writePending() {
+    final List<PendingRecord> group = new ArrayList<>();
+    do {
+      PendingRecord record;
+      while ((record = pending.poll()) != null) {
+        group.add(record);
+        if (group.size() == MAX_GROUP_SIZE) {
+          writeGroup(group);
+        }
+      }
+      writeGroup(group);
+      writing.set(false);
+      // a record may have been submitted after the queue was found empty but before the flag was cleared
+    } while (!pending.isEmpty() && writing.compareAndSet(false, true));
+  }
+
+  private void writeGroup(List<PendingRecord> group) {
+    if (group.isEmpty()) {
+      return;
+    }
+    final ByteBuffer[] buffers = new ByteBuffer[group.size()];
+    long remaining = 0;
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = group.get(i).record;
+      remaining += buffers[i].remaining();
+    }
+
+    try {
+      if (remaining > 0) {
+        while (remaining > 0) {
+          remaining -= channel.write(buffers);
+        }
+        channel.force(false);
+      }
+      group.forEach(record -> record.written.complete(null));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.error("Error writing transaction journal", e);
+      group.forEach(record -> record.written.completeExceptionally(e));
+    } finally {
+      group.clear();
+    }
+  }
+
+  private static class PendingRecord {
+
+    private final ByteBuffer record;
+    private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+    private PendingRecord(ByteBuffer record) {
+      this.record = record;
+    }
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static org.mule.runtime.core.internal.util.journal.JournalWriter.await;
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -14,6 +15,8 @@ import com.google.common.collect.Multimap;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +28,8 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * Operations return once their entry is durable in the journal file, but entries of concurrent operations are written together.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
@@ -59,9 +64,11 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   /**
    * @param logFilesDirectory directory used to store the journal files.
+   * @param writerExecutor executor in which the entries are written to the journal files.
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
-                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            Executor writerExecutor) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -73,9 +80,11 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
     this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+                                   writerExecutor);
     this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes,
+                                   writerExecutor);
     this.transactionCompletePredicate = transactionCompletePredicate;
 
   }
@@ -92,9 +101,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    CompletableFuture<Void> written;
+    synchronized (this) {
+      TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+      written = logFile.logOperation(journalEntry);
+    }
+    // wait outside the lock so concurrent operations get written together
+    await(written);
   }
 
   /**
@@ -104,12 +118,16 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    CompletableFuture<Void> written;
+    synchronized (this) {
+      TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+      written = logFile.logOperation(journalEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    await(written);
   }
 
   /**
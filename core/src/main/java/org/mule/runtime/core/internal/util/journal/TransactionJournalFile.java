@@ -6,36 +6,57 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
 
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Manages a transaction journal file.
+ * <p/>
+ * The file starts with a {@link #FORMAT_HEADER} followed by one record per journal entry. Each record has the length and the
+ * CRC32 checksum of the serialized entry, followed by the serialized entry itself. Records are written by a
+ * {@link JournalWriter}, which groups concurrent operations in a single write. Files written in the previous format, with the
+ * serialized entries one after the other, are still loaded, and then rewritten in the current format.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
  */
 class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
+  /**
+   * Identifies files in the checksummed record format.
+   */
+  static final int FORMAT_HEADER = 0x4D544A31;
+
+  private static final int RECORD_HEADER_SIZE = 8;
+
   /**
    * Defines the minimum number of entries in the log that are required to clear the log file once there are no more transactions
    * pending.
@@ -50,7 +71,9 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private final FileChannel logFileChannel;
+  private final JournalWriter journalWriter;
+  private long logFileLength;
   private int journalOperations = 0;
 
   /**
@@ -58,27 +81,69 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *        loaded from it.
    * @param journalEntrySerializer serializer for {@link JournalEntry}
    * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param writerExecutor executor in which the entries are written to the file
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
-                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                Executor writerExecutor) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
-    if (journalFile.exists()) {
+    try {
+      logFileChannel = FileChannel.open(journalFile.toPath(), CREATE, WRITE, APPEND);
+      logFileLength = logFileChannel.size();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    journalWriter = new JournalWriter(logFileChannel, writerExecutor);
+    if (logFileLength > 0) {
       loadAllEntries(transactionCompletePredicate);
     }
-    createLogOutputStream();
   }
 
   /**
-   * Adds a journal entry for an operation done over a transactional resource
-   * 
+   * Adds a journal entry for an operation done over a transactional resource.
+   * <p/>
+   * The entry is available through {@link #getLogEntries(Object)} as soon as this method returns, while the returned future
+   * completes once it's durable in the journal file.
+   *
    * @param journalEntry operation details
+   * @return a future completed once the entry has been written
    */
-  public synchronized void logOperation(K journalEntry) {
-    entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
-    journalOperations++;
+  public CompletableFuture<Void> logOperation(K journalEntry) {
+    final byte[] serializedEntry = serialize(journalEntry);
+    synchronized (this) {
+      entries.put(journalEntry.getTxId(), journalEntry);
+      journalOperations++;
+      return writeRecord(serializedEntry);
+    }
+  }
+
+  private CompletableFuture<Void> writeRecord(byte[] serializedEntry) {
+    final boolean first = logFileLength == 0;
+    ByteBuffer record = ByteBuffer.allocate((first ? 4 : 0) + RECORD_HEADER_SIZE + serializedEntry.length);
+    if (first) {
+      record.putInt(FORMAT_HEADER);
+    }
+    record.putInt(serializedEntry.length);
+    record.putInt(checksum(serializedEntry));
+    record.put(serializedEntry);
+    record.flip();
+
+    logFileLength += record.remaining();
+    return journalWriter.write(record);
+  }
+
+  private byte[] serialize(K journalEntry) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  private static int checksum(byte[] data) {
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    return (int) crc.getValue();
   }
 
   /**
@@ -115,13 +180,14 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   }
 
   /**
-   * Free all resources held.
+   * Free all resources held, after writing any pending entry.
    *
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    journalWriter.close();
     try {
-      logFileOutputStream.close();
+      logFileChannel.close();
     } catch (IOException e) {
       logger.warn(e.getMessage());
       if (logger.isDebugEnabled()) {
@@ -156,51 +222,101 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
     entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
+    truncate();
   }
 
-  private void createLogOutputStream() {
-    if (!journalFile.exists()) {
-      try {
-        journalFile.createNewFile();
-      } catch (IOException e) {
-        throw new MuleRuntimeException(e);
-      }
-    }
+  private void truncate() {
+    journalWriter.flush();
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
-    } catch (FileNotFoundException e) {
+      logFileChannel.truncate(0);
+    } catch (IOException e) {
       throw new MuleRuntimeException(e);
     }
+    logFileLength = 0;
   }
 
   /**
    * This will NOT load transactions that are already complete, according to the given {@code transactionCompletePredicate}.
-   * 
+   *
    * @param transactionCompletePredicate a callback to determine if a transaction is complete.
    */
   private void loadAllEntries(TransactionCompletePredicate transactionCompletePredicate) {
-    if (!journalFile.exists()) {
-      return;
+    boolean recordFormat;
+    try (DataInputStream dataInputStream = openLogInputStream()) {
+      recordFormat = dataInputStream.readInt() == FORMAT_HEADER;
+    } catch (IOException e) {
+      recordFormat = false;
+    }
+
+    if (recordFormat) {
+      loadRecords(transactionCompletePredicate);
+    } else {
+      loadLegacyEntries(transactionCompletePredicate);
+      rewrite();
+    }
+    clearFileIfNeeded();
+  }
+
+  /**
+   * Reads all the valid records in the file and then deserializes and loads their entries in the order they were written. Entries
+   * are deserialized in the calling thread, so the classes of their values are resolved with its context class loader.
+   */
+  private void loadRecords(TransactionCompletePredicate transactionCompletePredicate) {
+    final List<byte[]> records = new ArrayList<>();
+    try (DataInputStream dataInputStream = openLogInputStream()) {
+      dataInputStream.readInt();
+      while (true) {
+        int length = dataInputStream.readInt();
+        int checksum = dataInputStream.readInt();
+        if (length < 0 || length > logFileLength) {
+          logger.warn("Invalid record length in transaction journal " + journalFile.getAbsolutePath());
+          break;
+        }
+        byte[] record = new byte[length];
+        dataInputStream.readFully(record);
+        if (checksum(record) != checksum) {
+          logger.warn("Invalid record checksum in transaction journal. This is normal if the mule server was shutdown due to a"
+              + " failure");
+          break;
+        }
+        records.add(record);
+      }
+    } catch (EOFException e) {
+      logger.debug("Expected exception since there are no more log entries", e);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    for (byte[] record : records) {
+      K journalEntry = deserializeRecord(record);
+      if (journalEntry == null) {
+        break;
+      }
+      loadEntry(journalEntry, transactionCompletePredicate);
     }
-    DataInputStream dataInputStream = null;
+  }
+
+  private K deserializeRecord(byte[] record) {
     try {
-      dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+      return journalEntrySerializer.deserialize(new DataInputStream(new ByteArrayInputStream(record)));
+    } catch (Exception e) {
+      logger.warn("Exception reading transaction content. " + e.getMessage());
+      if (logger.isDebugEnabled()) {
+        logger.debug("Error reading transaction journal file", e);
+      }
+      return null;
+    }
+  }
+
+  private void loadLegacyEntries(TransactionCompletePredicate transactionCompletePredicate) {
+    try (DataInputStream dataInputStream = openLogInputStream()) {
       boolean logEntryCreationFailed = false;
       while (!logEntryCreationFailed) {
         try {
           K journalEntry = journalEntrySerializer.deserialize(dataInputStream);
           if (journalEntry != null) {
-            this.entries.put(journalEntry.getTxId(), journalEntry);
-            journalOperations++;
-
-            if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-              journalOperations -= this.entries.get(journalEntry.getTxId()).size();
-              doClearEntriesForTransaction(journalEntry.getTxId());
-            }
+            loadEntry(journalEntry, transactionCompletePredicate);
           } else {
             logEntryCreationFailed = true;
           }
@@ -216,20 +332,36 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
           logEntryCreationFailed = true;
         }
       }
-      clearFileIfNeeded();
-    } catch (FileNotFoundException e) {
-      throw new RuntimeException(e);
-    } finally {
-      try {
-        if (dataInputStream != null) {
-          dataInputStream.close();
-        }
-      } catch (IOException e) {
-        logger.error("Error loading transaction journal file entries", e);
-      }
+    } catch (IOException e) {
+      logger.error("Error loading transaction journal file entries", e);
+    }
+  }
+
+  private void loadEntry(K journalEntry, TransactionCompletePredicate transactionCompletePredicate) {
+    this.entries.put(journalEntry.getTxId(), journalEntry);
+    journalOperations++;
+
+    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+      journalOperations -= this.entries.get(journalEntry.getTxId()).size();
+      doClearEntriesForTransaction(journalEntry.getTxId());
     }
   }
 
+  /**
+   * Replaces the contents of the file with the entries currently loaded, in the current format.
+   */
+  private void rewrite() {
+    truncate();
+    for (K journalEntry : entries.values()) {
+      writeRecord(serialize(journalEntry));
+    }
+    journalWriter.flush();
+  }
+
+  private DataInputStream openLogInputStream() throws FileNotFoundException {
+    return new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+  }
+
   /**
    * @return the number different transaction identifier held by the journal.
    */
@@ -246,10 +378,9 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   }
 
   /**
-   * @return the file length in bytes
+   * @return the file length in bytes, including the entries which are still being written
    */
   public long fileLength() {
-    return journalFile.length();
+    return logFileLength;
   }
 }
-
@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.internal.util.journal.JournalEntry;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 import org.mule.runtime.core.internal.util.journal.TransactionCompletePredicate;
@@ -32,11 +34,14 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
   protected transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private TransactionJournal<T, K> logFile;
+  private final Scheduler writerScheduler;
 
   public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
-                                         Integer maximumFileSizeInMegabytes) {
+                                         Integer maximumFileSizeInMegabytes, MuleContext muleContext) {
     checkArgument(maximumFileSizeInMegabytes == null || maximumFileSizeInMegabytes > 0,
                   "Maximum tx log file size needs to be greater than zero");
+    this.writerScheduler = muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withName(getClass().getSimpleName() + ".writer"));
     this.logFile = new TransactionJournal(logFilesDirectory, new TransactionCompletePredicate() {
 
       @Override
@@ -44,7 +49,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         AbstractQueueTxJournalEntry abstractQueueTxJournalEntry = (AbstractQueueTxJournalEntry) journalEntry;
         return abstractQueueTxJournalEntry.isCommit() || abstractQueueTxJournalEntry.isRollback();
       }
-    }, journalEntrySerializer, maximumFileSizeInMegabytes);
+    }, journalEntrySerializer, maximumFileSizeInMegabytes, writerScheduler);
   }
 
   public void logAdd(T txId, QueueStore queue, Serializable value) {
@@ -111,6 +116,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
 
   public synchronized void close() {
     logFile.close();
+    writerScheduler.stop();
   }
 
   public synchronized void clear() {
@@ -14,7 +14,11 @@ import org.mule.runtime.core.internal.util.queue.RecoverableQueueStore;
 import com.google.common.collect.Multimap;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.collections.Predicate;
 import org.slf4j.Logger;
@@ -41,7 +45,9 @@ public class LocalTxQueueTransactionRecoverer {
   /**
    * Recover all the pending transactions.
    *
-   * Will undo all operations done over queues that were not commit or rolled back.
+   * Will undo all operations done over queues that were not commit or rolled back. Each queue is recovered in turn, undoing its
+   * operations in the order they were logged. This is done in the calling thread, so the values are restored with its context
+   * class loader.
    *
    * Clears the transaction log after processing all the log entries since does entries are not longer required.
    */
@@ -54,6 +60,7 @@ public class LocalTxQueueTransactionRecoverer {
       logger.debug("Found " + allEntries.size() + " txs to recover");
     }
     int txRecovered = 0;
+    Map<RecoverableQueueStore, List<LocalQueueTxJournalEntry>> entriesByQueue = new LinkedHashMap<>();
     for (Integer txId : allEntries.keySet()) {
       Collection<LocalQueueTxJournalEntry> entries = allEntries.get(txId);
       Object commitOrRollback = find(entries, new Predicate() {
@@ -69,37 +76,43 @@ public class LocalTxQueueTransactionRecoverer {
       }
       txRecovered++;
       for (LocalQueueTxJournalEntry logEntry : entries) {
-        if (logEntry.isRemove()) {
-          String queueName = logEntry.getQueueName();
-          RecoverableQueueStore queue = queueProvider.getRecoveryQueue(queueName);
-          Serializable polledValue = logEntry.getValue();
-          if (!queue.contains(polledValue)) {
-            if (logger.isDebugEnabled()) {
-              logger.debug("re-adding polled element that was not commited to queue " + queue.getName());
-            }
-            try {
-              queue.putNow(polledValue);
-            } catch (InterruptedException e) {
-              throw new MuleRuntimeException(e);
-            }
-          }
-        } else if (logEntry.isAdd() || logEntry.isAddFirst()) {
-          Serializable offeredValue = logEntry.getValue();
-          String queueName = logEntry.getQueueName();
-          RecoverableQueueStore queue = queueProvider.getRecoveryQueue(queueName);
-          if (queue.contains(offeredValue)) {
-            if (logger.isDebugEnabled()) {
-              logger.debug("removing offer element that was not commited to queue " + queue.getName());
-            }
-            queue.remove(offeredValue);
-          }
+        if (logEntry.isRemove() || logEntry.isAdd() || logEntry.isAddFirst()) {
+          RecoverableQueueStore queue = queueProvider.getRecoveryQueue(logEntry.getQueueName());
+          entriesByQueue.computeIfAbsent(queue, key -> new ArrayList<>()).add(logEntry);
         }
       }
     }
+
+    entriesByQueue.forEach((queue, queueEntries) -> queueEntries.forEach(logEntry -> recover(queue, logEntry)));
+
     if (logger.isDebugEnabled()) {
       logger.debug("Recovered " + txRecovered + " txs to recover");
     }
     this.localTxQueueTransactionJournal.clear();
   }
 
+  private void recover(RecoverableQueueStore queue, LocalQueueTxJournalEntry logEntry) {
+    if (logEntry.isRemove()) {
+      Serializable polledValue = logEntry.getValue();
+      if (!queue.contains(polledValue)) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("re-adding polled element that was not commited to queue " + queue.getName());
+        }
+        try {
+          queue.putNow(polledValue);
+        } catch (InterruptedException e) {
+          throw new MuleRuntimeException(e);
+        }
+      }
+    } else {
+      Serializable offeredValue = logEntry.getValue();
+      if (queue.contains(offeredValue)) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("removing offer element that was not commited to queue " + queue.getName());
+        }
+        queue.remove(offeredValue);
+      }
+    }
+  }
+
 }
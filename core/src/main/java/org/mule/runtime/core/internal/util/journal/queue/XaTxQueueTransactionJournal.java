@@ -32,7 +32,7 @@ public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal
       public void serialize(XaQueueTxJournalEntry journalEntry, DataOutputStream dataOutputStream) {
         journalEntry.write(dataOutputStream, muleContext);
       }
-    }, maximumFileSizeInMegabytes);
+    }, maximumFileSizeInMegabytes, muleContext);
   }
 
   public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
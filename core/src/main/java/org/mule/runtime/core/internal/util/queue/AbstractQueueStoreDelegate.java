@@ -28,6 +28,7 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
       add(o);
       this.notifyAll();
     }
+    commit();
   }
 
   @Override
@@ -58,13 +59,15 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
         add(o);
       }
       this.notifyAll();
-      return true;
     }
+    commit();
+    return true;
   }
 
   @Override
   public final Serializable poll(long timeout) throws InterruptedException {
     checkInterrupted();
+    Serializable o;
     synchronized (this) {
       long l1 = timeout > 0L ? System.currentTimeMillis() : 0L;
       long l2 = timeout;
@@ -76,10 +79,11 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
         l2 = timeout - (System.currentTimeMillis() - l1);
       }
 
-      Serializable o = removeFirst();
+      o = removeFirst();
       this.notifyAll();
-      return o;
     }
+    commit();
+    return o;
   }
 
   @Override
@@ -101,6 +105,7 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
       addFirst(item);
       this.notifyAll();
     }
+    commit();
   }
 
   @Override
@@ -109,15 +114,18 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
     synchronized (this) {
       doClear();
     }
+    commit();
   }
 
   @Override
   public final boolean addAll(Collection<? extends Serializable> items) {
+    boolean result;
     synchronized (this) {
-      boolean result = doAddAll(items);
+      result = doAddAll(items);
       this.notifyAll();
-      return result;
     }
+    commit();
+    return result;
   }
 
   private void checkInterrupted() throws InterruptedException {
@@ -186,4 +194,11 @@ public abstract class AbstractQueueStoreDelegate implements QueueStoreDelegate {
    * @return true if the queue is empty, false otherwise
    */
   protected abstract boolean isEmpty();
+
+  /**
+   * Invoked after an operation which modified the queue, once the queue lock has been released. Implementations which defer
+   * writing changes to the storage device may block here until the changes performed so far are durable, so that concurrent
+   * operations can share a single write.
+   */
+  protected void commit() {}
 }
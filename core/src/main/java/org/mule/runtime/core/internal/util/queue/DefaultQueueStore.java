@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_QUEUE_SEGMENTED_LOG;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueConfiguration;
@@ -43,7 +45,10 @@ public class DefaultQueueStore implements RecoverableQueueStore {
     if (this.config == null) {
       this.config = new DefaultQueueConfiguration();
     }
-    if (this.config.isPersistent()) {
+    if (this.config.isPersistent() && getBoolean(MULE_QUEUE_SEGMENTED_LOG)) {
+      delegate = new SegmentedLogQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                    muleContext, this.config.getCapacity());
+    } else if (this.config.isPersistent()) {
       delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
                                                             muleContext, this.config.getCapacity());
     } else {
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Arrays.fill;
+
+/**
+ * Maps the sequence numbers of the entries in a {@link SegmentedLogQueueStoreDelegate} to the location of their records in the
+ * log.
+ * <p/>
+ * Sequence numbers between the head and the tail of the queue are dense, so the locations are kept in a circular array of
+ * primitive longs indexed by sequence number. Entries removed from the middle of the queue leave a {@link #NONE} hole which is
+ * skipped once it reaches the head.
+ */
+class QueueLogIndex {
+
+  static final long NONE = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] locations = new long[INITIAL_CAPACITY];
+  private long head;
+  private long tail;
+  private int size = 0;
+
+  QueueLogIndex(long head) {
+    this.head = head;
+    this.tail = head;
+    fill(locations, NONE);
+  }
+
+  /**
+   * @return the location for {@code segment} and {@code offset}
+   */
+  static long location(int segment, int offset) {
+    return ((long) segment << 32) | offset;
+  }
+
+  static int segmentOf(long location) {
+    return (int) (location >>> 32);
+  }
+
+  static int offsetOf(long location) {
+    return (int) location;
+  }
+
+  /**
+   * @return the sequence number of the first entry in the queue, or the tail if empty
+   */
+  long head() {
+    skipHoles();
+    return head;
+  }
+
+  /**
+   * @return the sequence number the next entry added to the end of the queue will have
+   */
+  long tail() {
+    return tail;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds an entry at the end of the queue.
+   *
+   * @return the sequence number of the new entry
+   */
+  long addLast(long location) {
+    ensureCapacity(tail - head + 1);
+    final long sequence = tail++;
+    locations[slot(sequence)] = location;
+    size++;
+    return sequence;
+  }
+
+  /**
+   * Adds an entry at the beginning of the queue.
+   *
+   * @return the sequence number of the new entry
+   */
+  long addFirst(long location) {
+    skipHoles();
+    ensureCapacity(tail - head + 1);
+    final long sequence = --head;
+    locations[slot(sequence)] = location;
+    size++;
+    return sequence;
+  }
+
+  /**
+   * @return the location of the first entry in the queue, or {@link #NONE} if empty
+   */
+  long first() {
+    skipHoles();
+    return size == 0 ? NONE : locations[slot(head)];
+  }
+
+  /**
+   * Removes the first entry in the queue.
+   *
+   * @return the location of the removed entry, or {@link #NONE} if empty
+   */
+  long removeFirst() {
+    final long location = first();
+    if (location != NONE) {
+      locations[slot(head++)] = NONE;
+      size--;
+    }
+    return location;
+  }
+
+  /**
+   * @return the location of the entry with {@code sequence}, or {@link #NONE} if it's not in the queue
+   */
+  long get(long sequence) {
+    if (sequence < head || sequence >= tail) {
+      return NONE;
+    }
+    return locations[slot(sequence)];
+  }
+
+  /**
+   * Sets the location of the entry with {@code sequence}, which must not be before the head. The queue is extended up to
+   * {@code sequence} if needed.
+   *
+   * @return the previous location of the entry, or {@link #NONE} if it wasn't in the queue
+   */
+  long put(long sequence, long location) {
+    if (sequence >= tail) {
+      ensureCapacity(sequence - head + 1);
+      tail = sequence + 1;
+    }
+
+    final int slot = slot(sequence);
+    final long previous = locations[slot];
+    locations[slot] = location;
+    if (previous == NONE) {
+      size++;
+    }
+    return previous;
+  }
+
+  /**
+   * Removes the entry with {@code sequence} from the queue.
+   *
+   * @return the location of the removed entry, or {@link #NONE} if it wasn't in the queue
+   */
+  long remove(long sequence) {
+    final long previous = get(sequence);
+    if (previous != NONE) {
+      locations[slot(sequence)] = NONE;
+      size--;
+    }
+    return previous;
+  }
+
+  /**
+   * Removes every entry, moving the head to the tail.
+   */
+  void clear() {
+    fill(locations, NONE);
+    head = tail;
+    size = 0;
+  }
+
+  /**
+   * Moves the tail forward, so no entry is ever added with a sequence number before {@code tail}.
+   */
+  void advanceTail(long tail) {
+    if (tail > this.tail) {
+      if (size == 0) {
+        head = tail;
+      } else {
+        ensureCapacity(tail - head);
+      }
+      this.tail = tail;
+    }
+  }
+
+  /**
+   * Visits the entries in the queue, from head to tail.
+   */
+  void forEach(EntryVisitor visitor) {
+    for (long sequence = head; sequence < tail; sequence++) {
+      final long location = locations[slot(sequence)];
+      if (location != NONE && !visitor.visit(sequence, location)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Visits entries of the queue.
+   */
+  interface EntryVisitor {
+
+    /**
+     * @return whether to keep visiting entries
+     */
+    boolean visit(long sequence, long location);
+  }
+
+  private void skipHoles() {
+    while (head < tail && locations[slot(head)] == NONE) {
+      head++;
+    }
+  }
+
+  private int slot(long sequence) {
+    return (int) (sequence & (locations.length - 1));
+  }
+
+  private void ensureCapacity(long required) {
+    if (required <= locations.length) {
+      return;
+    }
+
+    int capacity = locations.length;
+    while (capacity < required) {
+      capacity = toIntExact(capacity * 2L);
+    }
+
+    long[] grown = new long[capacity];
+    fill(grown, NONE);
+    for (long sequence = head; sequence < tail; sequence++) {
+      grown[(int) (sequence & (capacity - 1))] = locations[slot(sequence)];
+    }
+    locations = grown;
+  }
+}
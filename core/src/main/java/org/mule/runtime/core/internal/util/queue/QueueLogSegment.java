@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Math.max;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * A memory mapped, append only file which holds part of the log of a {@link SegmentedLogQueueStoreDelegate}.
+ * <p/>
+ * Each record has a header with its type, the sequence number of the queue entry it refers to, the payload length and the
+ * CRC32 of the payload, followed by the payload itself. Mapped files are zero filled, so a zero type marks the end of the data.
+ * When a segment is scanned on recovery, a record that is incomplete or has an invalid checksum also marks the end of the data.
+ */
+class QueueLogSegment {
+
+  static final byte ADD = 1;
+  static final byte REMOVE = 2;
+  static final int HEADER_SIZE = 1 + 8 + 4 + 8;
+
+  private static final byte[] NO_PAYLOAD = new byte[0];
+
+  private final int id;
+  private final File file;
+  private final RandomAccessFile randomAccessFile;
+  private final MappedByteBuffer buffer;
+  private int writePosition = 0;
+  private int liveRecords = 0;
+  private long liveBytes = 0;
+  // guarded by this segment's lock, since the segment may be flushed by a committing thread while it's being retired
+  private boolean closed = false;
+
+  /**
+   * Visits the records of a segment, in the order they were appended.
+   */
+  interface RecordVisitor {
+
+    void visit(byte type, long sequence, int offset, int length);
+  }
+
+  /**
+   * Opens the segment in {@code file}, creating it with {@code size} bytes if it doesn't exist.
+   *
+   * @param id the segment id, which also defines the order of the segments in the log.
+   * @param file the file of the segment.
+   * @param size the size of the segment, if it has to be created.
+   */
+  QueueLogSegment(int id, File file, int size) {
+    this.id = id;
+    this.file = file;
+    try {
+      randomAccessFile = new RandomAccessFile(file, "rw");
+      if (randomAccessFile.length() < size) {
+        randomAccessFile.setLength(size);
+      }
+      buffer = randomAccessFile.getChannel().map(READ_WRITE, 0, randomAccessFile.length());
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  /**
+   * @return the size of a segment able to hold a record with {@code payloadLength} bytes
+   */
+  static int sizeFor(int payloadLength, int segmentSize) {
+    return max(segmentSize, HEADER_SIZE + payloadLength);
+  }
+
+  int getId() {
+    return id;
+  }
+
+  boolean hasRoomFor(int payloadLength) {
+    return buffer.capacity() - writePosition >= HEADER_SIZE + payloadLength;
+  }
+
+  /**
+   * Appends a record. The caller must check there's room for it with {@link #hasRoomFor(int)} first.
+   *
+   * @return the offset of the record in this segment
+   */
+  int append(byte type, long sequence, byte[] payload) {
+    final int offset = writePosition;
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+
+    ByteBuffer record = buffer.duplicate();
+    record.position(offset);
+    record.put(type);
+    record.putLong(sequence);
+    record.putInt(payload.length);
+    record.putLong(crc.getValue());
+    record.put(payload);
+    writePosition = record.position();
+
+    return offset;
+  }
+
+  int appendRemove(long sequence) {
+    return append(REMOVE, sequence, NO_PAYLOAD);
+  }
+
+  /**
+   * @return the payload of the record at {@code offset}
+   */
+  byte[] read(int offset) {
+    ByteBuffer record = buffer.duplicate();
+    record.position(offset + 1 + 8);
+    byte[] payload = new byte[record.getInt()];
+    record.position(offset + HEADER_SIZE);
+    record.get(payload);
+    return payload;
+  }
+
+  /**
+   * @return the size in bytes of the record at {@code offset}
+   */
+  int recordSize(int offset) {
+    return HEADER_SIZE + buffer.getInt(offset + 1 + 8);
+  }
+
+  /**
+   * Visits all the valid records in this segment and leaves it ready to append after the last of them.
+   */
+  void scan(RecordVisitor visitor) {
+    int position = 0;
+    while (position + HEADER_SIZE <= buffer.capacity()) {
+      byte type = buffer.get(position);
+      if (type != ADD && type != REMOVE) {
+        break;
+      }
+      long sequence = buffer.getLong(position + 1);
+      int length = buffer.getInt(position + 1 + 8);
+      long checksum = buffer.getLong(position + 1 + 8 + 4);
+      if (length < 0 || length > buffer.capacity() - position - HEADER_SIZE || checksum != checksum(position, length)) {
+        break;
+      }
+
+      visitor.visit(type, sequence, position, length);
+      position += HEADER_SIZE + length;
+    }
+    writePosition = position;
+  }
+
+  private long checksum(int offset, int length) {
+    ByteBuffer payload = buffer.duplicate();
+    payload.position(offset + HEADER_SIZE);
+    payload.limit(offset + HEADER_SIZE + length);
+    byte[] bytes = new byte[length];
+    payload.get(bytes);
+
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  void recordAdded(int size) {
+    liveRecords++;
+    liveBytes += size;
+  }
+
+  void recordRemoved(int size) {
+    liveRecords--;
+    liveBytes -= size;
+  }
+
+  boolean hasLiveRecords() {
+    return liveRecords > 0;
+  }
+
+  /**
+   * @return the ratio of bytes in this segment that belong to entries still in the queue
+   */
+  double getLiveRatio() {
+    return writePosition == 0 ? 1 : (double) liveBytes / writePosition;
+  }
+
+  /**
+   * Writes any change in this segment to the storage device.
+   */
+  synchronized void force() {
+    if (!closed) {
+      buffer.force();
+    }
+  }
+
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      randomAccessFile.close();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  synchronized void delete() {
+    close();
+    deleteQuietly(file);
+  }
+
+  File getFile() {
+    return file;
+  }
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Integer.parseInt;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.internal.util.queue.QueueLogIndex.NONE;
+import static org.mule.runtime.core.internal.util.queue.QueueLogIndex.location;
+import static org.mule.runtime.core.internal.util.queue.QueueLogIndex.offsetOf;
+import static org.mule.runtime.core.internal.util.queue.QueueLogIndex.segmentOf;
+import static org.mule.runtime.core.internal.util.queue.QueueLogSegment.ADD;
+import static org.mule.runtime.core.internal.util.queue.QueueLogSegment.REMOVE;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in an append only log.
+ * <p/>
+ * The log is split in memory mapped segment files. Adding an entry appends a record to the last segment, and entries are
+ * consumed by moving a head cursor kept in a separate control file, so no operation rewrites existing data. Entries which are
+ * removed from the middle of the queue get a removal record appended. The location of every entry in the queue is kept in a
+ * compact in memory index, so reading the first entry never scans the log, which only happens once when the queue is opened.
+ * Looking for a given value, as {@link #contains(Serializable)} and {@link #remove(Serializable)} do, still reads every entry in
+ * the queue until it is found.
+ * <p/>
+ * Changes are written to the storage device in batches: operations block after releasing the queue lock until a single flush
+ * covers all the changes performed so far, so concurrent producers and consumers share the cost of each flush.
+ * <p/>
+ * Segments whose entries have all been consumed are deleted. In the background, the oldest segment is compacted when only a
+ * small part of it still holds entries in the queue, by appending those entries again to the end of the log. The compaction runs
+ * in a scheduler of the {@link MuleContext}, which is stopped when the queue is closed.
+ */
+public class SegmentedLogQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+
+  static final double COMPACTION_THRESHOLD = 0.25;
+
+  private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final long COMPACTION_INTERVAL_MILLIS = 1000;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String QUEUE_LOG_SUFFIX = "-log";
+  private static final String SEGMENT_SEPARATOR = "-";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedLogQueueStoreDelegate.class);
+
+  private final String queueName;
+  private final ObjectSerializer serializer;
+  private final int segmentSize;
+  private final File queuesDirectory;
+  private final String segmentPrefix;
+  private final QueueFileProvider cursorFileProvider;
+  private final MappedByteBuffer cursor;
+
+  private final TreeMap<Integer, QueueLogSegment> segments = new TreeMap<>();
+  private final QueueLogIndex index;
+  private QueueLogSegment activeSegment;
+  private boolean closed = false;
+
+  private final Set<QueueLogSegment> dirtySegments = new LinkedHashSet<>();
+  private final AtomicLong writes = new AtomicLong();
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private final Condition syncDone = syncLock.newCondition();
+  private long syncedWrites = 0;
+  private boolean syncing = false;
+
+  private final Scheduler compactionScheduler;
+  private final ScheduledFuture<?> compaction;
+
+  public SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    super(capacity);
+    this.queueName = queueName;
+    serializer = muleContext.getObjectSerializer();
+    segmentSize = getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE);
+    queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    if (!queuesDirectory.exists()) {
+      Preconditions.checkState(queuesDirectory.mkdirs(),
+                               "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+    }
+
+    cursorFileProvider = new QueueFileProvider(queuesDirectory, queueName + QUEUE_LOG_SUFFIX);
+    segmentPrefix = cursorFileProvider.getFile().getName() + SEGMENT_SEPARATOR;
+    try {
+      cursor = cursorFileProvider.getRandomAccessFile().getChannel().map(READ_WRITE, 0, Long.BYTES);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+
+    index = new QueueLogIndex(cursor.getLong(0));
+    recover();
+
+    compactionScheduler = muleContext.getSchedulerService()
+        .customScheduler(muleContext.getSchedulerBaseConfig().withName(queueName + ".log.compactor").withMaxConcurrentTasks(1));
+    compaction = compactionScheduler.scheduleWithFixedDelay(this::compact, COMPACTION_INTERVAL_MILLIS,
+                                                            COMPACTION_INTERVAL_MILLIS, MILLISECONDS);
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(String.format("Queue %s has %s messages in %s segments", queueName, size(), segments.size()));
+    }
+  }
+
+  private void recover() {
+    File[] files = queuesDirectory.listFiles((dir, name) -> segmentIdOf(name) >= 0);
+    if (files != null) {
+      for (File file : files) {
+        final int id = segmentIdOf(file.getName());
+        segments.put(id, new QueueLogSegment(id, file, segmentSize));
+      }
+    }
+
+    final long head = index.head();
+    long maxSequence = head - 1;
+    for (QueueLogSegment segment : segments.values()) {
+      final long[] max = {maxSequence};
+      segment.scan((type, sequence, offset, length) -> {
+        max[0] = Math.max(max[0], sequence);
+        if (sequence < head) {
+          return;
+        }
+        if (type == ADD) {
+          segment.recordAdded(QueueLogSegment.HEADER_SIZE + length);
+          release(index.put(sequence, location(segment.getId(), offset)));
+        } else if (type == REMOVE) {
+          release(index.remove(sequence));
+        }
+      });
+      maxSequence = max[0];
+    }
+
+    // sequence numbers which were ever used can't be reused, or removal records could match new entries
+    index.advanceTail(maxSequence + 1);
+
+    if (segments.isEmpty()) {
+      activeSegment = newSegment(0, 0);
+    } else {
+      activeSegment = segments.lastEntry().getValue();
+      retireConsumedSegments();
+    }
+  }
+
+  private int segmentIdOf(String fileName) {
+    if (!fileName.startsWith(segmentPrefix)) {
+      return -1;
+    }
+    try {
+      return parseInt(fileName.substring(segmentPrefix.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  @Override
+  protected void add(Serializable item) {
+    final byte[] payload = serialize(item);
+    final long sequence = index.tail();
+    index.addLast(append(ADD, sequence, payload));
+  }
+
+  @Override
+  protected void addFirst(Serializable item) throws InterruptedException {
+    final byte[] payload = serialize(item);
+    final long sequence = index.head() - 1;
+    index.addFirst(append(ADD, sequence, payload));
+    writeHead();
+  }
+
+  @Override
+  protected boolean doAddAll(Collection<? extends Serializable> items) {
+    for (Serializable item : items) {
+      add(item);
+    }
+    return true;
+  }
+
+  @Override
+  protected Serializable getFirst() throws InterruptedException {
+    final long location = index.first();
+    return location == NONE ? null : deserialize(read(location));
+  }
+
+  @Override
+  protected Serializable removeFirst() throws InterruptedException {
+    final long location = index.first();
+    if (location == NONE) {
+      return null;
+    }
+
+    final Serializable value = deserialize(read(location));
+    index.removeFirst();
+    writeHead();
+    release(location);
+    retireConsumedSegments();
+    return value;
+  }
+
+  @Override
+  protected int size() {
+    return index.size();
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return index.size() == 0;
+  }
+
+  @Override
+  protected void doClear() {
+    index.forEach((sequence, location) -> {
+      release(location);
+      return true;
+    });
+    index.clear();
+    writeHead();
+    for (QueueLogSegment segment : new ArrayList<>(segments.values())) {
+      if (segment != activeSegment) {
+        retire(segment);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Blocks until all the changes performed so far have been written to the storage device.
+   */
+  @Override
+  protected void commit() {
+    final long target = writes.get();
+
+    syncLock.lock();
+    try {
+      while (syncedWrites < target) {
+        if (syncing) {
+          syncDone.awaitUninterruptibly();
+          continue;
+        }
+
+        // become the leader of this batch, it flushes the changes of every operation that finished before
+        syncing = true;
+        final long batch = writes.get();
+        syncLock.unlock();
+        try {
+          flush();
+        } finally {
+          syncLock.lock();
+          syncing = false;
+          syncDone.signalAll();
+        }
+        syncedWrites = Math.max(syncedWrites, batch);
+      }
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void flush() {
+    final List<QueueLogSegment> toFlush;
+    synchronized (dirtySegments) {
+      toFlush = new ArrayList<>(dirtySegments);
+      dirtySegments.clear();
+    }
+
+    toFlush.forEach(QueueLogSegment::force);
+    cursor.force();
+  }
+
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    final boolean[] found = {false};
+    index.forEach((sequence, location) -> {
+      found[0] = deserialize(read(location)).equals(value);
+      return !found[0];
+    });
+    return found[0];
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    synchronized (this) {
+      final long[] match = {NONE};
+      index.forEach((sequence, location) -> {
+        if (deserialize(read(location)).equals(value)) {
+          match[0] = sequence;
+          return false;
+        }
+        return true;
+      });
+
+      if (match[0] == NONE) {
+        return;
+      }
+
+      append(REMOVE, match[0], new byte[0]);
+      release(index.remove(match[0]));
+      retireConsumedSegments();
+    }
+    commit();
+  }
+
+  /**
+   * Compacts the oldest segment if only a small part of it holds entries still in the queue. Those entries are appended again
+   * to the end of the log, so the segment can be deleted.
+   * <p/>
+   * Only the oldest segment is compacted, since removal records in a segment may refer to entries in any of the previous
+   * ones.
+   */
+  void compact() {
+    try {
+      synchronized (this) {
+        if (closed || segments.size() < 2) {
+          return;
+        }
+
+        final QueueLogSegment oldest = segments.firstEntry().getValue();
+        if (oldest == activeSegment || oldest.getLiveRatio() > COMPACTION_THRESHOLD) {
+          return;
+        }
+
+        final List<long[]> relocated = new ArrayList<>();
+        index.forEach((sequence, location) -> {
+          if (segmentOf(location) == oldest.getId()) {
+            relocated.add(new long[] {sequence, location});
+          }
+          return true;
+        });
+
+        for (long[] entry : relocated) {
+          final long sequence = entry[0];
+          final long newLocation = append(ADD, sequence, read(entry[1]));
+          release(index.put(sequence, newLocation));
+        }
+
+        // the new copies must be durable before the originals are gone
+        flush();
+        retireConsumedSegments();
+
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug(String.format("Compacted segment %s of queue %s, %s entries relocated", oldest.getId(), queueName,
+                                     relocated.size()));
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Could not compact log of queue " + queueName, e);
+    }
+  }
+
+  private long append(byte type, long sequence, byte[] payload) {
+    if (!activeSegment.hasRoomFor(payload.length)) {
+      activeSegment = newSegment(activeSegment.getId() + 1, payload.length);
+    }
+
+    final int offset = activeSegment.append(type, sequence, payload);
+    if (type == ADD) {
+      activeSegment.recordAdded(activeSegment.recordSize(offset));
+    }
+
+    synchronized (dirtySegments) {
+      dirtySegments.add(activeSegment);
+    }
+    writes.incrementAndGet();
+
+    return location(activeSegment.getId(), offset);
+  }
+
+  private QueueLogSegment newSegment(int id, int payloadLength) {
+    final File file = new File(queuesDirectory, segmentPrefix + id);
+    final QueueLogSegment segment = new QueueLogSegment(id, file, QueueLogSegment.sizeFor(payloadLength, segmentSize));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private byte[] read(long location) {
+    return segments.get(segmentOf(location)).read(offsetOf(location));
+  }
+
+  /**
+   * Accounts for the record at {@code location} no longer holding an entry of the queue.
+   */
+  private void release(long location) {
+    if (location != NONE) {
+      final QueueLogSegment segment = segments.get(segmentOf(location));
+      segment.recordRemoved(segment.recordSize(offsetOf(location)));
+    }
+  }
+
+  /**
+   * Deletes the segments at the beginning of the log whose entries have all been removed from the queue.
+   */
+  private void retireConsumedSegments() {
+    Map.Entry<Integer, QueueLogSegment> oldest = segments.firstEntry();
+    while (oldest != null && oldest.getValue() != activeSegment && !oldest.getValue().hasLiveRecords()) {
+      retire(oldest.getValue());
+      oldest = segments.firstEntry();
+    }
+  }
+
+  private void retire(QueueLogSegment segment) {
+    segments.remove(segment.getId());
+    synchronized (dirtySegments) {
+      dirtySegments.remove(segment);
+    }
+    segment.delete();
+  }
+
+  private void writeHead() {
+    cursor.putLong(0, index.head());
+    writes.incrementAndGet();
+  }
+
+  private byte[] serialize(Serializable item) {
+    return serializer.getInternalProtocol().serialize(item);
+  }
+
+  private Serializable deserialize(byte[] bytes) {
+    return serializer.getInternalProtocol().deserialize(bytes);
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      doClose();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    synchronized (this) {
+      doClose();
+      segments.values().forEach(QueueLogSegment::delete);
+      segments.clear();
+      cursorFileProvider.delete();
+    }
+  }
+
+  private void doClose() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    compaction.cancel(false);
+    compactionScheduler.stop();
+    flush();
+    segments.values().forEach(QueueLogSegment::close);
+    try {
+      cursorFileProvider.close();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,796 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.store.DeserializationPostInitialisable;
+import org.mule.runtime.core.api.store.ExpirableObjectStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent {@link ExpirableObjectStore} partition which keeps its entries in append only segment files instead of one file
+ * per entry.
+ * <p/>
+ * Storing an entry appends a record with its key and serialized value to the active segment, and removing it appends a
+ * tombstone record. Once the active segment reaches its maximum size a new one is started. The location of the record of each
+ * key is kept in an in memory hash index, so only the partition directory is read when loading the partition, and retrieving
+ * a value reads just its record.
+ * <p/>
+ * Entries are also indexed by the time they were stored, in buckets of {@link #TTL_BUCKET_MILLIS}, so {@link #expire(long, int)}
+ * only visits the entries that expire instead of the whole partition.
+ * <p/>
+ * Storing or removing an entry returns once its record is forced to the storage device, so it survives a crash. Expiring entries
+ * forces their tombstones once all of them are appended.
+ * <p/>
+ * Segments where most of the records belong to removed entries are compacted in the given executor, after expiring entries and
+ * when a new segment is started. The records still in use are copied to a new file, without holding the lock of the partition,
+ * which then replaces the segment keeping its id, so records are still loaded in the order they were written. Only replacing the
+ * segment is done with the lock held, dropping any copied record whose entry was removed meanwhile.
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends TemplateObjectStore<T>
+    implements ExpirableObjectStore<T> {
+
+  static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  static final long TTL_BUCKET_MILLIS = 1000;
+  static final double COMPACTION_THRESHOLD = 0.5;
+
+  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  private static final String SEGMENT_FILE_EXTENSION = ".segment";
+  private static final String COMPACTION_FILE_EXTENSION = ".compacting";
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final int RECORD_HEADER_SIZE = 1 + 8 + 4 + 4 + 4;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredObjectStorePartition.class);
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final long segmentSize;
+  private final Executor compactionExecutor;
+
+  private final File partitionDirectory;
+  private String partitionName;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, RecordLocation> index = new HashMap<>();
+  private final TreeMap<Long, Set<String>> ttlBuckets = new TreeMap<>();
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private Segment activeSegment;
+  private volatile boolean loaded = false;
+  private volatile boolean compactionRequested = false;
+  private final AtomicBoolean compacting = new AtomicBoolean();
+
+  /**
+   * @param compactionExecutor the executor in which segments are compacted
+   */
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory,
+                                           Executor compactionExecutor) {
+    this(muleContext, partitionName, partitionDirectory, DEFAULT_SEGMENT_SIZE, compactionExecutor);
+  }
+
+  LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory, long segmentSize,
+                                    Executor compactionExecutor) {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+    this.segmentSize = segmentSize;
+    this.compactionExecutor = compactionExecutor;
+  }
+
+  /**
+   * @param compactionExecutor the executor in which segments are compacted
+   */
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory, Executor compactionExecutor)
+      throws ObjectStoreNotAvailableException {
+    this(muleContext, readPartitionFileName(partitionDirectory), partitionDirectory, DEFAULT_SEGMENT_SIZE, compactionExecutor);
+  }
+
+  private static String readPartitionFileName(File partitionDirectory) throws ObjectStoreNotAvailableException {
+    try {
+      return readFileToString(new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE));
+    } catch (IOException e) {
+      throw new ObjectStoreNotAvailableException(e);
+    }
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    if (!partitionDirectory.exists() && !partitionDirectory.mkdirs()) {
+      throw new ObjectStoreException(failedToCreate("object store directory " + partitionDirectory.getAbsolutePath()));
+    }
+
+    File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+    try {
+      if (partitionDescriptorFile.exists()) {
+        partitionName = readPartitionFileName(partitionDirectory);
+      } else {
+        writeStringToFile(partitionDescriptorFile, partitionName);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {}
+
+  /**
+   * Closes the segment files. The partition is loaded again from them if used afterwards.
+   */
+  public void dispose() {
+    withLock(lock.writeLock(), () -> {
+      segments.values().forEach(Segment::close);
+      segments.clear();
+      index.clear();
+      ttlBuckets.clear();
+      activeSegment = null;
+      loaded = false;
+      return null;
+    });
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+    return withLock(lock.readLock(), () -> unmodifiableList(new ArrayList<>(index.keySet())));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return withLock(lock.readLock(), () -> index.containsKey(key));
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+    final byte[] record = createRecord(PUT, System.currentTimeMillis(), key, serialize(value));
+
+    final Segment segment = withCheckedLock(lock.writeLock(), () -> {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      final RecordLocation location = append(record);
+      put(key, location);
+      return location.segment;
+    });
+    force(segment);
+    compactIfRequested();
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+    final byte[] value = withCheckedLock(lock.readLock(), () -> readValue(key));
+    return deserialize(value);
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+    final List<Segment> tombstoneSegment = new ArrayList<>(1);
+    final byte[] value = withCheckedLock(lock.writeLock(), () -> {
+      byte[] removed = readValue(key);
+      tombstoneSegment.add(removeEntry(key));
+      return removed;
+    });
+    force(tombstoneSegment.get(0));
+    compactIfRequested();
+    return deserialize(value);
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    // the segments of a partition which is not loaded yet are not known
+    assureLoaded();
+    withCheckedLock(lock.writeLock(), () -> {
+      segments.values().forEach(Segment::delete);
+      segments.clear();
+      index.clear();
+      ttlBuckets.clear();
+      activeSegment = newSegment(0);
+      return null;
+    });
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    withCheckedLock(lock.writeLock(), () -> {
+      if (maxEntries != UNBOUNDED) {
+        int excess = index.size() - maxEntries;
+        while (excess-- > 0) {
+          removeEntry(ttlBuckets.firstEntry().getValue().iterator().next());
+        }
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = System.currentTimeMillis();
+        expireBuckets(now - entryTTL);
+      }
+
+      activeSegment.force();
+      compactionRequested = true;
+      return null;
+    });
+    compactIfRequested();
+  }
+
+  /**
+   * Removes the entries stored up to {@code expiredUntil}. Only the buckets with entries that may have expired are visited.
+   */
+  private void expireBuckets(long expiredUntil) throws ObjectStoreException {
+    while (!ttlBuckets.isEmpty() && ttlBuckets.firstKey() * TTL_BUCKET_MILLIS <= expiredUntil) {
+      final Map.Entry<Long, Set<String>> bucket = ttlBuckets.firstEntry();
+      final boolean wholeBucketExpired = (bucket.getKey() + 1) * TTL_BUCKET_MILLIS <= expiredUntil;
+
+      final List<String> expired = new ArrayList<>();
+      for (String key : bucket.getValue()) {
+        if (wholeBucketExpired || index.get(key).timestamp <= expiredUntil) {
+          expired.add(key);
+        }
+      }
+      for (String key : expired) {
+        removeEntry(key);
+      }
+
+      if (!wholeBucketExpired) {
+        return;
+      }
+    }
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      withCheckedLock(lock.writeLock(), () -> {
+        // re-check under the lock, so the partition is loaded only once
+        if (!loaded) {
+          load();
+          loaded = true;
+        }
+        return null;
+      });
+    }
+  }
+
+  private void load() throws ObjectStoreException {
+    File[] compactionFiles = partitionDirectory.listFiles((dir, name) -> name.endsWith(COMPACTION_FILE_EXTENSION));
+    if (compactionFiles != null) {
+      // left by a compaction interrupted before replacing its segment, which is still complete
+      for (File file : compactionFiles) {
+        deleteFile(file);
+      }
+    }
+
+    File[] files = partitionDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    if (files != null) {
+      for (File file : files) {
+        try {
+          final int id = Integer.parseInt(file.getName().substring(0, file.getName().length() - SEGMENT_FILE_EXTENSION.length()));
+          segments.put(id, new Segment(id, file));
+        } catch (NumberFormatException e) {
+          LOGGER.warn(format("Ignoring unexpected file %s in object store partition %s", file.getName(), partitionName));
+        }
+      }
+    }
+
+    for (Segment segment : segments.values()) {
+      segment.scan((type, key, location) -> {
+        if (type == PUT) {
+          put(key, location);
+        } else {
+          removeFromIndex(key);
+        }
+      });
+    }
+
+    activeSegment = segments.isEmpty() ? newSegment(0) : segments.lastEntry().getValue();
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Loaded %s entries from %s segments in object store partition %s", index.size(), segments.size(),
+                          partitionName));
+    }
+  }
+
+  private void put(String key, RecordLocation location) {
+    final RecordLocation previous = index.put(key, location);
+    if (previous != null) {
+      release(key, previous);
+    }
+    ttlBuckets.computeIfAbsent(location.timestamp / TTL_BUCKET_MILLIS, bucket -> new LinkedHashSet<>()).add(key);
+    location.segment.liveBytes += location.length;
+  }
+
+  /**
+   * Removes {@code key} from the index, appending a tombstone so it's not loaded again.
+   *
+   * @return the segment the tombstone was appended to
+   */
+  private Segment removeEntry(String key) throws ObjectStoreException {
+    final RecordLocation tombstone = append(createRecord(REMOVE, System.currentTimeMillis(), key, new byte[0]));
+    removeFromIndex(key);
+    return tombstone.segment;
+  }
+
+  private void removeFromIndex(String key) {
+    final RecordLocation previous = index.remove(key);
+    if (previous != null) {
+      release(key, previous);
+    }
+  }
+
+  private void release(String key, RecordLocation location) {
+    location.segment.liveBytes -= location.length;
+    final long bucket = location.timestamp / TTL_BUCKET_MILLIS;
+    final Set<String> keys = ttlBuckets.get(bucket);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        ttlBuckets.remove(bucket);
+      }
+    }
+  }
+
+  private byte[] readValue(String key) throws ObjectStoreException {
+    final RecordLocation location = index.get(key);
+    if (location == null) {
+      throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+    }
+
+    final ByteBuffer record = location.segment.read(location.offset, location.length);
+    record.position(1 + 8);
+    final int keyLength = record.getInt();
+    final byte[] value = new byte[record.getInt()];
+    record.position(RECORD_HEADER_SIZE + keyLength);
+    record.get(value);
+    return value;
+  }
+
+  private static byte[] createRecord(byte type, long timestamp, String key, byte[] value) {
+    final byte[] keyBytes = key.getBytes(UTF_8);
+    final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + value.length);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(keyBytes.length);
+    record.putInt(value.length);
+    record.putInt(checksum(keyBytes, value));
+    record.put(keyBytes);
+    record.put(value);
+    return record.array();
+  }
+
+  private static int checksum(byte[] key, byte[] value) {
+    CRC32 crc = new CRC32();
+    crc.update(key);
+    crc.update(value);
+    return (int) crc.getValue();
+  }
+
+  private RecordLocation append(byte[] record) throws ObjectStoreException {
+    if (activeSegment.size > 0 && activeSegment.size + record.length > segmentSize) {
+      activeSegment.force();
+      activeSegment = newSegment(activeSegment.id + 1);
+      compactionRequested = true;
+    }
+
+    final Segment segment = activeSegment;
+    final long offset = segment.append(record);
+    return new RecordLocation(segment, offset, record.length, ByteBuffer.wrap(record).getLong(1));
+  }
+
+  /**
+   * Forces the records appended to {@code segment}, unless it was deleted or replaced meanwhile.
+   */
+  private void force(Segment segment) throws ObjectStoreException {
+    withCheckedLock(lock.readLock(), () -> {
+      if (segments.get(segment.id) == segment) {
+        segment.force();
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Submits a compaction of the segments if one was requested and none is running. A compaction requested while another one is
+   * running is submitted once that one is done.
+   */
+  private void compactIfRequested() {
+    if (compactionRequested && compacting.compareAndSet(false, true)) {
+      compactionRequested = false;
+      try {
+        compactionExecutor.execute(this::compact);
+      } catch (RejectedExecutionException e) {
+        compacting.set(false);
+        LOGGER.debug(format("Compaction of object store partition %s rejected", partitionName), e);
+      }
+    }
+  }
+
+  /**
+   * Compacts the segments, other than the active one, where less than {@link #COMPACTION_THRESHOLD} of the bytes belong to
+   * entries still in the partition.
+   */
+  private void compact() {
+    try {
+      final List<Segment> candidates = withLock(lock.readLock(), () -> {
+        final List<Segment> sparseSegments = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+          if (segment != activeSegment && segment.liveBytes < segment.size * COMPACTION_THRESHOLD) {
+            sparseSegments.add(segment);
+          }
+        }
+        return sparseSegments;
+      });
+
+      for (Segment segment : candidates) {
+        compact(segment);
+      }
+    } catch (ObjectStoreException | RuntimeException e) {
+      LOGGER.warn(format("Could not compact object store partition %s", partitionName), e);
+    } finally {
+      compacting.set(false);
+    }
+    compactIfRequested();
+  }
+
+  /**
+   * Copies the records of {@code segment} still in use to a new file, which then replaces the segment.
+   * <p/>
+   * Tombstones are only kept while older segments exist, since those may hold the records they remove.
+   */
+  private void compact(Segment segment) throws ObjectStoreException {
+    // the segment is no longer appended to, so it's scanned without the lock
+    final List<String> keys = new ArrayList<>();
+    final List<RecordLocation> records = new ArrayList<>();
+    final List<Boolean> tombstones = new ArrayList<>();
+    segment.scan((type, key, location) -> {
+      keys.add(key);
+      records.add(location);
+      tombstones.add(type == REMOVE);
+    });
+
+    final List<Integer> survivors = withLock(lock.readLock(), () -> {
+      final List<Integer> inUse = new ArrayList<>();
+      if (segments.get(segment.id) != segment) {
+        return inUse;
+      }
+      final boolean olderSegmentsExist = segments.firstKey() < segment.id;
+      for (int i = 0; i < records.size(); i++) {
+        final RecordLocation current = index.get(keys.get(i));
+        if (tombstones.get(i) ? current == null && olderSegmentsExist
+            : current != null && current.segment == segment && current.offset == records.get(i).offset) {
+          inUse.add(i);
+        }
+      }
+      return inUse;
+    });
+
+    if (survivors.size() == records.size()) {
+      return;
+    }
+
+    final File compactionFile = new File(partitionDirectory, segment.id + SEGMENT_FILE_EXTENSION + COMPACTION_FILE_EXTENSION);
+    final List<String> copiedKeys = new ArrayList<>();
+    final Map<Long, Long> relocatedOffsets = new HashMap<>();
+    try {
+      if (!survivors.isEmpty()) {
+        try (FileChannel channel = FileChannel.open(compactionFile.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+          long position = 0;
+          for (int i : survivors) {
+            final ByteBuffer record = segment.read(records.get(i).offset, records.get(i).length);
+            if (!tombstones.get(i)) {
+              copiedKeys.add(keys.get(i));
+            }
+            relocatedOffsets.put(records.get(i).offset, position);
+            while (record.hasRemaining()) {
+              position += channel.write(record, position);
+            }
+          }
+          // copied records must be durable before the originals are gone
+          channel.force(false);
+        } catch (IOException e) {
+          throw new ObjectStoreException(e);
+        }
+      }
+
+      withCheckedLock(lock.writeLock(), () -> {
+        if (segments.get(segment.id) == segment) {
+          replace(segment, survivors.isEmpty() ? null : compactionFile, copiedKeys, relocatedOffsets);
+        }
+        return null;
+      });
+    } finally {
+      if (compactionFile.exists()) {
+        deleteFile(compactionFile);
+      }
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Compacted segment %s of object store partition %s, %s records kept", segment.id, partitionName,
+                          survivors.size()));
+    }
+  }
+
+  /**
+   * Replaces {@code segment} with the {@code compactionFile} holding its records in use, or just deletes it if there is none,
+   * relocating the entries of the {@code copiedKeys} whose record is still the one in {@code segment}. Entries removed since the
+   * records were copied are left out of the index.
+   */
+  private void replace(Segment segment, File compactionFile, List<String> copiedKeys, Map<Long, Long> relocatedOffsets)
+      throws ObjectStoreException {
+    if (compactionFile == null) {
+      segments.remove(segment.id);
+      segment.delete();
+      return;
+    }
+
+    try {
+      Files.move(compactionFile.toPath(), segment.file.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    segment.close();
+    final Segment compacted = new Segment(segment.id, segment.file);
+    segments.put(segment.id, compacted);
+
+    for (String key : copiedKeys) {
+      final RecordLocation location = index.get(key);
+      if (location != null && location.segment == segment) {
+        put(key, new RecordLocation(compacted, relocatedOffsets.get(location.offset), location.length, location.timestamp));
+      }
+    }
+  }
+
+  private static void deleteFile(File file) {
+    if (!file.delete()) {
+      LOGGER.warn("Could not delete object store file " + file.getAbsolutePath());
+    }
+  }
+
+  private Segment newSegment(int id) throws ObjectStoreException {
+    final Segment segment = new Segment(id, new File(partitionDirectory, id + SEGMENT_FILE_EXTENSION));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private byte[] serialize(T value) {
+    return serializer.getInternalProtocol().serialize(value);
+  }
+
+  private T deserialize(byte[] value) throws ObjectStoreException {
+    try {
+      T deserialized = serializer.getInternalProtocol().deserialize(value);
+      if (deserialized instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(deserialized, muleContext);
+      }
+      return deserialized;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  private <R> R withLock(Lock lock, LockedAction<R, RuntimeException> action) {
+    lock.lock();
+    try {
+      return action.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private <R> R withCheckedLock(Lock lock, LockedAction<R, ObjectStoreException> action) throws ObjectStoreException {
+    lock.lock();
+    try {
+      return action.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @FunctionalInterface
+  private interface LockedAction<R, E extends Exception> {
+
+    R run() throws E;
+  }
+
+  @FunctionalInterface
+  private interface RecordVisitor {
+
+    void visit(byte type, String key, RecordLocation location) throws ObjectStoreException;
+  }
+
+  private static class RecordLocation {
+
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+    private final long timestamp;
+
+    private RecordLocation(Segment segment, long offset, int length, long timestamp) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.timestamp = timestamp;
+    }
+  }
+
+  private static class Segment {
+
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+    private long size;
+    private long liveBytes = 0;
+
+    private Segment(int id, File file) throws ObjectStoreException {
+      this.id = id;
+      this.file = file;
+      try {
+        channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+        size = channel.size();
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+
+    private long append(byte[] record) throws ObjectStoreException {
+      final long offset = size;
+      final ByteBuffer buffer = ByteBuffer.wrap(record);
+      try {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+          position += channel.write(buffer, position);
+        }
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+      size += record.length;
+      return offset;
+    }
+
+    private ByteBuffer read(long offset, int length) throws ObjectStoreException {
+      final ByteBuffer buffer = ByteBuffer.allocate(length);
+      try {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+          int read = channel.read(buffer, position);
+          if (read < 0) {
+            throw new IOException("Unexpected end of segment " + file.getAbsolutePath());
+          }
+          position += read;
+        }
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    /**
+     * Visits the valid records of this segment. Anything after a record which is incomplete or has an invalid checksum, as left
+     * by a crash while appending it, is discarded.
+     */
+    private void scan(RecordVisitor visitor) throws ObjectStoreException {
+      long position = 0;
+      while (position + RECORD_HEADER_SIZE <= size) {
+        final ByteBuffer header = read(position, RECORD_HEADER_SIZE);
+        final byte type = header.get();
+        final long timestamp = header.getLong();
+        final int keyLength = header.getInt();
+        final int valueLength = header.getInt();
+        final int checksum = header.getInt();
+        final long length = (long) RECORD_HEADER_SIZE + keyLength + valueLength;
+        if ((type != PUT && type != REMOVE) || keyLength < 0 || valueLength < 0 || position + length > size) {
+          break;
+        }
+
+        final ByteBuffer body = read(position + RECORD_HEADER_SIZE, keyLength + valueLength);
+        final byte[] key = new byte[keyLength];
+        final byte[] value = new byte[valueLength];
+        body.get(key);
+        body.get(value);
+        if (checksum(key, value) != checksum) {
+          break;
+        }
+
+        visitor.visit(type, new String(key, UTF_8), new RecordLocation(this, position, (int) length, timestamp));
+        position += length;
+      }
+
+      if (position < size) {
+        LOGGER.warn(format("Discarding %s bytes of incomplete records at the end of %s", size - position,
+                           file.getAbsolutePath()));
+        truncate(position);
+      }
+    }
+
+    private void truncate(long position) throws ObjectStoreException {
+      try {
+        channel.truncate(position);
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+      size = position;
+    }
+
+    private void force() throws ObjectStoreException {
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+    }
+
+    private void delete() {
+      close();
+      deleteFile(file);
+    }
+  }
+}
@@ -150,12 +150,12 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
     try {
       final long now = System.currentTimeMillis();
       List<String> keys = allKeys();
-      int excess = (allKeys().size() - maxEntries);
-
-      PriorityQueue<StoredObject<T>> sortedMaxEntries = null;
+      int excess = maxEntries != null ? keys.size() - maxEntries : 0;
 
+      // keeps the oldest entries over the maximum, dropping the newest one of them whenever there are too many
+      PriorityQueue<StoredObject<T>> oldestEntries = null;
       if (excess > 0) {
-        sortedMaxEntries = new PriorityQueue<>(excess, comparing(paramT -> paramT.timestamp));
+        oldestEntries = new PriorityQueue<>(excess + 1, comparing((StoredObject<T> stored) -> stored.timestamp).reversed());
       }
 
       ObjectStore<StoredObject<T>> store = getStore();
@@ -165,17 +165,21 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
         if (entryTtl != null && now - obj.getTimestamp() >= entryTtl) {
           remove(key);
           excess--;
-        } else if (maxEntries != null && excess > 0) {
-          sortedMaxEntries.offer(obj);
+        } else if (oldestEntries != null) {
+          oldestEntries.offer(obj);
+          if (oldestEntries.size() > excess) {
+            oldestEntries.poll();
+          }
         }
       }
 
-      if (sortedMaxEntries != null) {
-        StoredObject<T> obj = sortedMaxEntries.poll();
-        while (obj != null && excess > 0) {
+      if (oldestEntries != null && excess > 0) {
+        // entries expired after being kept reduced the excess, so fewer of the oldest ones have to be evicted
+        while (oldestEntries.size() > excess) {
+          oldestEntries.poll();
+        }
+        for (StoredObject<T> obj : oldestEntries) {
           remove(obj.getKey());
-          excess--;
-          obj = sortedMaxEntries.poll();
         }
       }
     } catch (Exception e) {
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_OBJECT_STORE_STRIPED_IN_MEMORY;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.api.store.PartitionedInMemoryObjectStore;
 import org.mule.runtime.core.api.store.PartitionedPersistentObjectStore;
@@ -16,6 +18,9 @@ public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory
 
   @Override
   public ObjectStore<Serializable> createDefaultInMemoryObjectStore() {
+    if (getBoolean(MULE_OBJECT_STORE_STRIPED_IN_MEMORY)) {
+      return new StripedInMemoryObjectStore<>();
+    }
     return new PartitionedInMemoryObjectStore<>();
   }
 
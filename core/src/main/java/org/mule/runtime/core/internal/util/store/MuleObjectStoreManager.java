@@ -8,8 +8,12 @@
 package org.mule.runtime.core.internal.util.store;
 
 import static java.lang.String.format;
+import static java.lang.System.getProperty;
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toSet;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_OBJECT_STORE_LOG_STRUCTURED_PARTITIONS;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -28,6 +32,7 @@ import org.mule.runtime.api.store.PartitionableObjectStore;
 
 import java.io.Serializable;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
@@ -50,6 +55,9 @@ public class MuleObjectStoreManager implements ObjectStoreManager, MuleContextAw
   private ObjectStore<?> basePersistentStore;
   private ObjectStore<?> baseTransientPartition;
   private ObjectStore<?> basePersistentPartition;
+  private PartitionedLogStructuredObjectStore<?> logStructuredStore;
+  private Set<String> logStructuredPartitions = stream(getProperty(MULE_OBJECT_STORE_LOG_STRUCTURED_PARTITIONS, "").split(","))
+      .map(String::trim).filter(name -> !name.isEmpty()).collect(toSet());
   private Scheduler scheduler;
 
   @Override
@@ -92,6 +100,11 @@ public class MuleObjectStoreManager implements ObjectStoreManager, MuleContextAw
 
     stores.values().forEach(store -> disposeIfNeeded(store, LOGGER));
     stores.clear();
+
+    synchronized (this) {
+      disposeIfNeeded(logStructuredStore, LOGGER);
+      logStructuredStore = null;
+    }
   }
 
   @Override
@@ -148,7 +161,7 @@ public class MuleObjectStoreManager implements ObjectStoreManager, MuleContextAw
   }
 
   private <T extends ObjectStore<?>> T doCreateObjectStore(String name, ObjectStoreSettings settings) {
-    final ObjectStore<? extends Serializable> baseStore = getBaseStore(settings);
+    final ObjectStore<? extends Serializable> baseStore = getBaseStore(name, settings);
     T store;
     try {
       store = getPartitionFromBaseObjectStore(baseStore, name);
@@ -164,10 +177,20 @@ public class MuleObjectStoreManager implements ObjectStoreManager, MuleContextAw
     return store;
   }
 
-  private <T extends ObjectStore<? extends Serializable>> T getBaseStore(ObjectStoreSettings settings) {
+  private <T extends ObjectStore<? extends Serializable>> T getBaseStore(String name, ObjectStoreSettings settings) {
+    if (settings.isPersistent() && logStructuredPartitions.contains(name)) {
+      return (T) getLogStructuredStore();
+    }
     return settings.isPersistent() ? (T) basePersistentStore : (T) baseTransientStore;
   }
 
+  private synchronized PartitionedLogStructuredObjectStore<?> getLogStructuredStore() {
+    if (logStructuredStore == null) {
+      logStructuredStore = new PartitionedLogStructuredObjectStore<>(muleContext);
+    }
+    return logStructuredStore;
+  }
+
   private <T extends ObjectStore<? extends Serializable>> T getPartitionFromBaseObjectStore(
                                                                                             ObjectStore<? extends Serializable> baseStore,
                                                                                             String partitionName)
@@ -305,4 +328,15 @@ public class MuleObjectStoreManager implements ObjectStoreManager, MuleContextAw
   public void setBaseTransientStoreKey(String baseTransientStoreKey) {
     this.baseTransientStoreKey = baseTransientStoreKey;
   }
+
+  /**
+   * Sets the names of the persistent object stores to keep in a {@link PartitionedLogStructuredObjectStore} instead of the
+   * base persistent store. Defaults to the comma separated names in the {@code mule.objectStore.logStructuredPartitions} system
+   * property.
+   *
+   * @param logStructuredPartitions the names of the object stores
+   */
+  public void setLogStructuredPartitions(Set<String> logStructuredPartitions) {
+    this.logStructuredPartitions = logStructuredPartitions;
+  }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.i18n.CoreMessages;
+import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.store.AbstractPartitionableObjectStore;
+import org.mule.runtime.core.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.util.FileUtils;
+import org.mule.runtime.core.api.util.UUID;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+/**
+ * A persistent {@link PartitionableExpirableObjectStore} which keeps each partition in a
+ * {@link LogStructuredObjectStorePartition}.
+ * <p/>
+ * Partitions are kept in their own directories under {@link #OBJECT_STORE_DIR}, so this store may be used for some partitions
+ * alongside a {@link org.mule.runtime.core.api.store.PartitionedPersistentObjectStore} for the rest. The segments of every
+ * partition are compacted in an IO scheduler owned by this store.
+ */
+public class PartitionedLogStructuredObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T>, MuleContextAware, Disposable {
+
+  private static final Logger LOGGER = getLogger(PartitionedLogStructuredObjectStore.class);
+  public static final String OBJECT_STORE_DIR = "objectstore-log";
+
+  private MuleContext muleContext;
+  private File storeDirectory;
+  private Scheduler compactionScheduler;
+  private Map<String, LogStructuredObjectStorePartition> partitionsByName = new HashMap<>();
+  private boolean initialized = false;
+
+  public PartitionedLogStructuredObjectStore() {
+    super();
+  }
+
+  public PartitionedLogStructuredObjectStore(MuleContext context) {
+    super();
+    muleContext = context;
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    if (!initialized) {
+      compactionScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName(getClass().getSimpleName() + ".compaction"));
+      initObjectStoreDirectory();
+      loadPreviousStoredPartitions();
+      if (!partitionsByName.containsKey(DEFAULT_PARTITION_NAME)) {
+        createPartition(DEFAULT_PARTITION_NAME);
+      }
+      initialized = true;
+    }
+  }
+
+  @Override
+  public synchronized void open(String partitionName) throws ObjectStoreException {
+    open();
+    if (!partitionsByName.containsKey(partitionName)) {
+      createPartition(partitionName);
+    }
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {}
+
+  private void createPartition(String partitionName) throws ObjectStoreException {
+    LogStructuredObjectStorePartition partition =
+        new LogStructuredObjectStorePartition(muleContext, partitionName, new File(storeDirectory, UUID.getUUID()),
+                                              compactionScheduler);
+    partition.open();
+    partitionsByName.put(partitionName, partition);
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    return getPartitionObjectStore(partitionName).contains(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    getPartitionObjectStore(partitionName).store(key, value);
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    return getPartitionObjectStore(partitionName).retrieve(key);
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    return getPartitionObjectStore(partitionName).remove(key);
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    return getPartitionObjectStore(partitionName).allKeys();
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    getPartitionObjectStore(partitionName).clear();
+  }
+
+  private synchronized LogStructuredObjectStorePartition<T> getPartitionObjectStore(String partitionName)
+      throws ObjectStoreException {
+    if (!partitionsByName.containsKey(partitionName)) {
+      throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
+    }
+    return partitionsByName.get(partitionName);
+  }
+
+  @Override
+  public synchronized List<String> allPartitions() throws ObjectStoreException {
+    return new ArrayList<>(partitionsByName.keySet());
+  }
+
+  private void initObjectStoreDirectory() {
+    if (storeDirectory == null) {
+      String workingDirectory = muleContext.getConfiguration().getWorkingDirectory();
+      storeDirectory = FileUtils.newFile(workingDirectory + File.separator + OBJECT_STORE_DIR);
+      if (!storeDirectory.exists() && !storeDirectory.mkdirs()) {
+        throw new MuleRuntimeException(CoreMessages
+            .failedToCreate("object store directory " + storeDirectory.getAbsolutePath()));
+      }
+    }
+  }
+
+  private void loadPreviousStoredPartitions() {
+    File[] directories = storeDirectory.listFiles(File::isDirectory);
+    if (directories == null) {
+      return;
+    }
+    for (File partitionDirectory : directories) {
+      try {
+        LogStructuredObjectStorePartition partition =
+            new LogStructuredObjectStorePartition(muleContext, partitionDirectory, compactionScheduler);
+        partition.open();
+        partitionsByName.put(partition.getPartitionName(), partition);
+      } catch (Exception e) {
+        LOGGER.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
+      }
+    }
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    muleContext = context;
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    clear(partitionName);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    getPartitionObjectStore(partitionName).expire(entryTTL, maxEntries);
+  }
+
+  /**
+   * Closes the segment files of every partition and stops the compaction scheduler.
+   */
+  @Override
+  public synchronized void dispose() {
+    partitionsByName.values().forEach(LogStructuredObjectStorePartition::dispose);
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+    }
+  }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.store.AbstractPartitionableObjectStore;
+import org.mule.runtime.core.api.store.PartitionableExpirableObjectStore;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in memory {@link PartitionableExpirableObjectStore} meant for partitions with many short lived entries.
+ * <p/>
+ * The entries of each partition are spread across {@link #STRIPES} stripes, each one guarded by its own lock. Each stripe keeps
+ * its entries in least recently used order, and schedules them in a {@link TimingWheel} to expire once their time to live has
+ * elapsed since they were stored. Expired entries are removed by any operation on their stripe, so {@link #expire(long, int,
+ * String)} only has to advance the timing wheels instead of visiting every entry in the partition.
+ * <p/>
+ * The time to live and maximum number of entries of a partition are taken from the last call to
+ * {@link #expire(long, int, String)} for it. Once the maximum is exceeded, the least recently stored or retrieved entries are
+ * evicted.
+ */
+public class StripedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T> {
+
+  static final int STRIPES = 16;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StripedInMemoryObjectStore.class);
+
+  private final ConcurrentMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean isPersistent() {
+    return false;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    return getPartition(partitionName).contains(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    getPartition(partitionName).store(key, value);
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    return getPartition(partitionName).retrieve(key);
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    return getPartition(partitionName).remove(key);
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    return getPartition(partitionName).allKeys();
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    getPartition(partitionName).clear();
+  }
+
+  @Override
+  public List<String> allPartitions() throws ObjectStoreException {
+    return new ArrayList<>(partitions.keySet());
+  }
+
+  @Override
+  public void open(String partitionName) throws ObjectStoreException {
+    // Nothing to do
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {
+    // Nothing to do
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    final Partition partition = getPartition(partitionName);
+    partition.configure(entryTTL, maxEntries);
+    partition.expire();
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    Partition partition = partitions.remove(partitionName);
+    if (partition != null) {
+      partition.clear();
+    }
+  }
+
+  private Partition getPartition(String partitionName) {
+    return partitions.computeIfAbsent(partitionName, name -> new Partition());
+  }
+
+  protected long getCurrentNanoTime() {
+    return System.nanoTime();
+  }
+
+  private long currentTimeMillis() {
+    return NANOSECONDS.toMillis(getCurrentNanoTime());
+  }
+
+  private class Partition {
+
+    private final List<Stripe> stripes = new ArrayList<>(STRIPES);
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong accessTicks = new AtomicLong();
+    private final Object evictionLock = new Object();
+    private volatile long entryTTL = UNBOUNDED;
+    private volatile int maxEntries = UNBOUNDED;
+
+    private Partition() {
+      final long now = currentTimeMillis();
+      for (int i = 0; i < STRIPES; i++) {
+        stripes.add(new Stripe(now));
+      }
+    }
+
+    private Stripe stripeFor(String key) {
+      final int hash = key.hashCode();
+      return stripes.get((hash ^ (hash >>> 16)) & (STRIPES - 1));
+    }
+
+    private boolean contains(String key) {
+      final Stripe stripe = stripeFor(key);
+      synchronized (stripe) {
+        stripe.expire(currentTimeMillis());
+        return stripe.entries.containsKey(key);
+      }
+    }
+
+    private void store(String key, T value) throws ObjectStoreException {
+      final long now = currentTimeMillis();
+      final Stripe stripe = stripeFor(key);
+      synchronized (stripe) {
+        stripe.expire(now);
+        if (stripe.entries.containsKey(key)) {
+          throw new ObjectAlreadyExistsException();
+        }
+        final Entry entry = new Entry(key, value, now, accessTicks.incrementAndGet());
+        stripe.entries.put(key, entry);
+        size.incrementAndGet();
+        stripe.schedule(entry, entryTTL);
+      }
+      evictExcess();
+    }
+
+    private T retrieve(String key) throws ObjectStoreException {
+      final Stripe stripe = stripeFor(key);
+      synchronized (stripe) {
+        stripe.expire(currentTimeMillis());
+        final Entry entry = stripe.entries.get(key);
+        if (entry == null) {
+          throw new ObjectDoesNotExistException();
+        }
+        entry.lastAccess = accessTicks.incrementAndGet();
+        return entry.value;
+      }
+    }
+
+    private T remove(String key) throws ObjectStoreException {
+      final Stripe stripe = stripeFor(key);
+      synchronized (stripe) {
+        stripe.expire(currentTimeMillis());
+        final Entry entry = stripe.entries.get(key);
+        if (entry == null) {
+          throw new ObjectDoesNotExistException();
+        }
+        stripe.remove(entry);
+        return entry.value;
+      }
+    }
+
+    private List<String> allKeys() {
+      final long now = currentTimeMillis();
+      final List<String> keys = new ArrayList<>(size.get());
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          stripe.expire(now);
+          keys.addAll(stripe.entries.keySet());
+        }
+      }
+      return keys;
+    }
+
+    private void clear() {
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          size.addAndGet(-stripe.entries.size());
+          stripe.entries.clear();
+          stripe.wheel.clear();
+        }
+      }
+    }
+
+    /**
+     * Updates the expiration settings of the partition. Entries already stored are rescheduled if the time to live changed.
+     */
+    private void configure(long entryTTL, int maxEntries) {
+      this.maxEntries = maxEntries;
+      if (this.entryTTL == entryTTL) {
+        return;
+      }
+
+      synchronized (evictionLock) {
+        this.entryTTL = entryTTL;
+        for (Stripe stripe : stripes) {
+          synchronized (stripe) {
+            stripe.wheel.clear();
+            for (Entry entry : new ArrayList<>(stripe.entries.values())) {
+              stripe.schedule(entry, entryTTL);
+            }
+          }
+        }
+      }
+    }
+
+    private void expire() {
+      final long now = currentTimeMillis();
+      final int sizeBefore = size.get();
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          stripe.expire(now);
+        }
+      }
+      evictExcess();
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Expired " + (sizeBefore - size.get()) + " entries");
+      }
+    }
+
+    /**
+     * Evicts the least recently used entries of the partition until it doesn't exceed its maximum number of entries. The least
+     * recently used entry of the partition is the least recently used one among the eldest entries of each stripe.
+     */
+    private void evictExcess() {
+      if (maxEntries == UNBOUNDED || size.get() <= maxEntries) {
+        return;
+      }
+
+      synchronized (evictionLock) {
+        while (size.get() > maxEntries) {
+          Stripe victim = null;
+          long oldestAccess = Long.MAX_VALUE;
+          for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+              final Entry eldest = stripe.eldest();
+              if (eldest != null && eldest.lastAccess < oldestAccess) {
+                oldestAccess = eldest.lastAccess;
+                victim = stripe;
+              }
+            }
+          }
+
+          if (victim == null) {
+            return;
+          }
+          synchronized (victim) {
+            final Entry eldest = victim.eldest();
+            if (eldest != null) {
+              victim.remove(eldest);
+            }
+          }
+        }
+      }
+    }
+
+    private class Stripe {
+
+      // access ordered, so the eldest entry is the least recently used one
+      private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+      private final TimingWheel<Entry> wheel;
+
+      private Stripe(long now) {
+        wheel = new TimingWheel<>(now);
+      }
+
+      private void schedule(Entry entry, long entryTTL) {
+        if (entryTTL == UNBOUNDED) {
+          return;
+        }
+        entry.setDeadline(entry.storedAt + entryTTL);
+        if (!wheel.schedule(entry)) {
+          remove(entry);
+        }
+      }
+
+      private void expire(long now) {
+        wheel.advance(now, this::remove);
+      }
+
+      private Entry eldest() {
+        return entries.isEmpty() ? null : entries.values().iterator().next();
+      }
+
+      private void remove(Entry entry) {
+        entries.remove(entry.key);
+        wheel.cancel(entry);
+        size.decrementAndGet();
+      }
+    }
+
+    private class Entry extends TimingWheel.Timer {
+
+      private final String key;
+      private final T value;
+      private final long storedAt;
+      private long lastAccess;
+
+      private Entry(String key, T value, long storedAt, long lastAccess) {
+        this.key = key;
+        this.value = value;
+        this.storedAt = storedAt;
+        this.lastAccess = lastAccess;
+      }
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel with a resolution of one millisecond.
+ * <p/>
+ * Each of the {@link #LEVELS} wheels has {@link #SLOTS} slots, each slot of a wheel spanning a whole turn of the wheel below
+ * it. Timers are kept in the slot of the lowest wheel that can hold their deadline, and are moved to a lower wheel when the slot
+ * they are in is reached. Scheduling and cancelling a timer are O(1), and advancing the time only visits the slots that were
+ * reached and the timers in them.
+ * <p/>
+ * Deadlines beyond the span of the highest wheel are kept in its last reachable slot and rescheduled from there. This class is
+ * not thread safe.
+ *
+ * @param <E> the type of the timers
+ */
+public class TimingWheel<E extends TimingWheel.Timer> {
+
+  private static final int LEVELS = 4;
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final long MAX_DELAY = (1L << (LEVELS * SLOT_BITS)) - 1;
+
+  private final Timer[][] wheels = new Timer[LEVELS][SLOTS];
+  private long currentTime;
+
+  /**
+   * @param currentTime the current time, in milliseconds
+   */
+  public TimingWheel(long currentTime) {
+    this.currentTime = currentTime;
+    for (Timer[] wheel : wheels) {
+      for (int i = 0; i < SLOTS; i++) {
+        wheel[i] = new Timer();
+        wheel[i].prev = wheel[i];
+        wheel[i].next = wheel[i];
+      }
+    }
+  }
+
+  /**
+   * Schedules {@code timer} to expire at its {@link Timer#getDeadline() deadline}.
+   *
+   * @return {@code false} if the deadline has already been reached, in which case the timer is not scheduled
+   */
+  public boolean schedule(E scheduled) {
+    final Timer timer = scheduled;
+    final long delay = timer.deadline - currentTime;
+    if (delay <= 0) {
+      return false;
+    }
+
+    final long deadline = currentTime + Math.min(delay, MAX_DELAY);
+    int level = 0;
+    while (level < LEVELS - 1 && delay >= 1L << ((level + 1) * SLOT_BITS)) {
+      level++;
+    }
+
+    final Timer slot = wheels[level][(int) ((deadline >> (level * SLOT_BITS)) & (SLOTS - 1))];
+    timer.next = slot;
+    timer.prev = slot.prev;
+    slot.prev.next = timer;
+    slot.prev = timer;
+    return true;
+  }
+
+  /**
+   * Removes {@code timer} from the wheel, if scheduled.
+   */
+  public void cancel(E cancelled) {
+    final Timer timer = cancelled;
+    if (timer.next != null) {
+      timer.prev.next = timer.next;
+      timer.next.prev = timer.prev;
+      timer.prev = null;
+      timer.next = null;
+    }
+  }
+
+  /**
+   * Advances the wheel to {@code now}, passing each timer whose deadline has been reached to {@code expired}. Expired timers are
+   * no longer scheduled.
+   *
+   * @param now the current time, in milliseconds
+   * @param expired callback for the expired timers
+   */
+  public void advance(long now, Consumer<E> expired) {
+    final long previousTime = currentTime;
+    if (now <= previousTime) {
+      return;
+    }
+    currentTime = now;
+
+    for (int level = 0; level < LEVELS; level++) {
+      final int shift = level * SLOT_BITS;
+      final long previousTicks = previousTime >> shift;
+      final long ticks = now >> shift;
+      if (ticks == previousTicks) {
+        // higher wheels turn slower, so none of them advanced either
+        return;
+      }
+
+      final long lastTick = Math.min(ticks, previousTicks + SLOTS);
+      for (long tick = previousTicks + 1; tick <= lastTick; tick++) {
+        processSlot(wheels[level][(int) (tick & (SLOTS - 1))], now, expired);
+      }
+    }
+  }
+
+  /**
+   * Removes every timer from the wheel.
+   */
+  public void clear() {
+    for (Timer[] wheel : wheels) {
+      for (Timer slot : wheel) {
+        Timer timer = slot.next;
+        while (timer != slot) {
+          final Timer next = timer.next;
+          timer.prev = null;
+          timer.next = null;
+          timer = next;
+        }
+        slot.prev = slot;
+        slot.next = slot;
+      }
+    }
+  }
+
+  private void processSlot(Timer slot, long now, Consumer<E> expired) {
+    if (slot.next == slot) {
+      return;
+    }
+
+    // detach the timers first, since the ones not expired may be rescheduled into the same slot
+    Timer timer = slot.next;
+    slot.prev.next = null;
+    slot.prev = slot;
+    slot.next = slot;
+
+    while (timer != null) {
+      final Timer next = timer.next;
+      timer.prev = null;
+      timer.next = null;
+
+      final E scheduled = (E) timer;
+      if (timer.deadline <= now || !schedule(scheduled)) {
+        expired.accept(scheduled);
+      }
+      timer = next;
+    }
+  }
+
+  /**
+   * An element which may be scheduled in a {@link TimingWheel}.
+   */
+  public static class Timer {
+
+    private long deadline;
+    private Timer prev;
+    private Timer next;
+
+    /**
+     * @return the time, in milliseconds, this timer expires at
+     */
+    public long getDeadline() {
+      return deadline;
+    }
+
+    public void setDeadline(long deadline) {
+      this.deadline = deadline;
+    }
+
+    public boolean isScheduled() {
+      return next != null;
+    }
+  }
+}
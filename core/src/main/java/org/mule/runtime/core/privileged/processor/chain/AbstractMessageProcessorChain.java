@@ -20,6 +20,8 @@ import static org.mule.runtime.core.api.processor.MessageProcessors.processToApp
 import static org.mule.runtime.core.api.util.ExceptionUtils.updateMessagingExceptionWithError;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStreaming;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
+import static org.mule.runtime.core.internal.trace.ProcessorTracer.onProcessorEnd;
+import static org.mule.runtime.core.internal.trace.ProcessorTracer.onProcessorStart;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Flux.just;
@@ -41,6 +43,7 @@ import org.mule.runtime.core.api.registry.RegistrationException;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.util.ExceptionUtils;
 import org.mule.runtime.core.internal.processor.interceptor.ReactiveInterceptorAdapter;
+import org.mule.runtime.core.internal.trace.ProcessorTracer;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -138,24 +141,33 @@ abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObject imp
           }));
     }
 
-    // #4 Update ThreadLocal event after processor execution once back on flow thread.
+    // #4 Record when the processor starts and ends, including the time spent by the processing strategy, for traced events.
+    if (ProcessorTracer.isEnabled(muleContext)) {
+      interceptors.add((processor, next) -> stream -> from(stream)
+          .doOnNext(event -> onProcessorStart(event, processor))
+          .transform(next)
+          .doOnNext(result -> onProcessorEnd(result, processor, false))
+          .doOnError(MessagingException.class, exception -> onProcessorEnd(exception.getEvent(), processor, true)));
+    }
+
+    // #5 Update ThreadLocal event after processor execution once back on flow thread.
     interceptors.add((processor, next) -> stream -> from(stream)
         .transform(next)
         .doOnNext(result -> setCurrentEvent(result)));
 
-    // #5 Fire MessageProcessor notifications before and after processor execution.
+    // #6 Fire MessageProcessor notifications before and after processor execution.
     interceptors.add((processor, next) -> stream -> from(stream)
         .doOnNext(preNotification(processor))
         .transform(next)
         .doOnNext(postNotification(processor))
         .doOnError(MessagingException.class, errorNotification(processor)));
 
-    // #6 If the processor returns a CursorProvider, then have the StreamingManager manage it
+    // #7 If the processor returns a CursorProvider, then have the StreamingManager manage it
     interceptors.add((processor, next) -> stream -> from(stream)
         .transform(next)
         .map(updateEventForStreaming(streamingManager)));
 
-    // #7 Apply processor interceptors.
+    // #8 Apply processor interceptors.
     muleContext.getProcessorInterceptorManager().getInterceptorFactories().stream()
         .forEach(interceptorFactory -> {
           ReactiveInterceptorAdapter reactiveInterceptorAdapter = new ReactiveInterceptorAdapter(interceptorFactory);
@@ -164,7 +176,7 @@ abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObject imp
         });
 
 
-    // #8 Handle errors that occur during Processor execution. This is done outside to any scheduling to ensure errors in
+    // #9 Handle errors that occur during Processor execution. This is done outside to any scheduling to ensure errors in
     // scheduling such as RejectedExecutionException's can be handled cleanly
     interceptors.add((processor, next) -> stream -> from(stream).concatMap(event -> just(event)
         .transform(next)
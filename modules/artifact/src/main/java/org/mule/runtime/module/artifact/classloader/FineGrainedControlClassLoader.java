@@ -6,10 +6,14 @@
  */
 package org.mule.runtime.module.artifact.classloader;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Boolean.valueOf;
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_CLASSLOADING_LOOKUP_CACHE;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_CLASSLOADING_LOOKUP_CACHE_SIZE;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_VERBOSE_CLASSLOADING;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.module.artifact.classloader.exception.CompositeClassNotFoundException;
@@ -24,6 +28,8 @@ import java.net.URLStreamHandlerFactory;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +41,11 @@ import sun.net.www.protocol.jar.Handler;
  * <p/>
  * By using a {@link ClassLoaderLookupPolicy} this classLoader can use parent-first, parent-only or child-first classloading
  * lookup mode per package.
+ * <p/>
+ * When the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_CLASSLOADING_LOOKUP_CACHE lookup cache} is enabled,
+ * classes which couldn't be loaded are remembered, so looking them up again fails right away with a new exception with the same
+ * message, and the URLs of this classLoader are only searched for classes of the packages they contain. Both are discarded when a
+ * URL is added to this classLoader, or when the classes available from its parent may have changed.
  */
 public class FineGrainedControlClassLoader extends URLClassLoader
     implements DisposableClassLoader, ClassLoaderLookupPolicyProvider {
@@ -47,12 +58,21 @@ public class FineGrainedControlClassLoader extends URLClassLoader
 
   private final ClassLoaderLookupPolicy lookupPolicy;
   private final boolean verboseLogging;
+  private final int lookupCacheSize;
+  // the message of the exception thrown for each class not found, so each lookup can throw its own exception.
+  // Replaced instead of cleared when invalidated, so lookups that started before can't add stale entries to the new one
+  private volatile ConcurrentMap<String, String> notFoundClasses;
+  private final Object localPackageIndexLock = new Object();
+  private volatile boolean localPackageIndexed;
+  private volatile LocalPackageIndex localPackageIndex;
 
   public FineGrainedControlClassLoader(URL[] urls, ClassLoader parent, ClassLoaderLookupPolicy lookupPolicy) {
     super(urls, parent, new NonCachingURLStreamHandlerFactory());
     checkArgument(lookupPolicy != null, "Lookup policy cannot be null");
     this.lookupPolicy = lookupPolicy;
     verboseLogging = logger.isDebugEnabled() || isVerboseLoggingEnabled();
+    lookupCacheSize = getInteger(MULE_CLASSLOADING_LOOKUP_CACHE_SIZE, 1024);
+    notFoundClasses = getBoolean(MULE_CLASSLOADING_LOOKUP_CACHE) ? new ConcurrentHashMap<>() : null;
   }
 
   private boolean isVerboseLoggingEnabled() {
@@ -67,6 +87,14 @@ public class FineGrainedControlClassLoader extends URLClassLoader
       return result;
     }
 
+    final ConcurrentMap<String, String> notFoundClasses = this.notFoundClasses;
+    if (notFoundClasses != null) {
+      final String notFoundMessage = notFoundClasses.get(name);
+      if (notFoundMessage != null) {
+        throw new CachedClassNotFoundException(notFoundMessage);
+      }
+    }
+
     final LookupStrategy lookupStrategy = lookupPolicy.getClassLookupStrategy(name);
     if (lookupStrategy == null) {
       throw new NullPointerException(format("Unable to find a lookup strategy for '%s' from %s", name, this));
@@ -95,7 +123,14 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
 
     if (result == null) {
-      throw new CompositeClassNotFoundException(name, lookupStrategy, exceptions);
+      final ClassNotFoundException notFound = new CompositeClassNotFoundException(name, lookupStrategy, exceptions);
+      if (notFoundClasses != null) {
+        if (notFoundClasses.size() >= lookupCacheSize) {
+          notFoundClasses.clear();
+        }
+        notFoundClasses.put(name, notFound.getMessage());
+      }
+      throw notFound;
     }
 
     if (verboseLogging) {
@@ -167,10 +202,51 @@ public class FineGrainedControlClassLoader extends URLClassLoader
         return result;
       }
 
+      final LocalPackageIndex index = getLocalPackageIndex();
+      if (index != null && !index.mayContain(name)) {
+        throw new ClassNotFoundException(name);
+      }
+
       return super.findClass(name);
     }
   }
 
+  private LocalPackageIndex getLocalPackageIndex() {
+    if (notFoundClasses == null) {
+      return null;
+    }
+
+    if (!localPackageIndexed) {
+      synchronized (localPackageIndexLock) {
+        if (!localPackageIndexed) {
+          localPackageIndex = LocalPackageIndex.of(getURLs());
+          localPackageIndexed = true;
+        }
+      }
+    }
+    return localPackageIndex;
+  }
+
+  @Override
+  protected void addURL(URL url) {
+    super.addURL(url);
+    invalidateLookupCache();
+  }
+
+  /**
+   * Discards the classes remembered as not found and the packages of the local URLs, if the lookup cache is enabled. Has to be
+   * invoked whenever a class which couldn't be loaded before may now be found.
+   */
+  void invalidateLookupCache() {
+    if (notFoundClasses != null) {
+      synchronized (localPackageIndexLock) {
+        localPackageIndexed = false;
+        localPackageIndex = null;
+      }
+      notFoundClasses = new ConcurrentHashMap<>();
+    }
+  }
+
   @Override
   public ClassLoaderLookupPolicy getClassLoaderLookupPolicy() {
     return lookupPolicy;
@@ -182,6 +258,10 @@ public class FineGrainedControlClassLoader extends URLClassLoader
    */
   @Override
   public void dispose() {
+    if (notFoundClasses != null) {
+      notFoundClasses.clear();
+    }
+
     try {
       // Java 7 added support for closing a URLClassLoader, it will close any resources opened by this classloader
       close();
@@ -201,6 +281,24 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
   }
 
+  /**
+   * Thrown when looking up a class remembered as not found. Its stack trace is not filled, since it is thrown instead of
+   * searching for the class, so filling it would take most of the time of the lookup.
+   */
+  private static final class CachedClassNotFoundException extends ClassNotFoundException {
+
+    private static final long serialVersionUID = 4151375238725146421L;
+
+    private CachedClassNotFoundException(String message) {
+      super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
   protected static class NonCachingURLStreamHandlerFactory implements URLStreamHandlerFactory {
 
     @Override
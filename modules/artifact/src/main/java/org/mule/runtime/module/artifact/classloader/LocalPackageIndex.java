@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.classloader;
+
+import static java.nio.file.Files.walk;
+import static org.apache.commons.lang3.ClassUtils.getPackageName;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Packages of the classes found in the URLs of a class loader, used to avoid searching every URL for classes which can't be in
+ * any of them.
+ * <p/>
+ * Jars are indexed from their central directory, without reading their entries. Classes in the versioned folders of multi release
+ * jars are indexed in the package they belong to.
+ *
+ * @since 4.0
+ */
+final class LocalPackageIndex {
+
+  private static final String CLASS_EXTENSION = ".class";
+  private static final String VERSIONS_FOLDER = "META-INF/versions/";
+
+  private final Set<String> packages;
+
+  private LocalPackageIndex(Set<String> packages) {
+    this.packages = packages;
+  }
+
+  /**
+   * Indexes the packages of the classes in {@code urls}.
+   *
+   * @param urls the URLs of a class loader
+   * @return the index, or {@code null} if any of the URLs is not an existing jar or folder, since the classes in it can't be
+   *         known beforehand
+   */
+  static LocalPackageIndex of(URL[] urls) {
+    Set<String> packages = new HashSet<>();
+    for (URL url : urls) {
+      if (!"file".equals(url.getProtocol())) {
+        return null;
+      }
+
+      try {
+        final File file = new File(url.toURI());
+        if (file.isDirectory()) {
+          indexFolder(file.toPath(), packages);
+        } else if (file.isFile()) {
+          indexJar(file, packages);
+        } else {
+          return null;
+        }
+      } catch (URISyntaxException | IOException | IllegalArgumentException e) {
+        return null;
+      }
+    }
+    return new LocalPackageIndex(packages);
+  }
+
+  private static void indexFolder(Path folder, Set<String> packages) throws IOException {
+    try (Stream<Path> files = walk(folder)) {
+      files.forEach(file -> {
+        final String name = folder.relativize(file).toString().replace(File.separatorChar, '/');
+        addPackage(name, packages);
+      });
+    }
+  }
+
+  private static void indexJar(File jar, Set<String> packages) throws IOException {
+    try (ZipFile zip = new ZipFile(jar)) {
+      final Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        addPackage(entries.nextElement().getName(), packages);
+      }
+    }
+  }
+
+  private static void addPackage(String entryName, Set<String> packages) {
+    if (!entryName.endsWith(CLASS_EXTENSION)) {
+      return;
+    }
+
+    String className = entryName.substring(0, entryName.length() - CLASS_EXTENSION.length());
+    if (className.startsWith(VERSIONS_FOLDER)) {
+      final int versionEnd = className.indexOf('/', VERSIONS_FOLDER.length());
+      if (versionEnd < 0) {
+        return;
+      }
+      className = className.substring(versionEnd + 1);
+    }
+    packages.add(getPackageName(className.replace('/', '.')));
+  }
+
+  /**
+   * @return whether any of the indexed URLs contains a class of the package of {@code className}
+   */
+  boolean mayContain(String className) {
+    return packages.contains(getPackageName(className));
+  }
+
+  /**
+   * @return the indexed packages
+   */
+  Set<String> getPackages() {
+    return packages;
+  }
+}
@@ -46,6 +46,9 @@ import sun.misc.CompoundEnumeration;
  * <p/>
  * Only a region member can export a given package, but same resources can be exported by many members. The order in which the
  * resources are found will depend on the order in which the class loaders were added to the region.
+ * <p/>
+ * As adding a member can make classes available to the rest of the region, the classes remembered as not found by the region and
+ * its members are discarded then.
  */
 public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
@@ -127,11 +130,25 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
         classLoaders.add(artifactClassLoader);
       }
+
+      invalidateRegionLookupCaches();
     } finally {
       innerStateWriteLock.unlock();
     }
   }
 
+  private void invalidateRegionLookupCaches() {
+    invalidateLookupCache();
+    invalidateLookupCache(ownerClassLoader);
+    registeredClassLoaders.forEach(member -> invalidateLookupCache(member.unfilteredClassLoader));
+  }
+
+  private static void invalidateLookupCache(ArtifactClassLoader artifactClassLoader) {
+    if (artifactClassLoader.getClassLoader() instanceof FineGrainedControlClassLoader) {
+      ((FineGrainedControlClassLoader) artifactClassLoader.getClassLoader()).invalidateLookupCache();
+    }
+  }
+
   static String illegalPackageMappingError(String p, LookupStrategy packageLookupStrategy) {
     return format("Attempt to map package '%s' which was already defined on the region lookup policy with '%s'",
                   p, packageLookupStrategy.getClass().getName());
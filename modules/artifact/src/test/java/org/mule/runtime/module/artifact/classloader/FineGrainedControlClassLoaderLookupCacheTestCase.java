@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.classloader;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_CLASSLOADING_LOOKUP_CACHE;
+import static org.mule.runtime.module.artifact.classloader.ChildFirstLookupStrategy.CHILD_FIRST;
+import static org.mule.runtime.module.artifact.classloader.DefaultArtifactClassLoaderFilter.NULL_CLASSLOADER_FILTER;
+import static org.mule.runtime.module.artifact.classloader.FineGrainedControlClassLoaderTestCase.TEST_CLASS_NAME;
+import static org.mule.runtime.module.artifact.classloader.FineGrainedControlClassLoaderTestCase.TEST_CLASS_PACKAGE;
+import static org.mule.runtime.module.artifact.classloader.ParentOnlyLookupStrategy.PARENT_ONLY;
+import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.module.artifact.descriptor.ArtifactDescriptor;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.net.URL;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class FineGrainedControlClassLoaderLookupCacheTestCase extends AbstractMuleTestCase {
+
+  private static final String REGION_PACKAGE = "java.lang";
+  private static final String REGION_CLASS = REGION_PACKAGE + ".Object";
+
+  @Rule
+  public SystemProperty lookupCache = new SystemProperty(MULE_CLASSLOADING_LOOKUP_CACHE, "true");
+
+  private final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+
+  @Test
+  public void rethrowsClassNotFound() throws Exception {
+    ClassLoader parent = mock(ClassLoader.class);
+    when(parent.loadClass(TEST_CLASS_NAME)).thenThrow(new ClassNotFoundException(TEST_CLASS_NAME));
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+    FineGrainedControlClassLoader classLoader = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+
+    ClassNotFoundException first = assertNotFound(classLoader, TEST_CLASS_NAME);
+    ClassNotFoundException second = assertNotFound(classLoader, TEST_CLASS_NAME);
+
+    assertThat(second, not(sameInstance(first)));
+    assertThat(second.getMessage(), equalTo(first.getMessage()));
+    verify(parent, times(1)).loadClass(TEST_CLASS_NAME);
+  }
+
+  @Test
+  public void addedUrlInvalidatesCache() throws Exception {
+    ClassLoader parent = Thread.currentThread().getContextClassLoader();
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_FIRST);
+    when(lookupPolicy.getClassLookupStrategy(Object.class.getName())).thenReturn(PARENT_ONLY);
+    when(lookupPolicy.getClassLookupStrategy(String.class.getName())).thenReturn(PARENT_ONLY);
+    FineGrainedControlClassLoader classLoader = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+
+    assertNotFound(classLoader, TEST_CLASS_NAME);
+    classLoader.addURL(getTestJar());
+
+    assertThat(classLoader.loadClass(TEST_CLASS_NAME).getClassLoader(), sameInstance(classLoader));
+  }
+
+  @Test
+  public void indexesJarPackages() throws Exception {
+    LocalPackageIndex index = LocalPackageIndex.of(new URL[] {getTestJar()});
+
+    assertThat(index.getPackages(), contains(TEST_CLASS_PACKAGE));
+    assertThat(index.mayContain(TEST_CLASS_NAME), is(true));
+    assertThat(index.mayContain("otherpackage.MyClass"), is(false));
+  }
+
+  @Test
+  public void doesNotIndexRemoteUrls() throws Exception {
+    assertThat(LocalPackageIndex.of(new URL[] {new URL("http://localhost/library.jar")}), is(nullValue()));
+  }
+
+  @Test
+  public void addedRegionMemberInvalidatesCache() throws Exception {
+    ClassLoader parent = mock(ClassLoader.class);
+    when(parent.loadClass(REGION_CLASS)).thenThrow(new ClassNotFoundException(REGION_CLASS));
+    when(lookupPolicy.getClassLookupStrategy(REGION_CLASS)).thenReturn(CHILD_FIRST);
+    when(lookupPolicy.getPackageLookupStrategy(REGION_PACKAGE)).thenReturn(CHILD_FIRST);
+    RegionClassLoader regionClassLoader =
+        new RegionClassLoader("testAppId", new ArtifactDescriptor("testApp"), parent, lookupPolicy);
+    regionClassLoader.addClassLoader(new TestArtifactClassLoader(), NULL_CLASSLOADER_FILTER);
+
+    assertNotFound(regionClassLoader, REGION_CLASS);
+
+    TestArtifactClassLoader pluginClassLoader = new TestArtifactClassLoader();
+    pluginClassLoader.addClass(REGION_CLASS, String.class);
+    regionClassLoader.addClassLoader(pluginClassLoader,
+                                     new DefaultArtifactClassLoaderFilter(singleton(REGION_PACKAGE), emptySet()));
+
+    assertThat(regionClassLoader.loadClass(REGION_CLASS), equalTo(String.class));
+  }
+
+  private ClassNotFoundException assertNotFound(ClassLoader classLoader, String className) {
+    try {
+      classLoader.loadClass(className);
+      fail("Class " + className + " should not be found");
+      return null;
+    } catch (ClassNotFoundException e) {
+      return e;
+    }
+  }
+
+  private URL getTestJar() {
+    return ClassUtils.getResource("classloader-test-bye.jar", this.getClass());
+  }
+}
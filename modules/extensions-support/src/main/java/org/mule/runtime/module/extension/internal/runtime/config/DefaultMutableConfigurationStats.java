@@ -9,6 +9,7 @@ package org.mule.runtime.module.extension.internal.runtime.config;
 import org.mule.runtime.core.api.time.TimeSupplier;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default implementation of {@link MutableConfigurationStats}
@@ -18,8 +19,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 final class DefaultMutableConfigurationStats implements MutableConfigurationStats {
 
   private final AtomicInteger inflightOperations = new AtomicInteger(0);
+  private final AtomicLong usages = new AtomicLong(0);
   private final TimeSupplier timeSupplier;
-  private long lastUsedMillis;
+  private volatile long lastUsedMillis;
 
   /**
    * Creates a new instance using the given {@code timeSupplier} to obtain the current time and update the
@@ -40,6 +42,23 @@ final class DefaultMutableConfigurationStats implements MutableConfigurationStat
     return lastUsedMillis = timeSupplier.get();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long addUsage() {
+    updateLastUsed();
+    return usages.incrementAndGet();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getUsages() {
+    return usages.get();
+  }
+
   /**
    * {@inheritDoc}
    */
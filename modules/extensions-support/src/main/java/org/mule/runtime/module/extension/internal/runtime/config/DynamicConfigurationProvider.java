@@ -14,7 +14,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
-import static org.mule.runtime.core.api.util.collection.Collectors.toImmutableList;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext.from;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.connection.ConnectionProvider;
@@ -38,12 +37,17 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 
@@ -55,6 +59,10 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * Obtaining a cached instance doesn't take any lock. Each instance is created by the first thread which needs it, while the
+ * others which need the same one wait for it. Instances are indexed by the time they were last used, so {@link #getExpired()}
+ * only visits the ones which may have expired.
  *
  * @since 4.0.0
  */
@@ -68,10 +76,9 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final ConcurrentMap<Pair<ResolverSetResult, ResolverSetResult>, CachedConfiguration> cache = new ConcurrentHashMap<>();
+  // ordered by the last usage time known when the entry was indexed, which may be older than the actual one
+  private final Queue<ExpirationEntry> expirationIndex = new PriorityQueue<>();
 
   /**
    * Creates a new instance
@@ -120,39 +127,44 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
                                                  InternalEvent event)
       throws Exception {
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
+    while (true) {
+      CachedConfiguration cached = cache.get(resolverSetResult);
+      if (cached == null) {
+        CachedConfiguration created = new CachedConfiguration();
+        cached = cache.putIfAbsent(resolverSetResult, created);
+        if (cached == null) {
+          ConfigurationInstance configuration = create(resolverSetResult, created, event);
+          created.use();
+          return configuration;
+        }
+      }
+
+      ConfigurationInstance configuration = cached.await();
+      if (cached.use()) {
         return configuration;
       }
-    } finally {
-      cacheReadLock.unlock();
+      // expired after being looked up, it will be created again
+      cache.remove(resolverSetResult, cached);
     }
+  }
 
-    cacheWriteLock.lock();
+  private ConfigurationInstance create(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CachedConfiguration cached,
+                                       InternalEvent event)
+      throws Exception {
+    ConfigurationInstance configuration;
     try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult, event);
-        cache.put(resolverSetResult, configuration);
-      }
-
-      // accounting here for the same reasons as above
-      updateUsageStatistic(configuration);
-      return configuration;
-    } finally {
-      cacheWriteLock.unlock();
+      configuration = createConfiguration(resolverSetResult, event);
+    } catch (Exception e) {
+      cache.remove(resolverSetResult, cached);
+      cached.configuration.completeExceptionally(e);
+      throw e;
     }
-  }
 
-  private void updateUsageStatistic(ConfigurationInstance configuration) {
-    MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
-    stats.updateLastUsed();
+    cached.configuration.complete(configuration);
+    synchronized (expirationIndex) {
+      expirationIndex.add(new ExpirationEntry(resolverSetResult, cached, configuration.getStatistics().getLastUsedMillis()));
+    }
+    return configuration;
   }
 
   private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> values, InternalEvent event)
@@ -216,15 +228,31 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
+    ImmutableList.Builder<ConfigurationInstance> expired = ImmutableList.builder();
+    List<ExpirationEntry> reindexed = new ArrayList<>();
+
+    synchronized (expirationIndex) {
+      ExpirationEntry entry;
+      // entries are indexed with a last usage time no newer than the actual one, so no entry after the first one not expired
+      // by its indexed time can be expired
+      while ((entry = expirationIndex.peek()) != null && expirationPolicy.isExpired(entry.lastUsedMillis, MILLISECONDS)) {
+        expirationIndex.poll();
+        ConfigurationInstance configuration = entry.cached.configuration.join();
+        if (entry.cached.expire(configuration)) {
+          cache.remove(entry.key, entry.cached);
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Configuration '{}' of key '{}' expired after being used {} times", configuration.getName(), getName(),
+                         ((MutableConfigurationStats) configuration.getStatistics()).getUsages());
+          }
+          expired.add(configuration);
+        } else {
+          reindexed.add(new ExpirationEntry(entry.key, entry.cached, configuration.getStatistics().getLastUsedMillis()));
+        }
+      }
+      expirationIndex.addAll(reindexed);
     }
+
+    return expired.build();
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
@@ -232,6 +260,69 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     return stats.getInflightOperations() == 0 && expirationPolicy.isExpired(stats.getLastUsedMillis(), MILLISECONDS);
   }
 
+  /**
+   * A cache entry. Its usages count is set to {@link #EXPIRED} when the configuration expires, which fails any concurrent attempt
+   * to use it.
+   */
+  private final class CachedConfiguration {
+
+    private static final long EXPIRED = -1;
+
+    private final CompletableFuture<ConfigurationInstance> configuration = new CompletableFuture<>();
+    private final AtomicLong usages = new AtomicLong(0);
+
+    private ConfigurationInstance await() throws Exception {
+      try {
+        return configuration.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+      }
+    }
+
+    /**
+     * @return whether the configuration can be used, that is, it has not expired
+     */
+    private boolean use() {
+      MutableConfigurationStats stats = (MutableConfigurationStats) configuration.join().getStatistics();
+      // the last usage time is updated before checking the expiration, so getExpired() sees it if it runs concurrently
+      stats.addUsage();
+      long current;
+      do {
+        current = usages.get();
+        if (current == EXPIRED) {
+          return false;
+        }
+      } while (!usages.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    /**
+     * @return whether the configuration expired. If it did, no further usages will succeed.
+     */
+    private boolean expire(ConfigurationInstance configuration) {
+      long current = usages.get();
+      return current != EXPIRED && isExpired(configuration) && usages.compareAndSet(current, EXPIRED);
+    }
+  }
+
+  private static final class ExpirationEntry implements Comparable<ExpirationEntry> {
+
+    private final Pair<ResolverSetResult, ResolverSetResult> key;
+    private final CachedConfiguration cached;
+    private final long lastUsedMillis;
+
+    private ExpirationEntry(Pair<ResolverSetResult, ResolverSetResult> key, CachedConfiguration cached, long lastUsedMillis) {
+      this.key = key;
+      this.cached = cached;
+      this.lastUsedMillis = lastUsedMillis;
+    }
+
+    @Override
+    public int compareTo(ExpirationEntry o) {
+      return Long.compare(lastUsedMillis, o.lastUsedMillis);
+    }
+  }
+
   @Override
   protected void doInitialise() {
     try {
@@ -22,6 +22,18 @@ public interface MutableConfigurationStats extends ConfigurationStats {
    */
   long updateLastUsed();
 
+  /**
+   * Accounts that the configuration was obtained to be used, updating the value of {@link #getLastUsedMillis()}
+   *
+   * @return the new value of {@link #getUsages()}
+   */
+  long addUsage();
+
+  /**
+   * @return how many times the configuration was obtained to be used
+   */
+  long getUsages();
+
   /**
    * Increments the return value of {@link #getInflightOperations()} by one
    *
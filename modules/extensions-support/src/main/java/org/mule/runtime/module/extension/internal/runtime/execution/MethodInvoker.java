@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.reflect.Modifier.isStatic;
+import static org.apache.commons.lang3.ClassUtils.isAssignable;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Invokes a {@link Method} on a given target through a {@link MethodHandle} created once for that pair, so each invocation
+ * avoids the access checks and argument unwrapping of {@link Method#invoke(Object, Object...)}.
+ * <p/>
+ * Arguments are passed as an array with one position per parameter of the method. As with reflection, boxed values are unboxed
+ * and widened for primitive parameters, and arguments which can't be converted to the type of their parameter, such as
+ * {@code null} values for primitive parameters or values which would have to be narrowed, cause an
+ * {@link IllegalArgumentException}.
+ * <p/>
+ * Failures are propagated as {@link org.springframework.util.ReflectionUtils#invokeMethod(Method, Object, Object...)} does: runtime
+ * exceptions and errors thrown by the method are rethrown as they are, and checked exceptions are wrapped in an
+ * {@link UndeclaredThrowableException}. Methods which are not accessible through a public lookup, such as the ones of non public
+ * classes, are invoked through reflection.
+ *
+ * @since 4.0
+ */
+public final class MethodInvoker {
+
+  private final Method method;
+  private final Object target;
+  private final MethodHandle handle;
+
+  /**
+   * Creates a new instance
+   *
+   * @param method the {@link Method} to invoke
+   * @param target the instance to invoke the {@code method} on. Ignored if the {@code method} is static
+   */
+  public MethodInvoker(Method method, Object target) {
+    this.method = method;
+    this.target = target;
+    this.handle = createHandle(method, target);
+  }
+
+  private static MethodHandle createHandle(Method method, Object target) {
+    MethodHandle handle;
+    try {
+      handle = publicLookup().unreflect(method).asFixedArity();
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+
+    if (!isStatic(method.getModifiers())) {
+      handle = handle.bindTo(target);
+    }
+    final int parameterCount = method.getParameterCount();
+    return handle.asType(genericMethodType(parameterCount)).asSpreader(Object[].class, parameterCount);
+  }
+
+  /**
+   * @param arguments the arguments to invoke the method with, one for each of its parameters
+   * @return the value returned by the method, or {@code null} if it is {@code void}
+   */
+  public Object invoke(Object[] arguments) {
+    if (handle == null) {
+      return invokeMethod(method, target, arguments);
+    }
+
+    try {
+      return (Object) handle.invokeExact(arguments);
+    } catch (ClassCastException | NullPointerException e) {
+      // the arguments are converted before invoking the method, so these are only thrown by the method if the conversion worked
+      if (!acceptsArguments(arguments)) {
+        throw new IllegalArgumentException("argument type mismatch", e);
+      }
+      throw e;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  private boolean acceptsArguments(Object[] arguments) {
+    final Class<?>[] parameterTypes = method.getParameterTypes();
+    if (arguments == null || arguments.length != parameterTypes.length) {
+      return false;
+    }
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (!isAssignable(arguments[i] == null ? null : arguments[i].getClass(), parameterTypes[i], true)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+}
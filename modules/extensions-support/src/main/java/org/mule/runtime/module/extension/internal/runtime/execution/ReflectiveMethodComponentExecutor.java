@@ -13,7 +13,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.springframework.util.ReflectionUtils.invokeMethod;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -27,15 +26,17 @@ import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.module.extension.internal.runtime.operation.ReflectiveMethodOperationExecutor;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 
 /**
- * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method}
+ * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method} through a {@link MethodInvoker}
  *
  * @param <M> the generic type of the associated {@link ComponentModel}
  * @since 4.0
@@ -57,6 +58,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private static final ArgumentResolverDelegate NO_ARGS_DELEGATE = new NoArgumentsResolverDelegate();
 
   private final Method method;
+  private final Class<?>[] parameterTypes;
+  private final MethodInvoker invoker;
   private final Object componentInstance;
   private final ArgumentResolverDelegate argumentResolverDelegate;
   private final ClassLoader extensionClassLoader;
@@ -66,6 +69,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> parameterGroupModels, Method method,
                                            Object componentInstance) {
     this.method = method;
+    this.parameterTypes = method.getParameterTypes();
+    this.invoker = new MethodInvoker(method, componentInstance);
     this.componentInstance = componentInstance;
     argumentResolverDelegate = isEmpty(method.getParameterTypes())
         ? NO_ARGS_DELEGATE
@@ -75,8 +80,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   public Object execute(ExecutionContext<M> executionContext) throws Exception {
     return withContextClassLoader(extensionClassLoader,
-                                  () -> invokeMethod(method, componentInstance,
-                                                     getParameterValues(executionContext, method.getParameterTypes())));
+                                  () -> invoker.invoke(getParameterValues(executionContext, parameterTypes)));
   }
 
   private Object[] getParameterValues(ExecutionContext<M> executionContext, Class<?>[] parameterTypes) {
@@ -113,15 +117,16 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   @Override
   public Function<ExecutionContext<OperationModel>, Map<String, Object>> createArgumentResolver(OperationModel operationModel) {
+    final String[] parameterNames = Stream.of(method.getParameters()).map(Parameter::getName).toArray(String[]::new);
     return ec -> {
       return withContextClassLoader(extensionClassLoader,
                                     () -> {
                                       final Object[] resolved =
-                                          getParameterValues((ExecutionContext<M>) ec, method.getParameterTypes());
+                                          getParameterValues((ExecutionContext<M>) ec, parameterTypes);
 
                                       final Map<String, Object> resolvedParams = new HashMap<>();
-                                      for (int i = 0; i < method.getParameterCount(); ++i) {
-                                        resolvedParams.put(method.getParameters()[i].getName(), resolved[i]);
+                                      for (int i = 0; i < parameterNames.length; ++i) {
+                                        resolvedParams.put(parameterNames[i], resolved[i]);
                                       }
                                       return resolvedParams;
                                     });
@@ -13,7 +13,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.springframework.util.ReflectionUtils.invokeMethod;
 
 import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.exception.MuleException;
@@ -23,6 +22,7 @@ import org.mule.runtime.api.meta.model.function.FunctionModel;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.FunctionParameter;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
+import org.mule.runtime.module.extension.internal.runtime.execution.MethodInvoker;
 
 import java.lang.reflect.Method;
 import java.util.List;
@@ -39,7 +39,7 @@ public class ReflectiveExpressionFunctionExecutor implements Lifecycle, Function
 
   private static final Logger LOGGER = getLogger(ReflectiveExpressionFunctionExecutor.class);
 
-  private final Method method;
+  private final MethodInvoker invoker;
   private final FunctionModel model;
   private final DataType returnType;
   private final Object componentInstance;
@@ -50,7 +50,7 @@ public class ReflectiveExpressionFunctionExecutor implements Lifecycle, Function
                                               List<FunctionParameter> functionParameters, Method method,
                                               Object componentInstance) {
     this.model = model;
-    this.method = method;
+    this.invoker = new MethodInvoker(method, componentInstance);
     this.returnType = returnType;
     this.componentInstance = componentInstance;
     this.functionParameters = functionParameters;
@@ -59,7 +59,7 @@ public class ReflectiveExpressionFunctionExecutor implements Lifecycle, Function
 
   @Override
   public Object call(Object[] parameters, BindingContext context) {
-    return withContextClassLoader(extensionClassLoader, () -> invokeMethod(method, componentInstance, parameters));
+    return withContextClassLoader(extensionClassLoader, () -> invoker.invoke(parameters));
   }
 
   @Override
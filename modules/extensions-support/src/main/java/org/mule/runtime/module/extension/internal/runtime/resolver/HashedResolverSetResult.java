@@ -23,8 +23,6 @@ import java.util.Map;
  */
 public class HashedResolverSetResult extends ResolverSetResult {
 
-  private int hashCode;
-
   /**
    * A builder for creating instances of {@link HashedResolverSetResult}. You should use a new builder for each
    * {@link HashedResolverSetResult} you want to create
@@ -62,18 +60,7 @@ public class HashedResolverSetResult extends ResolverSetResult {
   }
 
   private HashedResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
-    super(evaluationResult);
-    this.hashCode = hashCode;
-  }
-
-  /**
-   * A hashCode calculated based on the results
-   *
-   * @return a hashCode
-   */
-  @Override
-  public int hashCode() {
-    return hashCode;
+    super(evaluationResult, hashCode);
   }
 
 }
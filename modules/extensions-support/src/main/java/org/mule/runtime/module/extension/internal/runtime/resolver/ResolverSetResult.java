@@ -72,9 +72,16 @@ public class ResolverSetResult {
   }
 
   private final Map<String, Object> evaluationResult;
+  private final int hashCode;
 
   ResolverSetResult(Map<String, Object> evaluationResult) {
     this.evaluationResult = new HashMap<>(evaluationResult);
+    hashCode = calculateHashCode();
+  }
+
+  ResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
+    this.evaluationResult = new HashMap<>(evaluationResult);
+    this.hashCode = hashCode;
   }
 
   /**
@@ -110,8 +117,16 @@ public class ResolverSetResult {
     return false;
   }
 
+  /**
+   * The hash is computed once, when the instance is created, since instances are used as cache keys on each evaluation of the
+   * {@link ResolverSet}.
+   */
   @Override
   public int hashCode() {
+    return hashCode;
+  }
+
+  private int calculateHashCode() {
     int hashcode = 1;
     for (Object val : evaluationResult.values()) {
       hashcode = calculateValueHash(hashcode, val);
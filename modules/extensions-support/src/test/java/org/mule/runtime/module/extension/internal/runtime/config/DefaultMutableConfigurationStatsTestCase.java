@@ -45,4 +45,13 @@ public class DefaultMutableConfigurationStatsTestCase extends AbstractMuleTestCa
     assertThat(stats.discountInflightOperation(), is(0));
     assertThat(stats.getInflightOperations(), is(0));
   }
+
+  @Test
+  public void usages() {
+    long now = timeSupplier.move(1, TimeUnit.MINUTES);
+    assertThat(stats.getUsages(), is(0L));
+    assertThat(stats.addUsage(), is(1L));
+    assertThat(stats.getUsages(), is(1L));
+    assertThat(stats.getLastUsedMillis(), is(now));
+  }
 }
@@ -13,6 +13,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -199,6 +200,31 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void recentlyUsedNotExpired() throws Exception {
+    HeisenbergExtension instance = (HeisenbergExtension) provider.get(event).getValue();
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+
+    timeSupplier.move(10, MINUTES);
+    assertThat(provider.get(event).getValue(), is(sameInstance(instance)));
+    assertThat(provider.getExpired().isEmpty(), is(true));
+
+    timeSupplier.move(10, MINUTES);
+    List<ConfigurationInstance> expired = provider.getExpired();
+    assertThat(expired.stream().map(config -> config.getValue()).collect(toImmutableList()), contains(instance));
+  }
+
+  @Test
+  public void usagesAccounted() throws Exception {
+    final int count = 5;
+    ConfigurationInstance config = null;
+    for (int i = 0; i < count; i++) {
+      config = provider.get(event);
+    }
+
+    assertThat(((MutableConfigurationStats) config.getStatistics()).getUsages(), is((long) count));
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.Test;
+
+@SmallTest
+public class MethodInvokerTestCase extends AbstractMuleTestCase {
+
+  private final Operations operations = new Operations();
+
+  @Test
+  public void primitiveArguments() throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("add", long.class, int.class), operations);
+    assertThat(invoker.invoke(new Object[] {3, 4}), is(7L));
+    assertThat(invoker.invoke(new Object[] {(short) 3, 'a'}), is(100L));
+  }
+
+  @Test
+  public void narrowingArgumentRejected() throws Exception {
+    assertArgumentMismatch(new Object[] {3L, 4L});
+  }
+
+  @Test
+  public void nullPrimitiveArgumentRejected() throws Exception {
+    assertArgumentMismatch(new Object[] {3L, null});
+  }
+
+  @Test
+  public void wrongTypeArgumentRejected() throws Exception {
+    assertArgumentMismatch(new Object[] {"3", 4});
+  }
+
+  @Test
+  public void classCastExceptionFromMethodRethrown() throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("cast", Object.class), operations);
+    try {
+      invoker.invoke(new Object[] {3});
+      fail("Was expecting a failure");
+    } catch (ClassCastException e) {
+      // thrown by the method, since the argument was valid
+    }
+  }
+
+  @Test
+  public void voidMethod() throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("accept", String.class), operations);
+    assertThat(invoker.invoke(new Object[] {"hello"}), is(nullValue()));
+    assertThat(operations.accepted, is("hello"));
+  }
+
+  @Test
+  public void staticMethod() throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("greet", String.class), null);
+    assertThat(invoker.invoke(new Object[] {"Walter"}), is("Hello Walter"));
+  }
+
+  @Test
+  public void runtimeExceptionRethrown() throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("failUnchecked"), operations);
+    try {
+      invoker.invoke(new Object[] {});
+      fail("Was expecting a failure");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(sameInstance(Operations.UNCHECKED)));
+    }
+  }
+
+  @Test
+  public void checkedExceptionWrapped() throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("failChecked"), operations);
+    try {
+      invoker.invoke(new Object[] {});
+      fail("Was expecting a failure");
+    } catch (UndeclaredThrowableException e) {
+      assertThat(e.getCause(), is(instanceOf(IOException.class)));
+    }
+  }
+
+  private void assertArgumentMismatch(Object[] arguments) throws Exception {
+    MethodInvoker invoker = new MethodInvoker(Operations.class.getMethod("add", long.class, int.class), operations);
+    try {
+      invoker.invoke(arguments);
+      fail("Was expecting a failure");
+    } catch (IllegalArgumentException e) {
+      // same as reflection
+    }
+  }
+
+  public static class Operations {
+
+    private static final IllegalStateException UNCHECKED = new IllegalStateException();
+
+    private String accepted;
+
+    public long add(long a, int b) {
+      return a + b;
+    }
+
+    public String cast(Object value) {
+      return (String) value;
+    }
+
+    public void accept(String value) {
+      accepted = value;
+    }
+
+    public static String greet(String name) {
+      return "Hello " + name;
+    }
+
+    public void failUnchecked() {
+      throw UNCHECKED;
+    }
+
+    public void failChecked() throws IOException {
+      throw new IOException();
+    }
+  }
+}
@@ -22,6 +22,8 @@ public class ScatterGatherRouterFactoryBean extends AbstractAnnotatedObject
     implements FactoryBean<ScatterGatherRouter>, MuleContextAware {
 
   private long timeout = 0;
+  private long overallTimeout = 0;
+  private int maxConcurrency = Integer.MAX_VALUE;
   private List<Processor> messageProcessors;
   private MuleContext muleContext;
   private FlowConstruct flowConstruct;
@@ -30,6 +32,8 @@ public class ScatterGatherRouterFactoryBean extends AbstractAnnotatedObject
   public ScatterGatherRouter getObject() throws Exception {
     ScatterGatherRouter sg = new ScatterGatherRouter();
     sg.setTimeout(timeout);
+    sg.setOverallTimeout(overallTimeout);
+    sg.setMaxConcurrency(maxConcurrency);
     sg.setMuleContext(muleContext);
 
     for (Processor mp : this.messageProcessors) {
@@ -58,6 +62,14 @@ public class ScatterGatherRouterFactoryBean extends AbstractAnnotatedObject
     this.timeout = timeout;
   }
 
+  public void setOverallTimeout(long overallTimeout) {
+    this.overallTimeout = overallTimeout;
+  }
+
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
   @Override
   public void setMuleContext(MuleContext context) {
     this.muleContext = context;
@@ -92,6 +92,7 @@ public abstract class AbstractFlowBenchmark extends AbstractBenchmark {
       "org.mule.runtime.core.processor.strategy.DefaultFlowProcessingStrategyFactory",
       "org.mule.runtime.core.processor.strategy.TransactionAwareProactorStreamProcessingStrategyFactory",
       "org.mule.runtime.core.internal.processor.strategy.WorkQueueProcessingStrategyFactory",
+      "org.mule.runtime.core.internal.processor.strategy.AdaptiveProcessingStrategyFactory",
       // Skipping due MULE-12662.
       // "org.mule.runtime.core.internal.processor.strategy.WorkQueueStreamProcessingStrategyFactory",
   })
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.SlabByteBufferManager;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(NANOSECONDS)
+public class ByteBufferManagerBenchmark extends AbstractBenchmark {
+
+  private static final String POOLING = "pooling";
+  private static final String SLAB = "slab";
+  private static final String SLAB_DIRECT = "slabDirect";
+
+  @Param({POOLING, SLAB, SLAB_DIRECT})
+  public String bufferManagerType;
+
+  @Param({"8192", "262144"})
+  public int capacity;
+
+  private ByteBufferManager bufferManager;
+
+  @Setup
+  public void setup() {
+    if (POOLING.equals(bufferManagerType)) {
+      bufferManager = new PoolingByteBufferManager();
+    } else {
+      bufferManager = new SlabByteBufferManager(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT,
+                                                SLAB_DIRECT.equals(bufferManagerType), new MutableStreamingStatistics());
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    ((Disposable) bufferManager).dispose();
+  }
+
+  @Benchmark
+  public ByteBuffer allocateAndDeallocate() {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    bufferManager.deallocate(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  @Threads(8)
+  public ByteBuffer allocateAndDeallocateContended() {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    bufferManager.deallocate(buffer);
+    return buffer;
+  }
+
+  /**
+   * Requests capacities which are slightly different each time, as it happens when buffers are expanded by increments
+   * which are not powers of two.
+   */
+  @Benchmark
+  @Threads(8)
+  public ByteBuffer allocateAndDeallocateOddSizesContended() {
+    ByteBuffer buffer = bufferManager.allocate(capacity - ThreadLocalRandom.current().nextInt(capacity / 2));
+    bufferManager.deallocate(buffer);
+    return buffer;
+  }
+}
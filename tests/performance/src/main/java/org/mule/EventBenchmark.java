@@ -32,6 +32,7 @@ public class EventBenchmark extends AbstractBenchmark {
   private Flow flow;
   private InternalEvent event;
   private InternalEvent eventWith10VariablesProperties;
+  private InternalEvent eventWith30Variables;
   private InternalEvent eventWith50VariablesProperties;
   private InternalEvent eventWith100VariablesProperties;
 
@@ -46,6 +47,7 @@ public class EventBenchmark extends AbstractBenchmark {
         InternalEvent.builder(DefaultEventContext.create(flow, CONNECTOR_LOCATION)).message(messageBuilder.build());
     event = eventBuilder.build();
     eventWith10VariablesProperties = createMuleEventWithFlowVarsAndProperties(10);
+    eventWith30Variables = createMuleEvent(of(PAYLOAD), 30);
     eventWith50VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
     eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
   }
@@ -71,6 +73,11 @@ public class EventBenchmark extends AbstractBenchmark {
     return InternalEvent.builder(eventWith10VariablesProperties).build();
   }
 
+  @Benchmark
+  public InternalEvent copyEventWith30Variables() {
+    return InternalEvent.builder(eventWith30Variables).message(of(PAYLOAD)).build();
+  }
+
   @Benchmark
   public InternalEvent copyEventWith100VariablesProperties() {
     return InternalEvent.builder(eventWith100VariablesProperties).build();
@@ -109,6 +116,16 @@ public class EventBenchmark extends AbstractBenchmark {
     return InternalEvent.builder(eventWith10VariablesProperties).addVariable(KEY, VALUE).build();
   }
 
+  @Benchmark
+  public InternalEvent addEventVariableEventWith30Variables() {
+    return InternalEvent.builder(eventWith30Variables).addVariable(KEY, VALUE).build();
+  }
+
+  @Benchmark
+  public InternalEvent removeEventVariableEventWith30Variables() {
+    return InternalEvent.builder(eventWith30Variables).removeVariable("FlOwVaRiAbLeKeY1").build();
+  }
+
   @Benchmark
   public InternalEvent addEventVariableEventWith50VariablesProperties() {
     return InternalEvent.builder(eventWith50VariablesProperties).addVariable(KEY, VALUE).build();
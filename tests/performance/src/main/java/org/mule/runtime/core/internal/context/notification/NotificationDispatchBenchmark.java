@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.api.context.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE;
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.core.api.context.notification.EnrichedNotificationInfo;
+import org.mule.runtime.core.api.context.notification.ListenerSubscriptionPair;
+import org.mule.runtime.core.api.context.notification.MessageProcessorNotification;
+import org.mule.runtime.core.api.context.notification.MessageProcessorNotificationListener;
+import org.mule.runtime.core.api.context.notification.NotifierCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@OutputTimeUnit(NANOSECONDS)
+public class NotificationDispatchBenchmark extends AbstractBenchmark {
+
+  @Param({"0", "1", "10"})
+  public int listeners;
+
+  private Configuration configuration;
+  private MessageProcessorNotification notification;
+  private NotifierCallback notifier;
+
+  @Setup
+  public void setup(Blackhole blackhole) {
+    configuration = new Configuration();
+    configuration.addInterfaceToType(MessageProcessorNotificationListener.class, MessageProcessorNotification.class);
+    for (int i = 0; i < listeners; ++i) {
+      configuration.addListenerSubscriptionPair(new ListenerSubscriptionPair(new CountingListener()));
+    }
+
+    notification = new MessageProcessorNotification(new EnrichedNotificationInfo(null, null, null, null), null, null,
+                                                    MESSAGE_PROCESSOR_PRE_INVOKE);
+    notifier = (listener, nfn) -> {
+      listener.onNotification(nfn);
+      blackhole.consume(nfn);
+    };
+  }
+
+  @Benchmark
+  public boolean isNotificationEnabled() {
+    return configuration.getPolicy().isNotificationEnabled(MessageProcessorNotification.class);
+  }
+
+  @Benchmark
+  public void fireNotification() {
+    Policy policy = configuration.getPolicy();
+    if (policy.isNotificationEnabled(MessageProcessorNotification.class)) {
+      policy.dispatch(notification, notifier);
+    }
+  }
+
+  private static class CountingListener implements MessageProcessorNotificationListener<MessageProcessorNotification> {
+
+    private int notifications;
+
+    @Override
+    public void onNotification(MessageProcessorNotification notification) {
+      notifications++;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.AbstractBenchmark;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+@OutputTimeUnit(NANOSECONDS)
+public class MethodInvokerBenchmark extends AbstractBenchmark {
+
+  private Operations operations;
+  private Method method;
+  private MethodInvoker invoker;
+  private Object[] arguments;
+
+  @Setup
+  public void setup() throws Exception {
+    operations = new Operations();
+    method = Operations.class.getMethod("concat", String.class, int.class);
+    invoker = new MethodInvoker(method, operations);
+    arguments = new Object[] {VALUE, 1};
+  }
+
+  @Benchmark
+  public Object reflection() throws Exception {
+    return method.invoke(operations, arguments);
+  }
+
+  @Benchmark
+  public Object methodInvoker() {
+    return invoker.invoke(arguments);
+  }
+
+  public static class Operations {
+
+    public String concat(String value, int times) {
+      return times == 1 ? value : value + times;
+    }
+  }
+}
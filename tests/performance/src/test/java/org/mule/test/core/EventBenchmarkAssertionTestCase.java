@@ -30,6 +30,11 @@ public class EventBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionT
     runAndAssertBenchmark(EventBenchmark.class, "copyEventWith20VariablesProperties", 2, MICROSECONDS, 2300);
   }
 
+  @Test
+  public void copyEventWith30Variables() {
+    runAndAssertBenchmark(EventBenchmark.class, "copyEventWith30Variables", 1, MICROSECONDS, 1000);
+  }
+
   @Test
   public void copyEventWith100VariablesProperties() {
     runAndAssertBenchmark(EventBenchmark.class, "copyEventWith100VariablesProperties", 15, MICROSECONDS, 11000);
@@ -65,6 +70,16 @@ public class EventBenchmarkAssertionTestCase extends AbstractBenchmarkAssertionT
     runAndAssertBenchmark(EventBenchmark.class, "addEventVariableEventWith20VariablesProperties", 10, MICROSECONDS, 4700);
   }
 
+  @Test
+  public void addEventVariableEventWith30Variables() {
+    runAndAssertBenchmark(EventBenchmark.class, "addEventVariableEventWith30Variables", 1, MICROSECONDS, 1600);
+  }
+
+  @Test
+  public void removeEventVariableEventWith30Variables() {
+    runAndAssertBenchmark(EventBenchmark.class, "removeEventVariableEventWith30Variables", 1, MICROSECONDS, 1600);
+  }
+
   @Test
   public void addEventVariableEventWith50VariablesProperties() {
     runAndAssertBenchmark(EventBenchmark.class, "addEventVariableEventWith50VariablesProperties", 25, MICROSECONDS, 21200);